@@ -5,6 +5,7 @@ USE steamdb;
 -- DROP tabelle per sviluppo
 DROP TABLE IF EXISTS game_tags;
 DROP TABLE IF EXISTS user_profiles;
+DROP TABLE IF EXISTS game_stats;
 DROP TABLE IF EXISTS user_games;
 DROP TABLE IF EXISTS games;
 DROP TABLE IF EXISTS tags;
@@ -25,23 +26,34 @@ CREATE TABLE user_profiles (
   nickname VARCHAR(100) UNIQUE,
   bio TEXT,
   avatar_url VARCHAR(255),
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
 -- Tabella giochi
+-- version/updated_at: optimistic locking ed ETag/Last-Modified per le richieste condizionali
 CREATE TABLE games (
   id BINARY(16) PRIMARY KEY,
   title VARCHAR(100) NOT NULL,
   price DECIMAL(10,2) NOT NULL,
   release_date DATE NOT NULL,
   developer VARCHAR(100) NOT NULL,
-  publisher VARCHAR(100) NOT NULL
+  publisher VARCHAR(100) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
 );
 
+-- Indici per la paginazione a cursore del catalogo
+CREATE INDEX idx_games_title_id ON games (title, id);
+CREATE INDEX idx_games_release_date_id ON games (release_date, id);
+
 -- Tabella tag
 CREATE TABLE tags (
   id BIGINT PRIMARY KEY AUTO_INCREMENT,
-  name VARCHAR(50) UNIQUE NOT NULL
+  name VARCHAR(50) UNIQUE NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
 );
 
 -- Join Game ↔ Tag
@@ -59,11 +71,29 @@ CREATE TABLE user_games (
   game_uuid      BINARY(16),
   purchase_date  DATE        NOT NULL,
   playtime_hours INT         NOT NULL,
+  -- minuti dei heartbeat non ancora arrivati all'ora intera
+  playtime_minutes INT       NOT NULL DEFAULT 0,
   PRIMARY KEY (user_uuid, game_uuid),
   FOREIGN KEY (user_uuid) REFERENCES users(id) ON DELETE CASCADE,
   FOREIGN KEY (game_uuid) REFERENCES games(id) ON DELETE CASCADE
 );
 
+-- Indice coprente per le aggregazioni per gioco (possessori, tempo di gioco, acquisti recenti)
+CREATE INDEX idx_user_games_game ON user_games (game_uuid, purchase_date, playtime_hours, playtime_minutes);
+
+-- Statistiche materializzate per gioco (GameStatsStore): aggiornate in modo
+-- incrementale dalle librerie e ricalcolate periodicamente
+CREATE TABLE game_stats (
+  game_id                 BINARY(16) PRIMARY KEY,
+  owner_count             BIGINT       NOT NULL DEFAULT 0,
+  total_playtime_minutes  BIGINT       NOT NULL DEFAULT 0,
+  median_playtime_minutes BIGINT       NOT NULL DEFAULT 0,
+  purchases_7d            BIGINT       NOT NULL DEFAULT 0,
+  purchases_30d           BIGINT       NOT NULL DEFAULT 0,
+  refreshed_at            TIMESTAMP(3) NULL,
+  FOREIGN KEY (game_id) REFERENCES games(id) ON DELETE CASCADE
+);
+
 -- Dati di esempio
 INSERT INTO users (id, username, email, password, role) VALUES
   (UNHEX(REPLACE('11111111-1111-1111-1111-111111111111','-','')), 'admin', 'admin@example.com', '$2a$10$Adl2ac0iv5B9XyZXNjN8SeHWlJHoAJ3.Ot7gIlVm/4zF7nTfd3wmO', 'ROLE_ADMIN'),
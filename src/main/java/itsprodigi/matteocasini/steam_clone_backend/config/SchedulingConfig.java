@@ -0,0 +1,13 @@
+package itsprodigi.matteocasini.steam_clone_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Abilita i job periodici (@Scheduled), ad esempio la riconciliazione dei
+ * contatori in memoria con il database.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
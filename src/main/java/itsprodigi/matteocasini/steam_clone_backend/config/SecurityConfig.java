@@ -3,6 +3,7 @@ package itsprodigi.matteocasini.steam_clone_backend.config;
 import itsprodigi.matteocasini.steam_clone_backend.filter.JwtAuthFilter;
 import itsprodigi.matteocasini.steam_clone_backend.service.security.CustomUserDetailsService;
 import itsprodigi.matteocasini.steam_clone_backend.service.security.CustomAuthExceptionHandler;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -63,6 +64,10 @@ public class SecurityConfig {
                         .authenticationEntryPoint(authExceptionHandler)
                         .accessDeniedHandler(authExceptionHandler))
                 .authorizeHttpRequests(auth -> auth
+                        // Il dispatch asincrono (export in streaming, feed SSE) riguarda una
+                        // richiesta già autorizzata, ma il filtro JWT non viene rieseguito e senza
+                        // questa regola la risposta già iniziata verrebbe interrotta
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.DELETE, "/api/users/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
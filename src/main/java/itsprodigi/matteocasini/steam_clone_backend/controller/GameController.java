@@ -1,29 +1,72 @@
 package itsprodigi.matteocasini.steam_clone_backend.controller;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.CacheStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GamePageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameImportResultDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameLeaderboardDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSearchRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSearchResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.GameSortField;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
 import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import itsprodigi.matteocasini.steam_clone_backend.service.CatalogExportService;
+import itsprodigi.matteocasini.steam_clone_backend.service.CatalogSearchService;
+import itsprodigi.matteocasini.steam_clone_backend.service.CatalogSnapshotService;
+import itsprodigi.matteocasini.steam_clone_backend.service.GameImportService;
 import itsprodigi.matteocasini.steam_clone_backend.service.GameService;
+import itsprodigi.matteocasini.steam_clone_backend.service.PlaytimeLeaderboardService;
+import itsprodigi.matteocasini.steam_clone_backend.service.RecommendationService;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.SerializedDocument;
+import itsprodigi.matteocasini.steam_clone_backend.utils.HttpCaching;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameUpdateDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.RecommendedGameDTO;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/games")
 public class GameController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final GameService gameService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogSearchService catalogSearchService;
+    private final GameImportService gameImportService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final PlaytimeLeaderboardService leaderboardService;
+    private final RecommendationService recommendationService;
 
     @Autowired
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, CatalogExportService catalogExportService,
+            CatalogSearchService catalogSearchService, GameImportService gameImportService,
+            CatalogSnapshotService catalogSnapshotService, PlaytimeLeaderboardService leaderboardService,
+            RecommendationService recommendationService) {
         this.gameService = gameService;
+        this.catalogExportService = catalogExportService;
+        this.catalogSearchService = catalogSearchService;
+        this.gameImportService = gameImportService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.leaderboardService = leaderboardService;
+        this.recommendationService = recommendationService;
     }
 
     @PostMapping
@@ -37,19 +80,128 @@ public class GameController {
         }
     }
 
+    /**
+     * Importazione massiva: accetta uno stream NDJSON o un array JSON di giochi
+     * e restituisce il numero di giochi importati e gli errori per elemento.
+     */
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<GameImportResultDTO> importGames(InputStream body) throws IOException {
+        return new ResponseEntity<>(gameImportService.importGames(body), HttpStatus.OK);
+    }
+
+    /**
+     * Dettaglio di un gioco. Se presente nello snapshot viene servito già
+     * serializzato; altrimenti (snapshot non pronto o non ancora aggiornato)
+     * si legge prima solo la versione, così un 304 non richiede di caricare il gioco.
+     * Con include=stats la scheda comprende le statistiche di possesso e tempo di gioco.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<GameResponseDTO> getGameById(@PathVariable UUID id) {
+    public ResponseEntity<?> getGameById(@PathVariable UUID id,
+            @RequestParam(value = "include", required = false) String include, WebRequest request) {
+        if (include != null) {
+            // Le statistiche cambiano a ogni acquisto: niente snapshot né ETag
+            if (!"stats".equalsIgnoreCase(include.trim())) {
+                throw new InvalidQueryParameterException("Valore di include non supportato: " + include);
+            }
+            return gameService.getGameDetail(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        }
+        Optional<SerializedDocument> document = catalogSnapshotService.getGame(id);
+        if (document.isPresent()) {
+            return serveDocument(document.get(), request);
+        }
+        Optional<VersionStamp> stamp = gameService.getGameVersion(id);
+        if (stamp.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (request.checkNotModified(stamp.get().etag(), stamp.get().lastModifiedMillis())) {
+            return null;
+        }
         return gameService.getGameById(id)
-                .map(gameDto -> new ResponseEntity<>(gameDto, HttpStatus.OK))
+                .map(gameDto -> {
+                    VersionStamp current = new VersionStamp(gameDto.getVersion(), gameDto.getUpdatedAt());
+                    return HttpCaching.ok(current.etag(), current.lastModifiedMillis()).body(gameDto);
+                })
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Classifica dei giocatori del gioco per tempo di gioco (primi {@code limit}).
+     */
+    @GetMapping("/{id}/leaderboard")
+    public ResponseEntity<GameLeaderboardDTO> getLeaderboard(@PathVariable UUID id,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(leaderboardService.getTopPlayers(id, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Posizione di un utente nella classifica del gioco, con {@code radius}
+     * giocatori prima e dopo di lui.
+     */
+    @GetMapping("/{id}/leaderboard/users/{userUuid}")
+    public ResponseEntity<GameLeaderboardDTO> getLeaderboardAroundUser(@PathVariable UUID id,
+            @PathVariable UUID userUuid,
+            @RequestParam(value = "radius", required = false) Integer radius) {
+        return new ResponseEntity<>(leaderboardService.getPlayersAround(id, userUuid, radius), HttpStatus.OK);
+    }
+
+    /**
+     * Giochi posseduti più spesso da chi possiede questo gioco
+     * ("chi ha questo gioco possiede anche").
+     */
+    @GetMapping("/{id}/also-owned")
+    public ResponseEntity<List<RecommendedGameDTO>> getAlsoOwned(@PathVariable UUID id,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(recommendationService.getAlsoOwned(id, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Lista completa dei giochi, servita dallo snapshot pre-serializzato
+     * quando disponibile.
+     */
     @GetMapping
-    public ResponseEntity<List<GameResponseDTO>> getAllGames() {
+    public ResponseEntity<?> getAllGames(WebRequest request) {
+        Optional<SerializedDocument> document = catalogSnapshotService.getGameList();
+        if (document.isPresent()) {
+            return serveDocument(document.get(), request);
+        }
         List<GameResponseDTO> games = gameService.getAllGames();
         return new ResponseEntity<>(games, HttpStatus.OK);
     }
 
+    /**
+     * Catalogo paginato a cursore: il client passa il nextCursor ricevuto
+     * per ottenere la pagina successiva.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<GamePageResponseDTO> getGamesPage(
+            @RequestParam(value = "sort", defaultValue = "TITLE") GameSortField sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        GamePageResponseDTO page = gameService.getGamesPage(sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Esporta l'intero catalogo in NDJSON (un gioco per riga) in streaming,
+     * senza materializzare la lista in memoria.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog() {
+        StreamingResponseBody body = catalogExportService::exportCatalog;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        return new ResponseEntity<>(gameService.getCacheStats(), HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<GameResponseDTO> updateGame(
@@ -76,15 +228,52 @@ public class GameController {
         }
     }
 
+    /**
+     * Ricerca combinata: tag (AND/OR), sviluppatore, editore, intervalli di
+     * prezzo e data di rilascio, con conteggi per faccetta.
+     * Esempio: /api/games/search?tags=Action,RPG&tagMode=ANY&maxPrice=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<GameSearchResponseDTO> searchGames(@ModelAttribute GameSearchRequestDTO request) {
+        return new ResponseEntity<>(catalogSearchService.search(request), HttpStatus.OK);
+    }
+
     @GetMapping("/search/title")
     public ResponseEntity<List<GameResponseDTO>> findGamesByTitle(@RequestParam("query") String query) {
         List<GameResponseDTO> games = gameService.findGamesByTitle(query);
         return new ResponseEntity<>(games, HttpStatus.OK);
     }
 
+    /**
+     * Autocompletamento del titolo: restituisce solo ID e titolo dei primi
+     * giochi che corrispondono al prefisso digitato.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<GameSuggestionDTO>> suggestTitles(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(gameService.suggestTitles(prefix, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Giochi associati a un tag, letti dall'indice a bitmap.
+     */
     @GetMapping("/search/tag")
     public ResponseEntity<List<GameResponseDTO>> findGamesByTagName(@RequestParam("name") String name) {
-        List<GameResponseDTO> games = gameService.findGamesByTagName(name);
+        List<GameResponseDTO> games = catalogSearchService.findByTagName(name);
+        return new ResponseEntity<>(games, HttpStatus.OK);
+    }
+
+    /**
+     * Ricerca con un'espressione booleana sui tag (AND/OR/NOT e parentesi,
+     * es. {@code action AND (rpg OR indie) AND NOT horror}), paginata come /search.
+     */
+    @GetMapping("/search/tags")
+    public ResponseEntity<GameSearchResponseDTO> findGamesByTagExpression(
+            @RequestParam("expr") String expr,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        GameSearchResponseDTO games = catalogSearchService.findByTagExpression(expr, page, size);
         return new ResponseEntity<>(games, HttpStatus.OK);
     }
 
@@ -99,4 +288,25 @@ public class GameController {
         List<GameResponseDTO> games = gameService.findGamesByPublisher(query);
         return new ResponseEntity<>(games, HttpStatus.OK);
     }
+
+    /**
+     * Scrive un documento pre-serializzato con il suo ETag, usando la versione
+     * gzip se il client la accetta. Risponde 304 se il client ha già la versione corrente.
+     */
+    private ResponseEntity<byte[]> serveDocument(SerializedDocument document, WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = document.hasGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? document.getGzipEtag() : document.getEtag();
+        if (request.checkNotModified(etag, document.getLastModified())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = HttpCaching.ok(etag, document.getLastModified())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(document.getGzip());
+        }
+        return response.body(document.getJson());
+    }
 }
@@ -1,15 +1,24 @@
 package itsprodigi.matteocasini.steam_clone_backend.controller;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.RelatedTagDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPopularityDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagPopularitySort;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagSortField;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
 import itsprodigi.matteocasini.steam_clone_backend.service.TagService;
+import itsprodigi.matteocasini.steam_clone_backend.utils.HttpCaching;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tags")
@@ -22,16 +31,62 @@ public class TagController {
         this.tagService = tagService;
     }
 
+    /**
+     * Lista dei tag con ETag: se il client ha già la versione corrente
+     * risponde 304 dopo una sola query su ID e versioni. Solo ETag, senza
+     * Last-Modified: le cancellazioni non hanno una data da confrontare.
+     */
     @GetMapping
-    public ResponseEntity<List<TagDTO>> getAllTags() {
+    public ResponseEntity<List<TagDTO>> getAllTags(WebRequest request) {
+        VersionStamp stamp = tagService.getTagsVersion();
+        if (request.checkNotModified(stamp.etag())) {
+            return null;
+        }
         List<TagDTO> tags = tagService.getAllTags();
-        return new ResponseEntity<>(tags, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(stamp.etag()).body(tags);
+    }
+
+    /**
+     * Elenco paginato dei tag con il numero di giochi, ordinato per nome o per numero di giochi.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<TagPageResponseDTO> getTagsPage(
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", defaultValue = "NAME") TagSortField sort) {
+        return new ResponseEntity<>(tagService.getTagsPage(page, size, sort), HttpStatus.OK);
+    }
+
+    /**
+     * Tag più usati con numero di giochi e di possessori, serviti dalla memoria.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<TagPopularityDTO>> getTopTags(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "sort", defaultValue = "GAMES") TagPopularitySort sort) {
+        return new ResponseEntity<>(tagService.getTopTags(limit, sort), HttpStatus.OK);
+    }
+
+    /**
+     * Tag che compaiono più spesso insieme al tag indicato (co-occorrenza sui giochi).
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedTagDTO>> getRelatedTags(@PathVariable Long id,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(tagService.getRelatedTags(id, limit), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TagDTO> getTagById(@PathVariable Long id) {
+    public ResponseEntity<TagDTO> getTagById(@PathVariable Long id, WebRequest request) {
+        Optional<VersionStamp> stamp = tagService.getTagVersion(id);
+        if (stamp.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (request.checkNotModified(stamp.get().etag(), stamp.get().lastModifiedMillis())) {
+            return null;
+        }
         return tagService.getTagById(id)
-                .map(tagDto -> new ResponseEntity<>(tagDto, HttpStatus.OK))
+                .map(tagDto -> HttpCaching.ok(stamp.get().etag(), stamp.get().lastModifiedMillis()).body(tagDto))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -53,6 +108,15 @@ public class TagController {
         }
     }
 
+    /**
+     * Unisce il tag {id} nel tag indicato da {@code into} ed elimina il primo.
+     */
+    @PostMapping("/{id}/merge")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TagDTO> mergeTag(@PathVariable Long id, @RequestParam("into") Long targetId) {
+        return new ResponseEntity<>(tagService.mergeTags(id, targetId), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<Void> deleteTag(@PathVariable Long id) {
@@ -1,5 +1,13 @@
 package itsprodigi.matteocasini.steam_clone_backend.controller;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.BundlePurchaseRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.BundlePurchaseResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.OwnedGamesResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.RecommendedGameDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.LibrarySortField;
+import itsprodigi.matteocasini.steam_clone_backend.service.RecommendationService;
 import itsprodigi.matteocasini.steam_clone_backend.service.UserGameService;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserGameRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserGameResponseDTO;
@@ -8,9 +16,12 @@ import itsprodigi.matteocasini.steam_clone_backend.dto.UserLibraryResponseDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -21,10 +32,12 @@ import java.util.UUID;
 public class UserGameController {
 
     private final UserGameService userGameService;
+    private final RecommendationService recommendationService;
 
     @Autowired
-    public UserGameController(UserGameService userGameService) {
+    public UserGameController(UserGameService userGameService, RecommendationService recommendationService) {
         this.userGameService = userGameService;
+        this.recommendationService = recommendationService;
     }
 
     /**
@@ -36,6 +49,21 @@ public class UserGameController {
         return new ResponseEntity<>(newUserGame, HttpStatus.CREATED);
     }
 
+    /**
+     * Aggiunge più giochi alla libreria di un utente (acquisto di un bundle).
+     * Risponde 201 se almeno un gioco è stato aggiunto, 409 se un bundle
+     * ALL_OR_NOTHING è stato rifiutato, 200 altrimenti; il corpo riporta
+     * l'esito di ogni gioco.
+     */
+    @PostMapping("/users/{userUuid}/library/bundle")
+    public ResponseEntity<BundlePurchaseResponseDTO> purchaseBundle(@PathVariable UUID userUuid,
+            @Valid @RequestBody BundlePurchaseRequestDTO bundlePurchaseRequestDTO) {
+        BundlePurchaseResponseDTO result = userGameService.purchaseBundle(userUuid, bundlePurchaseRequestDTO);
+        HttpStatus status = !result.isCompleted() ? HttpStatus.CONFLICT
+                : result.getAddedCount() > 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return new ResponseEntity<>(result, status);
+    }
+
     /**
      * Recupera la libreria completa di un utente.
      */
@@ -45,6 +73,59 @@ public class UserGameController {
         return new ResponseEntity<>(userLibrary, HttpStatus.OK);
     }
 
+    /**
+     * Recupera una pagina della libreria di un utente, ordinata per data di
+     * acquisto (predefinito), ore di gioco o titolo.
+     */
+    @GetMapping("/users/{userUuid}/library/page")
+    public ResponseEntity<LibraryPageResponseDTO> getUserLibraryPage(
+            @PathVariable UUID userUuid,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", defaultValue = "PURCHASE_DATE") LibrarySortField sort) {
+        return new ResponseEntity<>(userGameService.getUserLibraryPage(userUuid, page, size, sort), HttpStatus.OK);
+    }
+
+    /**
+     * Totali della libreria di un utente (giochi, tempo di gioco, valore) per la pagina del profilo.
+     */
+    @GetMapping("/users/{userUuid}/library/stats")
+    public ResponseEntity<LibraryStatsDTO> getLibraryStats(@PathVariable UUID userUuid) {
+        return new ResponseEntity<>(userGameService.getLibraryStats(userUuid), HttpStatus.OK);
+    }
+
+    /**
+     * Indica quali dei giochi indicati (ids=uuid1,uuid2,...) sono nella
+     * libreria dell'utente, ad esempio per i badge "posseduto" del negozio.
+     */
+    @GetMapping("/users/{userUuid}/library/owned")
+    public ResponseEntity<OwnedGamesResponseDTO> getOwnedGames(@PathVariable UUID userUuid,
+            @RequestParam("ids") List<UUID> gameUuids) {
+        return new ResponseEntity<>(userGameService.getOwnedGames(userUuid, gameUuids), HttpStatus.OK);
+    }
+
+    /**
+     * Feed Server-Sent Events delle modifiche alla libreria, al posto del
+     * polling di GET /users/{userUuid}/library. Il client che si ricollega
+     * invia l'header Last-Event-ID per ricevere gli eventi persi; un evento
+     * "reset" indica che deve ricaricare la libreria.
+     */
+    @GetMapping(value = "/users/{userUuid}/library/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLibraryEvents(@PathVariable UUID userUuid,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return userGameService.subscribeToLibraryEvents(userUuid, lastEventId);
+    }
+
+    /**
+     * Giochi consigliati all'utente in base a cosa possiedono i giocatori con
+     * giochi in comune, esclusi quelli già in libreria.
+     */
+    @GetMapping("/users/{userUuid}/recommendations")
+    public ResponseEntity<List<RecommendedGameDTO>> getRecommendations(@PathVariable UUID userUuid,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return new ResponseEntity<>(recommendationService.getRecommendationsForUser(userUuid, limit), HttpStatus.OK);
+    }
+
     /**
      * Rimuove un gioco dalla libreria di un utente.
      */
@@ -53,4 +134,15 @@ public class UserGameController {
         userGameService.removeGameFromUserLibrary(userUuid, gameUuid);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Heartbeat di gioco inviato dal client (di norma ogni minuto).
+     * Risponde 202: il tempo di gioco viene aggiornato al flush successivo.
+     */
+    @PostMapping("/users/{userUuid}/library/{gameUuid}/heartbeat")
+    public ResponseEntity<Void> recordPlaytimeHeartbeat(@PathVariable UUID userUuid, @PathVariable UUID gameUuid,
+            @RequestParam(value = "minutes", required = false) Integer minutes) {
+        userGameService.recordPlaytimeHeartbeat(userUuid, gameUuid, minutes);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
 }
\ No newline at end of file
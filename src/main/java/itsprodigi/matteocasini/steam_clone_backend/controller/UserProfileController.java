@@ -3,6 +3,9 @@ package itsprodigi.matteocasini.steam_clone_backend.controller;
 import itsprodigi.matteocasini.steam_clone_backend.service.UserProfileService;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserProfileRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserProfileResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.UserProfileNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import itsprodigi.matteocasini.steam_clone_backend.utils.HttpCaching;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
@@ -14,6 +17,7 @@ import itsprodigi.matteocasini.steam_clone_backend.enums.Role;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -32,10 +36,19 @@ public class UserProfileController {
         this.userProfileService = userProfileService;
     }
 
+    /**
+     * Profilo con ETag: il 304 richiede solo la lettura della versione.
+     */
     @GetMapping
-    public ResponseEntity<UserProfileResponseDTO> getUserProfile(@PathVariable UUID userId) {
+    public ResponseEntity<UserProfileResponseDTO> getUserProfile(@PathVariable UUID userId, WebRequest request) {
+        VersionStamp stamp = userProfileService.getUserProfileVersion(userId)
+                .orElseThrow(() -> new UserProfileNotFoundException(userId));
+        if (request.checkNotModified(stamp.etag(), stamp.lastModifiedMillis())) {
+            return null;
+        }
         UserProfileResponseDTO profile = userProfileService.getUserProfileById(userId);
-        return ResponseEntity.ok(profile);
+        VersionStamp current = new VersionStamp(profile.getVersion(), profile.getUpdatedAt());
+        return HttpCaching.ok(current.etag(), current.lastModifiedMillis()).body(profile);
     }
 
     @PutMapping
@@ -0,0 +1,46 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundleItemStatus;
+
+import java.util.UUID;
+
+/**
+ * Esito dell'acquisto di un singolo gioco di un bundle.
+ */
+public class BundleItemResultDTO {
+
+    private UUID gameId;
+    private BundleItemStatus status;
+
+    public BundleItemResultDTO() {
+    }
+
+    public BundleItemResultDTO(UUID gameId, BundleItemStatus status) {
+        this.gameId = gameId;
+        this.status = status;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public BundleItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BundleItemStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "BundleItemResultDTO{" +
+                "gameId=" + gameId +
+                ", status=" + status +
+                '}';
+    }
+}
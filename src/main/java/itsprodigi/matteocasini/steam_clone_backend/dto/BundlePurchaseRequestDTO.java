@@ -0,0 +1,71 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundlePurchaseMode;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Richiesta di aggiunta di più giochi alla libreria in un'unica operazione
+ * (acquisto di un bundle).
+ */
+public class BundlePurchaseRequestDTO {
+
+    @NotEmpty(message = "Il bundle deve contenere almeno un gioco")
+    private List<@NotNull(message = "L'UUID del gioco non può essere nullo") UUID> gameUuids = new ArrayList<>();
+
+    @PastOrPresent(message = "La data di acquisto non può essere nel futuro")
+    private LocalDate purchaseDate;
+
+    private BundlePurchaseMode mode = BundlePurchaseMode.ALL_OR_NOTHING;
+
+    public BundlePurchaseRequestDTO() {
+    }
+
+    public BundlePurchaseRequestDTO(List<UUID> gameUuids, LocalDate purchaseDate, BundlePurchaseMode mode) {
+        this.gameUuids = gameUuids;
+        this.purchaseDate = purchaseDate;
+        this.mode = mode;
+    }
+
+    public List<UUID> getGameUuids() {
+        return gameUuids;
+    }
+
+    public void setGameUuids(List<UUID> gameUuids) {
+        this.gameUuids = gameUuids;
+    }
+
+    /**
+     * Data di acquisto; se assente si usa la data odierna.
+     */
+    public LocalDate getPurchaseDate() {
+        return purchaseDate;
+    }
+
+    public void setPurchaseDate(LocalDate purchaseDate) {
+        this.purchaseDate = purchaseDate;
+    }
+
+    public BundlePurchaseMode getMode() {
+        return mode;
+    }
+
+    public void setMode(BundlePurchaseMode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public String toString() {
+        return "BundlePurchaseRequestDTO{" +
+                "gameUuids=" + gameUuids +
+                ", purchaseDate=" + purchaseDate +
+                ", mode=" + mode +
+                '}';
+    }
+}
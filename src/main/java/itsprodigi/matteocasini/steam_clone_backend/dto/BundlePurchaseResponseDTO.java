@@ -0,0 +1,84 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundlePurchaseMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Risultato dell'acquisto di un bundle: esito per ogni gioco richiesto
+ * (nell'ordine della richiesta) e numero di giochi aggiunti.
+ * {@code completed} è false quando un bundle ALL_OR_NOTHING è stato rifiutato.
+ */
+public class BundlePurchaseResponseDTO {
+
+    private UUID userId;
+    private BundlePurchaseMode mode;
+    private boolean completed;
+    private int addedCount;
+    private List<BundleItemResultDTO> items = new ArrayList<>();
+
+    public BundlePurchaseResponseDTO() {
+    }
+
+    public BundlePurchaseResponseDTO(UUID userId, BundlePurchaseMode mode, boolean completed, int addedCount,
+            List<BundleItemResultDTO> items) {
+        this.userId = userId;
+        this.mode = mode;
+        this.completed = completed;
+        this.addedCount = addedCount;
+        this.items = items;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public BundlePurchaseMode getMode() {
+        return mode;
+    }
+
+    public void setMode(BundlePurchaseMode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public int getAddedCount() {
+        return addedCount;
+    }
+
+    public void setAddedCount(int addedCount) {
+        this.addedCount = addedCount;
+    }
+
+    public List<BundleItemResultDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BundleItemResultDTO> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "BundlePurchaseResponseDTO{" +
+                "userId=" + userId +
+                ", mode=" + mode +
+                ", completed=" + completed +
+                ", addedCount=" + addedCount +
+                ", items=" + items +
+                '}';
+    }
+}
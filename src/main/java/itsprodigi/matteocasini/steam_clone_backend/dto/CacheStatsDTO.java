@@ -0,0 +1,98 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Statistiche di una cache in memoria, utili per dimensionarla.
+ */
+public class CacheStatsDTO {
+
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private double hitRate;
+
+    public CacheStatsDTO() {
+    }
+
+    public CacheStatsDTO(int size, int maxSize, long hits, long misses, long evictions, long expirations) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        long requests = hits + misses;
+        this.hitRate = requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public void setExpirations(long expirations) {
+        this.expirations = expirations;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatsDTO{" +
+                "size=" + size +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                ", hitRate=" + hitRate +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Conteggio di un valore di faccetta (tag, sviluppatore o fascia di prezzo)
+ * all'interno dei risultati di una ricerca.
+ */
+public class FacetCountDTO {
+
+    private String key;
+    private String label;
+    private long count;
+
+    public FacetCountDTO() {
+    }
+
+    public FacetCountDTO(String key, String label, long count) {
+        this.key = key;
+        this.label = label;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "FacetCountDTO{" +
+                "key='" + key + '\'' +
+                ", label='" + label + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Scheda di un gioco con le statistiche di possesso e tempo di gioco
+ * (GET /api/games/{id}?include=stats).
+ * Estende GameResponseDTO così che i client leggano gli stessi campi della
+ * scheda semplice, con in più il blocco {@code stats}.
+ */
+public class GameDetailResponseDTO extends GameResponseDTO {
+
+    private GameStatsDTO stats;
+
+    public GameDetailResponseDTO() {
+    }
+
+    public GameDetailResponseDTO(GameResponseDTO game, GameStatsDTO stats) {
+        super(game.getId(), game.getTitle(), game.getPrice(), game.getReleaseDate(), game.getDeveloper(),
+                game.getPublisher(), game.getTags());
+        setVersion(game.getVersion());
+        setUpdatedAt(game.getUpdatedAt());
+        this.stats = stats;
+    }
+
+    public GameStatsDTO getStats() {
+        return stats;
+    }
+
+    public void setStats(GameStatsDTO stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public String toString() {
+        return "GameDetailResponseDTO{" +
+                "game=" + super.toString() +
+                ", stats=" + stats +
+                '}';
+    }
+}
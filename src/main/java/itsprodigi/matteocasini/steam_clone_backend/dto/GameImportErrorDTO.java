@@ -0,0 +1,53 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Errore relativo a un singolo elemento di un'importazione massiva.
+ */
+public class GameImportErrorDTO {
+
+    private long index;
+    private String title;
+    private String message;
+
+    public GameImportErrorDTO() {
+    }
+
+    public GameImportErrorDTO(long index, String title, String message) {
+        this.index = index;
+        this.title = title;
+        this.message = message;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "GameImportErrorDTO{" +
+                "index=" + index +
+                ", title='" + title + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
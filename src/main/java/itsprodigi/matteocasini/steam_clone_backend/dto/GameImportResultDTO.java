@@ -0,0 +1,50 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Esito di un'importazione massiva: elementi ricevuti, importati e falliti.
+ */
+public class GameImportResultDTO {
+
+    private long received;
+    private long imported;
+    private List<GameImportErrorDTO> failures = new ArrayList<>();
+
+    public GameImportResultDTO() {
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public List<GameImportErrorDTO> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<GameImportErrorDTO> failures) {
+        this.failures = failures;
+    }
+
+    @Override
+    public String toString() {
+        return "GameImportResultDTO{" +
+                "received=" + received +
+                ", imported=" + imported +
+                ", failures=" + failures +
+                '}';
+    }
+}
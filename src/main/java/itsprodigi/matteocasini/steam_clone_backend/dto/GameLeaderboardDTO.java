@@ -0,0 +1,58 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Porzione della classifica di un gioco per tempo di gioco: i primi
+ * giocatori oppure quelli attorno a un utente.
+ */
+public class GameLeaderboardDTO {
+
+    private UUID gameId;
+    private int totalPlayers;
+    private List<LeaderboardEntryDTO> entries = new ArrayList<>();
+
+    public GameLeaderboardDTO() {
+    }
+
+    public GameLeaderboardDTO(UUID gameId, int totalPlayers, List<LeaderboardEntryDTO> entries) {
+        this.gameId = gameId;
+        this.totalPlayers = totalPlayers;
+        this.entries = entries;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public int getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    public void setTotalPlayers(int totalPlayers) {
+        this.totalPlayers = totalPlayers;
+    }
+
+    public List<LeaderboardEntryDTO> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<LeaderboardEntryDTO> entries) {
+        this.entries = entries;
+    }
+
+    @Override
+    public String toString() {
+        return "GameLeaderboardDTO{" +
+                "gameId=" + gameId +
+                ", totalPlayers=" + totalPlayers +
+                ", entries=" + entries.size() +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.List;
+
+/**
+ * Pagina del catalogo ottenuta con paginazione a cursore (keyset).
+ * Il campo nextCursor è opaco per il client e va passato così com'è
+ * alla richiesta successiva; è null quando non ci sono altre pagine.
+ */
+public class GamePageResponseDTO {
+
+    private List<GameResponseDTO> items;
+    private String nextCursor;
+    private int size;
+
+    public GamePageResponseDTO() {
+    }
+
+    public GamePageResponseDTO(List<GameResponseDTO> items, String nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<GameResponseDTO> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setItems(List<GameResponseDTO> items) {
+        this.items = items;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return "GamePageResponseDTO{" +
+                "items=" + items +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -2,6 +2,7 @@ package itsprodigi.matteocasini.steam_clone_backend.dto;
 
 import itsprodigi.matteocasini.steam_clone_backend.model.Game;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +23,10 @@ public class GameResponseDTO {
      */
     private List<TagDTO> tags;
 
+    // Versione e data di ultima modifica, usate anche per ETag e Last-Modified
+    private Long version;
+    private Instant updatedAt;
+
     // Costruttori
     public GameResponseDTO() {
     }
@@ -39,6 +44,8 @@ public class GameResponseDTO {
         this.releaseDate = game.getReleaseDate();
         this.developer = game.getDeveloper();
         this.publisher = game.getPublisher();
+        this.version = game.getVersion();
+        this.updatedAt = game.getUpdatedAt();
 
         // Conversione della lista di Tag (entità) in lista di TagDTO
         if (game.getTags() != null) {
@@ -103,6 +110,14 @@ public class GameResponseDTO {
         return tags;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     // Setter
 
     public void setId(UUID id) {
@@ -133,6 +148,14 @@ public class GameResponseDTO {
         this.tags = tags;
     }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "GameResponseDTO{" +
@@ -143,6 +166,8 @@ public class GameResponseDTO {
                 ", developer='" + developer + '\'' +
                 ", publisher='" + publisher + '\'' +
                 ", tags=" + tags +
+                ", version=" + version +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagMatchMode;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Criteri della ricerca combinata del catalogo (GET /api/games/search).
+ * Tutti i criteri sono opzionali e vengono combinati in AND.
+ */
+public class GameSearchRequestDTO {
+
+    private List<String> tags;
+    private TagMatchMode tagMode = TagMatchMode.ALL;
+    private String developer;
+    private String publisher;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate releasedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate releasedTo;
+
+    private Integer page;
+    private Integer size;
+
+    public GameSearchRequestDTO() {
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public TagMatchMode getTagMode() {
+        return tagMode;
+    }
+
+    public void setTagMode(TagMatchMode tagMode) {
+        this.tagMode = tagMode;
+    }
+
+    public String getDeveloper() {
+        return developer;
+    }
+
+    public void setDeveloper(String developer) {
+        this.developer = developer;
+    }
+
+    public String getPublisher() {
+        return publisher;
+    }
+
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public LocalDate getReleasedFrom() {
+        return releasedFrom;
+    }
+
+    public void setReleasedFrom(LocalDate releasedFrom) {
+        this.releasedFrom = releasedFrom;
+    }
+
+    public LocalDate getReleasedTo() {
+        return releasedTo;
+    }
+
+    public void setReleasedTo(LocalDate releasedTo) {
+        this.releasedTo = releasedTo;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSearchRequestDTO{" +
+                "tags=" + tags +
+                ", tagMode=" + tagMode +
+                ", developer='" + developer + '\'' +
+                ", publisher='" + publisher + '\'' +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", releasedFrom=" + releasedFrom +
+                ", releasedTo=" + releasedTo +
+                ", page=" + page +
+                ", size=" + size +
+                '}';
+    }
+}
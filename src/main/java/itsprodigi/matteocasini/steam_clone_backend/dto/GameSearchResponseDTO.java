@@ -0,0 +1,101 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.List;
+
+/**
+ * Risultato della ricerca combinata: una pagina di giochi, il totale dei
+ * risultati e i conteggi per faccetta calcolati sull'intero risultato.
+ */
+public class GameSearchResponseDTO {
+
+    private List<GameResponseDTO> items;
+    private long total;
+    private int page;
+    private int size;
+    private List<FacetCountDTO> tagFacets;
+    private List<FacetCountDTO> developerFacets;
+    private List<FacetCountDTO> priceFacets;
+
+    public GameSearchResponseDTO() {
+    }
+
+    public GameSearchResponseDTO(List<GameResponseDTO> items, long total, int page, int size,
+            List<FacetCountDTO> tagFacets, List<FacetCountDTO> developerFacets, List<FacetCountDTO> priceFacets) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.tagFacets = tagFacets;
+        this.developerFacets = developerFacets;
+        this.priceFacets = priceFacets;
+    }
+
+    public List<GameResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<GameResponseDTO> items) {
+        this.items = items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<FacetCountDTO> getTagFacets() {
+        return tagFacets;
+    }
+
+    public void setTagFacets(List<FacetCountDTO> tagFacets) {
+        this.tagFacets = tagFacets;
+    }
+
+    public List<FacetCountDTO> getDeveloperFacets() {
+        return developerFacets;
+    }
+
+    public void setDeveloperFacets(List<FacetCountDTO> developerFacets) {
+        this.developerFacets = developerFacets;
+    }
+
+    public List<FacetCountDTO> getPriceFacets() {
+        return priceFacets;
+    }
+
+    public void setPriceFacets(List<FacetCountDTO> priceFacets) {
+        this.priceFacets = priceFacets;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSearchResponseDTO{" +
+                "items=" + items +
+                ", total=" + total +
+                ", page=" + page +
+                ", size=" + size +
+                ", tagFacets=" + tagFacets +
+                ", developerFacets=" + developerFacets +
+                ", priceFacets=" + priceFacets +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Statistiche di possesso e tempo di gioco di un gioco, mostrate nella
+ * scheda del negozio. Mediana e acquisti recenti sono aggiornati al
+ * ricalcolo periodico indicato da {@code refreshedAt}.
+ */
+public class GameStatsDTO {
+
+    private long ownerCount;
+    private long totalPlaytimeMinutes;
+    private long medianPlaytimeMinutes;
+    private long purchasesLast7Days;
+    private long purchasesLast30Days;
+    private Instant refreshedAt;
+
+    public GameStatsDTO() {
+    }
+
+    public GameStatsDTO(long ownerCount, long totalPlaytimeMinutes, long medianPlaytimeMinutes,
+            long purchasesLast7Days, long purchasesLast30Days, Instant refreshedAt) {
+        this.ownerCount = ownerCount;
+        this.totalPlaytimeMinutes = totalPlaytimeMinutes;
+        this.medianPlaytimeMinutes = medianPlaytimeMinutes;
+        this.purchasesLast7Days = purchasesLast7Days;
+        this.purchasesLast30Days = purchasesLast30Days;
+        this.refreshedAt = refreshedAt;
+    }
+
+    public long getOwnerCount() {
+        return ownerCount;
+    }
+
+    public void setOwnerCount(long ownerCount) {
+        this.ownerCount = ownerCount;
+    }
+
+    public long getTotalPlaytimeMinutes() {
+        return totalPlaytimeMinutes;
+    }
+
+    public void setTotalPlaytimeMinutes(long totalPlaytimeMinutes) {
+        this.totalPlaytimeMinutes = totalPlaytimeMinutes;
+    }
+
+    public long getMedianPlaytimeMinutes() {
+        return medianPlaytimeMinutes;
+    }
+
+    public void setMedianPlaytimeMinutes(long medianPlaytimeMinutes) {
+        this.medianPlaytimeMinutes = medianPlaytimeMinutes;
+    }
+
+    public long getPurchasesLast7Days() {
+        return purchasesLast7Days;
+    }
+
+    public void setPurchasesLast7Days(long purchasesLast7Days) {
+        this.purchasesLast7Days = purchasesLast7Days;
+    }
+
+    public long getPurchasesLast30Days() {
+        return purchasesLast30Days;
+    }
+
+    public void setPurchasesLast30Days(long purchasesLast30Days) {
+        this.purchasesLast30Days = purchasesLast30Days;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(Instant refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "GameStatsDTO{" +
+                "ownerCount=" + ownerCount +
+                ", totalPlaytimeMinutes=" + totalPlaytimeMinutes +
+                ", medianPlaytimeMinutes=" + medianPlaytimeMinutes +
+                ", purchasesLast7Days=" + purchasesLast7Days +
+                ", purchasesLast30Days=" + purchasesLast30Days +
+                ", refreshedAt=" + refreshedAt +
+                '}';
+    }
+}
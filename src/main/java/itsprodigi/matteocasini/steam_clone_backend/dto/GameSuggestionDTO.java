@@ -0,0 +1,44 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.UUID;
+
+/**
+ * Suggerimento dell'autocompletamento: solo ID e titolo del gioco.
+ */
+public class GameSuggestionDTO {
+
+    private UUID id;
+    private String title;
+
+    public GameSuggestionDTO() {
+    }
+
+    public GameSuggestionDTO(UUID id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSuggestionDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                '}';
+    }
+}
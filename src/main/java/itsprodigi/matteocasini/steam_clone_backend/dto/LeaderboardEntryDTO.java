@@ -0,0 +1,77 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.UUID;
+
+/**
+ * Voce della classifica di un gioco per tempo di gioco.
+ * A pari tempo di gioco corrisponde lo stesso piazzamento.
+ */
+public class LeaderboardEntryDTO {
+
+    private int rank;
+    private UUID userId;
+    private String username;
+    private long playtimeMinutes;
+    private long playtimeHours;
+
+    public LeaderboardEntryDTO() {
+    }
+
+    public LeaderboardEntryDTO(int rank, UUID userId, String username, long playtimeMinutes) {
+        this.rank = rank;
+        this.userId = userId;
+        this.username = username;
+        this.playtimeMinutes = playtimeMinutes;
+        this.playtimeHours = playtimeMinutes / 60;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getPlaytimeMinutes() {
+        return playtimeMinutes;
+    }
+
+    public void setPlaytimeMinutes(long playtimeMinutes) {
+        this.playtimeMinutes = playtimeMinutes;
+    }
+
+    public long getPlaytimeHours() {
+        return playtimeHours;
+    }
+
+    public void setPlaytimeHours(long playtimeHours) {
+        this.playtimeHours = playtimeHours;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaderboardEntryDTO{" +
+                "rank=" + rank +
+                ", userId=" + userId +
+                ", username='" + username + '\'' +
+                ", playtimeMinutes=" + playtimeMinutes +
+                '}';
+    }
+}
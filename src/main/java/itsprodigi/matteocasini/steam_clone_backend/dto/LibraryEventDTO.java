@@ -0,0 +1,71 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Modifica della libreria inviata ai client collegati al feed SSE.
+ * Per ADDED playtimeMinutes è il tempo di gioco iniziale, per REMOVED quello
+ * della riga rimossa, per PLAYTIME_CHANGED la variazione.
+ */
+public class LibraryEventDTO {
+
+    private LibraryChangedEvent.Type type;
+    private UUID gameId;
+    private long playtimeMinutes;
+    private Instant occurredAt;
+
+    public LibraryEventDTO() {
+    }
+
+    public LibraryEventDTO(LibraryChangedEvent.Type type, UUID gameId, long playtimeMinutes, Instant occurredAt) {
+        this.type = type;
+        this.gameId = gameId;
+        this.playtimeMinutes = playtimeMinutes;
+        this.occurredAt = occurredAt;
+    }
+
+    public LibraryChangedEvent.Type getType() {
+        return type;
+    }
+
+    public void setType(LibraryChangedEvent.Type type) {
+        this.type = type;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public long getPlaytimeMinutes() {
+        return playtimeMinutes;
+    }
+
+    public void setPlaytimeMinutes(long playtimeMinutes) {
+        this.playtimeMinutes = playtimeMinutes;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryEventDTO{" +
+                "type=" + type +
+                ", gameId=" + gameId +
+                ", playtimeMinutes=" + playtimeMinutes +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.List;
+
+/**
+ * Pagina della libreria di un utente (paginazione per numero di pagina).
+ */
+public class LibraryPageResponseDTO {
+
+    private List<LibraryGameItemDTO> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public LibraryPageResponseDTO() {
+    }
+
+    public LibraryPageResponseDTO(List<LibraryGameItemDTO> items, int page, int size, long totalElements,
+            int totalPages) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    public List<LibraryGameItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<LibraryGameItemDTO> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryPageResponseDTO{" +
+                "items=" + items +
+                ", page=" + page +
+                ", size=" + size +
+                ", totalElements=" + totalElements +
+                ", totalPages=" + totalPages +
+                '}';
+    }
+}
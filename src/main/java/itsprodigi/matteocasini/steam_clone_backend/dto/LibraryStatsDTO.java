@@ -0,0 +1,79 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Statistiche della libreria di un utente per la pagina del profilo.
+ * Il valore della libreria è la somma dei prezzi correnti dei giochi posseduti.
+ */
+public class LibraryStatsDTO {
+
+    private UUID userId;
+    private long totalGames;
+    private long totalPlaytimeMinutes;
+    private long totalPlaytimeHours;
+    private BigDecimal totalValue;
+
+    public LibraryStatsDTO() {
+    }
+
+    public LibraryStatsDTO(UUID userId, long totalGames, long totalPlaytimeMinutes, BigDecimal totalValue) {
+        this.userId = userId;
+        this.totalGames = totalGames;
+        this.totalPlaytimeMinutes = totalPlaytimeMinutes;
+        this.totalPlaytimeHours = totalPlaytimeMinutes / 60;
+        this.totalValue = totalValue;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public long getTotalGames() {
+        return totalGames;
+    }
+
+    public void setTotalGames(long totalGames) {
+        this.totalGames = totalGames;
+    }
+
+    public long getTotalPlaytimeMinutes() {
+        return totalPlaytimeMinutes;
+    }
+
+    public void setTotalPlaytimeMinutes(long totalPlaytimeMinutes) {
+        this.totalPlaytimeMinutes = totalPlaytimeMinutes;
+    }
+
+    public long getTotalPlaytimeHours() {
+        return totalPlaytimeHours;
+    }
+
+    public void setTotalPlaytimeHours(long totalPlaytimeHours) {
+        this.totalPlaytimeHours = totalPlaytimeHours;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryStatsDTO{" +
+                "userId=" + userId +
+                ", totalGames=" + totalGames +
+                ", totalPlaytimeMinutes=" + totalPlaytimeMinutes +
+                ", totalPlaytimeHours=" + totalPlaytimeHours +
+                ", totalValue=" + totalValue +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Esito del controllo di possesso per un gruppo di giochi: per ogni ID
+ * richiesto indica se il gioco è nella libreria dell'utente.
+ */
+public class OwnedGamesResponseDTO {
+
+    private UUID userId;
+    private Map<UUID, Boolean> owned = new LinkedHashMap<>();
+
+    public OwnedGamesResponseDTO() {
+    }
+
+    public OwnedGamesResponseDTO(UUID userId, Map<UUID, Boolean> owned) {
+        this.userId = userId;
+        this.owned = owned;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public Map<UUID, Boolean> getOwned() {
+        return owned;
+    }
+
+    public void setOwned(Map<UUID, Boolean> owned) {
+        this.owned = owned;
+    }
+
+    @Override
+    public String toString() {
+        return "OwnedGamesResponseDTO{" +
+                "userId=" + userId +
+                ", owned=" + owned +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.UUID;
+
+/**
+ * Gioco consigliato in base alle librerie degli altri giocatori.
+ * Per "chi ha questo gioco possiede anche" coOwners è il numero di utenti che
+ * hanno entrambi i giochi; per i consigli personali è la somma sui giochi
+ * dell'utente. Lo score è la similarità normalizzata sulla popolarità dei giochi.
+ */
+public class RecommendedGameDTO {
+
+    private UUID id;
+    private String title;
+    private long coOwners;
+    private double score;
+
+    public RecommendedGameDTO() {
+    }
+
+    public RecommendedGameDTO(UUID id, String title, long coOwners, double score) {
+        this.id = id;
+        this.title = title;
+        this.coOwners = coOwners;
+        this.score = score;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public long getCoOwners() {
+        return coOwners;
+    }
+
+    public void setCoOwners(long coOwners) {
+        this.coOwners = coOwners;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "RecommendedGameDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", coOwners=" + coOwners +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Tag correlato a un altro: numero di giochi che hanno entrambi i tag e quota
+ * dei giochi del tag di partenza che hanno anche questo.
+ */
+public class RelatedTagDTO {
+
+    private Long id;
+    private String name;
+    private long sharedGames;
+    private double share;
+
+    public RelatedTagDTO() {
+    }
+
+    public RelatedTagDTO(Long id, String name, long sharedGames, double share) {
+        this.id = id;
+        this.name = name;
+        this.sharedGames = sharedGames;
+        this.share = share;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getSharedGames() {
+        return sharedGames;
+    }
+
+    public void setSharedGames(long sharedGames) {
+        this.sharedGames = sharedGames;
+    }
+
+    public double getShare() {
+        return share;
+    }
+
+    public void setShare(double share) {
+        this.share = share;
+    }
+
+    @Override
+    public String toString() {
+        return "RelatedTagDTO{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", sharedGames=" + sharedGames +
+                ", share=" + share +
+                '}';
+    }
+}
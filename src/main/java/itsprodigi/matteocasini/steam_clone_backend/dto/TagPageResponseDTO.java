@@ -0,0 +1,77 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+import java.util.List;
+
+/**
+ * Pagina dell'elenco dei tag (paginazione per numero di pagina).
+ */
+public class TagPageResponseDTO {
+
+    private List<TagSummaryDTO> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public TagPageResponseDTO() {
+    }
+
+    public TagPageResponseDTO(List<TagSummaryDTO> items, int page, int size, long totalElements, int totalPages) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    public List<TagSummaryDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TagSummaryDTO> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    @Override
+    public String toString() {
+        return "TagPageResponseDTO{" +
+                "items=" + items +
+                ", page=" + page +
+                ", size=" + size +
+                ", totalElements=" + totalElements +
+                ", totalPages=" + totalPages +
+                '}';
+    }
+}
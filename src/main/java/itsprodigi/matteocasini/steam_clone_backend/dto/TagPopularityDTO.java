@@ -0,0 +1,65 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Voce della classifica dei tag: numero di giochi associati al tag e numero di
+ * copie di quei giochi presenti nelle librerie degli utenti.
+ */
+public class TagPopularityDTO {
+
+    private Long id;
+    private String name;
+    private long gameCount;
+    private long ownerCount;
+
+    public TagPopularityDTO() {
+    }
+
+    public TagPopularityDTO(Long id, String name, long gameCount, long ownerCount) {
+        this.id = id;
+        this.name = name;
+        this.gameCount = gameCount;
+        this.ownerCount = ownerCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public void setGameCount(long gameCount) {
+        this.gameCount = gameCount;
+    }
+
+    public long getOwnerCount() {
+        return ownerCount;
+    }
+
+    public void setOwnerCount(long ownerCount) {
+        this.ownerCount = ownerCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TagPopularityDTO{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", gameCount=" + gameCount +
+                ", ownerCount=" + ownerCount +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package itsprodigi.matteocasini.steam_clone_backend.dto;
+
+/**
+ * Tag con il numero di giochi associati.
+ * Usato come proiezione diretta della query aggregata (costruttore JPQL),
+ * senza passare dalle entità Tag e dalla collezione Tag.games.
+ */
+public class TagSummaryDTO {
+
+    private Long id;
+    private String name;
+    private long gameCount;
+
+    public TagSummaryDTO() {
+    }
+
+    public TagSummaryDTO(Long id, String name, Long gameCount) {
+        this.id = id;
+        this.name = name;
+        this.gameCount = gameCount != null ? gameCount : 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public void setGameCount(long gameCount) {
+        this.gameCount = gameCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TagSummaryDTO{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", gameCount=" + gameCount +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package itsprodigi.matteocasini.steam_clone_backend.dto;
 
+import java.time.Instant;
 import java.util.UUID;
 
 public class UserProfileResponseDTO {
@@ -8,6 +9,8 @@ public class UserProfileResponseDTO {
     private String nickname;
     private String avatarUrl;
     private String bio;
+    private Long version;
+    private Instant updatedAt;
 
     public UserProfileResponseDTO() {
     }
@@ -51,6 +54,22 @@ public class UserProfileResponseDTO {
         this.bio = bio;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "UserProfileResponseDTO{" +
@@ -58,6 +77,7 @@ public class UserProfileResponseDTO {
                 ", nickname='" + nickname + '\'' +
                 ", avatarUrl='" + avatarUrl + '\'' +
                 ", bio='" + bio + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
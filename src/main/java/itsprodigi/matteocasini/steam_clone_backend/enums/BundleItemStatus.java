@@ -0,0 +1,17 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Esito di un singolo gioco nell'acquisto di un bundle.
+ */
+public enum BundleItemStatus {
+    /** Gioco aggiunto alla libreria. */
+    ADDED,
+    /** Gioco già presente nella libreria. */
+    ALREADY_OWNED,
+    /** Nessun gioco con questo ID. */
+    GAME_NOT_FOUND,
+    /** ID ripetuto nella stessa richiesta. */
+    DUPLICATE,
+    /** Gioco aggiungibile ma non aggiunto perché il bundle è stato rifiutato (ALL_OR_NOTHING). */
+    SKIPPED
+}
@@ -0,0 +1,12 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Comportamento dell'acquisto di un bundle quando alcuni giochi non possono
+ * essere aggiunti alla libreria.
+ */
+public enum BundlePurchaseMode {
+    /** Nessun gioco viene aggiunto se anche uno solo non è aggiungibile. */
+    ALL_OR_NOTHING,
+    /** Vengono aggiunti i giochi aggiungibili, gli altri sono segnalati. */
+    BEST_EFFORT
+}
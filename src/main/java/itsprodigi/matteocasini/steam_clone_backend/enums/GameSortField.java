@@ -0,0 +1,13 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Ordinamenti supportati dalla paginazione a cursore del catalogo.
+ * Ogni ordinamento usa l'ID del gioco come chiave secondaria per garantire
+ * un ordine stabile anche in presenza di valori duplicati.
+ */
+public enum GameSortField {
+    /** Titolo in ordine alfabetico crescente, poi ID crescente. */
+    TITLE,
+    /** Data di rilascio dalla più recente, poi ID decrescente. */
+    RELEASE_DATE
+}
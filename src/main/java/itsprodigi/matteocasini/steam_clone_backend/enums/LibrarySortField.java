@@ -0,0 +1,14 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Ordinamenti supportati dalla lettura paginata della libreria.
+ * Ogni ordinamento usa l'ID del gioco come chiave finale per un ordine stabile.
+ */
+public enum LibrarySortField {
+    /** Data di acquisto dalla più recente. */
+    PURCHASE_DATE,
+    /** Ore di gioco dalla più alta. */
+    PLAYTIME,
+    /** Titolo del gioco in ordine alfabetico crescente. */
+    TITLE
+}
@@ -0,0 +1,11 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Modalità di combinazione dei tag nella ricerca del catalogo.
+ */
+public enum TagMatchMode {
+    /** Il gioco deve avere tutti i tag indicati (AND). */
+    ALL,
+    /** Il gioco deve avere almeno uno dei tag indicati (OR). */
+    ANY
+}
@@ -0,0 +1,11 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Criterio di ordinamento della classifica dei tag (GET /api/tags/top).
+ */
+public enum TagPopularitySort {
+    /** Numero di giochi del catalogo associati al tag. */
+    GAMES,
+    /** Numero di giochi con il tag presenti nelle librerie degli utenti. */
+    OWNERS
+}
@@ -0,0 +1,12 @@
+package itsprodigi.matteocasini.steam_clone_backend.enums;
+
+/**
+ * Ordinamenti supportati dall'elenco paginato dei tag.
+ * Ogni ordinamento usa l'ID del tag come chiave finale per un ordine stabile.
+ */
+public enum TagSortField {
+    /** Nome in ordine alfabetico crescente. */
+    NAME,
+    /** Numero di giochi decrescente, poi nome crescente. */
+    GAME_COUNT
+}
@@ -0,0 +1,66 @@
+package itsprodigi.matteocasini.steam_clone_backend.event;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+
+import java.util.UUID;
+
+/**
+ * Evento applicativo pubblicato da GameServiceImpl a ogni modifica del catalogo.
+ * Contiene lo stato del gioco prima e dopo la modifica, così che indici e
+ * cache in memoria possano aggiornarsi in modo incrementale senza rileggere
+ * il database.
+ */
+public class GameChangedEvent {
+
+    private final UUID gameId;
+    private final GameResponseDTO previous;
+    private final GameResponseDTO current;
+
+    private GameChangedEvent(UUID gameId, GameResponseDTO previous, GameResponseDTO current) {
+        this.gameId = gameId;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static GameChangedEvent created(GameResponseDTO current) {
+        return new GameChangedEvent(current.getId(), null, current);
+    }
+
+    public static GameChangedEvent updated(GameResponseDTO previous, GameResponseDTO current) {
+        return new GameChangedEvent(current.getId(), previous, current);
+    }
+
+    public static GameChangedEvent deleted(GameResponseDTO previous) {
+        return new GameChangedEvent(previous.getId(), previous, null);
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Stato precedente del gioco, null se il gioco è stato appena creato.
+     */
+    public GameResponseDTO getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Stato attuale del gioco, null se il gioco è stato eliminato.
+     */
+    public GameResponseDTO getCurrent() {
+        return current;
+    }
+
+    public boolean isDeleted() {
+        return current == null;
+    }
+
+    @Override
+    public String toString() {
+        return "GameChangedEvent{" +
+                "gameId=" + gameId +
+                ", deleted=" + isDeleted() +
+                '}';
+    }
+}
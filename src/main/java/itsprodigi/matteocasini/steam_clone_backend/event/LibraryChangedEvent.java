@@ -0,0 +1,105 @@
+package itsprodigi.matteocasini.steam_clone_backend.event;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Evento applicativo pubblicato da UserGameServiceImpl quando un gioco viene
+ * aggiunto o rimosso dalla libreria di un utente, o quando ne cambia il tempo
+ * di gioco.
+ * Permette ai contatori in memoria di aggiornarsi senza rileggere user_games.
+ * Tempo di gioco e prezzo descrivono il contributo della riga alle statistiche
+ * della libreria; un prezzo null indica che non è noto a chi pubblica l'evento.
+ */
+public class LibraryChangedEvent {
+
+    /**
+     * Tipo di modifica della libreria.
+     */
+    public enum Type {
+        ADDED, REMOVED, PLAYTIME_CHANGED
+    }
+
+    private final Type type;
+    private final UUID userId;
+    private final UUID gameId;
+    private final long playtimeMinutes;
+    private final BigDecimal price;
+
+    private LibraryChangedEvent(Type type, UUID userId, UUID gameId, long playtimeMinutes, BigDecimal price) {
+        this.type = type;
+        this.userId = userId;
+        this.gameId = gameId;
+        this.playtimeMinutes = playtimeMinutes;
+        this.price = price;
+    }
+
+    public static LibraryChangedEvent added(UUID userId, UUID gameId) {
+        return new LibraryChangedEvent(Type.ADDED, userId, gameId, 0, null);
+    }
+
+    public static LibraryChangedEvent added(UUID userId, UUID gameId, long playtimeMinutes, BigDecimal price) {
+        return new LibraryChangedEvent(Type.ADDED, userId, gameId, playtimeMinutes, price);
+    }
+
+    public static LibraryChangedEvent removed(UUID userId, UUID gameId) {
+        return new LibraryChangedEvent(Type.REMOVED, userId, gameId, 0, null);
+    }
+
+    public static LibraryChangedEvent removed(UUID userId, UUID gameId, long playtimeMinutes, BigDecimal price) {
+        return new LibraryChangedEvent(Type.REMOVED, userId, gameId, playtimeMinutes, price);
+    }
+
+    /**
+     * Variazione del tempo di gioco di un gioco già in libreria.
+     *
+     * @param deltaMinutes minuti aggiunti (negativi se il tempo è diminuito)
+     */
+    public static LibraryChangedEvent playtimeChanged(UUID userId, UUID gameId, long deltaMinutes) {
+        return new LibraryChangedEvent(Type.PLAYTIME_CHANGED, userId, gameId, deltaMinutes, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Minuti di gioco della riga aggiunta o rimossa, oppure variazione per PLAYTIME_CHANGED.
+     */
+    public long getPlaytimeMinutes() {
+        return playtimeMinutes;
+    }
+
+    /**
+     * Prezzo del gioco aggiunto o rimosso, null se non noto.
+     */
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    /**
+     * Indica se l'evento cambia l'appartenenza del gioco alla libreria.
+     */
+    public boolean isMembershipChange() {
+        return type != Type.PLAYTIME_CHANGED;
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryChangedEvent{" +
+                "type=" + type +
+                ", userId=" + userId +
+                ", gameId=" + gameId +
+                ", playtimeMinutes=" + playtimeMinutes +
+                ", price=" + price +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package itsprodigi.matteocasini.steam_clone_backend.event;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+
+import java.util.List;
+
+/**
+ * Evento applicativo pubblicato da PlaytimeFlusher dopo aver scritto sul
+ * database un blocco di minuti di gioco accumulati dai heartbeat.
+ * Un unico evento per flush, così i contatori in memoria si aggiornano
+ * senza un evento per ogni coppia utente-gioco.
+ */
+public class PlaytimeFlushedEvent {
+
+    private final List<PlaytimeDelta> deltas;
+
+    public PlaytimeFlushedEvent(List<PlaytimeDelta> deltas) {
+        this.deltas = List.copyOf(deltas);
+    }
+
+    public List<PlaytimeDelta> getDeltas() {
+        return deltas;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaytimeFlushedEvent{" +
+                "deltas=" + deltas.size() +
+                '}';
+    }
+}
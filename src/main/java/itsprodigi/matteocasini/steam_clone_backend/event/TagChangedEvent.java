@@ -0,0 +1,85 @@
+package itsprodigi.matteocasini.steam_clone_backend.event;
+
+/**
+ * Evento applicativo pubblicato da TagServiceImpl quando un tag cambia.
+ * Permette a cache e indici di invalidare per ID di tag i soli giochi
+ * interessati, senza caricare le associazioni dal database.
+ */
+public class TagChangedEvent {
+
+    /**
+     * Tipo di modifica subita dal tag.
+     */
+    public enum Type {
+        RENAMED, DELETED,
+        /** Il tag è stato unito in un altro ed eliminato: i suoi giochi ora hanno il tag di destinazione. */
+        MERGED
+    }
+
+    private final Type type;
+    private final Long tagId;
+    private final String previousName;
+    private final String name;
+    private final Long targetTagId;
+
+    private TagChangedEvent(Type type, Long tagId, String previousName, String name, Long targetTagId) {
+        this.type = type;
+        this.tagId = tagId;
+        this.previousName = previousName;
+        this.name = name;
+        this.targetTagId = targetTagId;
+    }
+
+    public static TagChangedEvent renamed(Long tagId, String previousName, String name) {
+        return new TagChangedEvent(Type.RENAMED, tagId, previousName, name, null);
+    }
+
+    public static TagChangedEvent deleted(Long tagId, String previousName) {
+        return new TagChangedEvent(Type.DELETED, tagId, previousName, null, null);
+    }
+
+    public static TagChangedEvent merged(Long tagId, String previousName, Long targetTagId, String targetName) {
+        return new TagChangedEvent(Type.MERGED, tagId, previousName, targetName, targetTagId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTagId() {
+        return tagId;
+    }
+
+    /**
+     * Nome del tag prima della modifica.
+     */
+    public String getPreviousName() {
+        return previousName;
+    }
+
+    /**
+     * Nome attuale del tag, null se il tag è stato eliminato;
+     * per MERGED è il nome del tag di destinazione.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * ID del tag di destinazione, valorizzato solo per MERGED.
+     */
+    public Long getTargetTagId() {
+        return targetTagId;
+    }
+
+    @Override
+    public String toString() {
+        return "TagChangedEvent{" +
+                "type=" + type +
+                ", tagId=" + tagId +
+                ", previousName='" + previousName + '\'' +
+                ", name='" + name + '\'' +
+                ", targetTagId=" + targetTagId +
+                '}';
+    }
+}
@@ -0,0 +1,11 @@
+package itsprodigi.matteocasini.steam_clone_backend.exception;
+
+/**
+ * Sollevata quando un heartbeat di gioco non può essere accettato perché il
+ * buffer è pieno o l'applicazione è in chiusura: il client deve riprovare.
+ */
+public class HeartbeatRejectedException extends RuntimeException {
+    public HeartbeatRejectedException(String message) {
+        super(message);
+    }
+}
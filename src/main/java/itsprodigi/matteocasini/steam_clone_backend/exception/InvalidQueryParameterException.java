@@ -0,0 +1,11 @@
+package itsprodigi.matteocasini.steam_clone_backend.exception;
+
+/**
+ * Sollevata quando un parametro di ricerca o di paginazione non è valido
+ * (es. cursore manomesso o non coerente con l'ordinamento richiesto).
+ */
+public class InvalidQueryParameterException extends RuntimeException {
+    public InvalidQueryParameterException(String message) {
+        super(message);
+    }
+}
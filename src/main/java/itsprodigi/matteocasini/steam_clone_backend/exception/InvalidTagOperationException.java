@@ -0,0 +1,11 @@
+package itsprodigi.matteocasini.steam_clone_backend.exception;
+
+/**
+ * Sollevata quando un'operazione sui tag non è ammessa
+ * (es. unire un tag con se stesso).
+ */
+public class InvalidTagOperationException extends RuntimeException {
+    public InvalidTagOperationException(String message) {
+        super(message);
+    }
+}
@@ -131,6 +131,36 @@ public class GlobalExceptionHandler {
                                 request);
         }
 
+        @ExceptionHandler(HeartbeatRejectedException.class)
+        public ResponseEntity<ErrorResponseDTO> handleHeartbeatRejected(HeartbeatRejectedException ex,
+                        WebRequest request) {
+                return buildErrorResponse(
+                                HttpStatus.TOO_MANY_REQUESTS,
+                                "Heartbeat non accettato",
+                                List.of(ex.getMessage()),
+                                request);
+        }
+
+        @ExceptionHandler(InvalidQueryParameterException.class)
+        public ResponseEntity<ErrorResponseDTO> handleInvalidQueryParameter(InvalidQueryParameterException ex,
+                        WebRequest request) {
+                return buildErrorResponse(
+                                HttpStatus.BAD_REQUEST,
+                                "Parametro di ricerca non valido",
+                                List.of(ex.getMessage()),
+                                request);
+        }
+
+        @ExceptionHandler(InvalidTagOperationException.class)
+        public ResponseEntity<ErrorResponseDTO> handleInvalidTagOperation(InvalidTagOperationException ex,
+                        WebRequest request) {
+                return buildErrorResponse(
+                                HttpStatus.BAD_REQUEST,
+                                "Operazione sui tag non valida",
+                                List.of(ex.getMessage()),
+                                request);
+        }
+
         @ExceptionHandler(InvalidUserProfileDataException.class)
         public ResponseEntity<ErrorResponseDTO> handleInvalidUserProfileData(InvalidUserProfileDataException ex,
                         WebRequest request) {
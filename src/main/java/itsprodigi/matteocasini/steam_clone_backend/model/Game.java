@@ -2,11 +2,13 @@ package itsprodigi.matteocasini.steam_clone_backend.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 
 @Entity
@@ -34,7 +36,18 @@ public class Game {
     @Column(name = "publisher", nullable = false, length = 100)
     private String publisher;
 
-    @ManyToMany(fetch = FetchType.LAZY, cascade = { CascadeType.PERSIST, CascadeType.MERGE })
+    // Versione per optimistic locking ed ETag; updated_at per Last-Modified
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Nessun cascade: i tag vengono salvati esplicitamente e possono essere
+    // riferimenti staccati provenienti da TagDictionary
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "game_tags", joinColumns = @JoinColumn(name = "game_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
     private Set<Tag> tags = new HashSet<>();
 
@@ -102,6 +115,22 @@ public class Game {
         this.publisher = publisher;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public Set<Tag> getTags() {
         return tags;
     }
@@ -1,6 +1,9 @@
 package itsprodigi.matteocasini.steam_clone_backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -16,6 +19,15 @@ public class Tag {
     @Column(name = "name", unique = true, nullable = false, length = 50)
     private String name;
 
+    // Versione per optimistic locking ed ETag; updated_at per Last-Modified
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     @ManyToMany(mappedBy = "tags", fetch = FetchType.LAZY)
     private Set<Game> games = new HashSet<>();
 
@@ -44,6 +56,22 @@ public class Tag {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public Set<Game> getGames() {
         return games;
     }
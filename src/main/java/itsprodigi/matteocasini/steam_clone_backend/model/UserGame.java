@@ -1,13 +1,19 @@
 package itsprodigi.matteocasini.steam_clone_backend.model;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.util.Objects;
 
+/**
+ * Associazione utente-gioco. La chiave è assegnata dal costruttore, quindi
+ * l'entità implementa Persistable: save esegue un persist (INSERT) invece di
+ * un merge che sovrascriverebbe una riga già esistente.
+ */
 @Entity
 @Table(name = "user_games")
-public class UserGame {
+public class UserGame implements Persistable<UserGameId> {
 
     @EmbeddedId
     private UserGameId id;
@@ -28,6 +34,14 @@ public class UserGame {
     @Column(name = "playtime_hours", nullable = false)
     private int playtimeHours;
 
+    // Minuti dei heartbeat non ancora arrivati all'ora intera: scritti solo dal
+    // flush JDBC, quindi esclusi da INSERT e UPDATE dell'entità
+    @Column(name = "playtime_minutes", insertable = false, updatable = false)
+    private int playtimeMinutes;
+
+    @Transient
+    private boolean isNew = true;
+
     public UserGame() {
     }
 
@@ -39,10 +53,22 @@ public class UserGame {
         this.id = new UserGameId(user.getId(), game.getId());
     }
 
+    @Override
     public UserGameId getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public void setId(UserGameId id) {
         this.id = id;
     }
@@ -87,6 +113,17 @@ public class UserGame {
         this.playtimeHours = playtimeHours;
     }
 
+    public int getPlaytimeMinutes() {
+        return playtimeMinutes;
+    }
+
+    /**
+     * Tempo di gioco complessivo in minuti (ore intere più minuti residui).
+     */
+    public long getTotalPlaytimeMinutes() {
+        return playtimeHours * 60L + playtimeMinutes;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -1,7 +1,9 @@
 package itsprodigi.matteocasini.steam_clone_backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -31,6 +33,15 @@ public class UserProfile {
     @Column(name = "bio", columnDefinition = "TEXT")
     private String bio;
 
+    // Versione per optimistic locking ed ETag; updated_at per Last-Modified
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     // Costruttori
     public UserProfile() {
     }
@@ -83,6 +94,22 @@ public class UserProfile {
         this.bio = bio;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     // equals/hashCode basati sull'ID
     @Override
     public boolean equals(Object o) {
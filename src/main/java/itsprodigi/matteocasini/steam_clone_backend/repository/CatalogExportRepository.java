@@ -0,0 +1,96 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Lettura in streaming dell'intero catalogo tramite JDBC.
+ * Usa un result set forward-only con fetch size Integer.MIN_VALUE, che per il
+ * driver MySQL significa leggere una riga alla volta dal socket invece di
+ * caricare tutto il risultato in memoria.
+ */
+@Repository
+public class CatalogExportRepository {
+
+    private static final String CATALOG_QUERY = """
+            SELECT g.id, g.title, g.price, g.release_date, g.developer, g.publisher, g.version, g.updated_at,
+                   t.id AS tag_id, t.name AS tag_name
+            FROM games g
+            LEFT JOIN game_tags gt ON gt.game_id = g.id
+            LEFT JOIN tags t ON t.id = gt.tag_id
+            ORDER BY g.id
+            """;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public CatalogExportRepository(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Scorre tutti i giochi in ordine di ID e li consegna uno alla volta al consumer.
+     * Le righe gioco-tag consecutive vengono raggruppate al volo, quindi in memoria
+     * c'è sempre un solo gioco.
+     *
+     * @param consumer riceve ogni gioco completo dei suoi tag
+     */
+    public void streamCatalog(Consumer<GameResponseDTO> consumer) {
+        CatalogRowHandler handler = new CatalogRowHandler(consumer);
+        streamingJdbcTemplate.query(CATALOG_QUERY, handler);
+        handler.finish();
+    }
+
+    /**
+     * Raggruppa le righe consecutive dello stesso gioco.
+     */
+    private static final class CatalogRowHandler implements RowCallbackHandler {
+
+        private final Consumer<GameResponseDTO> consumer;
+        private GameResponseDTO current;
+
+        CatalogRowHandler(Consumer<GameResponseDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = UuidBytes.fromBytes(rs.getBytes("id"));
+            if (current == null || !current.getId().equals(id)) {
+                finish();
+                current = new GameResponseDTO(
+                        id,
+                        rs.getString("title"),
+                        rs.getBigDecimal("price"),
+                        rs.getDate("release_date").toLocalDate(),
+                        rs.getString("developer"),
+                        rs.getString("publisher"),
+                        new ArrayList<>());
+                current.setVersion(rs.getLong("version"));
+                current.setUpdatedAt(rs.getTimestamp("updated_at").toInstant());
+            }
+            long tagId = rs.getLong("tag_id");
+            if (!rs.wasNull()) {
+                current.getTags().add(new TagDTO(tagId, rs.getString("tag_name")));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Lettura in streaming delle coppie utente-gioco per il calcolo offline dei
+ * giochi posseduti insieme.
+ * L'ordinamento è quello della chiave primaria (user_uuid, game_uuid), quindi
+ * MySQL scorre l'indice clustered senza ordinare e le righe di un utente
+ * arrivano consecutive.
+ */
+@Repository
+public class CoOwnershipRepository {
+
+    private static final String LIBRARIES_QUERY = "SELECT user_uuid, game_uuid FROM user_games "
+            + "ORDER BY user_uuid, game_uuid";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public CoOwnershipRepository(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Consegna al consumer ogni coppia (utente, gioco), raggruppate per utente.
+     */
+    public void streamLibraries(BiConsumer<UUID, UUID> consumer) {
+        streamingJdbcTemplate.query(LIBRARIES_QUERY, (RowCallbackHandler) rs -> consumer.accept(
+                UuidBytes.fromBytes(rs.getBytes("user_uuid")), UuidBytes.fromBytes(rs.getBytes("game_uuid"))));
+    }
+}
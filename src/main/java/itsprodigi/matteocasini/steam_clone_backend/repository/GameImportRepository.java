@@ -0,0 +1,127 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.*;
+
+/**
+ * Accesso JDBC set-based per l'importazione massiva del catalogo.
+ * Ogni metodo esegue una sola query (o un solo batch) per l'intero blocco,
+ * invece di un round trip per gioco o per tag come avviene con JPA.
+ * Con rewriteBatchedStatements=true il driver MySQL trasforma i batch in
+ * INSERT multi-riga.
+ */
+@Repository
+public class GameImportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public GameImportRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Restituisce i titoli già presenti tra quelli indicati (confronto secondo
+     * la collation della colonna, quindi case-insensitive).
+     */
+    public List<String> findExistingTitles(Collection<String> titles) {
+        if (titles.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedJdbcTemplate.queryForList(
+                "SELECT title FROM games WHERE title IN (:titles)",
+                Map.of("titles", titles), String.class);
+    }
+
+    /**
+     * Risolve i nomi dei tag esistenti in un'unica query.
+     * I nomi richiesti vengono passati come tabella derivata e uniti a tags:
+     * il confronto usa la collation della colonna (maiuscole e accenti
+     * ignorati) e ogni riga restituisce il nome richiesto, non quello
+     * memorizzato, così la mappa non dipende da una normalizzazione in Java.
+     *
+     * @return mappa nome richiesto -> ID del tag, solo per i nomi trovati
+     */
+    public Map<String, Long> findTagIdsByNames(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        StringJoiner requested = new StringJoiner(" UNION ALL ");
+        Object[] args = names.toArray();
+        for (int i = 0; i < args.length; i++) {
+            requested.add("SELECT ? AS name");
+        }
+        jdbcTemplate.query("SELECT w.name AS requested, t.id FROM (" + requested + ") w "
+                        + "JOIN tags t ON t.name = w.name",
+                rs -> {
+                    ids.put(rs.getString("requested"), rs.getLong("id"));
+                }, args);
+        return ids;
+    }
+
+    /**
+     * Inserisce in batch i tag mancanti. INSERT IGNORE evita errori se un altro
+     * processo ha creato lo stesso tag nel frattempo.
+     */
+    public void insertTagsIgnoringDuplicates(Collection<String> names) {
+        List<Object[]> args = new ArrayList<>(names.size());
+        for (String name : names) {
+            args.add(new Object[] { name });
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO tags (name) VALUES (?)", args);
+    }
+
+    /**
+     * Inserisce in batch i nuovi giochi con gli ID già assegnati.
+     */
+    public void insertGames(List<NewGame> games) {
+        List<Object[]> args = new ArrayList<>(games.size());
+        for (NewGame game : games) {
+            GameRequestDTO data = game.data();
+            args.add(new Object[] {
+                    UuidBytes.toBytes(game.id()),
+                    data.getTitle(),
+                    data.getPrice(),
+                    Date.valueOf(data.getReleaseDate()),
+                    data.getDeveloper(),
+                    data.getPublisher() });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO games (id, title, price, release_date, developer, publisher) VALUES (?, ?, ?, ?, ?, ?)",
+                args);
+    }
+
+    /**
+     * Inserisce in batch le associazioni gioco-tag.
+     */
+    public void insertGameTags(List<GameTagLink> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(links.size());
+        for (GameTagLink link : links) {
+            args.add(new Object[] { UuidBytes.toBytes(link.gameId()), link.tagId() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO game_tags (game_id, tag_id) VALUES (?, ?)", args);
+    }
+
+    /**
+     * Gioco da inserire, con l'ID generato prima dell'insert.
+     */
+    public record NewGame(UUID id, GameRequestDTO data) {
+    }
+
+    /**
+     * Riga della tabella game_tags.
+     */
+    public record GameTagLink(UUID gameId, Long tagId) {
+    }
+}
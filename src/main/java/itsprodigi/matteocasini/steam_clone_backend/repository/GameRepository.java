@@ -1,11 +1,19 @@
 package itsprodigi.matteocasini.steam_clone_backend.repository;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO;
 import itsprodigi.matteocasini.steam_clone_backend.model.Game;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GamePrice;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,18 +26,79 @@ public interface GameRepository extends JpaRepository<Game, UUID> {
     @Query("SELECT g FROM Game g LEFT JOIN FETCH g.tags WHERE g.id = :id")
     Optional<Game> findByIdWithTags(@Param("id") UUID id);
 
+    // Lookup minimo per le richieste condizionali (ETag / Last-Modified)
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp(g.version, g.updatedAt) "
+            + "FROM Game g WHERE g.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") UUID id);
+
+    // Il nome dei tag fa parte del documento del gioco: rinominare un tag deve
+    // invalidare gli ETag di tutti i giochi che lo usano.
+    @Modifying
+    @Query(value = "UPDATE games g JOIN game_tags gt ON gt.game_id = g.id "
+            + "SET g.version = g.version + 1 WHERE gt.tag_id = :tagId", nativeQuery = true)
+    int incrementVersionByTagId(@Param("tagId") Long tagId);
+
+    /**
+     * Carica tutti i giochi con i tag tramite JOIN FETCH (una riga per coppia
+     * gioco-tag). Mantenuto come riferimento per il benchmark; le letture di
+     * liste usano GameAssembler, che carica i tag in una seconda query.
+     */
     @Query("SELECT DISTINCT g FROM Game g LEFT JOIN FETCH g.tags")
     List<Game> findAllWithTags();
 
-    @Query("SELECT DISTINCT g FROM Game g LEFT JOIN FETCH g.tags WHERE LOWER(g.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    /**
+     * Seconda fase del caricamento a due fasi: coppie gioco-tag per un blocco di giochi.
+     */
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow(g.id, t.id, t.name) " +
+            "FROM Game g JOIN g.tags t WHERE g.id IN :ids")
+    List<GameTagRow> findTagRowsByGameIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Tutte le coppie gioco-tag, usate per riallineare i contatori dei tag
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow(g.id, t.id, t.name) " +
+            "FROM Game g JOIN g.tags t")
+    List<GameTagRow> findAllTagRows();
+
+    // Prezzi dei giochi indicati (verifica di esistenza e valore dei bundle) in una sola IN
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.GamePrice(g.id, g.price) "
+            + "FROM Game g WHERE g.id IN :ids")
+    List<GamePrice> findPricesByIds(@Param("ids") Collection<UUID> ids);
+
+    // Paginazione a cursore (keyset): si selezionano solo gli ID nell'ordine
+    // richiesto, così il LIMIT viene applicato in SQL e sfrutta gli indici
+    // (title, id) e (release_date, id). I tag vengono caricati in un secondo passo.
+
+    @Query("SELECT g.id FROM Game g ORDER BY g.title ASC, g.id ASC")
+    List<UUID> findPageIdsOrderByTitle(Pageable pageable);
+
+    @Query("SELECT g.id FROM Game g WHERE g.title > :title OR (g.title = :title AND g.id > :id) " +
+            "ORDER BY g.title ASC, g.id ASC")
+    List<UUID> findPageIdsOrderByTitleAfter(@Param("title") String title, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT g.id FROM Game g ORDER BY g.releaseDate DESC, g.id DESC")
+    List<UUID> findPageIdsOrderByReleaseDate(Pageable pageable);
+
+    @Query("SELECT g.id FROM Game g WHERE g.releaseDate < :releaseDate OR (g.releaseDate = :releaseDate AND g.id < :id) " +
+            "ORDER BY g.releaseDate DESC, g.id DESC")
+    List<UUID> findPageIdsOrderByReleaseDateAfter(@Param("releaseDate") LocalDate releaseDate, @Param("id") UUID id,
+            Pageable pageable);
+
+    // Le ricerche restituiscono solo le righe dei giochi: i tag vengono caricati
+    // da GameAssembler con una query batch separata.
+
+    @Query("SELECT g FROM Game g WHERE LOWER(g.title) LIKE LOWER(CONCAT('%', :title, '%'))")
     List<Game> findByTitleContainingIgnoreCase(@Param("title") String title);
 
-    @Query("SELECT DISTINCT g FROM Game g JOIN FETCH g.tags t WHERE LOWER(t.name) = LOWER(:tagName)")
-    List<Game> findByTags_NameIgnoreCase(@Param("tagName") String tagName);
+    // Fallback dell'autocompletamento quando l'indice in memoria non è pronto:
+    // legge solo ID e titolo. Il pattern è "prefisso%" con i caratteri jolly già
+    // preceduti da '!': senza LOWER() sulla colonna il confronto usa la collation
+    // case-insensitive di title e può scorrere idx_games_title_id come intervallo.
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO(g.id, g.title) "
+            + "FROM Game g WHERE g.title LIKE :pattern ESCAPE '!' ORDER BY g.title ASC")
+    List<GameSuggestionDTO> findSuggestionsByTitlePrefix(@Param("pattern") String pattern, Pageable pageable);
 
-    @Query("SELECT DISTINCT g FROM Game g LEFT JOIN FETCH g.tags WHERE LOWER(g.developer) LIKE LOWER(CONCAT('%', :developer, '%'))")
+    @Query("SELECT g FROM Game g WHERE LOWER(g.developer) LIKE LOWER(CONCAT('%', :developer, '%'))")
     List<Game> findByDeveloperIgnoreCase(@Param("developer") String developer);
 
-    @Query("SELECT DISTINCT g FROM Game g LEFT JOIN FETCH g.tags WHERE LOWER(g.publisher) LIKE LOWER(CONCAT('%', :publisher, '%'))")
+    @Query("SELECT g FROM Game g WHERE LOWER(g.publisher) LIKE LOWER(CONCAT('%', :publisher, '%'))")
     List<Game> findByPublisherIgnoreCase(@Param("publisher") String publisher);
 }
@@ -0,0 +1,118 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameStatsRow;
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Accesso JDBC alla tabella materializzata game_stats e aggregazioni per
+ * blocchi di giochi su user_games, che sfruttano l'indice coprente
+ * idx_user_games_game (game_uuid, purchase_date, playtime_hours, playtime_minutes).
+ */
+@Repository
+public class GameStatsRepository {
+
+    private static final String PLAYTIME = "playtime_hours * 60 + playtime_minutes";
+
+    private static final String AGGREGATE_SQL = "SELECT game_uuid, COUNT(*) AS owners, "
+            + "SUM(" + PLAYTIME + ") AS total_minutes, "
+            + "SUM(purchase_date >= :since7) AS last7, SUM(purchase_date >= :since30) AS last30 "
+            + "FROM user_games WHERE game_uuid IN (:gameIds) GROUP BY game_uuid";
+
+    // Mediana: media dei uno o due valori centrali per gioco (funzioni finestra di MySQL 8)
+    private static final String MEDIAN_SQL = "SELECT game_uuid, AVG(minutes) AS median_minutes FROM ("
+            + "SELECT game_uuid, " + PLAYTIME + " AS minutes, "
+            + "ROW_NUMBER() OVER (PARTITION BY game_uuid ORDER BY " + PLAYTIME + ") AS rn, "
+            + "COUNT(*) OVER (PARTITION BY game_uuid) AS cnt "
+            + "FROM user_games WHERE game_uuid IN (:gameIds)) ranked "
+            + "WHERE rn IN (FLOOR((cnt + 1) / 2), CEIL((cnt + 1) / 2)) GROUP BY game_uuid";
+
+    private static final String UPSERT_SQL = "INSERT INTO game_stats (game_id, owner_count, total_playtime_minutes, "
+            + "median_playtime_minutes, purchases_7d, purchases_30d, refreshed_at) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE owner_count = VALUES(owner_count), "
+            + "total_playtime_minutes = VALUES(total_playtime_minutes), "
+            + "median_playtime_minutes = VALUES(median_playtime_minutes), "
+            + "purchases_7d = VALUES(purchases_7d), purchases_30d = VALUES(purchases_30d), "
+            + "refreshed_at = VALUES(refreshed_at)";
+
+    private static final RowMapper<GameStatsRow> STATS_ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp refreshedAt = rs.getTimestamp("refreshed_at");
+        return new GameStatsRow(UuidBytes.fromBytes(rs.getBytes("game_id")), rs.getLong("owner_count"),
+                rs.getLong("total_playtime_minutes"), rs.getLong("median_playtime_minutes"),
+                rs.getLong("purchases_7d"), rs.getLong("purchases_30d"),
+                refreshedAt != null ? refreshedAt.toInstant() : null);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public GameStatsRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public List<GameStatsRow> findAll() {
+        return jdbcTemplate.query("SELECT * FROM game_stats", STATS_ROW_MAPPER);
+    }
+
+    /**
+     * Blocco successivo di ID di giochi in ordine di chiave primaria (keyset).
+     *
+     * @param after ultimo ID del blocco precedente, null per il primo
+     */
+    public List<UUID> findGameIdsAfter(UUID after, int limit) {
+        List<byte[]> ids = after == null
+                ? jdbcTemplate.queryForList("SELECT id FROM games ORDER BY id LIMIT ?", byte[].class, limit)
+                : jdbcTemplate.queryForList("SELECT id FROM games WHERE id > ? ORDER BY id LIMIT ?", byte[].class,
+                        UuidBytes.toBytes(after), limit);
+        return ids.stream().map(UuidBytes::fromBytes).toList();
+    }
+
+    /**
+     * Ricalcola le statistiche dei giochi indicati con due query aggregate.
+     * I giochi senza possessori non compaiono nel risultato.
+     */
+    public Map<UUID, GameStatsRow> aggregate(Collection<UUID> gameIds, LocalDate today, Instant refreshedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("gameIds", gameIds.stream().map(UuidBytes::toBytes).toList())
+                .addValue("since7", Date.valueOf(today.minusDays(7)))
+                .addValue("since30", Date.valueOf(today.minusDays(30)));
+        Map<UUID, Long> medians = new HashMap<>();
+        namedJdbcTemplate.query(MEDIAN_SQL, params, (RowCallbackHandler) rs -> medians.put(
+                UuidBytes.fromBytes(rs.getBytes("game_uuid")), Math.round(rs.getDouble("median_minutes"))));
+        Map<UUID, GameStatsRow> result = new HashMap<>();
+        namedJdbcTemplate.query(AGGREGATE_SQL, params, (RowCallbackHandler) rs -> {
+            UUID gameId = UuidBytes.fromBytes(rs.getBytes("game_uuid"));
+            result.put(gameId, new GameStatsRow(gameId, rs.getLong("owners"), rs.getLong("total_minutes"),
+                    medians.getOrDefault(gameId, 0L), rs.getLong("last7"), rs.getLong("last30"), refreshedAt));
+        });
+        return result;
+    }
+
+    public void upsert(Collection<GameStatsRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setBytes(1, UuidBytes.toBytes(row.gameId()));
+            ps.setLong(2, row.ownerCount());
+            ps.setLong(3, row.totalPlaytimeMinutes());
+            ps.setLong(4, row.medianPlaytimeMinutes());
+            ps.setLong(5, row.purchasesLast7Days());
+            ps.setLong(6, row.purchasesLast30Days());
+            ps.setTimestamp(7, row.refreshedAt() != null ? Timestamp.from(row.refreshedAt()) : null);
+        });
+    }
+}
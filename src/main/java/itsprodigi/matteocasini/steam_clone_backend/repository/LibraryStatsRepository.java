@@ -0,0 +1,45 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryStatsRow;
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregati JDBC sulle librerie degli utenti.
+ * Il tempo di gioco include i minuti residui dei heartbeat (playtime_minutes),
+ * che non sono mappati sull'entità per non essere sovrascritti dai salvataggi JPA.
+ */
+@Repository
+public class LibraryStatsRepository {
+
+    private static final String STATS_SQL = "SELECT ug.user_uuid, COUNT(*) AS game_count, "
+            + "COALESCE(SUM(ug.playtime_hours * 60 + ug.playtime_minutes), 0) AS playtime_minutes, "
+            + "COALESCE(SUM(g.price), 0) AS library_value "
+            + "FROM user_games ug JOIN games g ON g.id = ug.game_uuid "
+            + "WHERE ug.user_uuid IN (:userIds) GROUP BY ug.user_uuid";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public LibraryStatsRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Calcola i totali per gli utenti indicati con un'unica query aggregata.
+     * Gli utenti senza giochi non compaiono nel risultato.
+     */
+    public List<LibraryStatsRow> findStats(Collection<UUID> userIds) {
+        List<byte[]> ids = userIds.stream().map(UuidBytes::toBytes).toList();
+        return namedJdbcTemplate.query(STATS_SQL, Map.of("userIds", ids), (rs, rowNum) -> new LibraryStatsRow(
+                UuidBytes.fromBytes(rs.getBytes("user_uuid")),
+                rs.getLong("game_count"),
+                rs.getLong("playtime_minutes"),
+                rs.getBigDecimal("library_value")));
+    }
+}
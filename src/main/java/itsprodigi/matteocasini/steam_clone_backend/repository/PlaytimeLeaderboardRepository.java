@@ -0,0 +1,40 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeRow;
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * Lettura in streaming del tempo di gioco di tutte le librerie, usata per
+ * ricostruire le classifiche per gioco all'avvio.
+ * La query ordina per gioco e legge solo colonne dell'indice idx_user_games_game
+ * (user_uuid fa parte della chiave primaria, inclusa in ogni indice secondario),
+ * quindi MySQL scorre l'indice senza ordinamenti né accessi alla tabella.
+ */
+@Repository
+public class PlaytimeLeaderboardRepository {
+
+    private static final String PLAYTIME_QUERY = "SELECT game_uuid, user_uuid, "
+            + "playtime_hours * 60 + playtime_minutes AS minutes FROM user_games ORDER BY game_uuid";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public PlaytimeLeaderboardRepository(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Consegna al consumer tutte le righe di user_games, raggruppate per gioco.
+     */
+    public void streamPlaytimes(Consumer<PlaytimeRow> consumer) {
+        streamingJdbcTemplate.query(PLAYTIME_QUERY, (RowCallbackHandler) rs -> consumer.accept(new PlaytimeRow(
+                UuidBytes.fromBytes(rs.getBytes("game_uuid")), UuidBytes.fromBytes(rs.getBytes("user_uuid")),
+                rs.getLong("minutes"))));
+    }
+}
@@ -0,0 +1,46 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Scrittura JDBC incrementale del tempo di gioco.
+ * Ogni riga è un UPDATE relativo (nessuna lettura preventiva né sovrascrittura
+ * della riga intera), inviato in batch: con rewriteBatchedStatements il driver
+ * MySQL lo spedisce in pochi round-trip.
+ */
+@Repository
+public class PlaytimeRepository {
+
+    // playtime_minutes conserva solo i minuti non ancora arrivati all'ora intera;
+    // le assegnazioni leggono entrambe il valore precedente della colonna.
+    private static final String ADD_PLAYTIME_SQL = "UPDATE user_games "
+            + "SET playtime_hours = playtime_hours + (playtime_minutes + ?) DIV 60, "
+            + "playtime_minutes = (playtime_minutes + ?) MOD 60 "
+            + "WHERE user_uuid = ? AND game_uuid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlaytimeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aggiunge i minuti indicati alle righe di libreria esistenti.
+     * Le coppie utente-gioco non presenti in libreria vengono ignorate.
+     *
+     * @return righe aggiornate per ciascun elemento
+     */
+    public int[][] addPlaytime(List<PlaytimeDelta> deltas, int batchSize) {
+        return jdbcTemplate.batchUpdate(ADD_PLAYTIME_SQL, deltas, batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.minutes());
+            ps.setLong(2, delta.minutes());
+            ps.setBytes(3, UuidBytes.toBytes(delta.userId()));
+            ps.setBytes(4, UuidBytes.toBytes(delta.gameId()));
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accesso JDBC set-based per la manutenzione dei tag (eliminazione e unione).
+ * Lavora direttamente su game_tags per blocchi di giochi, senza caricare
+ * entità Game né la collezione Tag.games nel persistence context.
+ * Gli ID dei giochi restano nel formato BINARY(16) della colonna.
+ */
+@Repository
+public class TagMaintenanceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TagMaintenanceRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Restituisce al massimo {@code limit} giochi associati al tag.
+     * Poiché ogni blocco elimina le proprie righe, richiamarlo fino a lista
+     * vuota scorre tutti i giochi senza OFFSET.
+     */
+    public List<byte[]> findGameIdsByTagId(long tagId, int limit) {
+        return jdbcTemplate.queryForList("SELECT game_id FROM game_tags WHERE tag_id = ? LIMIT ?",
+                byte[].class, tagId, limit);
+    }
+
+    /**
+     * Stacca il tag dai giochi indicati e ne incrementa la versione (cambia il documento, quindi l'ETag).
+     *
+     * @return numero di associazioni rimosse
+     */
+    public int detachTag(long tagId, List<byte[]> gameIds) {
+        incrementGameVersions(gameIds);
+        return namedJdbcTemplate.update("DELETE FROM game_tags WHERE tag_id = :tagId AND game_id IN (:gameIds)",
+                Map.of("tagId", tagId, "gameIds", gameIds));
+    }
+
+    /**
+     * Sposta sui giochi indicati le associazioni dal tag sorgente al tag di
+     * destinazione. INSERT IGNORE salta i giochi che hanno già la destinazione.
+     *
+     * @return numero di associazioni rimosse dal tag sorgente
+     */
+    public int moveTag(long sourceTagId, long targetTagId, List<byte[]> gameIds) {
+        incrementGameVersions(gameIds);
+        Map<String, Object> params = Map.of("sourceId", sourceTagId, "targetId", targetTagId, "gameIds", gameIds);
+        namedJdbcTemplate.update("INSERT IGNORE INTO game_tags (game_id, tag_id) "
+                + "SELECT game_id, :targetId FROM game_tags WHERE tag_id = :sourceId AND game_id IN (:gameIds)", params);
+        return namedJdbcTemplate.update("DELETE FROM game_tags WHERE tag_id = :sourceId AND game_id IN (:gameIds)",
+                params);
+    }
+
+    /**
+     * Elimina la riga del tag (da chiamare dopo averlo staccato da tutti i giochi).
+     */
+    public int deleteTag(long tagId) {
+        return jdbcTemplate.update("DELETE FROM tags WHERE id = ?", tagId);
+    }
+
+    private void incrementGameVersions(List<byte[]> gameIds) {
+        namedJdbcTemplate.update("UPDATE games SET version = version + 1 WHERE id IN (:gameIds)",
+                Map.of("gameIds", gameIds));
+    }
+}
@@ -1,13 +1,43 @@
 package itsprodigi.matteocasini.steam_clone_backend.repository;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagSummaryDTO;
 import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.TagVersionRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
     Optional<Tag> findByNameIgnoreCase(String name);
+
+    // Lookup minimi per le richieste condizionali (ETag / Last-Modified)
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp(t.version, t.updatedAt) "
+            + "FROM Tag t WHERE t.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    // Coppie (ID, versione) in ordine di ID, da cui si ricava la versione della lista
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.TagVersionRow(t.id, t.version) "
+            + "FROM Tag t ORDER BY t.id")
+    List<TagVersionRow> findVersionRows();
+
+    // Elenco paginato con il numero di giochi calcolato in SQL: proiezione su
+    // DTO, nessuna entità gestita né caricamento di Tag.games
+    @Query(value = "SELECT new itsprodigi.matteocasini.steam_clone_backend.dto.TagSummaryDTO(t.id, t.name, COUNT(g.id)) "
+            + "FROM Tag t LEFT JOIN t.games g GROUP BY t.id, t.name ORDER BY t.name ASC, t.id ASC",
+            countQuery = "SELECT COUNT(t) FROM Tag t")
+    Page<TagSummaryDTO> findSummariesOrderByName(Pageable pageable);
+
+    @Query(value = "SELECT new itsprodigi.matteocasini.steam_clone_backend.dto.TagSummaryDTO(t.id, t.name, COUNT(g.id)) "
+            + "FROM Tag t LEFT JOIN t.games g GROUP BY t.id, t.name ORDER BY COUNT(g.id) DESC, t.name ASC, t.id ASC",
+            countQuery = "SELECT COUNT(t) FROM Tag t")
+    Page<TagSummaryDTO> findSummariesOrderByGameCount(Pageable pageable);
 }
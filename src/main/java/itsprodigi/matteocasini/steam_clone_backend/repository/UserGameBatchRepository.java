@@ -0,0 +1,42 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository;
+
+import itsprodigi.matteocasini.steam_clone_backend.utils.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserimento JDBC in batch di righe di libreria (acquisto di un bundle).
+ * Usa la connessione della transazione JPA in corso, quindi partecipa al
+ * suo commit o rollback; con rewriteBatchedStatements il driver MySQL invia
+ * un'unica INSERT multi-riga.
+ */
+@Repository
+public class UserGameBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO user_games "
+            + "(user_uuid, game_uuid, purchase_date, playtime_hours) VALUES (?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserGameBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aggiunge i giochi alla libreria dell'utente con zero ore di gioco.
+     */
+    public void insertAll(UUID userId, List<UUID> gameIds, LocalDate purchaseDate) {
+        byte[] user = UuidBytes.toBytes(userId);
+        Date date = Date.valueOf(purchaseDate);
+        jdbcTemplate.batchUpdate(INSERT_SQL, gameIds, gameIds.size(), (ps, gameId) -> {
+            ps.setBytes(1, user);
+            ps.setBytes(2, UuidBytes.toBytes(gameId));
+            ps.setDate(3, date);
+        });
+    }
+}
@@ -2,13 +2,63 @@ package itsprodigi.matteocasini.steam_clone_backend.repository;
 
 import itsprodigi.matteocasini.steam_clone_backend.model.UserGame;
 import itsprodigi.matteocasini.steam_clone_backend.model.UserGameId;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameOwnerCount;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.OwnedGameRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface UserGameRepository extends JpaRepository<UserGame, UserGameId> {
     List<UserGame> findByUserId(UUID userId);
+
+    @Query("SELECT ug.id.gameUuid FROM UserGame ug WHERE ug.id.userUuid = :userId")
+    List<UUID> findGameIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT ug.id.gameUuid FROM UserGame ug WHERE ug.id.userUuid = :userId AND ug.id.gameUuid IN :gameIds")
+    List<UUID> findOwnedGameIds(@Param("userId") UUID userId, @Param("gameIds") Collection<UUID> gameIds);
+
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameOwnerCount(ug.id.gameUuid, COUNT(ug)) "
+            + "FROM UserGame ug GROUP BY ug.id.gameUuid")
+    List<GameOwnerCount> countOwnersByGame();
+
+    // Contributo di ogni riga della libreria ai contatori in memoria, letto prima
+    // che l'eliminazione dell'utente rimuova le righe a cascata
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.OwnedGameRow("
+            + "g.id, ug.playtimeHours, ug.playtimeMinutes, g.price) "
+            + "FROM UserGame ug JOIN ug.game g WHERE ug.id.userUuid = :userId")
+    List<OwnedGameRow> findOwnedGameRowsByUserId(@Param("userId") UUID userId);
+
+    // Libreria paginata: una sola query di proiezione per pagina (più il conteggio),
+    // senza entità UserGame/Game. L'ordinamento è fisso nella query, con l'ID
+    // del gioco come chiave finale per un ordine stabile tra le pagine.
+    @Query(value = "SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryRow("
+            + "g.id, g.title, g.price, g.releaseDate, g.developer, g.publisher, g.version, g.updatedAt, "
+            + "ug.purchaseDate, ug.playtimeHours) "
+            + "FROM UserGame ug JOIN ug.game g WHERE ug.id.userUuid = :userId ORDER BY ug.purchaseDate DESC, g.id ASC",
+            countQuery = "SELECT COUNT(ug) FROM UserGame ug WHERE ug.id.userUuid = :userId")
+    Page<LibraryRow> findLibraryOrderByPurchaseDate(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query(value = "SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryRow("
+            + "g.id, g.title, g.price, g.releaseDate, g.developer, g.publisher, g.version, g.updatedAt, "
+            + "ug.purchaseDate, ug.playtimeHours) "
+            + "FROM UserGame ug JOIN ug.game g WHERE ug.id.userUuid = :userId "
+            + "ORDER BY ug.playtimeHours DESC, ug.playtimeMinutes DESC, g.id ASC",
+            countQuery = "SELECT COUNT(ug) FROM UserGame ug WHERE ug.id.userUuid = :userId")
+    Page<LibraryRow> findLibraryOrderByPlaytime(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query(value = "SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryRow("
+            + "g.id, g.title, g.price, g.releaseDate, g.developer, g.publisher, g.version, g.updatedAt, "
+            + "ug.purchaseDate, ug.playtimeHours) "
+            + "FROM UserGame ug JOIN ug.game g WHERE ug.id.userUuid = :userId ORDER BY g.title ASC, g.id ASC",
+            countQuery = "SELECT COUNT(ug) FROM UserGame ug WHERE ug.id.userUuid = :userId")
+    Page<LibraryRow> findLibraryOrderByTitle(@Param("userId") UUID userId, Pageable pageable);
 }
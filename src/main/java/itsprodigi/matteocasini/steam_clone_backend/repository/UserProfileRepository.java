@@ -1,12 +1,21 @@
 package itsprodigi.matteocasini.steam_clone_backend.repository;
 
 import itsprodigi.matteocasini.steam_clone_backend.model.UserProfile;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
     // Metodi standard come findById, save, deleteById sono già ereditati da JpaRepository
+
+    // Lookup minimo per le richieste condizionali (ETag / Last-Modified)
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp(p.version, p.updatedAt) "
+            + "FROM UserProfile p WHERE p.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") UUID id);
 }
@@ -1,9 +1,14 @@
 package itsprodigi.matteocasini.steam_clone_backend.repository;
 
 import itsprodigi.matteocasini.steam_clone_backend.model.User;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.UsernameRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -45,4 +50,14 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @return un Optional contenente l'utente se trovato.
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Username degli utenti indicati; gli ID inesistenti non compaiono nel risultato.
+     *
+     * @param ids gli ID degli utenti.
+     * @return coppie ID-username.
+     */
+    @Query("SELECT new itsprodigi.matteocasini.steam_clone_backend.repository.projection.UsernameRow(u.id, u.username) "
+            + "FROM User u WHERE u.id IN :ids")
+    List<UsernameRow> findUsernamesByIds(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
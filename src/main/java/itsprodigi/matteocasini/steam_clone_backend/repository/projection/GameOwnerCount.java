@@ -0,0 +1,12 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Numero di librerie che contengono un gioco.
+ *
+ * @param gameId ID del gioco
+ * @param owners numero di utenti che possiedono il gioco
+ */
+public record GameOwnerCount(UUID gameId, Long owners) {
+}
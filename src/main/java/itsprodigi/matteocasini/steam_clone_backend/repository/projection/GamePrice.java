@@ -0,0 +1,13 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Prezzo corrente di un gioco.
+ *
+ * @param gameId ID del gioco
+ * @param price  prezzo
+ */
+public record GamePrice(UUID gameId, BigDecimal price) {
+}
@@ -0,0 +1,23 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Statistiche di possesso e tempo di gioco di un gioco (riga di game_stats).
+ *
+ * @param gameId                ID del gioco
+ * @param ownerCount            numero di librerie che contengono il gioco
+ * @param totalPlaytimeMinutes  tempo di gioco complessivo in minuti
+ * @param medianPlaytimeMinutes mediana del tempo di gioco per possessore, in minuti
+ * @param purchasesLast7Days    acquisti negli ultimi 7 giorni
+ * @param purchasesLast30Days   acquisti negli ultimi 30 giorni
+ * @param refreshedAt           ultimo ricalcolo completo (mediana e finestre di acquisto)
+ */
+public record GameStatsRow(UUID gameId, long ownerCount, long totalPlaytimeMinutes, long medianPlaytimeMinutes,
+        long purchasesLast7Days, long purchasesLast30Days, Instant refreshedAt) {
+
+    public static GameStatsRow empty(UUID gameId) {
+        return new GameStatsRow(gameId, 0, 0, 0, 0, 0, null);
+    }
+}
@@ -0,0 +1,15 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Riga della tabella game_tags unita al nome del tag.
+ * Proiezione usata per caricare i tag di molti giochi con una sola query,
+ * senza gestire le entità Tag nel persistence context.
+ *
+ * @param gameId  ID del gioco
+ * @param tagId   ID del tag
+ * @param tagName nome del tag
+ */
+public record GameTagRow(UUID gameId, Long tagId, String tagName) {
+}
@@ -0,0 +1,15 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Riga della libreria di un utente: colonne del gioco unite ai dati di
+ * acquisto, lette con una sola query senza entità Game o UserGame.
+ * I tag vengono caricati a parte, per l'intera pagina in una query.
+ */
+public record LibraryRow(UUID gameId, String title, BigDecimal price, LocalDate releaseDate, String developer,
+        String publisher, Long version, Instant updatedAt, LocalDate purchaseDate, int playtimeHours) {
+}
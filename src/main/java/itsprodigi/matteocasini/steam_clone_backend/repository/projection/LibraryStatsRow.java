@@ -0,0 +1,15 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Totali della libreria di un utente calcolati dal database.
+ *
+ * @param userId          ID dell'utente
+ * @param gameCount       numero di giochi posseduti
+ * @param playtimeMinutes tempo di gioco complessivo in minuti
+ * @param libraryValue    somma dei prezzi correnti dei giochi posseduti
+ */
+public record LibraryStatsRow(UUID userId, long gameCount, long playtimeMinutes, BigDecimal libraryValue) {
+}
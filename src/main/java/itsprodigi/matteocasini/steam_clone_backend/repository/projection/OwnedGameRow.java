@@ -0,0 +1,20 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Gioco nella libreria di un utente, con i dati che la riga apporta ai
+ * contatori in memoria (tempo di gioco e prezzo).
+ *
+ * @param gameId          ID del gioco
+ * @param playtimeHours   ore di gioco intere
+ * @param playtimeMinutes minuti residui dei heartbeat
+ * @param price           prezzo corrente del gioco
+ */
+public record OwnedGameRow(UUID gameId, int playtimeHours, int playtimeMinutes, BigDecimal price) {
+
+    public long totalPlaytimeMinutes() {
+        return playtimeHours * 60L + playtimeMinutes;
+    }
+}
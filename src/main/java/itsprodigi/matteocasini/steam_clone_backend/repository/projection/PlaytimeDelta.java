@@ -0,0 +1,14 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Minuti di gioco accumulati per una coppia utente-gioco e non ancora scritti
+ * sul database.
+ *
+ * @param userId  ID dell'utente
+ * @param gameId  ID del gioco
+ * @param minutes minuti da aggiungere
+ */
+public record PlaytimeDelta(UUID userId, UUID gameId, long minutes) {
+}
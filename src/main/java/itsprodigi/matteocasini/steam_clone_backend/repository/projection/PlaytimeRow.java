@@ -0,0 +1,13 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Tempo di gioco complessivo di un utente su un gioco.
+ *
+ * @param gameId  ID del gioco
+ * @param userId  ID dell'utente
+ * @param minutes minuti di gioco totali (ore e minuti residui)
+ */
+public record PlaytimeRow(UUID gameId, UUID userId, long minutes) {
+}
@@ -0,0 +1,11 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+/**
+ * ID e versione di un tag, letti senza caricare le entità.
+ * Proiezione usata per calcolare la versione dell'intera lista dei tag.
+ *
+ * @param id      ID del tag
+ * @param version versione del tag
+ */
+public record TagVersionRow(Long id, Long version) {
+}
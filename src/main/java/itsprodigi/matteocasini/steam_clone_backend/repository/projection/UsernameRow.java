@@ -0,0 +1,12 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Username di un utente, senza caricare l'entità completa.
+ *
+ * @param userId   ID dell'utente
+ * @param username username
+ */
+public record UsernameRow(UUID userId, String username) {
+}
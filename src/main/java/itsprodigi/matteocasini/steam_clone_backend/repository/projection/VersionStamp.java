@@ -0,0 +1,35 @@
+package itsprodigi.matteocasini.steam_clone_backend.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Versione e data di ultima modifica di una risorsa, lette senza caricare
+ * l'entità. Servono a rispondere 304 alle richieste condizionali
+ * (If-None-Match / If-Modified-Since) con una query minima.
+ *
+ * @param value     valore dell'ETag (senza virgolette)
+ * @param updatedAt data di ultima modifica, può essere null
+ */
+public record VersionStamp(String value, Instant updatedAt) {
+
+    /**
+     * Versione di una singola entità (colonna version).
+     */
+    public VersionStamp(Long version, Instant updatedAt) {
+        this(String.valueOf(version), updatedAt);
+    }
+
+    /**
+     * ETag forte nel formato richiesto dall'header (tra virgolette).
+     */
+    public String etag() {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Data di ultima modifica in millisecondi, -1 se sconosciuta.
+     */
+    public long lastModifiedMillis() {
+        return updatedAt != null ? updatedAt.toEpochMilli() : -1;
+    }
+}
@@ -0,0 +1,20 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Servizio per l'esportazione completa del catalogo verso i partner.
+ */
+public interface CatalogExportService {
+
+    /**
+     * Scrive l'intero catalogo in formato NDJSON (un gioco JSON per riga).
+     * La memoria usata non dipende dalla dimensione del catalogo.
+     *
+     * @param out stream di destinazione, non viene chiuso
+     * @return numero di giochi esportati
+     * @throws IOException se la scrittura fallisce (es. client disconnesso)
+     */
+    long exportCatalog(OutputStream out) throws IOException;
+}
@@ -0,0 +1,53 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import itsprodigi.matteocasini.steam_clone_backend.repository.CatalogExportRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Implementazione dell'esportazione NDJSON del catalogo.
+ * Ogni gioco letto dal result set in streaming viene serializzato e scritto
+ * subito sullo stream della risposta.
+ */
+@Service
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    /** Ogni quante righe svuotare il buffer verso il client. */
+    private static final int FLUSH_EVERY = 500;
+
+    private final CatalogExportRepository catalogExportRepository;
+    private final ObjectMapper objectMapper;
+
+    public CatalogExportServiceImpl(CatalogExportRepository catalogExportRepository, ObjectMapper objectMapper) {
+        this.catalogExportRepository = catalogExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public long exportCatalog(OutputStream out) throws IOException {
+        long[] written = { 0 };
+        try {
+            catalogExportRepository.streamCatalog(game -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(game));
+                    out.write('\n');
+                    written[0]++;
+                    // Il primo gioco parte subito, poi si svuota il buffer a blocchi
+                    if (written[0] == 1 || written[0] % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return written[0];
+    }
+}
@@ -0,0 +1,44 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSearchRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSearchResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+
+import java.util.List;
+
+/**
+ * Servizio per la ricerca combinata del catalogo con faccette.
+ */
+public interface CatalogSearchService {
+
+    /**
+     * Cerca i giochi che soddisfano tutti i criteri indicati e calcola i
+     * conteggi per tag, sviluppatore e fascia di prezzo sull'intero risultato.
+     *
+     * @param request criteri di ricerca e paginazione
+     * @return pagina di giochi ordinati per titolo, totale e faccette
+     * @throws InvalidQueryParameterException se gli intervalli o la paginazione non sono validi
+     */
+    GameSearchResponseDTO search(GameSearchRequestDTO request);
+
+    /**
+     * Cerca tutti i giochi associati a un tag (case-insensitive).
+     *
+     * @param tagName nome del tag
+     * @return giochi con il tag, ordinati per titolo
+     */
+    List<GameResponseDTO> findByTagName(String tagName);
+
+    /**
+     * Cerca i giochi che soddisfano un'espressione booleana sui tag,
+     * es. {@code action AND (rpg OR indie) AND NOT horror}.
+     *
+     * @param expression espressione con operatori AND/OR/NOT e parentesi
+     * @param page       numero di pagina (da 0), null per la prima
+     * @param size       dimensione della pagina, null per quella predefinita
+     * @return pagina di giochi ordinati per titolo e totale, senza faccette
+     * @throws InvalidQueryParameterException se l'espressione o la paginazione non sono valide
+     */
+    GameSearchResponseDTO findByTagExpression(String expression, Integer page, Integer size);
+}
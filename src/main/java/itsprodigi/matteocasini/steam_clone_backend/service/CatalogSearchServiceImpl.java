@@ -0,0 +1,116 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSearchRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSearchResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagMatchMode;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CatalogIndexCoordinator;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameAssembler;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameCache;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameFacetIndex;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagExpression;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementazione della ricerca combinata.
+ * La selezione e le faccette vengono calcolate sull'indice a bitmap in memoria;
+ * solo i giochi della pagina richiesta vengono idratati, passando dalla cache.
+ */
+@Service
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+
+    private final GameFacetIndex facetIndex;
+    private final CatalogIndexCoordinator indexCoordinator;
+    private final GameCache gameCache;
+    private final GameAssembler gameAssembler;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    public CatalogSearchServiceImpl(GameFacetIndex facetIndex, CatalogIndexCoordinator indexCoordinator,
+            GameCache gameCache, GameAssembler gameAssembler) {
+        this.facetIndex = facetIndex;
+        this.indexCoordinator = indexCoordinator;
+        this.gameCache = gameCache;
+        this.gameAssembler = gameAssembler;
+    }
+
+    @Override
+    public GameSearchResponseDTO search(GameSearchRequestDTO request) {
+        validate(request);
+        int size = pageSize(request.getSize());
+        int page = pageNumber(request.getPage());
+
+        indexCoordinator.ensureLoaded();
+        // In long: una pagina molto alta non deve tornare negativa, ma dare una pagina vuota
+        GameFacetIndex.Result result = facetIndex.search(toCriteria(request), (long) page * size, size);
+        return toResponse(result, page, size);
+    }
+
+    @Override
+    public List<GameResponseDTO> findByTagName(String tagName) {
+        indexCoordinator.ensureLoaded();
+        GameFacetIndex.Result result = facetIndex.matchTags(TagExpression.of(tagName), 0, Integer.MAX_VALUE);
+        return gameCache.getAll(result.ids(), gameAssembler::loadInOrder);
+    }
+
+    @Override
+    public GameSearchResponseDTO findByTagExpression(String expression, Integer requestedPage, Integer requestedSize) {
+        TagExpression parsed = TagExpression.parse(expression);
+        int size = pageSize(requestedSize);
+        int page = pageNumber(requestedPage);
+        indexCoordinator.ensureLoaded();
+        return toResponse(facetIndex.matchTags(parsed, (long) page * size, size), page, size);
+    }
+
+    private GameSearchResponseDTO toResponse(GameFacetIndex.Result result, int page, int size) {
+        List<GameResponseDTO> items = gameCache.getAll(result.ids(), gameAssembler::loadInOrder);
+        return new GameSearchResponseDTO(items, result.total(), page, size,
+                result.tagFacets(), result.developerFacets(), result.priceFacets());
+    }
+
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private static int pageNumber(Integer page) {
+        if (page != null && page < 0) {
+            throw new InvalidQueryParameterException("Il numero di pagina non può essere negativo.");
+        }
+        return page == null ? 0 : page;
+    }
+
+    private void validate(GameSearchRequestDTO request) {
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new InvalidQueryParameterException("Il prezzo minimo non può superare il prezzo massimo.");
+        }
+        if (request.getReleasedFrom() != null && request.getReleasedTo() != null
+                && request.getReleasedFrom().isAfter(request.getReleasedTo())) {
+            throw new InvalidQueryParameterException("La data iniziale non può essere successiva alla data finale.");
+        }
+    }
+
+    private GameFacetIndex.Criteria toCriteria(GameSearchRequestDTO request) {
+        return new GameFacetIndex.Criteria(
+                request.getTags(),
+                request.getTagMode() != null ? request.getTagMode() : TagMatchMode.ALL,
+                blankToNull(request.getDeveloper()),
+                blankToNull(request.getPublisher()),
+                request.getMinPrice() != null ? GameFacetIndex.toCents(request.getMinPrice()) : null,
+                request.getMaxPrice() != null ? GameFacetIndex.toCents(request.getMaxPrice()) : null,
+                request.getReleasedFrom() != null ? (int) request.getReleasedFrom().toEpochDay() : null,
+                request.getReleasedTo() != null ? (int) request.getReleasedTo().toEpochDay() : null);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
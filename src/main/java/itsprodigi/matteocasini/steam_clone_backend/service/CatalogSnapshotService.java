@@ -0,0 +1,28 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.SerializedDocument;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Snapshot pre-serializzato del catalogo, usato per servire le letture più
+ * frequenti senza conversioni né serializzazione.
+ */
+public interface CatalogSnapshotService {
+
+    /**
+     * Restituisce la lista completa dei giochi già serializzata.
+     *
+     * @return documento della lista, vuoto se lo snapshot non è ancora pronto
+     */
+    Optional<SerializedDocument> getGameList();
+
+    /**
+     * Restituisce il documento di un singolo gioco già serializzato.
+     *
+     * @param id ID del gioco
+     * @return documento del gioco, vuoto se lo snapshot non è pronto o non lo contiene ancora
+     */
+    Optional<SerializedDocument> getGame(UUID id);
+}
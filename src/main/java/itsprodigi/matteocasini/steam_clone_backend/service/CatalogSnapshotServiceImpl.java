@@ -0,0 +1,281 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CatalogIndexer;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.SerializedDocument;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementazione dello snapshot del catalogo.
+ * Mantiene in memoria i DTO aggiornati dagli eventi del catalogo e, dopo ogni
+ * modifica, pubblica in background un nuovo snapshot immutabile con la lista e
+ * i singoli giochi già serializzati (e la lista compressa gzip).
+ * Più modifiche ravvicinate vengono accorpate in un'unica ricostruzione.
+ * Le letture leggono solo un campo volatile: nessun lock né serializzazione.
+ * I giochi modificati dopo l'ultimo snapshot non vengono serviti da esso
+ * finché la ricostruzione non li include: il chiamante ripiega sul database.
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService, CatalogIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+    /** Sotto questa dimensione la compressione non porta benefici. */
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private static final Comparator<GameResponseDTO> LIST_ORDER = Comparator
+            .comparing(GameResponseDTO::getTitle, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(GameResponseDTO::getId);
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final long debounceMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    // Stato corrente del catalogo, protetto dal monitor di games
+    private final Map<UUID, GameResponseDTO> games = new HashMap<>();
+    // Giochi cambiati dopo l'ultima copia pubblicata, con il numero della modifica;
+    // scritti sotto il monitor di games, letti senza lock
+    private final Map<UUID, Long> changedSincePublish = new ConcurrentHashMap<>();
+    private long changeSequence;
+    private volatile Snapshot snapshot;
+    private long version;
+
+    public CatalogSnapshotServiceImpl(ObjectMapper objectMapper,
+            @Value("${catalog.snapshot.gzip:true}") boolean gzipEnabled,
+            @Value("${catalog.snapshot.debounce:PT0.2S}") Duration debounce) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.debounceMillis = debounce.toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Optional<SerializedDocument> getGameList() {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.list());
+    }
+
+    @Override
+    public Optional<SerializedDocument> getGame(UUID id) {
+        Snapshot current = snapshot;
+        if (current == null || changedSincePublish.containsKey(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.games().get(id));
+    }
+
+    /**
+     * Versione dello snapshot pubblicato, incrementata a ogni ricostruzione.
+     */
+    public long getVersion() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.version();
+    }
+
+    @Override
+    public void rebuild(Collection<GameResponseDTO> all) {
+        synchronized (games) {
+            games.clear();
+            all.forEach(game -> games.put(game.getId(), game));
+        }
+        // All'avvio lo snapshot viene costruito subito, sul thread del chiamante
+        publish();
+    }
+
+    @Override
+    public void onGameChanged(GameChangedEvent event) {
+        synchronized (games) {
+            if (event.isDeleted()) {
+                games.remove(event.getGameId());
+            } else {
+                games.put(event.getGameId(), event.getCurrent());
+            }
+            markChanged(event.getGameId());
+        }
+        scheduleRebuild();
+    }
+
+    @Override
+    public void onTagChanged(TagChangedEvent event) {
+        synchronized (games) {
+            for (GameResponseDTO game : new ArrayList<>(games.values())) {
+                if (game.getTags() == null || game.getTags().stream().noneMatch(t -> event.getTagId().equals(t.getId()))) {
+                    continue;
+                }
+                // Rinomina già contenuta nello stato (evento riapplicato dopo una ricostruzione)
+                if (event.getType() == TagChangedEvent.Type.RENAMED && game.getTags().stream()
+                        .anyMatch(t -> event.getTagId().equals(t.getId()) && event.getName().equals(t.getName()))) {
+                    continue;
+                }
+                // I DTO possono essere condivisi con altri componenti: si sostituiscono, non si modificano
+                List<TagDTO> tags = new ArrayList<>();
+                for (TagDTO tag : game.getTags()) {
+                    if (!event.getTagId().equals(tag.getId())) {
+                        tags.add(tag);
+                    } else if (event.getType() == TagChangedEvent.Type.RENAMED) {
+                        tags.add(new TagDTO(tag.getId(), event.getName()));
+                    } else if (event.getType() == TagChangedEvent.Type.MERGED && game.getTags().stream()
+                            .noneMatch(t -> event.getTargetTagId().equals(t.getId()))) {
+                        tags.add(new TagDTO(event.getTargetTagId(), event.getName()));
+                    }
+                }
+                GameResponseDTO copy = new GameResponseDTO(game.getId(), game.getTitle(), game.getPrice(),
+                        game.getReleaseDate(), game.getDeveloper(), game.getPublisher(), tags);
+                // Sul database la versione dei giochi coinvolti è già stata incrementata di uno
+                copy.setVersion(game.getVersion() != null ? game.getVersion() + 1 : null);
+                copy.setUpdatedAt(Instant.now());
+                games.put(game.getId(), copy);
+                markChanged(game.getId());
+            }
+        }
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void markChanged(UUID id) {
+        if (snapshot != null) {
+            changedSincePublish.put(id, ++changeSequence);
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (snapshot == null) {
+            // Finché il primo snapshot non esiste si continua a servire dal database
+            return;
+        }
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    publish();
+                } catch (RuntimeException e) {
+                    log.warn("Ricostruzione dello snapshot del catalogo fallita: {}", e.getMessage());
+                }
+            }, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Serializza lo stato corrente e pubblica il nuovo snapshot.
+     * I documenti dei giochi non modificati vengono riusati dallo snapshot precedente.
+     */
+    private synchronized void publish() {
+        List<GameResponseDTO> current;
+        long copiedChanges;
+        synchronized (games) {
+            current = new ArrayList<>(games.values());
+            copiedChanges = changeSequence;
+        }
+        current.sort(LIST_ORDER);
+
+        Snapshot previous = snapshot;
+        Map<UUID, SerializedDocument> documents = new HashMap<>(current.size() * 2);
+        for (GameResponseDTO game : current) {
+            SerializedDocument document = previous == null ? null : previous.documentIfSame(game);
+            documents.put(game.getId(), document != null ? document : serializeGame(game));
+        }
+        long newVersion = ++version;
+        snapshot = new Snapshot(newVersion, serializeList(current), documents, toIdentityMap(current));
+        synchronized (games) {
+            // Solo le modifiche incluse nella copia: quelle successive restano escluse
+            changedSincePublish.values().removeIf(change -> change <= copiedChanges);
+        }
+        log.debug("Snapshot del catalogo pubblicato: versione {}, {} giochi", newVersion, current.size());
+    }
+
+    private static Map<GameResponseDTO, Boolean> toIdentityMap(List<GameResponseDTO> games) {
+        Map<GameResponseDTO, Boolean> map = new IdentityHashMap<>(games.size());
+        games.forEach(game -> map.put(game, Boolean.TRUE));
+        return map;
+    }
+
+    /**
+     * Il documento di un gioco usa la sua versione come ETag, la stessa
+     * restituita dal lookup sul database quando il gioco non è nello snapshot.
+     */
+    private SerializedDocument serializeGame(GameResponseDTO game) {
+        byte[] json = toJson(game);
+        String etag = game.getVersion() != null
+                ? "\"" + game.getVersion() + "\""
+                : "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        return new SerializedDocument(json, null, etag, toMillis(game.getUpdatedAt()));
+    }
+
+    private SerializedDocument serializeList(List<GameResponseDTO> games) {
+        byte[] json = toJson(games);
+        byte[] compressed = gzipEnabled && json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+        long lastModified = games.stream()
+                .mapToLong(game -> toMillis(game.getUpdatedAt()))
+                .max()
+                .orElse(-1);
+        return new SerializedDocument(json, compressed, "\"" + DigestUtils.md5DigestAsHex(json) + "\"",
+                lastModified);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializzazione dello snapshot fallita", e);
+        }
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : -1;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Snapshot immutabile. Tiene traccia (per identità) dei DTO serializzati,
+     * così il successivo può riusare i documenti dei giochi non toccati.
+     */
+    private record Snapshot(long version, SerializedDocument list, Map<UUID, SerializedDocument> games,
+            Map<GameResponseDTO, Boolean> sources) {
+
+        SerializedDocument documentIfSame(GameResponseDTO game) {
+            return sources.containsKey(game) ? games.get(game.getId()) : null;
+        }
+    }
+}
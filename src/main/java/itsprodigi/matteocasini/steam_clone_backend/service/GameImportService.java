@@ -0,0 +1,23 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Servizio per l'importazione massiva di giochi (es. il catalogo di un editore).
+ */
+public interface GameImportService {
+
+    /**
+     * Importa i giochi letti dallo stream, in NDJSON o come array JSON di
+     * GameRequestDTO. Gli elementi non validi o con titolo già esistente vengono
+     * scartati e riportati singolarmente, senza bloccare gli altri.
+     *
+     * @param in corpo della richiesta
+     * @return conteggi e dettaglio degli errori per elemento
+     * @throws IOException se la lettura dello stream fallisce
+     */
+    GameImportResultDTO importGames(InputStream in) throws IOException;
+}
@@ -0,0 +1,242 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameImportErrorDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameImportResultDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameImportRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameImportRepository.GameTagLink;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameImportRepository.NewGame;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CatalogIndexCoordinator;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.SearchText;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Implementazione dell'importazione massiva.
+ * Lo stream viene letto a blocchi di CHUNK_SIZE elementi; per ogni blocco si
+ * eseguono un controllo dei titoli, una risoluzione dei tag, un batch di tag
+ * mancanti, un batch di giochi e uno di associazioni, in un'unica transazione.
+ * Al termine gli indici del catalogo vengono ricostruiti una sola volta,
+ * invece di applicare migliaia di eventi singoli; le modifiche concorrenti
+ * vengono riapplicate dal coordinatore dopo la ricostruzione.
+ */
+@Service
+public class GameImportServiceImpl implements GameImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameImportServiceImpl.class);
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int MAX_TAG_NAME_LENGTH = 50;
+
+    private final GameImportRepository gameImportRepository;
+    private final CatalogIndexCoordinator indexCoordinator;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    public GameImportServiceImpl(GameImportRepository gameImportRepository, CatalogIndexCoordinator indexCoordinator,
+            ObjectMapper objectMapper, Validator validator, PlatformTransactionManager transactionManager) {
+        this.gameImportRepository = gameImportRepository;
+        this.indexCoordinator = indexCoordinator;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public GameImportResultDTO importGames(InputStream in) throws IOException {
+        GameImportResultDTO result = new GameImportResultDTO();
+        Set<String> seenTitles = new HashSet<>();
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        long index = 0;
+
+        try (MappingIterator<GameRequestDTO> it = objectMapper.readerFor(GameRequestDTO.class).readValues(in)) {
+            while (true) {
+                GameRequestDTO data;
+                try {
+                    if (!it.hasNextValue()) {
+                        break;
+                    }
+                    data = it.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Dopo un JSON malformato non si può riprendere la lettura in modo affidabile
+                    result.getFailures().add(new GameImportErrorDTO(index, null,
+                            "JSON non valido, importazione interrotta: " + e.getOriginalMessage()));
+                    break;
+                }
+                chunk.add(new Item(index++, data));
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, seenTitles, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenTitles, result);
+        }
+        result.setReceived(index);
+
+        if (result.getImported() > 0) {
+            try {
+                indexCoordinator.reload();
+            } catch (RuntimeException e) {
+                log.warn("Indici del catalogo non aggiornati dopo l'importazione: {}", e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private void importChunk(List<Item> chunk, Set<String> seenTitles, GameImportResultDTO result) {
+        List<Item> valid = new ArrayList<>(chunk.size());
+        for (Item item : chunk) {
+            String error = validate(item.data());
+            if (error == null && !seenTitles.add(SearchText.normalize(item.data().getTitle()))) {
+                error = "Titolo duplicato all'interno dell'importazione.";
+            }
+            if (error != null) {
+                fail(result, item, error);
+            } else {
+                valid.add(item);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Controllo dei titoli esistenti con una sola query per blocco
+        Set<String> existing = gameImportRepository.findExistingTitles(
+                valid.stream().map(item -> item.data().getTitle()).toList())
+                .stream()
+                .map(SearchText::normalize)
+                .collect(Collectors.toSet());
+        List<Item> toInsert = new ArrayList<>(valid.size());
+        for (Item item : valid) {
+            if (existing.contains(SearchText.normalize(item.data().getTitle()))) {
+                fail(result, item, "Un gioco con il titolo '" + item.data().getTitle() + "' esiste già.");
+            } else {
+                toInsert.add(item);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(toInsert));
+            result.setImported(result.getImported() + toInsert.size());
+        } catch (DataAccessException e) {
+            String message = "Errore durante il salvataggio del blocco: " + e.getMostSpecificCause().getMessage();
+            toInsert.forEach(item -> fail(result, item, message));
+        }
+    }
+
+    private void insert(List<Item> items) {
+        Map<String, Long> tagIds = resolveTags(items);
+
+        List<NewGame> games = new ArrayList<>(items.size());
+        List<GameTagLink> links = new ArrayList<>();
+        for (Item item : items) {
+            UUID id = UUID.randomUUID();
+            games.add(new NewGame(id, item.data()));
+            for (String key : tagKeys(item.data())) {
+                links.add(new GameTagLink(id, tagIds.get(key)));
+            }
+        }
+        gameImportRepository.insertGames(games);
+        gameImportRepository.insertGameTags(links);
+    }
+
+    /**
+     * Risolve tutti i tag del blocco: una query per quelli esistenti, un batch
+     * per i mancanti e una query per leggerne gli ID.
+     *
+     * @return mappa chiave del nome (vedi tagKey) -> ID del tag
+     */
+    private Map<String, Long> resolveTags(List<Item> items) {
+        Map<String, String> wanted = new LinkedHashMap<>();
+        for (Item item : items) {
+            for (String name : item.data().getTagNames() == null ? List.<String>of() : item.data().getTagNames()) {
+                if (name != null && !name.isBlank()) {
+                    wanted.putIfAbsent(tagKey(name), name.trim());
+                }
+            }
+        }
+        // Il repository restituisce gli ID per nome richiesto: nessun confronto tra normalizzazioni
+        Map<String, Long> byName = gameImportRepository.findTagIdsByNames(wanted.values());
+        List<String> missing = wanted.values().stream()
+                .filter(name -> !byName.containsKey(name))
+                .toList();
+        if (!missing.isEmpty()) {
+            gameImportRepository.insertTagsIgnoringDuplicates(missing);
+            byName.putAll(gameImportRepository.findTagIdsByNames(missing));
+        }
+        Map<String, Long> ids = new HashMap<>();
+        wanted.forEach((key, name) -> ids.put(key, byName.get(name)));
+        return ids;
+    }
+
+    private Set<String> tagKeys(GameRequestDTO data) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (data.getTagNames() != null) {
+            for (String name : data.getTagNames()) {
+                if (name != null && !name.isBlank()) {
+                    keys.add(tagKey(name));
+                }
+            }
+        }
+        return keys;
+    }
+
+    // Raggruppa le varianti dello stesso nome come la collation (maiuscole e accenti)
+    private static String tagKey(String name) {
+        return SearchText.normalize(name);
+    }
+
+    /**
+     * Applica le stesse regole di validazione della creazione singola.
+     *
+     * @return messaggio d'errore, null se l'elemento è valido
+     */
+    private String validate(GameRequestDTO data) {
+        if (data == null) {
+            return "Elemento vuoto.";
+        }
+        Set<ConstraintViolation<GameRequestDTO>> violations = validator.validate(data);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+        if (data.getTagNames() != null) {
+            for (String name : data.getTagNames()) {
+                if (name != null && name.trim().length() > MAX_TAG_NAME_LENGTH) {
+                    return "Il nome del tag non può superare i " + MAX_TAG_NAME_LENGTH + " caratteri.";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void fail(GameImportResultDTO result, Item item, String message) {
+        result.getFailures().add(new GameImportErrorDTO(item.index(),
+                item.data() != null ? item.data().getTitle() : null, message));
+    }
+
+    private record Item(long index, GameRequestDTO data) {
+    }
+}
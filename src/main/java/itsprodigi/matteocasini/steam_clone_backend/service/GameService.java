@@ -1,9 +1,16 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.CacheStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameDetailResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GamePageResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameUpdateDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.GameSortField;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
 import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +40,23 @@ public interface GameService {
      */
     Optional<GameResponseDTO> getGameById(UUID id);
 
+    /**
+     * Recupera versione e data di ultima modifica di un gioco senza caricarlo.
+     *
+     * @param id ID del gioco
+     * @return versione del gioco, vuoto se non esiste
+     */
+    Optional<VersionStamp> getGameVersion(UUID id);
+
+    /**
+     * Recupera la scheda di un gioco con le statistiche di possesso e tempo di gioco,
+     * senza join su user_games.
+     *
+     * @param id ID del gioco
+     * @return scheda se il gioco esiste
+     */
+    Optional<GameDetailResponseDTO> getGameDetail(UUID id);
+
     /**
      * Recupera tutti i giochi presenti.
      *
@@ -40,6 +64,18 @@ public interface GameService {
      */
     List<GameResponseDTO> getAllGames();
 
+    /**
+     * Recupera una pagina del catalogo con paginazione a cursore (keyset).
+     * Il costo di ogni pagina non dipende dalla posizione nel catalogo.
+     *
+     * @param sort   ordinamento stabile da applicare
+     * @param cursor token restituito dalla pagina precedente, null per la prima
+     * @param size   numero di elementi richiesti, null per il valore di default
+     * @return pagina di giochi con l'eventuale cursore successivo
+     * @throws InvalidQueryParameterException se il cursore non è valido
+     */
+    GamePageResponseDTO getGamesPage(GameSortField sort, String cursor, Integer size);
+
     /**
      * Aggiorna un gioco esistente.
      *
@@ -67,12 +103,13 @@ public interface GameService {
     List<GameResponseDTO> findGamesByTitle(String title);
 
     /**
-     * Trova giochi associati a un tag.
+     * Suggerisce i titoli che iniziano con il prefisso indicato (autocompletamento).
      *
-     * @param tagName nome del tag
-     * @return lista di giochi
+     * @param prefix testo digitato dall'utente
+     * @param limit  numero massimo di suggerimenti, null per il valore di default
+     * @return lista di suggerimenti (ID e titolo)
      */
-    List<GameResponseDTO> findGamesByTagName(String tagName);
+    List<GameSuggestionDTO> suggestTitles(String prefix, Integer limit);
 
     /**
      * Trova giochi sviluppati da uno specifico sviluppatore.
@@ -89,4 +126,11 @@ public interface GameService {
      * @return lista di giochi
      */
     List<GameResponseDTO> findGamesByPublisher(String publisher);
-}
\ No newline at end of file
+
+    /**
+     * Restituisce le statistiche della cache dei giochi (hit, miss, evizioni).
+     *
+     * @return statistiche correnti
+     */
+    CacheStatsDTO getCacheStats();
+}
@@ -4,13 +4,32 @@ import itsprodigi.matteocasini.steam_clone_backend.model.Game;
 import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
 import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import itsprodigi.matteocasini.steam_clone_backend.dto.CacheStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameDetailResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GamePageResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameUpdateDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.GameSortField;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
 import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameAssembler;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameCache;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameCursor;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameSearchIndex;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameStatsStore;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameTitleSuggester;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.SearchText;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagDictionary;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,11 +46,42 @@ public class GameServiceImpl implements GameService {
 
     private final GameRepository gameRepository;
     private final TagRepository tagRepository;
+    private final TagDictionary tagDictionary;
+    private final GameAssembler gameAssembler;
+    private final GameCache gameCache;
+    private final GameSearchIndex searchIndex;
+    private final GameTitleSuggester titleSuggester;
+    private final GameStatsStore gameStatsStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Dimensioni di pagina per la paginazione a cursore (configurabili in application.properties)
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    // Numero di suggerimenti dell'autocompletamento
+    @Value("${catalog.suggest.default-limit:10}")
+    private int defaultSuggestLimit = 10;
+
+    @Value("${catalog.suggest.max-limit:25}")
+    private int maxSuggestLimit = 25;
 
     @Autowired
-    public GameServiceImpl(GameRepository gameRepository, TagRepository tagRepository) {
+    public GameServiceImpl(GameRepository gameRepository, TagRepository tagRepository, TagDictionary tagDictionary,
+            GameAssembler gameAssembler,
+            GameCache gameCache, GameSearchIndex searchIndex, GameTitleSuggester titleSuggester,
+            GameStatsStore gameStatsStore, ApplicationEventPublisher eventPublisher) {
         this.gameRepository = gameRepository;
         this.tagRepository = tagRepository;
+        this.tagDictionary = tagDictionary;
+        this.gameAssembler = gameAssembler;
+        this.gameCache = gameCache;
+        this.searchIndex = searchIndex;
+        this.titleSuggester = titleSuggester;
+        this.gameStatsStore = gameStatsStore;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -56,36 +106,88 @@ public class GameServiceImpl implements GameService {
         if (gameRequestDTO.getTagNames() != null && !gameRequestDTO.getTagNames().isEmpty()) {
             Set<Tag> tags = new HashSet<>();
             for (String tagName : gameRequestDTO.getTagNames()) {
-                Tag tag = tagRepository.findByNameIgnoreCase(tagName)
-                        .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                tags.add(tag);
+                tags.add(resolveTag(tagName));
             }
             game.setTags(tags);
         }
 
         Game savedGame = gameRepository.save(game);
-        return convertToResponseDto(savedGame);
+        GameResponseDTO created = convertToResponseDto(savedGame);
+        eventPublisher.publishEvent(GameChangedEvent.created(created));
+        return created;
     }
 
     /**
      * Recupera un gioco per ID e lo converte in DTO.
+     * Passa dalla cache: solo in caso di miss viene eseguita la query con i tag.
+     * Non è transazionale, così un hit non occupa una connessione al database.
      */
     @Override
-    @Transactional(readOnly = true)
     public Optional<GameResponseDTO> getGameById(UUID id) {
-        return gameRepository.findByIdWithTags(id)
-                .map(this::convertToResponseDto);
+        return gameCache.get(id, key -> gameRepository.findByIdWithTags(key)
+                .map(this::convertToResponseDto));
+    }
+
+    /**
+     * Il gioco arriva dalla cache e le statistiche dallo store in memoria:
+     * nessuna query su user_games.
+     */
+    @Override
+    public Optional<GameDetailResponseDTO> getGameDetail(UUID id) {
+        return getGameById(id).map(game -> new GameDetailResponseDTO(game, gameStatsStore.get(id)));
+    }
+
+    /**
+     * Legge solo versione e data di modifica del gioco, per le richieste condizionali.
+     */
+    @Override
+    public Optional<VersionStamp> getGameVersion(UUID id) {
+        return gameRepository.findVersionStampById(id);
     }
 
     /**
      * Restituisce la lista completa dei giochi.
+     * I tag vengono caricati in una seconda query batch (vedi GameAssembler).
      */
     @Override
     @Transactional(readOnly = true)
     public List<GameResponseDTO> getAllGames() {
-        return gameRepository.findAllWithTags().stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+        return gameAssembler.toResponseDtos(gameRepository.findAll());
+    }
+
+    /**
+     * Restituisce una pagina del catalogo a partire dal cursore indicato.
+     * Si legge un elemento in più del richiesto per sapere se esiste una
+     * pagina successiva senza eseguire un COUNT.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GamePageResponseDTO getGamesPage(GameSortField sort, String cursor, Integer size) {
+        GameSortField effectiveSort = sort != null ? sort : GameSortField.TITLE;
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<UUID> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = effectiveSort == GameSortField.TITLE
+                    ? gameRepository.findPageIdsOrderByTitle(limit)
+                    : gameRepository.findPageIdsOrderByReleaseDate(limit);
+        } else {
+            GameCursor from = GameCursor.decode(cursor, effectiveSort);
+            ids = effectiveSort == GameSortField.TITLE
+                    ? gameRepository.findPageIdsOrderByTitleAfter(from.getLastTitle(), from.getLastId(), limit)
+                    : gameRepository.findPageIdsOrderByReleaseDateAfter(from.getLastReleaseDate(), from.getLastId(),
+                            limit);
+        }
+
+        boolean hasMore = ids.size() > pageSize;
+        List<UUID> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        List<GameResponseDTO> items = loadThroughCache(pageIds);
+
+        String nextCursor = hasMore && !items.isEmpty()
+                ? GameCursor.after(effectiveSort, items.get(items.size() - 1)).encode()
+                : null;
+        return new GamePageResponseDTO(items, nextCursor, pageSize);
     }
 
     /**
@@ -97,6 +199,7 @@ public class GameServiceImpl implements GameService {
     public GameResponseDTO updateGame(UUID id, GameUpdateDTO dto) {
         Game game = gameRepository.findByIdWithTags(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Gioco non trovato con ID: " + id));
+        GameResponseDTO previous = convertToResponseDto(game);
 
         // Controllo per titolo duplicato, se lo sta cambiando
         if (dto.getTitle() != null && !dto.getTitle().isBlank()) {
@@ -129,14 +232,17 @@ public class GameServiceImpl implements GameService {
         if (dto.getTagNames() != null) {
             game.getTags().clear();
             for (String tagName : dto.getTagNames()) {
-                Tag tag = tagRepository.findByNameIgnoreCase(tagName)
-                        .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                game.addTag(tag);
+                // Solo il lato proprietario (game_tags): game.addTag aggiornerebbe anche
+                // Tag.games, inizializzando il proxy del dizionario e la sua collezione
+                game.getTags().add(resolveTag(tagName));
             }
         }
 
-        Game updatedGame = gameRepository.save(game);
-        return convertToResponseDto(updatedGame);
+        // Flush immediato: la versione viene incrementata solo al flush e il DTO deve riportarla
+        Game updatedGame = gameRepository.saveAndFlush(game);
+        GameResponseDTO updated = convertToResponseDto(updatedGame);
+        eventPublisher.publishEvent(GameChangedEvent.updated(previous, updated));
+        return updated;
     }
 
     /**
@@ -145,54 +251,100 @@ public class GameServiceImpl implements GameService {
     @Override
     @Transactional
     public void deleteGame(UUID id) {
-        if (!gameRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Gioco non trovato con ID: " + id);
-        }
+        Game game = gameRepository.findByIdWithTags(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Gioco non trovato con ID: " + id));
+        GameResponseDTO previous = convertToResponseDto(game);
         gameRepository.deleteById(id);
+        eventPublisher.publishEvent(GameChangedEvent.deleted(previous));
     }
 
     /**
      * Cerca giochi il cui titolo contiene una certa stringa (case-insensitive).
+     * Usa l'indice in memoria quando è pronto, altrimenti il database.
      */
     @Override
     @Transactional(readOnly = true)
     public List<GameResponseDTO> findGamesByTitle(String title) {
-        return gameRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+        if (searchIndex.isReady()) {
+            return loadThroughCache(searchIndex.search(GameSearchIndex.Field.TITLE, title));
+        }
+        return gameAssembler.toResponseDtos(gameRepository.findByTitleContainingIgnoreCase(title));
     }
 
     /**
-     * Cerca giochi associati a un determinato tag.
+     * Suggerisce titoli per l'autocompletamento.
+     * Con l'indice in memoria pronto non si accede al database; altrimenti si
+     * legge solo (id, titolo) con una query a prefisso limitata.
      */
     @Override
-    @Transactional(readOnly = true)
-    public List<GameResponseDTO> findGamesByTagName(String tagName) {
-        return gameRepository.findByTags_NameIgnoreCase(tagName).stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    public List<GameSuggestionDTO> suggestTitles(String prefix, Integer limit) {
+        int max = limit == null ? defaultSuggestLimit : Math.max(1, Math.min(limit, maxSuggestLimit));
+        if (titleSuggester.isReady()) {
+            return titleSuggester.suggest(prefix, max);
+        }
+        if (SearchText.normalize(prefix).isEmpty()) {
+            return new ArrayList<>();
+        }
+        return gameRepository.findSuggestionsByTitlePrefix(likePrefix(prefix.trim()), PageRequest.of(0, max));
+    }
+
+    // Pattern LIKE "prefisso%": '%' e '_' digitati dall'utente valgono come testo
+    private static String likePrefix(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
     }
 
     /**
      * Cerca giochi per sviluppatore (case-insensitive).
+     * Usa l'indice in memoria quando è pronto, altrimenti il database.
      */
     @Override
     @Transactional(readOnly = true)
     public List<GameResponseDTO> findGamesByDeveloper(String developer) {
-        return gameRepository.findByDeveloperIgnoreCase(developer).stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+        if (searchIndex.isReady()) {
+            return loadThroughCache(searchIndex.search(GameSearchIndex.Field.DEVELOPER, developer));
+        }
+        return gameAssembler.toResponseDtos(gameRepository.findByDeveloperIgnoreCase(developer));
     }
 
     /**
      * Cerca giochi per editore (case-insensitive).
+     * Usa l'indice in memoria quando è pronto, altrimenti il database.
      */
     @Override
     @Transactional(readOnly = true)
     public List<GameResponseDTO> findGamesByPublisher(String publisher) {
-        return gameRepository.findByPublisherIgnoreCase(publisher).stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+        if (searchIndex.isReady()) {
+            return loadThroughCache(searchIndex.search(GameSearchIndex.Field.PUBLISHER, publisher));
+        }
+        return gameAssembler.toResponseDtos(gameRepository.findByPublisherIgnoreCase(publisher));
+    }
+
+    /**
+     * Restituisce le statistiche della cache dei giochi.
+     */
+    @Override
+    public CacheStatsDTO getCacheStats() {
+        return gameCache.stats();
+    }
+
+    /**
+     * Risolve un tag per nome tramite il dizionario in memoria (nessuna query
+     * se il tag esiste già); se non esiste lo crea.
+     */
+    private Tag resolveTag(String tagName) {
+        return tagDictionary.find(tagName).orElseGet(() -> {
+            Tag created = tagRepository.save(new Tag(tagName));
+            tagDictionary.registerAfterCommit(created);
+            return created;
+        });
+    }
+
+    /**
+     * Carica i giochi indicati nell'ordine degli ID, leggendo dal database
+     * (in un'unica passata a due fasi) solo quelli assenti dalla cache.
+     */
+    private List<GameResponseDTO> loadThroughCache(List<UUID> ids) {
+        return gameCache.getAll(ids, gameAssembler::loadInOrder);
     }
 
     /**
@@ -203,7 +355,7 @@ public class GameServiceImpl implements GameService {
                 .map(tag -> new TagDTO(tag.getId(), tag.getName()))
                 .collect(Collectors.toList());
 
-        return new GameResponseDTO(
+        GameResponseDTO dto = new GameResponseDTO(
                 game.getId(),
                 game.getTitle(),
                 game.getPrice(),
@@ -211,5 +363,8 @@ public class GameServiceImpl implements GameService {
                 game.getDeveloper(),
                 game.getPublisher(),
                 tagDtos);
+        dto.setVersion(game.getVersion());
+        dto.setUpdatedAt(game.getUpdatedAt());
+        return dto;
     }
 }
\ No newline at end of file
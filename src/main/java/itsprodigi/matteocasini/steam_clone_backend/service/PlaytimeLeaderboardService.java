@@ -0,0 +1,35 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameLeaderboardDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+
+import java.util.UUID;
+
+/**
+ * Classifiche dei giocatori di un gioco per tempo di gioco.
+ */
+public interface PlaytimeLeaderboardService {
+
+    /**
+     * Primi giocatori di un gioco per tempo di gioco.
+     *
+     * @param gameId ID del gioco
+     * @param limit  numero di giocatori (null per il valore predefinito)
+     * @return porzione di classifica, vuota se nessuno possiede il gioco
+     * @throws ResourceNotFoundException se il gioco non esiste
+     */
+    GameLeaderboardDTO getTopPlayers(UUID gameId, Integer limit);
+
+    /**
+     * Posizione di un utente e giocatori immediatamente prima e dopo di lui.
+     *
+     * @param gameId ID del gioco
+     * @param userId ID dell'utente
+     * @param radius giocatori da mostrare prima e dopo l'utente (null per il valore predefinito)
+     * @return porzione di classifica centrata sull'utente
+     * @throws ResourceNotFoundException se il gioco non esiste o l'utente non lo possiede
+     * @throws org.springframework.security.access.AccessDeniedException se chi chiede non è
+     *                                                                   l'utente né un amministratore
+     */
+    GameLeaderboardDTO getPlayersAround(UUID gameId, UUID userId, Integer radius);
+}
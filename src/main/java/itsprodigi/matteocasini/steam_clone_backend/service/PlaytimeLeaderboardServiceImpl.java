@@ -0,0 +1,101 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameLeaderboardDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LeaderboardEntryDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.UsernameRow;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.PlaytimeLeaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class PlaytimeLeaderboardServiceImpl implements PlaytimeLeaderboardService {
+
+    private final PlaytimeLeaderboard leaderboard;
+    private final UserRepository userRepository;
+    private final GameRepository gameRepository;
+    private final UserService userService;
+
+    @Value("${library.leaderboard.default-size:10}")
+    private int defaultSize = 10;
+
+    @Value("${library.leaderboard.max-size:100}")
+    private int maxSize = 100;
+
+    @Value("${library.leaderboard.default-radius:5}")
+    private int defaultRadius = 5;
+
+    @Autowired
+    public PlaytimeLeaderboardServiceImpl(PlaytimeLeaderboard leaderboard, UserRepository userRepository,
+            GameRepository gameRepository, UserService userService) {
+        this.leaderboard = leaderboard;
+        this.userRepository = userRepository;
+        this.gameRepository = gameRepository;
+        this.userService = userService;
+    }
+
+    /**
+     * La classifica è in memoria: si interroga il database solo per gli
+     * username della pagina e, per i giochi senza giocatori, per distinguere
+     * un gioco inesistente da una classifica vuota.
+     */
+    @Override
+    public GameLeaderboardDTO getTopPlayers(UUID gameId, Integer limit) {
+        requireGame(gameId);
+        int size = limit == null ? defaultSize : Math.max(1, Math.min(limit, maxSize));
+        return toDto(gameId, leaderboard.top(gameId, size));
+    }
+
+    @Override
+    public GameLeaderboardDTO getPlayersAround(UUID gameId, UUID userId, Integer radius) {
+        userService.requireSelfOrAdmin(userId);
+        requireGame(gameId);
+        int around = radius == null ? defaultRadius : Math.max(0, Math.min(radius, maxSize / 2));
+        PlaytimeLeaderboard.Window window = leaderboard.around(gameId, userId, around)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "L'utente " + userId + " non ha il gioco " + gameId + " in libreria."));
+        return toDto(gameId, window);
+    }
+
+    private void requireGame(UUID gameId) {
+        // Un gioco eliminato perde subito la classifica, quindi se esiste una classifica esiste il gioco
+        if (!leaderboard.hasPlayers(gameId) && !gameRepository.existsById(gameId)) {
+            throw new ResourceNotFoundException("Gioco non trovato con ID: " + gameId);
+        }
+    }
+
+    /**
+     * Aggiunge gli username con una sola query. Gli utenti non più esistenti
+     * (eliminati insieme alle loro librerie) vengono tolti dalla classifica.
+     */
+    private GameLeaderboardDTO toDto(UUID gameId, PlaytimeLeaderboard.Window window) {
+        List<UUID> userIds = window.entries().stream().map(PlaytimeLeaderboard.Entry::userId).toList();
+        Map<UUID, String> usernames = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (UsernameRow row : userRepository.findUsernamesByIds(userIds)) {
+                usernames.put(row.userId(), row.username());
+            }
+        }
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(window.entries().size());
+        int removed = 0;
+        for (PlaytimeLeaderboard.Entry entry : window.entries()) {
+            String username = usernames.get(entry.userId());
+            if (username == null) {
+                leaderboard.remove(gameId, entry.userId());
+                removed++;
+                continue;
+            }
+            entries.add(new LeaderboardEntryDTO(entry.rank(), entry.userId(), username, entry.playtimeMinutes()));
+        }
+        return new GameLeaderboardDTO(gameId, window.totalPlayers() - removed, entries);
+    }
+}
@@ -0,0 +1,32 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.RecommendedGameDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consigli di giochi basati sul co-possesso nelle librerie degli utenti.
+ */
+public interface RecommendationService {
+
+    /**
+     * Giochi posseduti più spesso da chi possiede il gioco indicato.
+     *
+     * @param gameId ID del gioco
+     * @param limit  numero massimo di giochi (null per il valore predefinito)
+     * @return giochi consigliati, vuoti finché il primo calcolo non è completato
+     * @throws ResourceNotFoundException se il gioco non esiste
+     */
+    List<RecommendedGameDTO> getAlsoOwned(UUID gameId, Integer limit);
+
+    /**
+     * Consigli personali per un utente, esclusi i giochi che possiede già.
+     *
+     * @param userId ID dell'utente
+     * @param limit  numero massimo di giochi (null per il valore predefinito)
+     * @return giochi consigliati
+     */
+    List<RecommendedGameDTO> getRecommendationsForUser(UUID userId, Integer limit);
+}
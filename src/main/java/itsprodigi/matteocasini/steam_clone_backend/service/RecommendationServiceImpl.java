@@ -0,0 +1,64 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.RecommendedGameDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CoOwnershipRecommender;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.LibraryOwnershipCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private final CoOwnershipRecommender recommender;
+    private final LibraryOwnershipCache ownershipCache;
+    private final GameRepository gameRepository;
+    private final UserService userService;
+
+    @Value("${catalog.recommendations.default-limit:10}")
+    private int defaultLimit = 10;
+
+    @Value("${catalog.recommendations.max-limit:50}")
+    private int maxLimit = 50;
+
+    @Autowired
+    public RecommendationServiceImpl(CoOwnershipRecommender recommender, LibraryOwnershipCache ownershipCache,
+            GameRepository gameRepository, UserService userService) {
+        this.recommender = recommender;
+        this.ownershipCache = ownershipCache;
+        this.gameRepository = gameRepository;
+        this.userService = userService;
+    }
+
+    /**
+     * Servito dallo snapshot in memoria; il database si interroga solo per un
+     * ID che il catalogo in memoria non conosce, per distinguere un gioco
+     * inesistente da uno aggiunto prima che gli indici fossero pronti.
+     */
+    @Override
+    public List<RecommendedGameDTO> getAlsoOwned(UUID gameId, Integer limit) {
+        if (!recommender.isKnown(gameId) && !gameRepository.existsById(gameId)) {
+            throw new ResourceNotFoundException("Gioco non trovato con ID: " + gameId);
+        }
+        return recommender.alsoOwned(gameId, resolveLimit(limit));
+    }
+
+    /**
+     * La libreria arriva dalla cache dei possessi (una query sugli ID solo se
+     * l'utente non è in cache), i vicini dallo snapshot.
+     */
+    @Override
+    public List<RecommendedGameDTO> getRecommendationsForUser(UUID userId, Integer limit) {
+        userService.requireSelfOrAdmin(userId);
+        return recommender.recommendFor(ownershipCache.ownedGames(userId), resolveLimit(limit));
+    }
+
+    private int resolveLimit(Integer limit) {
+        return limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+    }
+}
@@ -1,6 +1,14 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.RelatedTagDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPopularityDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagPopularitySort;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagSortField;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +38,53 @@ public interface TagService {
      */
     List<TagDTO> getAllTags();
 
+    /**
+     * Elenco paginato dei tag con il numero di giochi di ciascuno.
+     *
+     * @param page numero di pagina (da 0, null per la prima)
+     * @param size dimensione della pagina (null per il valore predefinito)
+     * @param sort ordinamento
+     * @return pagina di tag con i totali
+     * @throws InvalidQueryParameterException se il numero di pagina è negativo
+     */
+    TagPageResponseDTO getTagsPage(Integer page, Integer size, TagSortField sort);
+
+    /**
+     * Versione di un tag, letta senza caricare l'entità.
+     * 
+     * @param id ID del tag
+     * @return versione del tag, vuoto se non esiste
+     */
+    Optional<VersionStamp> getTagVersion(Long id);
+
+    /**
+     * Versione dell'intera lista dei tag: cambia a ogni creazione,
+     * modifica o cancellazione. Non ha data di ultima modifica.
+     * 
+     * @return versione della lista
+     */
+    VersionStamp getTagsVersion();
+
+    /**
+     * Classifica dei tag più usati, servita da contatori in memoria.
+     *
+     * @param limit numero massimo di tag (null per il valore predefinito)
+     * @param sort  contatore su cui ordinare
+     * @return tag con numero di giochi e di possessori
+     */
+    List<TagPopularityDTO> getTopTags(Integer limit, TagPopularitySort sort);
+
+    /**
+     * Tag che compaiono più spesso sugli stessi giochi del tag indicato,
+     * letti dalla matrice di co-occorrenza in memoria.
+     *
+     * @param id    ID del tag di partenza
+     * @param limit numero massimo di tag (null per il valore predefinito)
+     * @return tag correlati, per numero di giochi in comune decrescente
+     * @throws ResourceNotFoundException se il tag non esiste
+     */
+    List<RelatedTagDTO> getRelatedTags(Long id, Integer limit);
+
     /**
      * Crea un nuovo tag o restituisce uno esistente con lo stesso nome.
      * 
@@ -53,4 +108,14 @@ public interface TagService {
      * @param id ID del tag
      */
     void deleteTag(Long id);
+
+    /**
+     * Unisce un tag in un altro: i giochi del tag sorgente ricevono il tag di
+     * destinazione e il sorgente viene eliminato.
+     *
+     * @param sourceId ID del tag da unire ed eliminare
+     * @param targetId ID del tag che resta
+     * @return tag di destinazione
+     */
+    TagDTO mergeTags(Long sourceId, Long targetId);
 }
\ No newline at end of file
@@ -1,13 +1,40 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.RelatedTagDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagSummaryDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPopularityDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagPopularitySort;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagSortField;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidTagOperationException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
 import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagMaintenanceRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.TagVersionRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CatalogIndexCoordinator;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagCooccurrenceIndex;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagDictionary;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagPopularityCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -17,10 +44,46 @@ import java.util.stream.Collectors;
 @Service
 public class TagServiceImpl implements TagService {
 
+    // Giochi elaborati per transazione durante eliminazione e unione dei tag
+    static final int CHUNK_SIZE = 1000;
+
     private final TagRepository tagRepository;
+    private final GameRepository gameRepository;
+    private final TagMaintenanceRepository tagMaintenanceRepository;
+    private final TagDictionary tagDictionary;
+    private final TagPopularityCounter popularityCounter;
+    private final TagCooccurrenceIndex cooccurrenceIndex;
+    private final CatalogIndexCoordinator indexCoordinator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize = 100;
 
-    public TagServiceImpl(TagRepository tagRepository) {
+    // Dimensione della classifica dei tag
+    @Value("${catalog.tags.top.default-limit:10}")
+    private int defaultTopLimit = 10;
+
+    @Value("${catalog.tags.top.max-limit:100}")
+    private int maxTopLimit = 100;
+
+    public TagServiceImpl(TagRepository tagRepository, GameRepository gameRepository,
+            TagMaintenanceRepository tagMaintenanceRepository, TagDictionary tagDictionary,
+            TagPopularityCounter popularityCounter, TagCooccurrenceIndex cooccurrenceIndex,
+            CatalogIndexCoordinator indexCoordinator, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
         this.tagRepository = tagRepository;
+        this.gameRepository = gameRepository;
+        this.tagMaintenanceRepository = tagMaintenanceRepository;
+        this.tagDictionary = tagDictionary;
+        this.popularityCounter = popularityCounter;
+        this.cooccurrenceIndex = cooccurrenceIndex;
+        this.indexCoordinator = indexCoordinator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -58,7 +121,78 @@ public class TagServiceImpl implements TagService {
     }
 
     /**
-     * Crea un nuovo tag oppure restituisce quello esistente con lo stesso nome.
+     * Elenco paginato dei tag: conteggio e ordinamento vengono eseguiti in SQL
+     * con una proiezione sul DTO, senza caricare entità Tag o Tag.games.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TagPageResponseDTO getTagsPage(Integer page, Integer size, TagSortField sort) {
+        if (page != null && page < 0) {
+            throw new InvalidQueryParameterException("Il numero di pagina non può essere negativo.");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        PageRequest pageRequest = PageRequest.of(page == null ? 0 : page, pageSize);
+        Page<TagSummaryDTO> result = sort == TagSortField.GAME_COUNT
+                ? tagRepository.findSummariesOrderByGameCount(pageRequest)
+                : tagRepository.findSummariesOrderByName(pageRequest);
+        return new TagPageResponseDTO(result.getContent(), result.getNumber(), result.getSize(),
+                result.getTotalElements(), result.getTotalPages());
+    }
+
+    /**
+     * Legge solo versione e data di modifica del tag.
+     */
+    @Override
+    public Optional<VersionStamp> getTagVersion(Long id) {
+        return tagRepository.findVersionStampById(id);
+    }
+
+    /**
+     * Calcola la versione della lista dei tag come digest delle coppie
+     * (ID, versione), lette con un'unica query di proiezione: a differenza di
+     * conteggio e somma delle versioni, due liste diverse non producono lo
+     * stesso valore. Nessuna data di ultima modifica: quella del tag più
+     * recente non cambia quando un tag viene eliminato.
+     */
+    @Override
+    public VersionStamp getTagsVersion() {
+        StringBuilder rows = new StringBuilder();
+        for (TagVersionRow row : tagRepository.findVersionRows()) {
+            rows.append(row.id()).append(':').append(row.version()).append(';');
+        }
+        return new VersionStamp(DigestUtils.md5DigestAsHex(rows.toString().getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    /**
+     * Classifica dei tag letta dai contatori in memoria, senza GROUP BY su game_tags.
+     */
+    @Override
+    public List<TagPopularityDTO> getTopTags(Integer limit, TagPopularitySort sort) {
+        int max = limit == null ? defaultTopLimit : Math.max(1, Math.min(limit, maxTopLimit));
+        return popularityCounter.top(max, sort != null ? sort : TagPopularitySort.GAMES);
+    }
+
+    /**
+     * Tag correlati letti dalla riga della matrice di co-occorrenza.
+     * Il database viene interrogato solo per distinguere un tag inesistente
+     * da un tag che non è associato ad alcun gioco.
+     */
+    @Override
+    public List<RelatedTagDTO> getRelatedTags(Long id, Integer limit) {
+        indexCoordinator.ensureLoaded();
+        if (!cooccurrenceIndex.contains(id)) {
+            if (!tagRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Tag non trovato con ID: " + id);
+            }
+            return List.of();
+        }
+        int max = limit == null ? defaultTopLimit : Math.max(1, Math.min(limit, maxTopLimit));
+        return cooccurrenceIndex.related(id, max);
+    }
+
+    /**
+     * Crea un nuovo tag oppure restituisce quello esistente con lo stesso nome
+     * (ignorando maiuscole, come nella creazione dei giochi).
      * Operazione transactional per garantire consistenza.
      *
      * @param tagDTO dati del tag da creare o cercare
@@ -67,9 +201,13 @@ public class TagServiceImpl implements TagService {
     @Override
     @Transactional
     public TagDTO createOrGetTag(TagDTO tagDTO) {
-        return tagRepository.findByName(tagDTO.getName())
+        return tagDictionary.find(tagDTO.getName())
                 .map(this::convertToDto)
-                .orElseGet(() -> convertToDto(tagRepository.save(new Tag(tagDTO.getName()))));
+                .orElseGet(() -> {
+                    Tag created = tagRepository.save(new Tag(tagDTO.getName()));
+                    tagDictionary.registerAfterCommit(created);
+                    return convertToDto(created);
+                });
     }
 
     /**
@@ -85,33 +223,84 @@ public class TagServiceImpl implements TagService {
     public TagDTO updateTag(Long id, TagDTO tagDTO) {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tag non trovato con ID: " + id));
+        String previousName = tag.getName();
         tag.setName(tagDTO.getName());
-        return convertToDto(tagRepository.save(tag));
+        TagDTO updated = convertToDto(tagRepository.save(tag));
+        if (!updated.getName().equals(previousName)) {
+            // I giochi con questo tag cambiano rappresentazione: nuova versione (e nuovo ETag)
+            gameRepository.incrementVersionByTagId(id);
+            eventPublisher.publishEvent(TagChangedEvent.renamed(id, previousName, updated.getName()));
+        }
+        return updated;
     }
 
     /**
      * Elimina un tag tramite ID.
-     * Rimuove anche il riferimento da tutti i giochi associati per evitare
-     * problemi di consistenza nelle relazioni bidirezionali.
+     * Le associazioni vengono rimosse con SQL set-based su game_tags, a blocchi
+     * di CHUNK_SIZE giochi per transazione, senza caricare Tag.games: la
+     * dimensione delle transazioni non dipende dal numero di giochi del tag.
+     * Cache e indici vengono invalidati per ID del tag con un solo evento.
+     * Se l'operazione si interrompe, rieseguirla completa il lavoro.
      *
      * @param id ID del tag da eliminare
-     * @throws RuntimeException se il tag non viene trovato
+     * @throws ResourceNotFoundException se il tag non viene trovato
      */
     @Override
-    @Transactional
     public void deleteTag(Long id) {
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Tag non trovato con ID: " + id));
+        Tag tag = findTag(id);
+        forEachGameChunk(id, gameIds -> tagMaintenanceRepository.detachTag(id, gameIds));
+        transactionTemplate.executeWithoutResult(status -> tagMaintenanceRepository.deleteTag(id));
+        eventPublisher.publishEvent(TagChangedEvent.deleted(id, tag.getName()));
+    }
 
-        // Rimuovi il tag da tutti i giochi associati
-        tag.getGames().forEach(game -> {
-            game.getTags().remove(tag);
-        });
+    /**
+     * Unisce il tag sorgente nel tag di destinazione: i giochi del sorgente
+     * ricevono la destinazione (se non l'hanno già) e il sorgente viene
+     * eliminato. Stessa strategia a blocchi di deleteTag.
+     *
+     * @param sourceId ID del tag da unire ed eliminare
+     * @param targetId ID del tag che resta
+     * @return tag di destinazione
+     * @throws ResourceNotFoundException    se uno dei due tag non esiste
+     * @throws InvalidTagOperationException se i due tag coincidono
+     */
+    @Override
+    public TagDTO mergeTags(Long sourceId, Long targetId) {
+        if (sourceId.equals(targetId)) {
+            throw new InvalidTagOperationException("Non è possibile unire un tag con se stesso.");
+        }
+        Tag source = findTag(sourceId);
+        Tag target = findTag(targetId);
+        forEachGameChunk(sourceId, gameIds -> tagMaintenanceRepository.moveTag(sourceId, targetId, gameIds));
+        transactionTemplate.executeWithoutResult(status -> tagMaintenanceRepository.deleteTag(sourceId));
+        eventPublisher.publishEvent(TagChangedEvent.merged(sourceId, source.getName(), targetId, target.getName()));
+        return convertToDto(target);
+    }
 
-        // si svuota la lista per sicurezza
-        tag.getGames().clear();
+    /**
+     * Applica l'operazione a blocchi di giochi associati al tag, ciascuno nella
+     * propria transazione. L'operazione deve rimuovere le righe del tag dal
+     * blocco, così la lettura successiva restituisce i giochi rimanenti.
+     */
+    private void forEachGameChunk(Long tagId, Consumer<List<byte[]>> operation) {
+        while (true) {
+            Boolean processed = transactionTemplate.execute(status -> {
+                List<byte[]> gameIds = tagMaintenanceRepository.findGameIdsByTagId(tagId, CHUNK_SIZE);
+                if (gameIds.isEmpty()) {
+                    return false;
+                }
+                operation.accept(gameIds);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(processed)) {
+                return;
+            }
+        }
+    }
 
-        tagRepository.delete(tag);
+    private Tag findTag(Long id) {
+        return tagRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Tag non trovato con ID: " + id));
     }
 
     /**
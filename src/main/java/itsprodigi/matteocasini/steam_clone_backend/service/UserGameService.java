@@ -1,8 +1,15 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.BundlePurchaseRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.BundlePurchaseResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.OwnedGamesResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserGameRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserGameResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserLibraryResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.LibrarySortField;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +27,12 @@ public interface UserGameService {
      */
     UserGameResponseDTO addGameToUserLibrary(UserGameRequestDTO userGameRequestDTO);
 
+    /**
+     * Aggiunge più giochi alla libreria di un utente in un'unica transazione
+     * (acquisto di un bundle), con esito per ogni gioco.
+     */
+    BundlePurchaseResponseDTO purchaseBundle(UUID userUuid, BundlePurchaseRequestDTO bundlePurchaseRequestDTO);
+
     /**
      * Recupera un'associazione utente-gioco specifica.
      * Non attualmente utilizzato, ma potenzialmente utile.
@@ -31,6 +44,23 @@ public interface UserGameService {
      */
     UserLibraryResponseDTO getUserLibrary(UUID userUuid);
 
+    /**
+     * Recupera una pagina della libreria di un utente con un numero di query
+     * costante (proiezione, conteggio e tag della pagina).
+     *
+     * @param userUuid ID dell'utente
+     * @param page     numero di pagina (da 0, null per la prima)
+     * @param size     dimensione della pagina (null per il valore predefinito)
+     * @param sort     ordinamento
+     * @return pagina della libreria con i totali
+     */
+    LibraryPageResponseDTO getUserLibraryPage(UUID userUuid, Integer page, Integer size, LibrarySortField sort);
+
+    /**
+     * Restituisce i totali della libreria di un utente (giochi, tempo di gioco, valore).
+     */
+    LibraryStatsDTO getLibraryStats(UUID userUuid);
+
     /**
      * Aggiorna le informazioni di un gioco nella libreria di un utente.
      */
@@ -41,6 +71,25 @@ public interface UserGameService {
      */
     void removeGameFromUserLibrary(UUID userUuid, UUID gameUuid);
 
+    /**
+     * Registra un heartbeat di gioco: i minuti vengono accumulati in memoria e
+     * sommati al tempo di gioco al flush successivo.
+     */
+    void recordPlaytimeHeartbeat(UUID userUuid, UUID gameUuid, Integer minutes);
+
+    /**
+     * Apre il feed SSE delle modifiche alla libreria dell'utente (aggiunte,
+     * rimozioni, tempo di gioco).
+     *
+     * @param lastEventId ID dell'ultimo evento ricevuto per riprendere il feed, null se è una nuova connessione
+     */
+    SseEmitter subscribeToLibraryEvents(UUID userUuid, String lastEventId);
+
+    /**
+     * Indica quali dei giochi richiesti sono nella libreria dell'utente.
+     */
+    OwnedGamesResponseDTO getOwnedGames(UUID userUuid, List<UUID> gameUuids);
+
     /**
      * Recupera tutte le associazioni utente-gioco presenti nel sistema.
      * Non attualmente esposto come endpoint pubblico; utile per uso interno o per
@@ -1,13 +1,36 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
 import itsprodigi.matteocasini.steam_clone_backend.dto.*;
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundleItemStatus;
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundlePurchaseMode;
+import itsprodigi.matteocasini.steam_clone_backend.enums.LibrarySortField;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
 import itsprodigi.matteocasini.steam_clone_backend.exception.GameAlreadyInLibraryException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.HeartbeatRejectedException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.UserNotFoundException;
 import itsprodigi.matteocasini.steam_clone_backend.model.*;
 import itsprodigi.matteocasini.steam_clone_backend.repository.*;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GamePrice;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryRow;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameAssembler;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.LibraryEventBroadcaster;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.LibraryOwnershipCache;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.LibraryStatsCache;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.PlaytimeHeartbeatBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -17,55 +40,165 @@ public class UserGameServiceImpl implements UserGameService {
     private final UserGameRepository userGameRepository;
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final UserGameBatchRepository userGameBatchRepository;
     private final UserService userService;
+    private final GameAssembler gameAssembler;
+    private final PlaytimeHeartbeatBuffer heartbeatBuffer;
+    private final LibraryOwnershipCache ownershipCache;
+    private final LibraryStatsCache libraryStats;
+    private final LibraryEventBroadcaster libraryEvents;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    @Value("${library.playtime.max-minutes-per-heartbeat:5}")
+    private int maxHeartbeatMinutes = 5;
+
+    @Value("${library.ownership.max-ids:200}")
+    private int maxOwnershipIds = 200;
+
+    @Value("${library.bundle.max-size:100}")
+    private int maxBundleSize = 100;
 
     @Autowired
     public UserGameServiceImpl(UserGameRepository userGameRepository,
             UserRepository userRepository,
             GameRepository gameRepository,
-            UserService userService) {
+            UserGameBatchRepository userGameBatchRepository,
+            UserService userService,
+            GameAssembler gameAssembler,
+            PlaytimeHeartbeatBuffer heartbeatBuffer,
+            LibraryOwnershipCache ownershipCache,
+            LibraryStatsCache libraryStats,
+            LibraryEventBroadcaster libraryEvents,
+            ApplicationEventPublisher eventPublisher) {
         this.userGameRepository = userGameRepository;
         this.userRepository = userRepository;
         this.gameRepository = gameRepository;
+        this.userGameBatchRepository = userGameBatchRepository;
         this.userService = userService;
-    }
-
-    /**
-     * Verifica se l'utente autenticato ha accesso alla libreria specificata.
-     * Consente l'accesso solo se l'utente è se stesso o un amministratore.
-     */
-    private void checkAccess(UUID targetUserId) {
-        User currentUser = userService.getAuthenticatedUser();
-        boolean isSelf = currentUser.getId().equals(targetUserId);
-        boolean isAdmin = currentUser.getRole().name().equals("ROLE_ADMIN");
-
-        if (!isSelf && !isAdmin) {
-            throw new org.springframework.security.access.AccessDeniedException("Non autorizzato.");
-        }
+        this.gameAssembler = gameAssembler;
+        this.heartbeatBuffer = heartbeatBuffer;
+        this.ownershipCache = ownershipCache;
+        this.libraryStats = libraryStats;
+        this.libraryEvents = libraryEvents;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Aggiunge un gioco alla libreria di un utente.
      * Lancia un'eccezione se il gioco è già presente.
+     *
+     * @throws GameAlreadyInLibraryException se il gioco è già posseduto o viene
+     *                                       aggiunto da una richiesta concorrente
      */
     @Override
     @Transactional
     public UserGameResponseDTO addGameToUserLibrary(UserGameRequestDTO dto) {
-        checkAccess(dto.getUserUuid());
+        User currentUser = userService.requireSelfOrAdmin(dto.getUserUuid());
 
-        User user = userRepository.findById(dto.getUserUuid())
-                .orElseThrow(() -> new RuntimeException("Utente non trovato: " + dto.getUserUuid()));
+        // Il controllo di possesso non richiede query; una richiesta concorrente
+        // che lo supera viene fermata dalla chiave primaria all'INSERT
+        if (ownershipCache.owns(dto.getUserUuid(), dto.getGameUuid())) {
+            throw new GameAlreadyInLibraryException("Il gioco è già nella libreria dell'utente.");
+        }
+
+        User user = currentUser.getId().equals(dto.getUserUuid()) ? currentUser
+                : userRepository.findById(dto.getUserUuid())
+                        .orElseThrow(() -> new RuntimeException("Utente non trovato: " + dto.getUserUuid()));
 
         Game game = gameRepository.findById(dto.getGameUuid())
                 .orElseThrow(() -> new RuntimeException("Gioco non trovato: " + dto.getGameUuid()));
 
-        UserGameId id = new UserGameId(user.getId(), game.getId());
-        if (userGameRepository.existsById(id)) {
+        UserGame userGame = new UserGame(user, game, dto.getPurchaseDate(), dto.getPlaytimeHours());
+        try {
+            // UserGame è Persistable: l'INSERT parte subito e un doppione viola la chiave primaria
+            userGameRepository.saveAndFlush(userGame);
+        } catch (DuplicateKeyException e) {
             throw new GameAlreadyInLibraryException("Il gioco è già nella libreria dell'utente.");
         }
+        UserGameResponseDTO saved = convertToUserGameResponseDto(userGame);
+        eventPublisher.publishEvent(LibraryChangedEvent.added(user.getId(), game.getId(),
+                userGame.getTotalPlaytimeMinutes(), game.getPrice()));
+        return saved;
+    }
 
-        UserGame userGame = new UserGame(user, game, dto.getPurchaseDate(), dto.getPlaytimeHours());
-        return convertToUserGameResponseDto(userGameRepository.save(userGame));
+    /**
+     * Aggiunge i giochi di un bundle con un numero fisso di query: una IN per
+     * verificare che i giochi esistano, una per quelli già posseduti e una
+     * INSERT in batch per i nuovi. In modalità ALL_OR_NOTHING basta un gioco
+     * non aggiungibile (inesistente, già posseduto o ripetuto) per non
+     * aggiungerne nessuno.
+     *
+     * @throws GameAlreadyInLibraryException se un gioco viene aggiunto da una
+     *                                       richiesta concorrente durante l'inserimento
+     */
+    @Override
+    @Transactional
+    public BundlePurchaseResponseDTO purchaseBundle(UUID userUuid, BundlePurchaseRequestDTO dto) {
+        User currentUser = userService.requireSelfOrAdmin(userUuid);
+        List<UUID> requested = dto.getGameUuids();
+        if (requested.size() > maxBundleSize) {
+            throw new InvalidQueryParameterException(
+                    "Un bundle può contenere al massimo " + maxBundleSize + " giochi.");
+        }
+        if (!currentUser.getId().equals(userUuid) && !userRepository.existsById(userUuid)) {
+            throw new UserNotFoundException(userUuid);
+        }
+        BundlePurchaseMode mode = dto.getMode() != null ? dto.getMode() : BundlePurchaseMode.ALL_OR_NOTHING;
+
+        Set<UUID> distinct = new LinkedHashSet<>(requested);
+        Map<UUID, BigDecimal> prices = new HashMap<>();
+        for (GamePrice price : gameRepository.findPricesByIds(distinct)) {
+            prices.put(price.gameId(), price.price());
+        }
+        Set<UUID> owned = new HashSet<>(userGameRepository.findOwnedGameIds(userUuid, distinct));
+
+        List<BundleItemResultDTO> items = new ArrayList<>(requested.size());
+        List<UUID> toAdd = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (UUID gameUuid : requested) {
+            BundleItemStatus status;
+            if (!seen.add(gameUuid)) {
+                status = BundleItemStatus.DUPLICATE;
+            } else if (!prices.containsKey(gameUuid)) {
+                status = BundleItemStatus.GAME_NOT_FOUND;
+            } else if (owned.contains(gameUuid)) {
+                status = BundleItemStatus.ALREADY_OWNED;
+            } else {
+                status = BundleItemStatus.ADDED;
+                toAdd.add(gameUuid);
+            }
+            items.add(new BundleItemResultDTO(gameUuid, status));
+        }
+
+        if (mode == BundlePurchaseMode.ALL_OR_NOTHING && toAdd.size() < requested.size()) {
+            for (BundleItemResultDTO item : items) {
+                if (item.getStatus() == BundleItemStatus.ADDED) {
+                    item.setStatus(BundleItemStatus.SKIPPED);
+                }
+            }
+            return new BundlePurchaseResponseDTO(userUuid, mode, false, 0, items);
+        }
+
+        if (!toAdd.isEmpty()) {
+            LocalDate purchaseDate = dto.getPurchaseDate() != null ? dto.getPurchaseDate() : LocalDate.now();
+            try {
+                userGameBatchRepository.insertAll(userUuid, toAdd, purchaseDate);
+            } catch (DuplicateKeyException e) {
+                throw new GameAlreadyInLibraryException(
+                        "Uno dei giochi è stato aggiunto alla libreria nel frattempo, riprovare.");
+            }
+            for (UUID gameUuid : toAdd) {
+                eventPublisher.publishEvent(
+                        LibraryChangedEvent.added(userUuid, gameUuid, 0, prices.get(gameUuid)));
+            }
+        }
+        return new BundlePurchaseResponseDTO(userUuid, mode, true, toAdd.size(), items);
     }
 
     /**
@@ -74,7 +207,7 @@ public class UserGameServiceImpl implements UserGameService {
      */
     @Override
     public Optional<UserGameResponseDTO> getUserGameByIds(UUID userUuid, UUID gameUuid) {
-        checkAccess(userUuid);
+        userService.requireSelfOrAdmin(userUuid);
         return userGameRepository.findById(new UserGameId(userUuid, gameUuid))
                 .map(this::convertToUserGameResponseDto);
     }
@@ -85,7 +218,7 @@ public class UserGameServiceImpl implements UserGameService {
     @Override
     @Transactional(readOnly = true)
     public UserLibraryResponseDTO getUserLibrary(UUID userUuid) {
-        checkAccess(userUuid);
+        userService.requireSelfOrAdmin(userUuid);
 
         Optional<User> userOpt = userRepository.findById(userUuid);
         if (userOpt.isEmpty()) {
@@ -96,22 +229,72 @@ public class UserGameServiceImpl implements UserGameService {
         return new UserLibraryResponseDTO(userOpt.get(), userGames);
     }
 
+    /**
+     * Recupera una pagina della libreria senza caricare entità: una query di
+     * proiezione con le sole colonne necessarie, una di conteggio e una per i
+     * tag dei giochi della pagina, indipendentemente dal numero di giochi.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LibraryPageResponseDTO getUserLibraryPage(UUID userUuid, Integer page, Integer size,
+            LibrarySortField sort) {
+        userService.requireSelfOrAdmin(userUuid);
+        if (page != null && page < 0) {
+            throw new InvalidQueryParameterException("Il numero di pagina non può essere negativo.");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        PageRequest pageRequest = PageRequest.of(page == null ? 0 : page, pageSize);
+
+        Page<LibraryRow> rows = switch (sort != null ? sort : LibrarySortField.PURCHASE_DATE) {
+            case PURCHASE_DATE -> userGameRepository.findLibraryOrderByPurchaseDate(userUuid, pageRequest);
+            case PLAYTIME -> userGameRepository.findLibraryOrderByPlaytime(userUuid, pageRequest);
+            case TITLE -> userGameRepository.findLibraryOrderByTitle(userUuid, pageRequest);
+        };
+
+        Map<UUID, List<TagDTO>> tags = gameAssembler.loadTags(
+                rows.getContent().stream().map(LibraryRow::gameId).toList());
+        List<LibraryGameItemDTO> items = new ArrayList<>(rows.getNumberOfElements());
+        for (LibraryRow row : rows.getContent()) {
+            GameResponseDTO game = new GameResponseDTO(row.gameId(), row.title(), row.price(), row.releaseDate(),
+                    row.developer(), row.publisher(), tags.getOrDefault(row.gameId(), new ArrayList<>()));
+            game.setVersion(row.version());
+            game.setUpdatedAt(row.updatedAt());
+            items.add(new LibraryGameItemDTO(game, row.purchaseDate(), row.playtimeHours()));
+        }
+        return new LibraryPageResponseDTO(items, rows.getNumber(), rows.getSize(),
+                rows.getTotalElements(), rows.getTotalPages());
+    }
+
+    /**
+     * Servite dai contatori in memoria: O(1) in cache, altrimenti una query aggregata.
+     */
+    @Override
+    public LibraryStatsDTO getLibraryStats(UUID userUuid) {
+        userService.requireSelfOrAdmin(userUuid);
+        return libraryStats.get(userUuid);
+    }
+
     /**
      * Aggiorna le informazioni di un gioco nella libreria di un utente.
      */
     @Override
     @Transactional
     public UserGameResponseDTO updateUserGame(UUID userUuid, UUID gameUuid, UserGameRequestDTO dto) {
-        checkAccess(userUuid);
+        userService.requireSelfOrAdmin(userUuid);
 
         UserGame userGame = userGameRepository.findById(new UserGameId(userUuid, gameUuid))
                 .orElseThrow(() -> new RuntimeException(
                         "Associazione utente-gioco non trovata per utente " + userUuid + " e gioco " + gameUuid));
 
+        long playtimeDelta = (dto.getPlaytimeHours() - userGame.getPlaytimeHours()) * 60L;
         userGame.setPlaytimeHours(dto.getPlaytimeHours());
         userGame.setPurchaseDate(dto.getPurchaseDate());
 
-        return convertToUserGameResponseDto(userGameRepository.save(userGame));
+        UserGameResponseDTO updated = convertToUserGameResponseDto(userGameRepository.save(userGame));
+        if (playtimeDelta != 0) {
+            eventPublisher.publishEvent(LibraryChangedEvent.playtimeChanged(userUuid, gameUuid, playtimeDelta));
+        }
+        return updated;
     }
 
     /**
@@ -120,13 +303,74 @@ public class UserGameServiceImpl implements UserGameService {
     @Override
     @Transactional
     public void removeGameFromUserLibrary(UUID userUuid, UUID gameUuid) {
-        checkAccess(userUuid);
+        userService.requireSelfOrAdmin(userUuid);
+
+        // La riga viene letta comunque dalla cancellazione JPA: serve anche per
+        // togliere tempo di gioco e prezzo dalle statistiche della libreria
+        UserGame userGame = userGameRepository.findById(new UserGameId(userUuid, gameUuid))
+                .orElseThrow(() -> new RuntimeException(
+                        "Associazione non trovata per utente " + userUuid + " e gioco " + gameUuid));
+        long playtimeMinutes = userGame.getTotalPlaytimeMinutes();
+        BigDecimal price = userGame.getGame().getPrice();
+        userGameRepository.delete(userGame);
+        eventPublisher.publishEvent(LibraryChangedEvent.removed(userUuid, gameUuid, playtimeMinutes, price));
+    }
+
+    /**
+     * Accumula i minuti di un heartbeat senza toccare il database: il flush
+     * periodico li somma con un UPDATE relativo. Il possesso è verificato
+     * sulla cache delle librerie, così i giochi non posseduti non occupano
+     * posti nel buffer; il buffer limita i minuti al tempo reale trascorso.
+     *
+     * @throws ResourceNotFoundException  se il gioco non è nella libreria dell'utente
+     * @throws HeartbeatRejectedException se il buffer è pieno o in chiusura
+     */
+    @Override
+    public void recordPlaytimeHeartbeat(UUID userUuid, UUID gameUuid, Integer minutes) {
+        userService.requireSelfOrAdmin(userUuid);
+        int elapsed = minutes == null ? 1 : minutes;
+        if (elapsed < 1 || elapsed > maxHeartbeatMinutes) {
+            throw new InvalidQueryParameterException(
+                    "I minuti di un heartbeat devono essere compresi tra 1 e " + maxHeartbeatMinutes + ".");
+        }
+        if (!ownershipCache.owns(userUuid, gameUuid)) {
+            throw new ResourceNotFoundException("Il gioco non è nella libreria dell'utente.");
+        }
+        if (!heartbeatBuffer.record(userUuid, gameUuid, elapsed)) {
+            throw new HeartbeatRejectedException("Troppi heartbeat in attesa, riprovare più tardi.");
+        }
+    }
+
+    /**
+     * Gli eventi arrivano dagli stessi LibraryChangedEvent pubblicati da questo
+     * servizio (dopo il commit) e dai flush dei heartbeat.
+     */
+    @Override
+    public SseEmitter subscribeToLibraryEvents(UUID userUuid, String lastEventId) {
+        userService.requireSelfOrAdmin(userUuid);
+        return libraryEvents.subscribe(userUuid, lastEventId);
+    }
 
-        UserGameId id = new UserGameId(userUuid, gameUuid);
-        if (!userGameRepository.existsById(id)) {
-            throw new RuntimeException("Associazione non trovata per utente " + userUuid + " e gioco " + gameUuid);
+    /**
+     * Risponde dalla cache di possesso: al più una query per caricare la
+     * libreria dell'utente, indipendentemente dal numero di giochi richiesti.
+     */
+    @Override
+    public OwnedGamesResponseDTO getOwnedGames(UUID userUuid, List<UUID> gameUuids) {
+        userService.requireSelfOrAdmin(userUuid);
+        if (gameUuids == null || gameUuids.isEmpty()) {
+            throw new InvalidQueryParameterException("Indicare almeno un gioco.");
+        }
+        if (gameUuids.size() > maxOwnershipIds) {
+            throw new InvalidQueryParameterException(
+                    "Si possono controllare al massimo " + maxOwnershipIds + " giochi per richiesta.");
+        }
+        Set<UUID> owned = ownershipCache.ownedAmong(userUuid, gameUuids);
+        Map<UUID, Boolean> result = new LinkedHashMap<>();
+        for (UUID gameUuid : gameUuids) {
+            result.put(gameUuid, owned.contains(gameUuid));
         }
-        userGameRepository.deleteById(id);
+        return new OwnedGamesResponseDTO(userUuid, result);
     }
 
     /**
@@ -2,7 +2,9 @@ package itsprodigi.matteocasini.steam_clone_backend.service;
 
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserProfileRequestDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserProfileResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -15,6 +17,11 @@ public interface UserProfileService {
      */
     UserProfileResponseDTO getUserProfileById(UUID userId);
 
+    /**
+     * Recupera versione e data di ultima modifica del profilo senza caricarlo.
+     */
+    Optional<VersionStamp> getUserProfileVersion(UUID userId);
+
     /**
      * Crea o aggiorna un profilo utente associato a un dato ID utente.
      * Se il profilo non esiste viene creato, altrimenti aggiornato.
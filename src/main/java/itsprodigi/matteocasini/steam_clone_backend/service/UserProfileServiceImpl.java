@@ -9,10 +9,12 @@ import itsprodigi.matteocasini.steam_clone_backend.model.User;
 import itsprodigi.matteocasini.steam_clone_backend.model.UserProfile;
 import itsprodigi.matteocasini.steam_clone_backend.repository.UserProfileRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.UserRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -39,11 +41,15 @@ public class UserProfileServiceImpl implements UserProfileService {
         UserProfile profile = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new UserProfileNotFoundException(userId));
 
-        return new UserProfileResponseDTO(
-                profile.getId(),
-                profile.getNickname(),
-                profile.getAvatarUrl(),
-                profile.getBio());
+        return convertToResponseDto(profile);
+    }
+
+    /**
+     * Legge solo versione e data di modifica del profilo, per le richieste condizionali.
+     */
+    @Override
+    public Optional<VersionStamp> getUserProfileVersion(UUID userId) {
+        return userProfileRepository.findVersionStampById(userId);
     }
 
     /**
@@ -82,7 +88,8 @@ public class UserProfileServiceImpl implements UserProfileService {
             userProfile.setBio(profileDetailsRequestDTO.getBio().get());
         }
 
-        UserProfile savedProfile = userProfileRepository.save(userProfile);
+        // Flush immediato: la versione viene incrementata solo al flush e il DTO deve riportarla
+        UserProfile savedProfile = userProfileRepository.saveAndFlush(userProfile);
         return convertToResponseDto(savedProfile);
     }
 
@@ -112,6 +119,8 @@ public class UserProfileServiceImpl implements UserProfileService {
         dto.setNickname(userProfile.getNickname());
         dto.setAvatarUrl(userProfile.getAvatarUrl());
         dto.setBio(userProfile.getBio());
+        dto.setVersion(userProfile.getVersion());
+        dto.setUpdatedAt(userProfile.getUpdatedAt());
         return dto;
     }
 }
@@ -19,6 +19,14 @@ public interface UserService {
      */
     User getAuthenticatedUser();
 
+    /**
+     * Verifica che l'utente autenticato sia l'utente indicato o un amministratore.
+     *
+     * @return l'utente autenticato
+     * @throws org.springframework.security.access.AccessDeniedException altrimenti
+     */
+    User requireSelfOrAdmin(UUID userId);
+
     /**
      * Registra un nuovo utente.
      */
@@ -5,10 +5,14 @@ import itsprodigi.matteocasini.steam_clone_backend.dto.UserResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.enums.Role;
 import itsprodigi.matteocasini.steam_clone_backend.exception.*;
 import itsprodigi.matteocasini.steam_clone_backend.model.User;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.UserRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.OwnedGameRow;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserUpdateDTO;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -27,11 +31,16 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserGameRepository userGameRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            UserGameRepository userGameRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userGameRepository = userGameRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -51,6 +60,21 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UsernameNotFoundException("Utente autenticato non trovato"));
     }
 
+    /**
+     * Controllo di accesso comune alle risorse di un utente (libreria,
+     * consigli, posizione in classifica): solo l'utente stesso o un amministratore.
+     */
+    @Override
+    public User requireSelfOrAdmin(UUID userId) {
+        User currentUser = getAuthenticatedUser();
+        boolean isSelf = currentUser.getId().equals(userId);
+        boolean isAdmin = currentUser.getRole() == Role.ROLE_ADMIN;
+        if (!isSelf && !isAdmin) {
+            throw new AccessDeniedException("Non autorizzato.");
+        }
+        return currentUser;
+    }
+
     /**
      * Registra un nuovo utente.
      * Verifica duplicati username e email, e lunghezza password minima.
@@ -182,6 +206,9 @@ public class UserServiceImpl implements UserService {
     /**
      * Elimina un utente tramite ID.
      * Consentito solo ad ADMIN o all'utente stesso.
+     * Le righe di user_games vengono eliminate a cascata dal database: per
+     * ognuna si pubblica un LibraryChangedEvent di rimozione, così classifiche,
+     * statistiche dei giochi e contatori dei tag non tengono l'utente eliminato.
      */
     @Override
     @Transactional
@@ -190,7 +217,12 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Utente non trovato con ID: " + id));
 
+        List<OwnedGameRow> library = userGameRepository.findOwnedGameRowsByUserId(id);
         userRepository.delete(user);
+        for (OwnedGameRow row : library) {
+            eventPublisher.publishEvent(LibraryChangedEvent.removed(id, row.gameId(),
+                    row.totalPlaytimeMinutes(), row.price()));
+        }
     }
 
     // Metodi di validazione per duplicati username ed email
@@ -0,0 +1,140 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coordina le strutture in memoria derivate dal catalogo (CatalogIndexer).
+ * All'avvio legge il catalogo una sola volta e lo passa a tutti gli indici;
+ * successivamente inoltra loro le modifiche dopo il commit della transazione,
+ * così che non vedano mai dati poi annullati da un rollback.
+ * <p>
+ * Durante una ricostruzione completa (avvio, importazione) le modifiche
+ * arrivate dopo l'inizio della lettura vengono messe da parte e riapplicate
+ * al termine: altrimenti un evento applicato prima di rebuild verrebbe
+ * sovrascritto da una lettura che potrebbe non includerlo. Gli indici
+ * gestiscono gli eventi in modo idempotente, quindi riapplicare una modifica
+ * già contenuta nella lettura non altera lo stato.
+ */
+@Component
+public class CatalogIndexCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexCoordinator.class);
+
+    private final GameRepository gameRepository;
+    private final GameAssembler gameAssembler;
+    private final List<CatalogIndexer> indexers;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile boolean loaded;
+    // Eventi ricevuti durante reload (null se nessuna ricostruzione è in corso),
+    // protetti da eventLock insieme all'inoltro agli indici
+    private final Object eventLock = new Object();
+    private List<Runnable> pending;
+
+    public CatalogIndexCoordinator(GameRepository gameRepository, GameAssembler gameAssembler,
+            List<CatalogIndexer> indexers, PlatformTransactionManager transactionManager) {
+        this.gameRepository = gameRepository;
+        this.gameAssembler = gameAssembler;
+        this.indexers = indexers;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Popola gli indici all'avvio. Se il database non è raggiungibile gli indici
+     * restano non pronti e i servizi continuano a interrogare il database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Indici del catalogo non inizializzati: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Garantisce che gli indici siano stati popolati almeno una volta, ad esempio
+     * se il database non era raggiungibile all'avvio. Serve ai servizi che non
+     * hanno un'alternativa sul database.
+     */
+    public void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rilegge l'intero catalogo e ricostruisce tutti gli indici, poi riapplica
+     * le modifiche ricevute nel frattempo. Se la lettura fallisce le modifiche
+     * vengono applicate comunque agli indici esistenti.
+     */
+    public synchronized void reload() {
+        synchronized (eventLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            List<GameResponseDTO> games = readOnlyTransaction.execute(
+                    status -> gameAssembler.toResponseDtos(gameRepository.findAll()));
+            for (CatalogIndexer indexer : indexers) {
+                indexer.rebuild(games);
+            }
+            loaded = true;
+            log.info("Indici del catalogo ricostruiti: {} giochi, {} indici", games.size(), indexers.size());
+        } finally {
+            synchronized (eventLock) {
+                List<Runnable> buffered = pending;
+                pending = null;
+                buffered.forEach(Runnable::run);
+                if (!buffered.isEmpty()) {
+                    log.info("Riapplicate {} modifiche ricevute durante la ricostruzione degli indici", buffered.size());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameChanged(GameChangedEvent event) {
+        dispatch(() -> {
+            for (CatalogIndexer indexer : indexers) {
+                indexer.onGameChanged(event);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        dispatch(() -> {
+            for (CatalogIndexer indexer : indexers) {
+                indexer.onTagChanged(event);
+            }
+        });
+    }
+
+    private void dispatch(Runnable delivery) {
+        synchronized (eventLock) {
+            if (pending != null) {
+                pending.add(delivery);
+            } else {
+                delivery.run();
+            }
+        }
+    }
+}
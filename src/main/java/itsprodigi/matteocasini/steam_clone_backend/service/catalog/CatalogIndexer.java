@@ -0,0 +1,38 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+
+import java.util.Collection;
+
+/**
+ * Struttura in memoria derivata dal catalogo giochi.
+ * Le implementazioni vengono popolate all'avvio da CatalogIndexCoordinator
+ * con un'unica lettura del catalogo e poi aggiornate a ogni modifica confermata.
+ */
+public interface CatalogIndexer {
+
+    /**
+     * Ricostruisce completamente la struttura a partire dall'intero catalogo.
+     *
+     * @param games tutti i giochi presenti, con i relativi tag
+     */
+    void rebuild(Collection<GameResponseDTO> games);
+
+    /**
+     * Applica una singola modifica al catalogo già confermata sul database.
+     *
+     * @param event modifica da applicare
+     */
+    void onGameChanged(GameChangedEvent event);
+
+    /**
+     * Applica una modifica a un tag già confermata sul database.
+     * Di default non fa nulla: serve solo alle strutture che espongono i tag.
+     *
+     * @param event modifica da applicare
+     */
+    default void onTagChanged(TagChangedEvent event) {
+    }
+}
@@ -0,0 +1,329 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.RecommendedGameDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.CoOwnershipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consigli "chi possiede questo gioco possiede anche", calcolati offline.
+ * <p>
+ * Un job periodico legge user_games in streaming, un utente alla volta, e
+ * costruisce una matrice sparsa di co-possesso gioco x gioco su ordinali densi
+ * (una LongIntHashMap per riga, come TagCooccurrenceIndex). Per ogni gioco
+ * tiene solo i primi K vicini per similarità coseno
+ * (co-possessori / sqrt(possessori A * possessori B)), che non premia i giochi
+ * solo perché popolari, e li pubblica in uno snapshot immutabile tramite campo
+ * volatile: le letture non prendono lock né interrogano il database.
+ * I titoli arrivano dal catalogo in memoria (CatalogIndexer), così un gioco
+ * rinominato o eliminato si riflette subito anche nei consigli già calcolati.
+ */
+@Component
+public class CoOwnershipRecommender implements CatalogIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(CoOwnershipRecommender.class);
+
+    private final CoOwnershipRepository coOwnershipRepository;
+    private final Clock clock;
+    private final Map<UUID, String> titles = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+
+    @Value("${catalog.recommendations.neighbours:50}")
+    private int neighboursPerGame = 50;
+
+    @Value("${catalog.recommendations.min-co-owners:2}")
+    private int minCoOwners = 2;
+
+    @Value("${catalog.recommendations.max-library-size:500}")
+    private int maxLibrarySize = 500;
+
+    @Autowired
+    public CoOwnershipRecommender(CoOwnershipRepository coOwnershipRepository) {
+        this(coOwnershipRepository, Clock.systemUTC());
+    }
+
+    CoOwnershipRecommender(CoOwnershipRepository coOwnershipRepository, Clock clock) {
+        this.coOwnershipRepository = coOwnershipRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Indica se i consigli sono stati calcolati almeno una volta.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Indica se il gioco è nel catalogo in memoria.
+     */
+    public boolean isKnown(UUID gameId) {
+        return titles.containsKey(gameId);
+    }
+
+    /**
+     * Istante dell'ultimo calcolo, null se non ancora eseguito.
+     */
+    public Instant computedAt() {
+        Snapshot current = snapshot;
+        return current == null ? null : current.computedAt;
+    }
+
+    /**
+     * Giochi più spesso posseduti insieme al gioco indicato.
+     *
+     * @param gameId gioco di partenza
+     * @param limit  numero massimo di giochi
+     * @return consigli per similarità decrescente, vuoti se non ancora calcolati
+     */
+    public List<RecommendedGameDTO> alsoOwned(UUID gameId, int limit) {
+        Snapshot current = snapshot;
+        Integer ordinal = current == null ? null : current.ordinals.get(gameId);
+        List<RecommendedGameDTO> result = new ArrayList<>();
+        if (ordinal == null) {
+            return result;
+        }
+        int[] ids = current.neighbours[ordinal];
+        for (int i = 0; i < ids.length && result.size() < limit; i++) {
+            UUID id = current.games[ids[i]];
+            String title = titles.get(id);
+            if (title != null) {
+                result.add(new RecommendedGameDTO(id, title, current.coOwners[ordinal][i], current.scores[ordinal][i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Consigli personali: somma le similarità dei vicini di tutti i giochi
+     * posseduti ed esclude quelli già in libreria. Costa O(giochi posseduti x K).
+     *
+     * @param owned giochi posseduti dall'utente
+     * @param limit numero massimo di giochi
+     */
+    public List<RecommendedGameDTO> recommendFor(Collection<UUID> owned, int limit) {
+        Snapshot current = snapshot;
+        List<RecommendedGameDTO> result = new ArrayList<>();
+        if (current == null || owned.isEmpty()) {
+            return result;
+        }
+        Set<Integer> ownedOrdinals = new HashSet<>();
+        for (UUID gameId : owned) {
+            Integer ordinal = current.ordinals.get(gameId);
+            if (ordinal != null) {
+                ownedOrdinals.add(ordinal);
+            }
+        }
+        Map<Integer, double[]> candidates = new HashMap<>();
+        for (int ordinal : ownedOrdinals) {
+            int[] ids = current.neighbours[ordinal];
+            for (int i = 0; i < ids.length; i++) {
+                if (!ownedOrdinals.contains(ids[i])) {
+                    double[] totals = candidates.computeIfAbsent(ids[i], id -> new double[2]);
+                    totals[0] += current.scores[ordinal][i];
+                    totals[1] += current.coOwners[ordinal][i];
+                }
+            }
+        }
+        PriorityQueue<Map.Entry<Integer, double[]>> heap = new PriorityQueue<>(
+                Comparator.<Map.Entry<Integer, double[]>>comparingDouble(e -> e.getValue()[0])
+                        .thenComparing(e -> -e.getKey()));
+        for (Map.Entry<Integer, double[]> candidate : candidates.entrySet()) {
+            if (!titles.containsKey(current.games[candidate.getKey()])) {
+                continue;
+            }
+            heap.add(candidate);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        while (!heap.isEmpty()) {
+            Map.Entry<Integer, double[]> entry = heap.poll();
+            UUID id = current.games[entry.getKey()];
+            result.add(new RecommendedGameDTO(id, titles.get(id), (long) entry.getValue()[1], entry.getValue()[0]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Ricalcola la matrice di co-possesso e pubblica il nuovo snapshot.
+     * Gli utenti con più di max-library-size giochi contano come possessori ma
+     * non generano coppie: il loro costo è quadratico e il segnale debole.
+     *
+     * @return numero di giochi con almeno un vicino
+     */
+    @Scheduled(fixedDelayString = "${catalog.recommendations.rebuild-interval:PT6H}",
+            initialDelayString = "${catalog.recommendations.initial-delay:PT30S}")
+    public synchronized int recompute() {
+        MatrixBuilder builder = new MatrixBuilder(maxLibrarySize);
+        coOwnershipRepository.streamLibraries(builder::accept);
+        Snapshot next = builder.build(neighboursPerGame, minCoOwners, clock.instant());
+        snapshot = next;
+        log.info("Consigli di co-possesso calcolati per {} giochi", next.withNeighbours);
+        return next.withNeighbours;
+    }
+
+    @Override
+    public void rebuild(Collection<GameResponseDTO> games) {
+        titles.clear();
+        for (GameResponseDTO game : games) {
+            titles.put(game.getId(), game.getTitle());
+        }
+    }
+
+    @Override
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted()) {
+            titles.remove(event.getGameId());
+        } else {
+            titles.put(event.getGameId(), event.getCurrent().getTitle());
+        }
+    }
+
+    /**
+     * Accumula la matrice di co-possesso dalle righe di user_games ordinate per utente.
+     * Ogni riga della matrice contiene anche la diagonale: i possessori del gioco.
+     */
+    private static final class MatrixBuilder {
+
+        private final int maxLibrarySize;
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<UUID> games = new ArrayList<>();
+        private final List<LongIntHashMap> rows = new ArrayList<>();
+        private int[] library = new int[16];
+        private int librarySize;
+        private UUID currentUser;
+
+        MatrixBuilder(int maxLibrarySize) {
+            this.maxLibrarySize = maxLibrarySize;
+        }
+
+        void accept(UUID userId, UUID gameId) {
+            if (!userId.equals(currentUser)) {
+                flushLibrary();
+                currentUser = userId;
+            }
+            int ordinal = ordinals.computeIfAbsent(gameId, id -> {
+                games.add(id);
+                rows.add(new LongIntHashMap());
+                return games.size() - 1;
+            });
+            if (librarySize == library.length) {
+                library = Arrays.copyOf(library, library.length * 2);
+            }
+            library[librarySize++] = ordinal;
+        }
+
+        private void flushLibrary() {
+            boolean pairs = librarySize <= maxLibrarySize;
+            for (int i = 0; i < librarySize; i++) {
+                LongIntHashMap row = rows.get(library[i]);
+                row.addTo(library[i], 1);
+                if (!pairs) {
+                    continue;
+                }
+                for (int j = 0; j < librarySize; j++) {
+                    if (i != j) {
+                        row.addTo(library[j], 1);
+                    }
+                }
+            }
+            librarySize = 0;
+        }
+
+        Snapshot build(int k, int minCoOwners, Instant computedAt) {
+            flushLibrary();
+            int size = games.size();
+            int[] owners = new int[size];
+            for (int a = 0; a < size; a++) {
+                owners[a] = rows.get(a).get(a);
+            }
+            int[][] neighbours = new int[size][];
+            int[][] coOwners = new int[size][];
+            double[][] scores = new double[size][];
+            int withNeighbours = 0;
+            for (int a = 0; a < size; a++) {
+                int self = a;
+                // Min-heap di dimensione k sulla riga: {ordinale, co-possessori, score}
+                PriorityQueue<double[]> heap = new PriorityQueue<>(
+                        Comparator.<double[]>comparingDouble(e -> e[2]).thenComparing(e -> -e[0]));
+                rows.get(a).forEach((b, count) -> {
+                    if (b == self || count < minCoOwners) {
+                        return;
+                    }
+                    double score = count / Math.sqrt((double) owners[self] * owners[(int) b]);
+                    heap.add(new double[] { b, count, score });
+                    if (heap.size() > k) {
+                        heap.poll();
+                    }
+                });
+                int n = heap.size();
+                neighbours[a] = new int[n];
+                coOwners[a] = new int[n];
+                scores[a] = new double[n];
+                for (int i = n - 1; i >= 0; i--) {
+                    double[] entry = heap.poll();
+                    neighbours[a][i] = (int) entry[0];
+                    coOwners[a][i] = (int) entry[1];
+                    scores[a][i] = entry[2];
+                }
+                if (n > 0) {
+                    withNeighbours++;
+                }
+                // La riga non serve più: la memoria si libera man mano
+                rows.set(a, null);
+            }
+            return new Snapshot(Map.copyOf(ordinals), games.toArray(new UUID[0]), neighbours, coOwners, scores,
+                    withNeighbours, computedAt);
+        }
+    }
+
+    /**
+     * Vicini per gioco in array paralleli indicizzati per ordinale, già
+     * ordinati per similarità decrescente. Non viene mai modificato.
+     */
+    private static final class Snapshot {
+
+        private final Map<UUID, Integer> ordinals;
+        private final UUID[] games;
+        private final int[][] neighbours;
+        private final int[][] coOwners;
+        private final double[][] scores;
+        private final int withNeighbours;
+        private final Instant computedAt;
+
+        Snapshot(Map<UUID, Integer> ordinals, UUID[] games, int[][] neighbours, int[][] coOwners,
+                double[][] scores, int withNeighbours, Instant computedAt) {
+            this.ordinals = ordinals;
+            this.games = games;
+            this.neighbours = neighbours;
+            this.coOwners = coOwners;
+            this.scores = scores;
+            this.withNeighbours = withNeighbours;
+            this.computedAt = computedAt;
+        }
+    }
+}
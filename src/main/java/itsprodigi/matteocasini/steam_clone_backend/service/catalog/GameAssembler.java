@@ -0,0 +1,132 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.model.Game;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Costruisce i GameResponseDTO in due fasi, evitando il LEFT JOIN FETCH sui tag.
+ * La prima fase (a carico del chiamante) seleziona solo le righe dei giochi;
+ * la seconda carica le coppie gioco-tag con query IN a blocchi e le raggruppa
+ * per posizione del gioco in un array, senza mappe intermedie per gioco.
+ * In questo modo dal database arrivano G + T righe strette invece di G × T
+ * righe complete, e la prima query può essere paginata correttamente.
+ */
+@Component
+public class GameAssembler {
+
+    /** Numero massimo di ID per singola clausola IN. */
+    static final int BATCH_SIZE = 500;
+
+    private final GameRepository gameRepository;
+
+    public GameAssembler(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    /**
+     * Converte i giochi in DTO caricando i tag con query batch.
+     * Non accede alla collezione lazy Game.tags.
+     *
+     * @param games giochi già caricati (senza tag)
+     * @return DTO nello stesso ordine dei giochi ricevuti
+     */
+    public List<GameResponseDTO> toResponseDtos(List<Game> games) {
+        if (games.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Posizione della prima occorrenza di ogni ID; le occorrenze ripetute
+        // (es. lo stesso gioco due volte in loadInOrder) puntano a quella
+        Map<UUID, Integer> positions = new HashMap<>(games.size() * 2);
+        int[] firstPosition = new int[games.size()];
+        for (int i = 0; i < games.size(); i++) {
+            Integer first = positions.putIfAbsent(games.get(i).getId(), i);
+            firstPosition[i] = first != null ? first : i;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<TagDTO>[] tagsByPosition = new List[games.size()];
+        List<UUID> ids = new ArrayList<>(positions.keySet());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (GameTagRow row : gameRepository.findTagRowsByGameIdIn(chunk)) {
+                int position = positions.get(row.gameId());
+                if (tagsByPosition[position] == null) {
+                    tagsByPosition[position] = new ArrayList<>();
+                }
+                tagsByPosition[position].add(new TagDTO(row.tagId(), row.tagName()));
+            }
+        }
+
+        List<GameResponseDTO> result = new ArrayList<>(games.size());
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            List<TagDTO> loaded = tagsByPosition[firstPosition[i]];
+            // Ogni DTO riceve la propria lista, anche per gli ID ripetuti
+            List<TagDTO> tags = loaded == null ? new ArrayList<>()
+                    : firstPosition[i] == i ? loaded : new ArrayList<>(loaded);
+            GameResponseDTO dto = new GameResponseDTO(
+                    game.getId(),
+                    game.getTitle(),
+                    game.getPrice(),
+                    game.getReleaseDate(),
+                    game.getDeveloper(),
+                    game.getPublisher(),
+                    tags);
+            dto.setVersion(game.getVersion());
+            dto.setUpdatedAt(game.getUpdatedAt());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * Carica i tag di più giochi con query IN a blocchi.
+     *
+     * @param ids ID dei giochi
+     * @return tag per ID del gioco; i giochi senza tag non compaiono
+     */
+    public Map<UUID, List<TagDTO>> loadTags(Collection<UUID> ids) {
+        Map<UUID, List<TagDTO>> tags = new HashMap<>(ids.size() * 2);
+        List<UUID> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = list.subList(from, Math.min(from + BATCH_SIZE, list.size()));
+            for (GameTagRow row : gameRepository.findTagRowsByGameIdIn(chunk)) {
+                tags.computeIfAbsent(row.gameId(), id -> new ArrayList<>()).add(new TagDTO(row.tagId(), row.tagName()));
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Carica i giochi indicati mantenendo l'ordine degli ID ricevuti.
+     * Gli ID inesistenti vengono ignorati.
+     *
+     * @param ids ID dei giochi nell'ordine desiderato
+     * @return DTO dei giochi trovati
+     */
+    public List<GameResponseDTO> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, Game> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            for (Game game : gameRepository.findAllById(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())))) {
+                byId.put(game.getId(), game);
+            }
+        }
+        List<Game> ordered = new ArrayList<>(byId.size());
+        for (UUID id : ids) {
+            Game game = byId.get(id);
+            if (game != null) {
+                ordered.add(game);
+            }
+        }
+        return toResponseDtos(ordered);
+    }
+}
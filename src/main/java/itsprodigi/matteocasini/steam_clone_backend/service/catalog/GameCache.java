@@ -0,0 +1,76 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.CacheStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.utils.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache read-through dei GameResponseDTO per ID.
+ * Limitata per dimensione e durata (catalog.cache.*), viene invalidata in modo
+ * puntuale: per ID quando un gioco cambia e, quando un tag viene rinominato o
+ * eliminato, solo per i giochi in cache che contengono quel tag.
+ */
+@Component
+public class GameCache implements CatalogIndexer {
+
+    private final BoundedCache<UUID, GameResponseDTO> cache;
+
+    public GameCache(@Value("${catalog.cache.max-size:10000}") int maxSize,
+            @Value("${catalog.cache.ttl:PT10M}") Duration ttl) {
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Restituisce il gioco dalla cache o lo carica con il loader indicato.
+     *
+     * @param id     ID del gioco
+     * @param loader caricamento dal database in caso di miss
+     */
+    public Optional<GameResponseDTO> get(UUID id, Function<UUID, Optional<GameResponseDTO>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Restituisce i giochi indicati nell'ordine richiesto, caricando i mancanti
+     * con un'unica chiamata al loader.
+     */
+    public List<GameResponseDTO> getAll(List<UUID> ids, Function<List<UUID>, List<GameResponseDTO>> loader) {
+        return cache.getAll(ids, loader, GameResponseDTO::getId);
+    }
+
+    public CacheStatsDTO stats() {
+        return new CacheStatsDTO(cache.size(), cache.getMaxSize(), cache.getHits(), cache.getMisses(),
+                cache.getEvictions(), cache.getExpirations());
+    }
+
+    /**
+     * La cache non viene pre-caricata: alla ricostruzione degli indici si svuota.
+     */
+    @Override
+    public void rebuild(Collection<GameResponseDTO> games) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void onGameChanged(GameChangedEvent event) {
+        cache.invalidate(event.getGameId());
+    }
+
+    @Override
+    public void onTagChanged(TagChangedEvent event) {
+        Long tagId = event.getTagId();
+        cache.invalidateIf((id, game) -> game.getTags() != null
+                && game.getTags().stream().anyMatch(tag -> tagId.equals(tag.getId())));
+    }
+}
@@ -0,0 +1,94 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.GameSortField;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posizione nel catalogo per la paginazione a cursore.
+ * Contiene l'ordinamento, la chiave di ordinamento dell'ultimo elemento
+ * restituito e il suo ID; viene serializzata in un token Base64 URL-safe
+ * che il client tratta come opaco.
+ */
+public final class GameCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final GameSortField sort;
+    private final UUID lastId;
+    private final String lastTitle;
+    private final LocalDate lastReleaseDate;
+
+    private GameCursor(GameSortField sort, UUID lastId, String lastTitle, LocalDate lastReleaseDate) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastTitle = lastTitle;
+        this.lastReleaseDate = lastReleaseDate;
+    }
+
+    /**
+     * Costruisce il cursore che punta subito dopo il gioco indicato.
+     */
+    public static GameCursor after(GameSortField sort, GameResponseDTO last) {
+        return new GameCursor(sort, last.getId(), last.getTitle(), last.getReleaseDate());
+    }
+
+    /**
+     * Decodifica un token ricevuto dal client.
+     *
+     * @throws InvalidQueryParameterException se il token non è valido o è stato
+     *                                        generato con un altro ordinamento
+     */
+    public static GameCursor decode(String token, GameSortField expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // formato: <ordinamento>|<uuid>|<chiave>; la chiave va per ultima perché può contenere '|'
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new InvalidQueryParameterException("Cursore non valido.");
+            }
+            GameSortField sort = GameSortField.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidQueryParameterException(
+                        "Il cursore è stato generato con l'ordinamento " + sort + ", non " + expectedSort + ".");
+            }
+            UUID id = UUID.fromString(parts[1]);
+            return sort == GameSortField.TITLE
+                    ? new GameCursor(sort, id, parts[2], null)
+                    : new GameCursor(sort, id, null, LocalDate.parse(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidQueryParameterException("Cursore non valido.");
+        }
+    }
+
+    /**
+     * Serializza il cursore nel token opaco restituito al client.
+     */
+    public String encode() {
+        String key = sort == GameSortField.TITLE ? lastTitle : lastReleaseDate.toString();
+        String raw = sort.name() + SEPARATOR + lastId + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public GameSortField getSort() {
+        return sort;
+    }
+
+    public UUID getLastId() {
+        return lastId;
+    }
+
+    public String getLastTitle() {
+        return lastTitle;
+    }
+
+    public LocalDate getLastReleaseDate() {
+        return lastReleaseDate;
+    }
+}
@@ -0,0 +1,584 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.FacetCountDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagMatchMode;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice a faccette del catalogo basato su bitmap compresse (RoaringBitmap).
+ * Ogni gioco riceve un ordinale denso; per ogni tag, sviluppatore, editore e
+ * fascia di prezzo si mantiene la bitmap degli ordinali che lo possiedono.
+ * Una ricerca combinata si riduce così a AND/OR tra bitmap, mentre i filtri
+ * su intervalli di prezzo e data scorrono array primitivi indicizzati per ordinale.
+ * I conteggi per faccetta sono cardinalità di intersezioni, senza materializzarle.
+ * <p>
+ * L'ordine per titolo è mantenuto a parte (ordinali per titolo e posizione di
+ * ciascun ordinale), così una pagina si estrae senza ordinare l'intero risultato.
+ */
+@Component
+public class GameFacetIndex implements CatalogIndexer {
+
+    /** Numero massimo di valori restituiti per le faccette tag e sviluppatore. */
+    static final int FACET_LIMIT = 20;
+
+    /** Limiti superiori (esclusi) delle fasce di prezzo, in centesimi. */
+    private static final long[] PRICE_BOUNDS = { 1, 1000, 2000, 4000, 6000 };
+    private static final String[] PRICE_LABELS = { "0", "0-10", "10-20", "20-40", "40-60", "60+" };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int nextOrdinal;
+    private Entry[] entries = new Entry[0];
+    private long[] priceCents = new long[0];
+    private int[] releaseDays = new int[0];
+    // Ordinali vivi in ordine di titolo e, per ordinale, la posizione in byTitle
+    private int[] byTitle = new int[0];
+    private int titleCount;
+    private int[] titleRank = new int[0];
+
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byTag = new HashMap<>();
+    private final Map<Long, String> tagNames = new HashMap<>();
+    private final Map<String, Long> tagIdsByName = new HashMap<>();
+    private final ValueIndex developers = new ValueIndex();
+    private final ValueIndex publishers = new ValueIndex();
+    private final RoaringBitmap[] byPriceBucket = new RoaringBitmap[PRICE_LABELS.length];
+    private volatile boolean ready;
+
+    public GameFacetIndex() {
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Indica se l'indice è stato popolato.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Esegue una ricerca combinata e calcola le faccette sull'intero risultato.
+     *
+     * @param criteria criteri di ricerca, tutti opzionali
+     * @param offset   posizione del primo risultato da restituire; oltre il totale la pagina è vuota
+     * @param limit    numero massimo di risultati da restituire
+     * @return ID della pagina richiesta (ordinati per titolo), totale e faccette
+     */
+    public Result search(Criteria criteria, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = matchTags(criteria.tagNames(), criteria.tagMode());
+            if (criteria.developer() != null) {
+                result.and(developers.get(criteria.developer()));
+            }
+            if (criteria.publisher() != null) {
+                result.and(publishers.get(criteria.publisher()));
+            }
+            if (criteria.hasRanges()) {
+                result = filterRanges(result, criteria);
+            }
+            return new Result(page(result, offset, limit), result.getLongCardinality(),
+                    tagFacets(result), developers.facets(result), priceFacets(result));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Valuta un'espressione booleana sui tag combinando le bitmap per tag.
+     *
+     * @param expression espressione già analizzata
+     * @param offset     posizione del primo risultato da restituire
+     * @param limit      numero massimo di risultati da restituire
+     * @return ID della pagina richiesta (ordinati per titolo) e totale, senza faccette
+     */
+    public Result matchTags(TagExpression expression, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = evaluate(expression.root());
+            return new Result(page(result, offset, limit), result.getLongCardinality(),
+                    List.of(), List.of(), List.of());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<GameResponseDTO> games) {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            freeOrdinals.clear();
+            nextOrdinal = 0;
+            entries = new Entry[games.size()];
+            priceCents = new long[games.size()];
+            releaseDays = new int[games.size()];
+            titleRank = new int[games.size()];
+            live.clear();
+            byTag.clear();
+            tagNames.clear();
+            tagIdsByName.clear();
+            developers.clear();
+            publishers.clear();
+            for (RoaringBitmap bucket : byPriceBucket) {
+                bucket.clear();
+            }
+            games.forEach(this::add);
+            sortTitles();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onGameChanged(GameChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinals.get(event.getGameId());
+            if (previous != null) {
+                unlinkTitle(previous);
+                remove(event.getGameId());
+            }
+            if (!event.isDeleted()) {
+                linkTitle(add(event.getCurrent()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTagChanged(TagChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            tagIdsByName.remove(SearchText.normalize(event.getPreviousName()));
+            if (event.getType() == TagChangedEvent.Type.RENAMED) {
+                tagNames.put(event.getTagId(), event.getName());
+                tagIdsByName.put(SearchText.normalize(event.getName()), event.getTagId());
+                return;
+            }
+            tagNames.remove(event.getTagId());
+            RoaringBitmap source = byTag.remove(event.getTagId());
+            if (event.getType() == TagChangedEvent.Type.MERGED && source != null) {
+                mergeInto(source, event.getTagId(), event.getTargetTagId(), event.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Converte un prezzo in centesimi, l'unità usata dagli array dell'indice.
+     */
+    public static long toCents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private int add(GameResponseDTO game) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.poll();
+        ensureCapacity(ordinal + 1);
+
+        long[] tagIds = new long[game.getTags() == null ? 0 : game.getTags().size()];
+        for (int i = 0; i < tagIds.length; i++) {
+            TagDTO tag = game.getTags().get(i);
+            tagIds[i] = tag.getId();
+            byTag.computeIfAbsent(tag.getId(), id -> new RoaringBitmap()).add(ordinal);
+            tagNames.put(tag.getId(), tag.getName());
+            tagIdsByName.put(SearchText.normalize(tag.getName()), tag.getId());
+        }
+        long cents = toCents(game.getPrice());
+        int bucket = priceBucket(cents);
+        String developerKey = developers.add(game.getDeveloper(), ordinal);
+        String publisherKey = publishers.add(game.getPublisher(), ordinal);
+
+        entries[ordinal] = new Entry(game.getId(), game.getTitle(), developerKey, publisherKey, tagIds, bucket);
+        priceCents[ordinal] = cents;
+        releaseDays[ordinal] = game.getReleaseDate() == null
+                ? Integer.MIN_VALUE
+                : (int) game.getReleaseDate().toEpochDay();
+        byPriceBucket[bucket].add(ordinal);
+        live.add(ordinal);
+        ordinals.put(game.getId(), ordinal);
+        return ordinal;
+    }
+
+    private void remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        Entry entry = entries[ordinal];
+        for (long tagId : entry.tagIds()) {
+            RoaringBitmap bitmap = byTag.get(tagId);
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    byTag.remove(tagId);
+                }
+            }
+        }
+        developers.remove(entry.developerKey(), ordinal);
+        publishers.remove(entry.publisherKey(), ordinal);
+        byPriceBucket[entry.priceBucket()].remove(ordinal);
+        live.remove(ordinal);
+        entries[ordinal] = null;
+        // Gli ordinali liberati vengono riusati per mantenere lo spazio denso
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * Sposta i giochi della bitmap sorgente sul tag di destinazione,
+     * aggiornando anche gli ID dei tag memorizzati per ciascun gioco.
+     */
+    private void mergeInto(RoaringBitmap source, long sourceId, long targetId, String targetName) {
+        RoaringBitmap target = byTag.computeIfAbsent(targetId, id -> new RoaringBitmap());
+        IntIterator it = source.getIntIterator();
+        while (it.hasNext()) {
+            int ordinal = it.next();
+            Entry entry = entries[ordinal];
+            long[] tagIds = Arrays.stream(entry.tagIds())
+                    .map(tagId -> tagId == sourceId ? targetId : tagId)
+                    .distinct()
+                    .toArray();
+            entries[ordinal] = new Entry(entry.id(), entry.title(), entry.developerKey(), entry.publisherKey(),
+                    tagIds, entry.priceBucket());
+        }
+        target.or(source);
+        tagNames.put(targetId, targetName);
+        tagIdsByName.put(SearchText.normalize(targetName), targetId);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= entries.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, entries.length + (entries.length >> 1) + 16);
+        entries = Arrays.copyOf(entries, newLength);
+        priceCents = Arrays.copyOf(priceCents, newLength);
+        releaseDays = Arrays.copyOf(releaseDays, newLength);
+        titleRank = Arrays.copyOf(titleRank, newLength);
+    }
+
+    /**
+     * Ordina tutti i giochi per titolo; solo alla ricostruzione completa.
+     */
+    private void sortTitles() {
+        Integer[] sorted = Arrays.stream(live.toArray()).boxed().toArray(Integer[]::new);
+        Arrays.sort(sorted, this::compareTitles);
+        byTitle = new int[sorted.length];
+        titleCount = sorted.length;
+        for (int i = 0; i < sorted.length; i++) {
+            byTitle[i] = sorted[i];
+            titleRank[sorted[i]] = i;
+        }
+    }
+
+    /**
+     * Inserisce un ordinale nell'ordine per titolo con una ricerca binaria e
+     * uno spostamento dell'array: O(n) senza riordinare il catalogo.
+     */
+    private void linkTitle(int ordinal) {
+        int low = 0;
+        int high = titleCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTitles(byTitle[mid], ordinal) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (titleCount == byTitle.length) {
+            byTitle = Arrays.copyOf(byTitle, titleCount + (titleCount >> 1) + 16);
+        }
+        System.arraycopy(byTitle, low, byTitle, low + 1, titleCount - low);
+        byTitle[low] = ordinal;
+        titleCount++;
+        updateRanks(low);
+    }
+
+    private void unlinkTitle(int ordinal) {
+        int position = titleRank[ordinal];
+        System.arraycopy(byTitle, position + 1, byTitle, position, titleCount - position - 1);
+        titleCount--;
+        updateRanks(position);
+    }
+
+    private void updateRanks(int from) {
+        for (int i = from; i < titleCount; i++) {
+            titleRank[byTitle[i]] = i;
+        }
+    }
+
+    // Titolo senza distinzione di maiuscole, poi ID per un ordine totale
+    private int compareTitles(int a, int b) {
+        int cmp = String.CASE_INSENSITIVE_ORDER.compare(entries[a].title(), entries[b].title());
+        return cmp != 0 ? cmp : entries[a].id().compareTo(entries[b].id());
+    }
+
+    private RoaringBitmap matchTags(List<String> names, TagMatchMode mode) {
+        if (names == null || names.isEmpty()) {
+            return live.clone();
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String name : names) {
+            Long tagId = tagIdsByName.get(SearchText.normalize(name));
+            RoaringBitmap bitmap = tagId == null ? null : byTag.get(tagId);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            } else if (mode != TagMatchMode.ANY) {
+                // Un tag sconosciuto in AND non può essere soddisfatto
+                return new RoaringBitmap();
+            }
+        }
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        if (mode == TagMatchMode.ANY) {
+            return RoaringBitmap.or(bitmaps.iterator());
+        }
+        // Intersezione a partire dalla bitmap più piccola
+        bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Può restituire bitmap condivise dell'indice: il chiamante non deve modificarle.
+     */
+    private RoaringBitmap evaluate(TagExpression.Node node) {
+        if (node instanceof TagExpression.Term term) {
+            Long tagId = tagIdsByName.get(SearchText.normalize(term.name()));
+            RoaringBitmap bitmap = tagId == null ? null : byTag.get(tagId);
+            return bitmap != null ? bitmap : new RoaringBitmap();
+        }
+        if (node instanceof TagExpression.Or or) {
+            List<RoaringBitmap> bitmaps = new ArrayList<>(or.operands().size());
+            or.operands().forEach(operand -> bitmaps.add(evaluate(operand)));
+            return RoaringBitmap.or(bitmaps.iterator());
+        }
+        if (node instanceof TagExpression.Not not) {
+            return RoaringBitmap.andNot(live, evaluate(not.operand()));
+        }
+        return evaluateAnd((TagExpression.And) node);
+    }
+
+    /**
+     * Interseca gli operandi positivi partendo dal più piccolo, poi sottrae
+     * quelli negati: "A AND NOT B" non materializza mai il complemento di B.
+     */
+    private RoaringBitmap evaluateAnd(TagExpression.And and) {
+        List<RoaringBitmap> included = new ArrayList<>();
+        List<TagExpression.Node> excluded = new ArrayList<>();
+        for (TagExpression.Node operand : and.operands()) {
+            if (operand instanceof TagExpression.Not not) {
+                excluded.add(not.operand());
+            } else {
+                included.add(evaluate(operand));
+            }
+        }
+        RoaringBitmap result;
+        if (included.isEmpty()) {
+            result = live.clone();
+        } else {
+            included.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+            result = included.get(0).clone();
+            for (int i = 1; i < included.size() && !result.isEmpty(); i++) {
+                result.and(included.get(i));
+            }
+        }
+        for (int i = 0; i < excluded.size() && !result.isEmpty(); i++) {
+            result.andNot(evaluate(excluded.get(i)));
+        }
+        return result;
+    }
+
+    private RoaringBitmap filterRanges(RoaringBitmap candidates, Criteria criteria) {
+        long minPrice = criteria.minPriceCents() == null ? Long.MIN_VALUE : criteria.minPriceCents();
+        long maxPrice = criteria.maxPriceCents() == null ? Long.MAX_VALUE : criteria.maxPriceCents();
+        int fromDay = criteria.releasedFromDay() == null ? Integer.MIN_VALUE : criteria.releasedFromDay();
+        int toDay = criteria.releasedToDay() == null ? Integer.MAX_VALUE : criteria.releasedToDay();
+        boolean dateFilter = criteria.releasedFromDay() != null || criteria.releasedToDay() != null;
+
+        RoaringBitmap filtered = new RoaringBitmap();
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            int ordinal = it.next();
+            long cents = priceCents[ordinal];
+            int day = releaseDays[ordinal];
+            if (cents >= minPrice && cents <= maxPrice
+                    && (!dateFilter || (day != Integer.MIN_VALUE && day >= fromDay && day <= toDay))) {
+                filtered.add(ordinal);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Estrae la pagina in ordine di titolo. Se il risultato è abbastanza denso
+     * scorre byTitle fino a offset + limit corrispondenze; se è rado ordina
+     * solo le posizioni dei giochi trovati, come interi primitivi.
+     */
+    private List<UUID> page(RoaringBitmap result, long offset, int limit) {
+        int cardinality = result.getCardinality();
+        if (offset >= cardinality || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int start = (int) offset;
+        int end = (int) Math.min(cardinality, offset + limit);
+        List<UUID> ids = new ArrayList<>(end - start);
+        // Posizioni da scorrere in media contro il costo dell'ordinamento delle corrispondenze
+        long scanned = (long) end * titleCount / cardinality;
+        long sortCost = (long) cardinality * (32 - Integer.numberOfLeadingZeros(cardinality));
+        if (scanned <= sortCost) {
+            int matched = 0;
+            for (int i = 0; i < titleCount && matched < end; i++) {
+                int ordinal = byTitle[i];
+                if (result.contains(ordinal)) {
+                    if (matched++ >= start) {
+                        ids.add(entries[ordinal].id());
+                    }
+                }
+            }
+            return ids;
+        }
+        int[] ranks = new int[cardinality];
+        int n = 0;
+        IntIterator it = result.getIntIterator();
+        while (it.hasNext()) {
+            ranks[n++] = titleRank[it.next()];
+        }
+        Arrays.sort(ranks);
+        for (int i = start; i < end; i++) {
+            ids.add(entries[byTitle[ranks[i]]].id());
+        }
+        return ids;
+    }
+
+    private List<FacetCountDTO> tagFacets(RoaringBitmap result) {
+        List<FacetCountDTO> facets = new ArrayList<>();
+        for (Map.Entry<Long, RoaringBitmap> entry : byTag.entrySet()) {
+            int count = RoaringBitmap.andCardinality(result, entry.getValue());
+            if (count > 0) {
+                facets.add(new FacetCountDTO(String.valueOf(entry.getKey()), tagNames.get(entry.getKey()), count));
+            }
+        }
+        return top(facets);
+    }
+
+    private List<FacetCountDTO> priceFacets(RoaringBitmap result) {
+        List<FacetCountDTO> facets = new ArrayList<>(PRICE_LABELS.length);
+        for (int i = 0; i < PRICE_LABELS.length; i++) {
+            facets.add(new FacetCountDTO(PRICE_LABELS[i], PRICE_LABELS[i],
+                    RoaringBitmap.andCardinality(result, byPriceBucket[i])));
+        }
+        return facets;
+    }
+
+    private static List<FacetCountDTO> top(List<FacetCountDTO> facets) {
+        facets.sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed()
+                .thenComparing(FacetCountDTO::getLabel, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        return facets.size() > FACET_LIMIT ? new ArrayList<>(facets.subList(0, FACET_LIMIT)) : facets;
+    }
+
+    private static int priceBucket(long cents) {
+        for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+            if (cents < PRICE_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return PRICE_BOUNDS.length;
+    }
+
+    /**
+     * Criteri già normalizzati per l'indice: prezzi in centesimi e date in
+     * giorni dall'epoch. I campi null non filtrano.
+     */
+    public record Criteria(List<String> tagNames, TagMatchMode tagMode, String developer, String publisher,
+            Long minPriceCents, Long maxPriceCents, Integer releasedFromDay, Integer releasedToDay) {
+
+        boolean hasRanges() {
+            return minPriceCents != null || maxPriceCents != null
+                    || releasedFromDay != null || releasedToDay != null;
+        }
+    }
+
+    /**
+     * Esito di una ricerca: ID della pagina, totale dei risultati e faccette.
+     */
+    public record Result(List<UUID> ids, long total, List<FacetCountDTO> tagFacets,
+            List<FacetCountDTO> developerFacets, List<FacetCountDTO> priceFacets) {
+    }
+
+    private record Entry(UUID id, String title, String developerKey, String publisherKey, long[] tagIds,
+            int priceBucket) {
+    }
+
+    /**
+     * Bitmap per valore testuale (sviluppatore o editore), con chiave normalizzata
+     * e l'ultima forma originale vista come etichetta.
+     */
+    private static final class ValueIndex {
+
+        private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+
+        String add(String value, int ordinal) {
+            String key = SearchText.normalize(value);
+            bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(ordinal);
+            labels.put(key, value);
+            return key;
+        }
+
+        void remove(String key, int ordinal) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                    labels.remove(key);
+                }
+            }
+        }
+
+        RoaringBitmap get(String value) {
+            RoaringBitmap bitmap = bitmaps.get(SearchText.normalize(value));
+            return bitmap != null ? bitmap : new RoaringBitmap();
+        }
+
+        List<FacetCountDTO> facets(RoaringBitmap result) {
+            List<FacetCountDTO> facets = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                int count = RoaringBitmap.andCardinality(result, entry.getValue());
+                if (count > 0) {
+                    facets.add(new FacetCountDTO(entry.getKey(), labels.get(entry.getKey()), count));
+                }
+            }
+            return top(facets);
+        }
+
+        void clear() {
+            bitmaps.clear();
+            labels.clear();
+        }
+    }
+}
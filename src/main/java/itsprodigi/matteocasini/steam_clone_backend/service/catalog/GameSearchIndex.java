@@ -0,0 +1,189 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertito a trigrammi su titolo, sviluppatore ed editore dei giochi.
+ * Risponde alle ricerche "contiene" (equivalenti a LIKE '%x%') senza scansioni
+ * della tabella: i trigrammi della query selezionano pochi candidati, che
+ * vengono poi verificati sul valore normalizzato.
+ * Le query più corte di un trigramma vengono verificate su tutti i valori in
+ * memoria, comunque senza accedere al database.
+ */
+@Component
+public class GameSearchIndex implements CatalogIndexer {
+
+    /**
+     * Campi del gioco indicizzati.
+     */
+    public enum Field {
+        TITLE, DEVELOPER, PUBLISHER
+    }
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+    private final Map<UUID, String> titles = new HashMap<>();
+    private volatile boolean ready;
+
+    public GameSearchIndex() {
+        for (Field field : Field.values()) {
+            fields.put(field, new FieldIndex());
+        }
+    }
+
+    /**
+     * Indica se l'indice è stato popolato e può sostituire le query sul database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Cerca i giochi il cui campo contiene il testo indicato (case- e
+     * accent-insensitive).
+     *
+     * @param field campo su cui cercare
+     * @param query testo da cercare
+     * @return ID dei giochi trovati, ordinati per titolo
+     */
+    public List<UUID> search(Field field, String query) {
+        String needle = SearchText.normalize(query);
+        lock.readLock().lock();
+        try {
+            List<UUID> result = fields.get(field).find(needle);
+            result.sort(Comparator.comparing((UUID id) -> titles.get(id), String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(Comparator.naturalOrder()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<GameResponseDTO> games) {
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(FieldIndex::clear);
+            titles.clear();
+            games.forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onGameChanged(GameChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getGameId());
+            if (!event.isDeleted()) {
+                add(event.getCurrent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(GameResponseDTO game) {
+        titles.put(game.getId(), game.getTitle());
+        fields.get(Field.TITLE).add(game.getId(), game.getTitle());
+        fields.get(Field.DEVELOPER).add(game.getId(), game.getDeveloper());
+        fields.get(Field.PUBLISHER).add(game.getId(), game.getPublisher());
+    }
+
+    private void remove(UUID id) {
+        titles.remove(id);
+        fields.values().forEach(index -> index.remove(id));
+    }
+
+    /**
+     * Estrae i trigrammi distinti di un testo già normalizzato.
+     */
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Indice di un singolo campo: trigramma -> giochi e gioco -> valore normalizzato.
+     * Non è thread-safe: l'accesso è protetto dal lock dell'indice esterno.
+     */
+    private static final class FieldIndex {
+
+        private final Map<String, Set<UUID>> postings = new HashMap<>();
+        private final Map<UUID, String> values = new HashMap<>();
+
+        void add(UUID id, String rawValue) {
+            String value = SearchText.normalize(rawValue);
+            values.put(id, value);
+            for (String gram : grams(value)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(UUID id) {
+            String value = values.remove(id);
+            if (value == null) {
+                return;
+            }
+            for (String gram : grams(value)) {
+                Set<UUID> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        List<UUID> find(String needle) {
+            if (needle.length() < GRAM) {
+                return scan(values.keySet(), needle);
+            }
+            // Si parte dalla lista di posting più corta per ridurre i candidati
+            List<Set<UUID>> lists = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                Set<UUID> ids = postings.get(gram);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<UUID> candidates = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+                candidates.retainAll(lists.get(i));
+            }
+            // I trigrammi non garantiscono la contiguità: si verifica il valore completo
+            return scan(candidates, needle);
+        }
+
+        private List<UUID> scan(Collection<UUID> ids, String needle) {
+            List<UUID> result = new ArrayList<>();
+            for (UUID id : ids) {
+                if (values.get(id).contains(needle)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        void clear() {
+            postings.clear();
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameStatsRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameStatsRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Statistiche per gioco (possessori, tempo di gioco totale e mediano, acquisti
+ * recenti) tenute in memoria e persistite nella tabella game_stats.
+ * <p>
+ * Possessori, tempo totale e acquisti recenti seguono in modo incrementale le
+ * modifiche delle librerie; le righe cambiate vengono scritte in batch a
+ * intervalli (write-behind). La mediana e le finestre di acquisto, che non si
+ * possono aggiornare per differenza, vengono ricalcolate da un job periodico
+ * che scorre i giochi a blocchi con query aggregate sull'indice di user_games;
+ * lo stesso job corregge l'eventuale deriva dei contatori.
+ * <p>
+ * Gli eventi che arrivano dopo l'eliminazione di un gioco (es. un flush dei
+ * heartbeat in ritardo) vengono ignorati grazie a un insieme di giochi
+ * eliminati, svuotato dal job di ricalcolo.
+ */
+@Component
+public class GameStatsStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GameStatsStore.class);
+
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private final GameStatsRepository gameStatsRepository;
+    private final Clock clock;
+    private final Map<UUID, GameStatsRow> stats = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> deleted = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public GameStatsStore(GameStatsRepository gameStatsRepository) {
+        this(gameStatsRepository, Clock.systemUTC());
+    }
+
+    GameStatsStore(GameStatsRepository gameStatsRepository, Clock clock) {
+        this.gameStatsRepository = gameStatsRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Carica le statistiche persistite; se la tabella è vuota (primo avvio) le ricalcola.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<GameStatsRow> rows = gameStatsRepository.findAll();
+            for (GameStatsRow row : rows) {
+                stats.put(row.gameId(), row);
+            }
+            if (rows.isEmpty()) {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Caricamento delle statistiche dei giochi non riuscito, verranno ricalcolate", e);
+        }
+    }
+
+    /**
+     * Statistiche del gioco; zero se nessuno lo possiede.
+     */
+    public GameStatsDTO get(UUID gameId) {
+        return toDto(stats.getOrDefault(gameId, GameStatsRow.empty(gameId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryChanged(LibraryChangedEvent event) {
+        switch (event.getType()) {
+            case ADDED -> apply(event.getGameId(), 1, event.getPlaytimeMinutes(), 1);
+            case REMOVED -> apply(event.getGameId(), -1, -event.getPlaytimeMinutes(), 0);
+            case PLAYTIME_CHANGED -> apply(event.getGameId(), 0, event.getPlaytimeMinutes(), 0);
+        }
+    }
+
+    @EventListener
+    public void onPlaytimeFlushed(PlaytimeFlushedEvent event) {
+        for (PlaytimeDelta delta : event.getDeltas()) {
+            apply(delta.gameId(), 0, delta.minutes(), 0);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted()) {
+            // La riga di game_stats viene eliminata a cascata con il gioco; il
+            // gioco va segnato prima di rimuoverne le statistiche (vedi apply)
+            deleted.add(event.getGameId());
+            stats.remove(event.getGameId());
+            dirty.remove(event.getGameId());
+        }
+    }
+
+    /**
+     * Scrive in batch le statistiche modificate dagli eventi. Se il batch
+     * fallisce le righe vengono riscritte una alla volta: quelle rifiutate dal
+     * database (es. gioco eliminato) vengono scartate senza bloccare le altre,
+     * mentre a un errore non legato alla riga si rimettono in coda le restanti.
+     *
+     * @return numero di righe scritte
+     */
+    @Scheduled(fixedDelayString = "${catalog.game-stats.flush-interval:PT30S}")
+    public synchronized int flush() {
+        List<GameStatsRow> rows = new ArrayList<>();
+        for (UUID gameId : dirty) {
+            dirty.remove(gameId);
+            GameStatsRow row = stats.get(gameId);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            gameStatsRepository.upsert(rows);
+        } catch (RuntimeException e) {
+            log.warn("Scrittura in batch di {} statistiche di gioco fallita, si riprova riga per riga",
+                    rows.size(), e);
+            return upsertEach(rows);
+        }
+        return rows.size();
+    }
+
+    /**
+     * Ricalcola le statistiche di tutti i giochi a blocchi e le persiste.
+     * Se un evento modifica un gioco durante la query del suo blocco, i
+     * contatori incrementali vengono mantenuti e si aggiornano solo mediana e
+     * finestre di acquisto: il giro successivo li riallineerà. I giochi
+     * eliminati nel frattempo vengono saltati e ogni blocco viene scritto come
+     * in {@link #flush()}, isolando le righe rifiutate dal database.
+     *
+     * @return numero di giochi ricalcolati
+     */
+    @Scheduled(fixedDelayString = "${catalog.game-stats.refresh-interval:PT1H}",
+            initialDelayString = "${catalog.game-stats.refresh-interval:PT1H}")
+    public synchronized int refresh() {
+        Instant now = clock.instant();
+        LocalDate today = LocalDate.now(clock);
+        Set<UUID> deletedBefore = Set.copyOf(deleted);
+        int refreshed = 0;
+        try {
+            UUID after = null;
+            List<UUID> chunk;
+            while (!(chunk = gameStatsRepository.findGameIdsAfter(after, REFRESH_CHUNK_SIZE)).isEmpty()) {
+                refreshed += refreshChunk(chunk, today, now);
+                after = chunk.get(chunk.size() - 1);
+            }
+        } finally {
+            // I giochi eliminati prima del ricalcolo non sono più tra quelli scorsi
+            deleted.removeAll(deletedBefore);
+        }
+        log.info("Statistiche ricalcolate per {} giochi", refreshed);
+        return refreshed;
+    }
+
+    private int refreshChunk(List<UUID> chunk, LocalDate today, Instant now) {
+        Map<UUID, GameStatsRow> before = new HashMap<>();
+        for (UUID gameId : chunk) {
+            before.put(gameId, stats.get(gameId));
+        }
+        Map<UUID, GameStatsRow> fresh = gameStatsRepository.aggregate(chunk, today, now);
+        List<GameStatsRow> rows = new ArrayList<>(chunk.size());
+        for (UUID gameId : chunk) {
+            GameStatsRow computed = fresh.getOrDefault(gameId, zeroAt(gameId, now));
+            // Stesso controllo di apply: un gioco eliminato durante la query non viene ricreato
+            GameStatsRow merged = stats.compute(gameId, (id, current) -> {
+                if (deleted.contains(id)) {
+                    return current;
+                }
+                return Objects.equals(current, before.get(id)) ? computed : withRefreshedFields(current, computed);
+            });
+            if (merged != null && !deleted.contains(gameId)) {
+                rows.add(merged);
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            gameStatsRepository.upsert(rows);
+        } catch (RuntimeException e) {
+            log.warn("Scrittura in batch di {} statistiche ricalcolate fallita, si riprova riga per riga",
+                    rows.size(), e);
+            return upsertEach(rows);
+        }
+        return rows.size();
+    }
+
+    private int upsertEach(List<GameStatsRow> rows) {
+        int written = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            GameStatsRow row = rows.get(i);
+            try {
+                gameStatsRepository.upsert(List.of(row));
+                written++;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Statistiche del gioco {} scartate: riga rifiutata dal database ({})", row.gameId(),
+                        e.getMostSpecificCause().getMessage());
+                stats.remove(row.gameId(), row);
+            } catch (RuntimeException e) {
+                log.warn("Scrittura delle statistiche di gioco fallita, {} righe verranno ritentate",
+                        rows.size() - i, e);
+                rows.subList(i, rows.size()).forEach(pending -> dirty.add(pending.gameId()));
+                break;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Applica una variazione ai contatori di un gioco. Il controllo sui giochi
+     * eliminati avviene dentro compute, serializzato con la rimozione in
+     * onGameChanged: un evento in ritardo non ricrea le statistiche.
+     */
+    private void apply(UUID gameId, long deltaOwners, long deltaMinutes, long deltaPurchases) {
+        GameStatsRow updated = stats.compute(gameId, (id, current) -> {
+            if (deleted.contains(id)) {
+                return current;
+            }
+            GameStatsRow base = current != null ? current : GameStatsRow.empty(id);
+            return new GameStatsRow(id, Math.max(0, base.ownerCount() + deltaOwners),
+                    Math.max(0, base.totalPlaytimeMinutes() + deltaMinutes), base.medianPlaytimeMinutes(),
+                    base.purchasesLast7Days() + deltaPurchases, base.purchasesLast30Days() + deltaPurchases,
+                    base.refreshedAt());
+        });
+        if (updated != null) {
+            dirty.add(gameId);
+        }
+    }
+
+    private static GameStatsRow withRefreshedFields(GameStatsRow current, GameStatsRow computed) {
+        if (current == null) {
+            return computed;
+        }
+        return new GameStatsRow(current.gameId(), current.ownerCount(), current.totalPlaytimeMinutes(),
+                computed.medianPlaytimeMinutes(), computed.purchasesLast7Days(), computed.purchasesLast30Days(),
+                computed.refreshedAt());
+    }
+
+    private static GameStatsRow zeroAt(UUID gameId, Instant refreshedAt) {
+        return new GameStatsRow(gameId, 0, 0, 0, 0, 0, refreshedAt);
+    }
+
+    private static GameStatsDTO toDto(GameStatsRow row) {
+        return new GameStatsDTO(row.ownerCount(), row.totalPlaytimeMinutes(), row.medianPlaytimeMinutes(),
+                row.purchasesLast7Days(), row.purchasesLast30Days(), row.refreshedAt());
+    }
+}
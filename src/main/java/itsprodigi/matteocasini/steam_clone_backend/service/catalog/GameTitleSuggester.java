@@ -0,0 +1,223 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Autocompletamento dei titoli basato su array ordinati di chiavi normalizzate.
+ * Ogni titolo produce una chiave per ogni inizio di parola (es. "half life 2",
+ * "life 2", "2"), così "life" suggerisce anche "Half-Life 2".
+ * Le letture lavorano su uno snapshot immutabile pubblicato tramite campo
+ * volatile: nessun lock, solo una ricerca binaria e una scansione di pochi elementi.
+ * Le modifiche dei titoli ricostruiscono lo snapshot in background, accorpando
+ * quelle che arrivano entro l'intervallo di debounce (es. un import o una
+ * modifica in blocco) in un'unica ricostruzione, come per lo snapshot del catalogo.
+ */
+@Component
+public class GameTitleSuggester implements CatalogIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(GameTitleSuggester.class);
+
+    private final long debounceMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final Map<UUID, String> titles = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    public GameTitleSuggester(@Value("${catalog.suggest.debounce:PT0.2S}") Duration debounce) {
+        this.debounceMillis = debounce.toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "title-suggester");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Indica se l'indice è stato popolato e può sostituire le query sul database.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Restituisce i titoli che iniziano con il prefisso o che contengono una
+     * parola che inizia con il prefisso. I match sull'inizio del titolo vengono
+     * prima, ciascun gruppo in ordine alfabetico.
+     *
+     * @param prefix testo digitato dall'utente
+     * @param limit  numero massimo di suggerimenti
+     * @return suggerimenti, lista vuota se il prefisso è vuoto
+     */
+    public List<GameSuggestionDTO> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String key = SearchText.normalize(prefix);
+        if (current == null || key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<GameSuggestionDTO> result = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        current.collect(key, true, limit, seen, result);
+        if (result.size() < limit) {
+            current.collect(key, false, limit, seen, result);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<GameResponseDTO> games) {
+        titles.clear();
+        for (GameResponseDTO game : games) {
+            titles.put(game.getId(), game.getTitle());
+        }
+        snapshot = Snapshot.of(titles);
+    }
+
+    @Override
+    public synchronized void onGameChanged(GameChangedEvent event) {
+        if (snapshot == null) {
+            return;
+        }
+        String before = titles.get(event.getGameId());
+        if (event.isDeleted()) {
+            titles.remove(event.getGameId());
+        } else {
+            titles.put(event.getGameId(), event.getCurrent().getTitle());
+        }
+        // Le modifiche che non toccano il titolo non richiedono un nuovo snapshot
+        if (!Objects.equals(before, titles.get(event.getGameId()))) {
+            scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    publish();
+                } catch (RuntimeException e) {
+                    log.warn("Ricostruzione dei suggerimenti dei titoli fallita: {}", e.getMessage());
+                }
+            }, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void publish() {
+        snapshot = Snapshot.of(titles);
+    }
+
+    /**
+     * Struttura immutabile: chiavi ordinate con il riferimento al gioco.
+     * Le chiavi di inizio titolo e quelle di inizio parola stanno in array
+     * separati per poter dare priorità alle prime.
+     */
+    private static final class Snapshot {
+
+        private final UUID[] ids;
+        private final String[] titles;
+        private final String[] titleKeys;
+        private final int[] titleOwners;
+        private final String[] wordKeys;
+        private final int[] wordOwners;
+
+        private Snapshot(UUID[] ids, String[] titles, List<Key> titleKeys, List<Key> wordKeys) {
+            this.ids = ids;
+            this.titles = titles;
+            this.titleKeys = new String[titleKeys.size()];
+            this.titleOwners = new int[titleKeys.size()];
+            fill(titleKeys, this.titleKeys, this.titleOwners);
+            this.wordKeys = new String[wordKeys.size()];
+            this.wordOwners = new int[wordKeys.size()];
+            fill(wordKeys, this.wordKeys, this.wordOwners);
+        }
+
+        static Snapshot of(Map<UUID, String> source) {
+            UUID[] ids = new UUID[source.size()];
+            String[] titles = new String[source.size()];
+            List<Key> titleKeys = new ArrayList<>(source.size());
+            List<Key> wordKeys = new ArrayList<>(source.size() * 2);
+            int owner = 0;
+            for (Map.Entry<UUID, String> entry : source.entrySet()) {
+                ids[owner] = entry.getKey();
+                titles[owner] = entry.getValue();
+                String normalized = SearchText.normalize(entry.getValue());
+                titleKeys.add(new Key(normalized, owner));
+                for (int i = 1; i < normalized.length(); i++) {
+                    if (isWordStart(normalized, i)) {
+                        wordKeys.add(new Key(normalized.substring(i), owner));
+                    }
+                }
+                owner++;
+            }
+            return new Snapshot(ids, titles, titleKeys, wordKeys);
+        }
+
+        /**
+         * Una parola inizia dopo uno spazio o un separatore (es. "Half-Life").
+         */
+        private static boolean isWordStart(String text, int i) {
+            return Character.isLetterOrDigit(text.charAt(i)) && !Character.isLetterOrDigit(text.charAt(i - 1));
+        }
+
+        private static void fill(List<Key> keys, String[] texts, int[] owners) {
+            keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::owner));
+            for (int i = 0; i < keys.size(); i++) {
+                texts[i] = keys.get(i).text();
+                owners[i] = keys.get(i).owner();
+            }
+        }
+
+        void collect(String prefix, boolean titleStart, int limit, Set<Integer> seen,
+                List<GameSuggestionDTO> result) {
+            String[] keys = titleStart ? titleKeys : wordKeys;
+            int[] owners = titleStart ? titleOwners : wordOwners;
+            for (int i = lowerBound(keys, prefix); i < keys.length && result.size() < limit; i++) {
+                if (!keys[i].startsWith(prefix)) {
+                    break;
+                }
+                if (seen.add(owners[i])) {
+                    result.add(new GameSuggestionDTO(ids[owners[i]], titles[owners[i]]));
+                }
+            }
+        }
+
+        /**
+         * Prima posizione con chiave maggiore o uguale al prefisso.
+         */
+        private static int lowerBound(String[] keys, String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private record Key(String text, int owner) {
+    }
+}
@@ -0,0 +1,175 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Mappa long -> int a indirizzamento aperto (linear probing), senza boxing.
+ * Pensata per contatori sparsi: le voci che scendono a zero vengono rimosse.
+ * Non è thread-safe: la sincronizzazione è a carico del chiamante.
+ */
+final class LongIntHashMap {
+
+    // Long.MIN_VALUE marca le celle libere e non può essere usato come chiave
+    private static final long FREE = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap() {
+        this(8);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Consumatore di coppie chiave/valore primitive.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return valore associato alla chiave, 0 se assente
+     */
+    int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    /**
+     * Somma {@code delta} al valore della chiave (0 se assente); rimuove la
+     * voce se il risultato è zero.
+     *
+     * @return nuovo valore
+     */
+    int addTo(long key, int delta) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Chiave non supportata: " + key);
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                int updated = values[slot] + delta;
+                if (updated == 0) {
+                    removeAt(slot);
+                } else {
+                    values[slot] = updated;
+                }
+                return updated;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * Rimuove la chiave.
+     *
+     * @return valore rimosso, 0 se assente
+     */
+    int remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int value = values[slot];
+        removeAt(slot);
+        return value;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Cancellazione con spostamento all'indietro: le voci successive della
+     * stessa sequenza di probing vengono ricompattate, senza lapidi.
+     */
+    private void removeAt(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = mix(keys[next]) & mask;
+            // La voce può colmare il buco se la sua posizione ideale non cade tra gap (escluso) e next
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
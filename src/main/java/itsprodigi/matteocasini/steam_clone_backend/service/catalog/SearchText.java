@@ -0,0 +1,34 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizzazione del testo usata dagli indici di ricerca in memoria.
+ * Emula il confronto case- e accent-insensitive della collation MySQL,
+ * così che i risultati coincidano con quelli delle query LIKE.
+ */
+public final class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private SearchText() {
+    }
+
+    /**
+     * Converte il testo in minuscolo, rimuove gli accenti e compatta gli spazi.
+     *
+     * @param text testo da normalizzare, può essere null
+     * @return testo normalizzato, stringa vuota se null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
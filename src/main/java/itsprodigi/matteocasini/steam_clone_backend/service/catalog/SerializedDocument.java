@@ -0,0 +1,55 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+/**
+ * Documento JSON già serializzato, pronto per essere scritto nella risposta.
+ * Contiene anche l'eventuale versione compressa gzip e gli ETag delle due
+ * rappresentazioni, calcolati una sola volta alla creazione.
+ */
+public final class SerializedDocument {
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final long lastModified;
+
+    public SerializedDocument(byte[] json, byte[] gzip, String etag, long lastModified) {
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Versione compressa, null se la compressione non è abilitata o non conviene.
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Data di ultima modifica in millisecondi, -1 se sconosciuta.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * ETag della rappresentazione compressa: deve differire da quello del JSON
+     * in chiaro perché i byte inviati sono diversi.
+     */
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+}
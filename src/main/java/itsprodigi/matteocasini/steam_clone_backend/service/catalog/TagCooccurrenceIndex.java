@@ -0,0 +1,194 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.RelatedTagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Matrice sparsa di co-occorrenza tag x tag derivata da game_tags.
+ * Ogni riga è una LongIntHashMap (tag vicino -> numero di giochi in comune);
+ * la diagonale contiene il numero di giochi del tag. Le modifiche ai tag di un
+ * gioco aggiornano solo le coppie coinvolte, così i tag correlati si leggono
+ * dalla riga senza join al momento della richiesta. Per ogni gioco si tengono
+ * gli ID dei suoi tag, necessari a eliminazioni e unioni di tag.
+ */
+@Component
+public class TagCooccurrenceIndex implements CatalogIndexer {
+
+    private static final long[] NO_TAGS = new long[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LongIntHashMap> rows = new HashMap<>();
+    private final Map<UUID, long[]> tagsByGame = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+
+    /**
+     * Indica se il tag compare in almeno un gioco.
+     */
+    public boolean contains(Long tagId) {
+        lock.readLock().lock();
+        try {
+            return rows.containsKey(tagId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restituisce i tag che compaiono più spesso insieme al tag indicato.
+     *
+     * @param tagId tag di partenza
+     * @param limit numero massimo di tag
+     * @return tag correlati, per numero di giochi in comune decrescente
+     */
+    public List<RelatedTagDTO> related(Long tagId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = rows.get(tagId);
+            if (row == null) {
+                return new ArrayList<>();
+            }
+            int games = row.get(tagId);
+            // Min-heap di dimensione limit: O(n log k) sulla riga
+            PriorityQueue<long[]> heap = new PriorityQueue<>(
+                    Comparator.<long[]>comparingLong(e -> e[1]).thenComparing(e -> -e[0]));
+            row.forEach((other, count) -> {
+                if (other == tagId) {
+                    return;
+                }
+                if (heap.size() < limit) {
+                    heap.add(new long[] { other, count });
+                } else if (heap.peek()[1] < count || (heap.peek()[1] == count && heap.peek()[0] > other)) {
+                    heap.poll();
+                    heap.add(new long[] { other, count });
+                }
+            });
+            List<RelatedTagDTO> related = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                long[] entry = heap.poll();
+                related.add(new RelatedTagDTO(entry[0], names.get(entry[0]), entry[1],
+                        games == 0 ? 0 : (double) entry[1] / games));
+            }
+            Collections.reverse(related);
+            return related;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<GameResponseDTO> games) {
+        lock.writeLock().lock();
+        try {
+            rows.clear();
+            names.clear();
+            tagsByGame.clear();
+            for (GameResponseDTO game : games) {
+                rememberNames(game);
+                long[] tagIds = tagIds(game);
+                tagsByGame.put(game.getId(), tagIds);
+                apply(tagIds, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onGameChanged(GameChangedEvent event) {
+        long[] current = event.isDeleted() ? NO_TAGS : tagIds(event.getCurrent());
+        lock.writeLock().lock();
+        try {
+            long[] previous = event.isDeleted()
+                    ? tagsByGame.remove(event.getGameId())
+                    : tagsByGame.put(event.getGameId(), current);
+            if (event.getCurrent() != null) {
+                rememberNames(event.getCurrent());
+            }
+            replace(previous == null ? NO_TAGS : previous, current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTagChanged(TagChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            long tagId = event.getTagId();
+            if (event.getType() == TagChangedEvent.Type.RENAMED) {
+                names.put(tagId, event.getName());
+                return;
+            }
+            names.remove(tagId);
+            boolean merged = event.getType() == TagChangedEvent.Type.MERGED;
+            if (merged) {
+                names.put(event.getTargetTagId(), event.getName());
+            }
+            // Solo i giochi con il tag: le loro coppie vengono ricalcolate
+            for (Map.Entry<UUID, long[]> entry : tagsByGame.entrySet()) {
+                long[] previous = entry.getValue();
+                if (Arrays.binarySearch(previous, tagId) < 0) {
+                    continue;
+                }
+                long[] current = Arrays.stream(previous)
+                        .map(id -> merged && id == tagId ? event.getTargetTagId() : id)
+                        .filter(id -> id != tagId)
+                        .distinct()
+                        .sorted()
+                        .toArray();
+                replace(previous, current);
+                entry.setValue(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(long[] previous, long[] current) {
+        if (!Arrays.equals(previous, current)) {
+            apply(previous, -1);
+            apply(current, 1);
+        }
+    }
+
+    /**
+     * Somma delta a tutte le coppie (diagonale inclusa) dei tag di un gioco.
+     */
+    private void apply(long[] tagIds, int delta) {
+        for (long a : tagIds) {
+            LongIntHashMap row = delta > 0 ? rows.computeIfAbsent(a, id -> new LongIntHashMap()) : rows.get(a);
+            if (row == null) {
+                continue;
+            }
+            for (long b : tagIds) {
+                row.addTo(b, delta);
+            }
+            if (row.isEmpty()) {
+                rows.remove(a);
+            }
+        }
+    }
+
+    private void rememberNames(GameResponseDTO game) {
+        if (game.getTags() != null) {
+            for (TagDTO tag : game.getTags()) {
+                names.put(tag.getId(), tag.getName());
+            }
+        }
+    }
+
+    private static long[] tagIds(GameResponseDTO game) {
+        if (game.getTags() == null) {
+            return NO_TAGS;
+        }
+        return game.getTags().stream().mapToLong(TagDTO::getId).distinct().sorted().toArray();
+    }
+}
@@ -0,0 +1,134 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dizionario in memoria nome del tag (normalizzato come negli altri indici,
+ * vedi {@link SearchText}) -> ID.
+ * Permette di risolvere i tag durante la scrittura dei giochi senza query:
+ * restituisce un riferimento JPA (proxy non inizializzato) utilizzabile
+ * direttamente nella relazione Game.tags.
+ * Viene popolato all'avvio, aggiornato dopo il commit di creazioni, rinomine
+ * e cancellazioni e, in caso di miss, legge dal database (read-through), così
+ * copre anche i tag inseriti senza passare dai servizi (es. importazione JDBC).
+ */
+@Component
+public class TagDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(TagDictionary.class);
+
+    private final TagRepository tagRepository;
+    private final Map<String, Entry> byName = new ConcurrentHashMap<>();
+    // Incrementato a ogni rinomina/cancellazione: una lettura dal database
+    // iniziata prima non deve reinserire un nome ormai obsoleto
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TagDictionary(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    /**
+     * Carica tutti i tag all'avvio. Se il database non è raggiungibile il
+     * dizionario resta vuoto e si popola con le letture successive.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            for (Tag tag : tagRepository.findAll()) {
+                byName.put(key(tag.getName()), new Entry(tag.getId(), tag.getName()));
+            }
+            log.info("Dizionario dei tag inizializzato: {} tag", byName.size());
+        } catch (RuntimeException e) {
+            log.warn("Dizionario dei tag non inizializzato: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cerca un tag per nome, ignorando maiuscole, accenti e spazi come la
+     * collation del database.
+     * Su hit non esegue query e restituisce il riferimento del persistence
+     * context (getReference): basta l'ID per scrivere la riga di game_tags e
+     * il tag viene caricato solo se se ne leggono gli altri campi.
+     *
+     * @param name nome del tag
+     * @return tag trovato, vuoto se non esiste
+     */
+    public Optional<Tag> find(String name) {
+        String key = key(name);
+        Entry entry = byName.get(key);
+        if (entry != null) {
+            return Optional.of(tagRepository.getReferenceById(entry.id()));
+        }
+        long generation = invalidations.get();
+        Optional<Tag> loaded = tagRepository.findByNameIgnoreCase(name.trim());
+        loaded.ifPresent(tag -> remember(key, new Entry(tag.getId(), tag.getName()), generation));
+        return loaded;
+    }
+
+    /**
+     * Registra un tag appena creato. Se c'è una transazione attiva la
+     * registrazione avviene solo dopo il commit, così un rollback non lascia
+     * nel dizionario ID inesistenti.
+     *
+     * @param tag tag salvato (con ID assegnato)
+     */
+    public void registerAfterCommit(Tag tag) {
+        Entry entry = new Entry(tag.getId(), tag.getName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    byName.put(key(entry.name()), entry);
+                }
+            });
+        } else {
+            byName.put(key(entry.name()), entry);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        invalidations.incrementAndGet();
+        byName.values().removeIf(entry -> entry.id().equals(event.getTagId()));
+        if (event.getType() == TagChangedEvent.Type.RENAMED) {
+            byName.put(key(event.getName()), new Entry(event.getTagId(), event.getName()));
+        }
+    }
+
+    /**
+     * Numero di nomi presenti nel dizionario.
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    private void remember(String key, Entry entry, long generation) {
+        byName.putIfAbsent(key, entry);
+        if (invalidations.get() != generation) {
+            // Una rinomina/cancellazione è avvenuta durante la lettura: il dato può essere obsoleto
+            byName.remove(key, entry);
+        }
+    }
+
+    static String key(String name) {
+        return SearchText.normalize(name);
+    }
+
+    private record Entry(Long id, String name) {
+    }
+}
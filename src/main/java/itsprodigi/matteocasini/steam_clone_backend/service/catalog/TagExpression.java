@@ -0,0 +1,246 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Espressione booleana sui tag, es. {@code action AND (rpg OR indie) AND NOT horror}.
+ * <p>
+ * Sintassi: operatori AND/OR/NOT (case-insensitive) o i simboli {@code & | !},
+ * parentesi per il raggruppamento, NOT ha la precedenza su AND che l'ha su OR.
+ * Più parole consecutive formano un unico nome di tag ({@code open world}); i
+ * nomi che contengono operatori o simboli vanno tra virgolette doppie.
+ */
+public final class TagExpression {
+
+    static final int MAX_LENGTH = 500;
+    static final int MAX_TERMS = 32;
+
+    private final Node root;
+
+    private TagExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Espressione composta da un solo tag, senza interpretare operatori.
+     */
+    public static TagExpression of(String tagName) {
+        if (tagName == null || tagName.isBlank()) {
+            throw new InvalidQueryParameterException("Il nome del tag non può essere vuoto.");
+        }
+        return new TagExpression(new Term(tagName.trim()));
+    }
+
+    /**
+     * Analizza un'espressione testuale.
+     *
+     * @throws InvalidQueryParameterException se l'espressione è vuota, troppo lunga o non valida
+     */
+    public static TagExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidQueryParameterException("L'espressione sui tag non può essere vuota.");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new InvalidQueryParameterException(
+                    "L'espressione sui tag non può superare " + MAX_LENGTH + " caratteri.");
+        }
+        return new TagExpression(new Parser(tokenize(text)).parse());
+    }
+
+    public Node root() {
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    /**
+     * Nodo dell'albero sintattico.
+     */
+    public sealed interface Node permits Term, And, Or, Not {
+    }
+
+    public record Term(String name) implements Node {
+        @Override
+        public String toString() {
+            return "\"" + name + "\"";
+        }
+    }
+
+    public record And(List<Node> operands) implements Node {
+        @Override
+        public String toString() {
+            return join(operands, " AND ");
+        }
+    }
+
+    public record Or(List<Node> operands) implements Node {
+        @Override
+        public String toString() {
+            return join(operands, " OR ");
+        }
+    }
+
+    public record Not(Node operand) implements Node {
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+
+    private static String join(List<Node> operands, String separator) {
+        List<String> parts = new ArrayList<>(operands.size());
+        operands.forEach(operand -> parts.add(operand.toString()));
+        return "(" + String.join(separator, parts) + ")";
+    }
+
+    private enum TokenType { AND, OR, NOT, OPEN, CLOSE, WORD, QUOTED }
+
+    private record Token(TokenType type, String text) {
+    }
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')' || c == '&' || c == '|' || c == '!') {
+                tokens.add(new Token(switch (c) {
+                    case '(' -> TokenType.OPEN;
+                    case ')' -> TokenType.CLOSE;
+                    case '&' -> TokenType.AND;
+                    case '|' -> TokenType.OR;
+                    default -> TokenType.NOT;
+                }, String.valueOf(c)));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new InvalidQueryParameterException("Virgolette non chiuse nell'espressione sui tag.");
+                }
+                tokens.add(new Token(TokenType.QUOTED, text.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && "()&|!\"".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                String word = text.substring(start, i);
+                tokens.add(switch (word.toUpperCase(Locale.ROOT)) {
+                    case "AND" -> new Token(TokenType.AND, word);
+                    case "OR" -> new Token(TokenType.OR, word);
+                    case "NOT" -> new Token(TokenType.NOT, word);
+                    default -> new Token(TokenType.WORD, word);
+                });
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Parser a discesa ricorsiva:
+     * or := and (OR and)*, and := unary (AND unary)*, unary := NOT unary | ( or ) | nome.
+     */
+    private static final class Parser {
+
+        private final List<Token> tokens;
+        private int position;
+        private int terms;
+
+        Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node parse() {
+            Node node = parseOr();
+            if (position < tokens.size()) {
+                throw error("'" + tokens.get(position).text() + "' inatteso");
+            }
+            return node;
+        }
+
+        private Node parseOr() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while (accept(TokenType.OR)) {
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(List.copyOf(operands));
+        }
+
+        private Node parseAnd() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseUnary());
+            while (accept(TokenType.AND)) {
+                operands.add(parseUnary());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(List.copyOf(operands));
+        }
+
+        private Node parseUnary() {
+            if (accept(TokenType.NOT)) {
+                Node operand = parseUnary();
+                // NOT NOT x equivale a x
+                return operand instanceof Not not ? not.operand() : new Not(operand);
+            }
+            if (accept(TokenType.OPEN)) {
+                Node inner = parseOr();
+                if (!accept(TokenType.CLOSE)) {
+                    throw error("parentesi non chiusa");
+                }
+                return inner;
+            }
+            return parseTerm();
+        }
+
+        private Node parseTerm() {
+            if (position >= tokens.size()) {
+                throw error("manca un nome di tag alla fine");
+            }
+            Token token = tokens.get(position);
+            String name;
+            if (token.type() == TokenType.QUOTED) {
+                position++;
+                name = token.text().trim();
+            } else if (token.type() == TokenType.WORD) {
+                StringBuilder words = new StringBuilder(token.text());
+                position++;
+                while (position < tokens.size() && tokens.get(position).type() == TokenType.WORD) {
+                    words.append(' ').append(tokens.get(position++).text());
+                }
+                name = words.toString();
+            } else {
+                throw error("'" + token.text() + "' inatteso, atteso un nome di tag");
+            }
+            if (name.isEmpty()) {
+                throw error("nome di tag vuoto");
+            }
+            if (++terms > MAX_TERMS) {
+                throw new InvalidQueryParameterException(
+                        "L'espressione sui tag non può contenere più di " + MAX_TERMS + " tag.");
+            }
+            return new Term(name);
+        }
+
+        private boolean accept(TokenType type) {
+            if (position < tokens.size() && tokens.get(position).type() == type) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private InvalidQueryParameterException error(String detail) {
+            return new InvalidQueryParameterException("Espressione sui tag non valida: " + detail + ".");
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPopularityDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagPopularitySort;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameOwnerCount;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contatori in memoria per tag: numero di giochi associati e numero di copie di
+ * quei giochi nelle librerie degli utenti (un utente che possiede due giochi
+ * con lo stesso tag conta due volte).
+ * <p>
+ * I contatori vengono aggiornati in modo incrementale dagli eventi di catalogo,
+ * tag e libreria; un job periodico li riallinea al database, così che eventuali
+ * scritture avvenute fuori dai servizi non lascino una deriva permanente.
+ * I contatori vengono popolati dalla ricostruzione degli indici all'avvio;
+ * finché non sono pronti la classifica è vuota e la lettura dal database resta
+ * ai job in background, mai al thread della richiesta.
+ * Gli aggiornamenti sono rari rispetto alle letture e toccano pochi contatori:
+ * un unico monitor è sufficiente.
+ */
+@Component
+public class TagPopularityCounter implements CatalogIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(TagPopularityCounter.class);
+
+    private static final long[] NO_TAGS = new long[0];
+    // Tentativi di riconciliazione per esecuzione: se tutti incrociano modifiche concorrenti si rinvia
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final GameRepository gameRepository;
+    private final TagRepository tagRepository;
+    private final UserGameRepository userGameRepository;
+
+    private Map<UUID, long[]> tagsByGame = new HashMap<>();
+    private Map<UUID, Long> ownersByGame = new HashMap<>();
+    private Map<Long, Counter> byTag = new HashMap<>();
+    private long mutations;
+    private volatile boolean ready;
+    // I due job condividono il pool dello scheduler: una sola riconciliazione alla volta
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    public TagPopularityCounter(GameRepository gameRepository, TagRepository tagRepository,
+            UserGameRepository userGameRepository) {
+        this.gameRepository = gameRepository;
+        this.tagRepository = tagRepository;
+        this.userGameRepository = userGameRepository;
+    }
+
+    /**
+     * Restituisce i tag più usati. Scorre i contatori con un min-heap di
+     * {@code limit} elementi: O(tag x log limit), senza ordinare tutti i tag.
+     *
+     * @param limit numero massimo di tag
+     * @param sort  contatore su cui ordinare
+     * @return tag in ordine decrescente secondo il contatore scelto; vuota se
+     *         i contatori non sono ancora stati popolati
+     */
+    public List<TagPopularityDTO> top(int limit, TagPopularitySort sort) {
+        if (!ready) {
+            return List.of();
+        }
+        Comparator<TagPopularityDTO> byGames = Comparator.comparingLong(TagPopularityDTO::getGameCount).reversed();
+        Comparator<TagPopularityDTO> byOwners = Comparator.comparingLong(TagPopularityDTO::getOwnerCount).reversed();
+        Comparator<TagPopularityDTO> order = (sort == TagPopularitySort.OWNERS ? byOwners.thenComparing(byGames)
+                : byGames.thenComparing(byOwners))
+                .thenComparing(TagPopularityDTO::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(TagPopularityDTO::getId);
+
+        // In testa al heap il peggiore tra i migliori trovati finora
+        PriorityQueue<TagPopularityDTO> heap = new PriorityQueue<>(Math.max(1, limit) + 1, order.reversed());
+        synchronized (this) {
+            for (Map.Entry<Long, Counter> entry : byTag.entrySet()) {
+                Counter counter = entry.getValue();
+                TagPopularityDTO candidate = new TagPopularityDTO(entry.getKey(), counter.name, counter.games,
+                        counter.owners);
+                if (heap.size() < limit) {
+                    heap.add(candidate);
+                } else if (limit > 0 && order.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+        }
+        List<TagPopularityDTO> top = new ArrayList<>(heap);
+        top.sort(order);
+        return top;
+    }
+
+    @Override
+    public void rebuild(Collection<GameResponseDTO> games) {
+        Map<UUID, long[]> tags = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        for (GameResponseDTO game : games) {
+            tags.put(game.getId(), tagIds(game));
+            if (game.getTags() != null) {
+                game.getTags().forEach(tag -> names.put(tag.getId(), tag.getName()));
+            }
+        }
+        Map<UUID, Long> owners;
+        try {
+            owners = loadOwners();
+        } catch (RuntimeException e) {
+            log.warn("Possessori per gioco non caricati, saranno riallineati in seguito: {}", e.getMessage());
+            owners = new HashMap<>();
+        }
+        synchronized (this) {
+            replace(tags, owners, names);
+        }
+    }
+
+    @Override
+    public synchronized void onGameChanged(GameChangedEvent event) {
+        mutations++;
+        UUID gameId = event.getGameId();
+        long[] previous = tagsByGame.getOrDefault(gameId, NO_TAGS);
+        long[] current = event.isDeleted() ? NO_TAGS : tagIds(event.getCurrent());
+        long owners = ownersByGame.getOrDefault(gameId, 0L);
+
+        for (long tagId : previous) {
+            if (!contains(current, tagId)) {
+                Counter counter = byTag.get(tagId);
+                if (counter != null) {
+                    counter.games--;
+                    counter.owners -= owners;
+                }
+            }
+        }
+        if (!event.isDeleted() && event.getCurrent().getTags() != null) {
+            for (TagDTO tag : event.getCurrent().getTags()) {
+                Counter counter = byTag.computeIfAbsent(tag.getId(), id -> new Counter(tag.getName()));
+                counter.name = tag.getName();
+                if (!contains(previous, tag.getId())) {
+                    counter.games++;
+                    counter.owners += owners;
+                }
+            }
+        }
+
+        if (event.isDeleted()) {
+            // Le righe di user_games del gioco vengono eliminate insieme al gioco
+            tagsByGame.remove(gameId);
+            ownersByGame.remove(gameId);
+        } else {
+            tagsByGame.put(gameId, current);
+        }
+    }
+
+    @Override
+    public synchronized void onTagChanged(TagChangedEvent event) {
+        mutations++;
+        Long tagId = event.getTagId();
+        if (event.getType() == TagChangedEvent.Type.RENAMED) {
+            Counter counter = byTag.get(tagId);
+            if (counter != null) {
+                counter.name = event.getName();
+            }
+            return;
+        }
+        byTag.remove(tagId);
+        boolean merged = event.getType() == TagChangedEvent.Type.MERGED;
+        Counter target = merged
+                ? byTag.computeIfAbsent(event.getTargetTagId(), id -> new Counter(event.getName()))
+                : null;
+        tagsByGame.replaceAll((gameId, tagIds) -> {
+            if (!contains(tagIds, tagId)) {
+                return tagIds;
+            }
+            if (merged && !contains(tagIds, event.getTargetTagId())) {
+                // Il gioco riceve il tag di destinazione: conta per i suoi giochi e possessori
+                target.games++;
+                target.owners += ownersByGame.getOrDefault(gameId, 0L);
+                return Arrays.stream(tagIds).map(id -> id == tagId ? event.getTargetTagId() : id).toArray();
+            }
+            return Arrays.stream(tagIds).filter(id -> id != tagId).toArray();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLibraryChanged(LibraryChangedEvent event) {
+        if (!event.isMembershipChange()) {
+            return;
+        }
+        long delta = event.getType() == LibraryChangedEvent.Type.ADDED ? 1 : -1;
+        long known = ownersByGame.getOrDefault(event.getGameId(), 0L);
+        if (known + delta < 0) {
+            // Rimozione di un possesso mai contato: nessun contatore negativo, ci pensa la riconciliazione
+            return;
+        }
+        mutations++;
+        if (known + delta == 0) {
+            ownersByGame.remove(event.getGameId());
+        } else {
+            ownersByGame.put(event.getGameId(), known + delta);
+        }
+        for (long tagId : tagsByGame.getOrDefault(event.getGameId(), NO_TAGS)) {
+            Counter counter = byTag.get(tagId);
+            if (counter != null) {
+                counter.owners += delta;
+            }
+        }
+    }
+
+    /**
+     * Riprova a popolare i contatori se la ricostruzione all'avvio non è
+     * riuscita (es. database non raggiungibile), senza attendere la
+     * riconciliazione periodica.
+     */
+    @Scheduled(fixedDelayString = "${catalog.tags.warm-up-retry-interval:PT30S}",
+            initialDelayString = "${catalog.tags.warm-up-retry-interval:PT30S}")
+    public void warmUpIfNeeded() {
+        if (!ready) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Ricalcola i contatori dal database (tre query aggregate/di proiezione) e
+     * li sostituisce. Se nel frattempo sono arrivati eventi, la lettura viene
+     * ripetuta per non perdere né contare due volte le modifiche concorrenti:
+     * non si sa se la lettura le includa già. Se anche l'ultimo tentativo
+     * incrocia modifiche, i contatori incrementali restano in uso e il
+     * riallineamento è rinviato all'esecuzione successiva. Se è già in corso
+     * un'altra riconciliazione non fa nulla.
+     */
+    @Scheduled(fixedDelayString = "${catalog.tags.reconcile-interval:PT10M}",
+            initialDelayString = "${catalog.tags.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconcileFromDatabase();
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    private void reconcileFromDatabase() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long before;
+            synchronized (this) {
+                before = mutations;
+            }
+            Map<UUID, long[]> tags = new HashMap<>();
+            Map<Long, String> names = new HashMap<>();
+            Map<UUID, Long> owners;
+            try {
+                for (Tag tag : tagRepository.findAll()) {
+                    names.put(tag.getId(), tag.getName());
+                }
+                Map<UUID, List<Long>> grouped = new HashMap<>();
+                for (GameTagRow row : gameRepository.findAllTagRows()) {
+                    grouped.computeIfAbsent(row.gameId(), id -> new ArrayList<>()).add(row.tagId());
+                }
+                grouped.forEach((gameId, ids) -> tags.put(gameId, ids.stream().mapToLong(Long::longValue).toArray()));
+                owners = loadOwners();
+            } catch (RuntimeException e) {
+                log.warn("Riconciliazione dei contatori dei tag non riuscita: {}", e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                if (mutations == before) {
+                    int drifted = replace(tags, owners, names);
+                    if (drifted > 0) {
+                        log.info("Contatori dei tag riallineati al database: {} tag corretti", drifted);
+                    }
+                    return;
+                }
+            }
+        }
+        log.info("Riconciliazione dei contatori dei tag rinviata: modifiche concorrenti in ogni tentativo");
+    }
+
+    /**
+     * Sostituisce lo stato con quello indicato (chiamare con il monitor acquisito).
+     *
+     * @return numero di tag i cui contatori sono cambiati
+     */
+    private int replace(Map<UUID, long[]> tags, Map<UUID, Long> owners, Map<Long, String> names) {
+        Map<Long, Counter> counters = new HashMap<>();
+        names.forEach((id, name) -> counters.put(id, new Counter(name)));
+        tags.forEach((gameId, tagIds) -> {
+            long gameOwners = owners.getOrDefault(gameId, 0L);
+            for (long tagId : tagIds) {
+                Counter counter = counters.computeIfAbsent(tagId, id -> new Counter(null));
+                counter.games++;
+                counter.owners += gameOwners;
+            }
+        });
+
+        int drifted = 0;
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter old = byTag.get(entry.getKey());
+            if (ready && (old == null || old.games != entry.getValue().games || old.owners != entry.getValue().owners)) {
+                drifted++;
+            }
+        }
+        tagsByGame = tags;
+        ownersByGame = new HashMap<>(owners);
+        byTag = counters;
+        mutations++;
+        ready = true;
+        return drifted;
+    }
+
+    private Map<UUID, Long> loadOwners() {
+        Map<UUID, Long> owners = new HashMap<>();
+        for (GameOwnerCount row : userGameRepository.countOwnersByGame()) {
+            owners.put(row.gameId(), row.owners());
+        }
+        return owners;
+    }
+
+    private static long[] tagIds(GameResponseDTO game) {
+        if (game.getTags() == null || game.getTags().isEmpty()) {
+            return NO_TAGS;
+        }
+        return game.getTags().stream().mapToLong(TagDTO::getId).distinct().toArray();
+    }
+
+    private static boolean contains(long[] values, long value) {
+        for (long candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Counter {
+        private String name;
+        private long games;
+        private long owners;
+
+        Counter(String name) {
+            this.name = name;
+        }
+    }
+}
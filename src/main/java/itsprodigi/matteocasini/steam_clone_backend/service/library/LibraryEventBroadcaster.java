@@ -0,0 +1,382 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryEventDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed Server-Sent Events delle modifiche alla libreria di ciascun utente,
+ * al posto del polling della libreria completa da parte del launcher.
+ * <p>
+ * Le connessioni sono SseEmitter in dispatch asincrono: una connessione
+ * inattiva non occupa un thread. Gli invii passano da un executor dedicato
+ * con un thread virtuale per consegna: una scrittura bloccata su un client
+ * lento costa poco e non occupa i thread condivisi dell'applicazione. Ogni
+ * canale ha un solo mittente alla volta (anche per i keep-alive), così
+ * l'ordine degli eventi è garantito e l'emitter non riceve invii concorrenti.
+ * <p>
+ * Ogni utente collegato di recente ha un buffer circolare degli ultimi eventi
+ * con ID "epoca-sequenza": un client che si ricollega con Last-Event-ID
+ * riceve quelli persi. Se non sono più nel buffer, o l'ID viene da un
+ * avvio precedente del server, riceve un evento "reset" e deve ricaricare la
+ * libreria.
+ */
+@Component
+public class LibraryEventBroadcaster implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryEventBroadcaster.class);
+
+    static final String EVENT_NAME = "library";
+    static final String RESET_EVENT_NAME = "reset";
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final Duration retention;
+    private final long timeoutMillis;
+    private final Clock clock;
+    // Distingue gli ID emessi da avvii diversi del server
+    private final String epoch;
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    @Autowired
+    public LibraryEventBroadcaster(@Value("${library.events.buffer-size:256}") int bufferSize,
+            @Value("${library.events.retention:PT5M}") Duration retention,
+            @Value("${library.events.timeout:PT30M}") Duration timeout) {
+        this(sendExecutor(), bufferSize, retention, timeout, Clock.systemUTC());
+    }
+
+    LibraryEventBroadcaster(Executor executor, int bufferSize, Duration retention, Duration timeout, Clock clock) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.retention = retention;
+        this.timeoutMillis = timeout.toMillis();
+        this.clock = clock;
+        this.epoch = Long.toString(clock.millis(), 36);
+    }
+
+    /**
+     * Executor dei soli invii SSE, un thread virtuale per consegna.
+     */
+    private static Executor sendExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("library-events-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Apre il feed dell'utente.
+     *
+     * @param lastEventId ID dell'ultimo evento ricevuto (header Last-Event-ID), null per i soli eventi nuovi
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(userId, lastEventId, emitter);
+        return emitter;
+    }
+
+    void register(UUID userId, String lastEventId, SseEmitter emitter) {
+        if (!running) {
+            // In chiusura: il client si ricollegherà a un'altra istanza
+            emitter.complete();
+            return;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        Channel channel = channels.compute(userId, (id, current) -> {
+            Channel target = current != null ? current : new Channel();
+            target.subscribe(subscriber, lastEventId);
+            return target;
+        });
+        emitter.onCompletion(() -> channel.unsubscribe(subscriber));
+        emitter.onTimeout(() -> channel.unsubscribe(subscriber));
+        emitter.onError(e -> channel.unsubscribe(subscriber));
+        schedule(channel);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryChanged(LibraryChangedEvent event) {
+        publish(event.getUserId(), new LibraryEventDTO(event.getType(), event.getGameId(),
+                event.getPlaytimeMinutes(), clock.instant()));
+    }
+
+    @EventListener
+    public void onPlaytimeFlushed(PlaytimeFlushedEvent event) {
+        Instant now = clock.instant();
+        for (PlaytimeDelta delta : event.getDeltas()) {
+            publish(delta.userId(), new LibraryEventDTO(LibraryChangedEvent.Type.PLAYTIME_CHANGED, delta.gameId(),
+                    delta.minutes(), now));
+        }
+    }
+
+    /**
+     * Invia un commento a tutte le connessioni, così proxy e load balancer non
+     * le chiudono per inattività e quelle già cadute vengono scoperte, ed
+     * elimina i buffer degli utenti scollegati da più di library.events.retention.
+     * Il commento passa dalla coda del canale come gli eventi: a inviare è
+     * sempre il drain del canale, mai un secondo thread.
+     */
+    @Scheduled(fixedDelayString = "${library.events.keep-alive:PT30S}")
+    public void keepAlive() {
+        Instant cutoff = clock.instant().minus(retention);
+        for (UUID userId : channels.keySet()) {
+            Channel channel = channels.computeIfPresent(userId,
+                    (id, current) -> current.isIdle(cutoff) ? null : current);
+            if (channel != null && channel.requestKeepAlive()) {
+                schedule(channel);
+            }
+        }
+    }
+
+    public int connectedClients() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers().size()).sum();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Chiude tutte le connessioni prima dello spegnimento graduale del server
+     * web, che altrimenti attenderebbe i feed aperti fino al timeout.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers()) {
+                subscriber.emitter.complete();
+            }
+        }
+        channels.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void publish(UUID userId, LibraryEventDTO event) {
+        // Solo gli utenti collegati o scollegati da poco: gli altri non riprenderanno mai il feed
+        Channel channel = channels.get(userId);
+        if (channel != null) {
+            channel.append(event);
+            schedule(channel);
+        }
+    }
+
+    private void schedule(Channel channel) {
+        if (channel.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(channel));
+        }
+    }
+
+    /**
+     * Consegna gli eventi in attesa; un solo drain per canale alla volta.
+     */
+    private void drain(Channel channel) {
+        do {
+            for (Delivery delivery : channel.pending()) {
+                deliver(channel, delivery);
+            }
+            channel.draining.set(false);
+        } while (channel.hasPending() && channel.draining.compareAndSet(false, true));
+    }
+
+    private void deliver(Channel channel, Delivery delivery) {
+        if (delivery.resetBefore() != null) {
+            send(channel, delivery.subscriber(), SseEmitter.event()
+                    .id(eventId(delivery.resetBefore()))
+                    .name(RESET_EVENT_NAME)
+                    .data("{}", MediaType.APPLICATION_JSON));
+        }
+        for (Buffered event : delivery.events()) {
+            if (!send(channel, delivery.subscriber(), SseEmitter.event()
+                    .id(eventId(event.sequence()))
+                    .name(EVENT_NAME)
+                    .data(event.event(), MediaType.APPLICATION_JSON))) {
+                return;
+            }
+        }
+        // Se è stato inviato qualcosa la connessione è già stata verificata
+        if (delivery.keepAlive() && delivery.resetBefore() == null && delivery.events().isEmpty()) {
+            send(channel, delivery.subscriber(), SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    private boolean send(Channel channel, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Connessione chiusa dal client o emitter già completato
+            log.debug("Invio dell'evento di libreria non riuscito: {}", e.getMessage());
+            channel.unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sequenza contenuta in un Last-Event-ID emesso da questo avvio del server,
+     * null se manca, non è valido o viene da un avvio precedente.
+     */
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Buffered(long sequence, LibraryEventDTO event) {
+    }
+
+    /**
+     * Eventi da inviare a un client, eventualmente preceduti da un reset
+     * (con l'ID da cui il client riparte), o un keep-alive.
+     */
+    private record Delivery(Subscriber subscriber, Long resetBefore, List<Buffered> events, boolean keepAlive) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long lastSent;
+        private boolean resetPending;
+        private boolean keepAlivePending;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Connessioni e buffer circolare degli ultimi eventi di un utente.
+     */
+    private final class Channel {
+
+        private final ArrayDeque<Buffered> buffer = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long lastSequence;
+        private Instant lastActivity = clock.instant();
+
+        synchronized void subscribe(Subscriber subscriber, String lastEventId) {
+            Long resumeFrom = lastEventId == null ? Long.valueOf(lastSequence) : parseSequence(lastEventId);
+            if (resumeFrom == null || resumeFrom > lastSequence) {
+                // ID sconosciuto: gli eventi persi non si possono ricostruire
+                subscriber.lastSent = lastSequence;
+                subscriber.resetPending = true;
+            } else {
+                subscriber.lastSent = resumeFrom;
+            }
+            subscribers.add(subscriber);
+            lastActivity = clock.instant();
+        }
+
+        synchronized void unsubscribe(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            lastActivity = clock.instant();
+        }
+
+        synchronized List<Subscriber> subscribers() {
+            return new ArrayList<>(subscribers);
+        }
+
+        synchronized void append(LibraryEventDTO event) {
+            buffer.addLast(new Buffered(++lastSequence, event));
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            lastActivity = clock.instant();
+        }
+
+        /**
+         * Segna un keep-alive per ogni connessione.
+         *
+         * @return false se il canale non ha connessioni
+         */
+        synchronized boolean requestKeepAlive() {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.keepAlivePending = true;
+            }
+            return !subscribers.isEmpty();
+        }
+
+        synchronized boolean isIdle(Instant cutoff) {
+            return subscribers.isEmpty() && lastActivity.isBefore(cutoff);
+        }
+
+        synchronized boolean hasPending() {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.resetPending || subscriber.keepAlivePending || subscriber.lastSent < lastSequence) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Raccoglie gli eventi non ancora inviati a ciascun client e li segna come inviati.
+         */
+        synchronized List<Delivery> pending() {
+            long firstBuffered = buffer.isEmpty() ? lastSequence + 1 : buffer.peekFirst().sequence();
+            List<Delivery> deliveries = new ArrayList<>();
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.resetPending && !subscriber.keepAlivePending
+                        && subscriber.lastSent >= lastSequence) {
+                    continue;
+                }
+                // Eventi usciti dal buffer prima di essere inviati: il client deve ricaricare
+                boolean reset = subscriber.resetPending || subscriber.lastSent < firstBuffered - 1;
+                long from = reset ? Math.max(subscriber.lastSent, firstBuffered - 1) : subscriber.lastSent;
+                List<Buffered> events = new ArrayList<>();
+                for (Buffered event : buffer) {
+                    if (event.sequence() > from) {
+                        events.add(event);
+                    }
+                }
+                deliveries.add(new Delivery(subscriber, reset ? Long.valueOf(from) : null, events,
+                        subscriber.keepAlivePending));
+                subscriber.lastSent = lastSequence;
+                subscriber.resetPending = false;
+                subscriber.keepAlivePending = false;
+            }
+            return deliveries;
+        }
+    }
+}
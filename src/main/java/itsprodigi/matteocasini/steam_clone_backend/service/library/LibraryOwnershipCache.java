@@ -0,0 +1,153 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.utils.BoundedCache;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insieme dei giochi posseduti da ciascun utente, per i controlli di possesso
+ * senza query (aggiunta alla libreria, badge "posseduto" nelle pagine del negozio).
+ * <p>
+ * Ogni gioco riceve un ordinale denso e la libreria di un utente è una bitmap
+ * compressa di ordinali, caricata alla prima richiesta con una query sui soli
+ * ID di user_games e tenuta in una cache limitata (LRU con scadenza).
+ * Le bitmap pubblicate non vengono mai modificate: aggiunte e rimozioni
+ * sostituiscono la bitmap con una copia aggiornata, così le letture non
+ * prendono lock.
+ */
+@Component
+public class LibraryOwnershipCache {
+
+    private final UserGameRepository userGameRepository;
+    private final BoundedCache<UUID, RoaringBitmap> libraries;
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private final Map<Integer, UUID> gamesByOrdinal = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    public LibraryOwnershipCache(UserGameRepository userGameRepository,
+            @Value("${library.ownership.cache.max-size:50000}") int maxSize,
+            @Value("${library.ownership.cache.ttl:PT30M}") Duration ttl) {
+        this.userGameRepository = userGameRepository;
+        this.libraries = new BoundedCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Indica se l'utente possiede il gioco.
+     */
+    public boolean owns(UUID userId, UUID gameId) {
+        // Il caricamento assegna gli ordinali: va fatto prima di cercare quello del gioco
+        RoaringBitmap library = library(userId);
+        Integer ordinal = ordinals.get(gameId);
+        return ordinal != null && library.contains(ordinal);
+    }
+
+    /**
+     * Restituisce, tra i giochi indicati, quelli posseduti dall'utente
+     * (nell'ordine della richiesta).
+     */
+    public Set<UUID> ownedAmong(UUID userId, Collection<UUID> gameIds) {
+        RoaringBitmap library = library(userId);
+        Set<UUID> owned = new LinkedHashSet<>();
+        for (UUID gameId : gameIds) {
+            Integer ordinal = ordinals.get(gameId);
+            if (ordinal != null && library.contains(ordinal)) {
+                owned.add(gameId);
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Restituisce tutti i giochi posseduti dall'utente.
+     */
+    public List<UUID> ownedGames(UUID userId) {
+        RoaringBitmap library = library(userId);
+        List<UUID> owned = new ArrayList<>(library.getCardinality());
+        library.forEach((int ordinal) -> owned.add(gamesByOrdinal.get(ordinal)));
+        return owned;
+    }
+
+    /**
+     * Aggiorna la libreria in cache dopo il commit di un'aggiunta o rimozione.
+     * Se l'utente non è in cache invalida comunque la chiave, così che un
+     * caricamento in corso (che potrebbe non vedere la modifica) non venga salvato.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLibraryChanged(LibraryChangedEvent event) {
+        if (!event.isMembershipChange()) {
+            return;
+        }
+        RoaringBitmap current = libraries.getIfPresent(event.getUserId()).orElse(null);
+        if (current == null) {
+            libraries.invalidate(event.getUserId());
+            return;
+        }
+        RoaringBitmap updated = current.clone();
+        if (event.getType() == LibraryChangedEvent.Type.ADDED) {
+            updated.add(ordinalOf(event.getGameId()));
+        } else {
+            Integer ordinal = ordinals.get(event.getGameId());
+            if (ordinal != null) {
+                updated.remove(ordinal);
+            }
+        }
+        updated.runOptimize();
+        libraries.put(event.getUserId(), updated);
+    }
+
+    /**
+     * L'eliminazione di un gioco rimuove a cascata le righe di user_games senza
+     * eventi di libreria: si scartano le librerie in cache che lo contenevano.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGameChanged(GameChangedEvent event) {
+        if (!event.isDeleted()) {
+            return;
+        }
+        Integer ordinal = ordinals.get(event.getGameId());
+        if (ordinal != null) {
+            libraries.invalidateIf((userId, library) -> library.contains(ordinal));
+        }
+    }
+
+    public int cachedUsers() {
+        return libraries.size();
+    }
+
+    private RoaringBitmap library(UUID userId) {
+        return libraries.get(userId, this::load);
+    }
+
+    private RoaringBitmap load(UUID userId) {
+        RoaringBitmap library = new RoaringBitmap();
+        for (UUID gameId : userGameRepository.findGameIdsByUserId(userId)) {
+            library.add(ordinalOf(gameId));
+        }
+        library.runOptimize();
+        return library;
+    }
+
+    private int ordinalOf(UUID gameId) {
+        return ordinals.computeIfAbsent(gameId, id -> {
+            int ordinal = nextOrdinal.getAndIncrement();
+            gamesByOrdinal.put(ordinal, id);
+            return ordinal;
+        });
+    }
+}
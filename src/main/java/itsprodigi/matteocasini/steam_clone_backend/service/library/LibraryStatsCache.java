@@ -0,0 +1,191 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.LibraryStatsRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryStatsRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import itsprodigi.matteocasini.steam_clone_backend.utils.BoundedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * Statistiche della libreria per utente (numero di giochi, tempo di gioco,
+ * valore) mantenute come contatori: una lettura in cache è O(1), un miss costa
+ * una query aggregata sulla libreria dell'utente.
+ * <p>
+ * I contatori vengono aggiornati dagli eventi di libreria dopo il commit e
+ * dal flush dei heartbeat. I valori in cache sono immutabili e si aggiornano
+ * con uno scambio condizionato, così non serve un lock globale. Quando un
+ * evento non basta a calcolare la variazione (prezzo non noto, prezzo di un
+ * gioco cambiato, gioco eliminato) le statistiche interessate vengono
+ * invalidate e ricalcolate alla lettura successiva. Un job periodico ricalcola
+ * quelle in cache e corregge l'eventuale deriva.
+ */
+@Component
+public class LibraryStatsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryStatsCache.class);
+
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    private final LibraryStatsRepository libraryStatsRepository;
+    private final BoundedCache<UUID, Stats> stats;
+
+    public LibraryStatsCache(LibraryStatsRepository libraryStatsRepository,
+            @Value("${library.stats.cache.max-size:50000}") int maxSize,
+            @Value("${library.stats.cache.ttl:PT1H}") Duration ttl) {
+        this.libraryStatsRepository = libraryStatsRepository;
+        this.stats = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public LibraryStatsDTO get(UUID userId) {
+        Stats current = stats.get(userId, this::load);
+        return new LibraryStatsDTO(userId, current.games(), current.minutes(), current.value());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryChanged(LibraryChangedEvent event) {
+        switch (event.getType()) {
+            case PLAYTIME_CHANGED ->
+                update(event.getUserId(), s -> s.plus(0, event.getPlaytimeMinutes(), BigDecimal.ZERO));
+            case ADDED, REMOVED -> {
+                if (event.getPrice() == null) {
+                    stats.invalidate(event.getUserId());
+                    return;
+                }
+                int sign = event.getType() == LibraryChangedEvent.Type.ADDED ? 1 : -1;
+                update(event.getUserId(), s -> s.plus(sign, sign * event.getPlaytimeMinutes(),
+                        sign > 0 ? event.getPrice() : event.getPrice().negate()));
+            }
+        }
+    }
+
+    /**
+     * Il valore della libreria usa i prezzi correnti: se un prezzo cambia o un
+     * gioco viene eliminato (con le righe di libreria a cascata) non si sa quali
+     * utenti in cache lo possiedono, quindi si ricalcola tutto alla lettura.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameChanged(GameChangedEvent event) {
+        GameResponseDTO previous = event.getPrevious();
+        GameResponseDTO current = event.getCurrent();
+        if (previous == null) {
+            return;
+        }
+        if (current == null || !samePrice(previous.getPrice(), current.getPrice())) {
+            stats.invalidateAll();
+        }
+    }
+
+    /**
+     * Applica i minuti scritti dal flush dei heartbeat.
+     */
+    @EventListener
+    public void onPlaytimeFlushed(PlaytimeFlushedEvent event) {
+        for (PlaytimeDelta delta : event.getDeltas()) {
+            update(delta.userId(), s -> s.plus(0, delta.minutes(), BigDecimal.ZERO));
+        }
+    }
+
+    /**
+     * Ricalcola dal database le statistiche in cache, a blocchi di utenti.
+     * Un valore modificato da un evento durante la query non viene sostituito:
+     * verrà verificato al giro successivo.
+     *
+     * @return numero di utenti le cui statistiche erano in deriva
+     */
+    @Scheduled(fixedDelayString = "${library.stats.reconcile-interval:PT15M}",
+            initialDelayString = "${library.stats.reconcile-interval:PT15M}")
+    public int reconcile() {
+        List<Map.Entry<UUID, Stats>> cached = new ArrayList<>(stats.snapshot().entrySet());
+        int drifted = 0;
+        for (int from = 0; from < cached.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Map.Entry<UUID, Stats>> chunk = cached.subList(from,
+                    Math.min(from + RECONCILE_CHUNK_SIZE, cached.size()));
+            List<UUID> userIds = chunk.stream().map(Map.Entry::getKey).toList();
+            Map<UUID, Stats> fresh = new HashMap<>();
+            for (LibraryStatsRow row : libraryStatsRepository.findStats(userIds)) {
+                fresh.put(row.userId(), Stats.of(row));
+            }
+            for (Map.Entry<UUID, Stats> entry : chunk) {
+                Stats actual = fresh.getOrDefault(entry.getKey(), Stats.EMPTY);
+                if (!actual.equals(entry.getValue()) && stats.replace(entry.getKey(), entry.getValue(), actual)) {
+                    drifted++;
+                }
+            }
+        }
+        if (drifted > 0) {
+            log.info("Statistiche di libreria riallineate per {} utenti su {}", drifted, cached.size());
+        }
+        return drifted;
+    }
+
+    private void update(UUID userId, UnaryOperator<Stats> change) {
+        while (true) {
+            Optional<Stats> current = stats.getIfPresent(userId);
+            if (current.isEmpty()) {
+                // Invalidare anche la chiave assente scarta un caricamento in corso
+                // che potrebbe non includere la modifica
+                stats.invalidate(userId);
+                return;
+            }
+            if (stats.replace(userId, current.get(), change.apply(current.get()))) {
+                return;
+            }
+        }
+    }
+
+    private Stats load(UUID userId) {
+        List<LibraryStatsRow> rows = libraryStatsRepository.findStats(List.of(userId));
+        return rows.isEmpty() ? Stats.EMPTY : Stats.of(rows.get(0));
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private record Stats(long games, long minutes, BigDecimal value) {
+
+        static final Stats EMPTY = new Stats(0, 0, BigDecimal.ZERO);
+
+        static Stats of(LibraryStatsRow row) {
+            return new Stats(row.gameCount(), row.playtimeMinutes(),
+                    Objects.requireNonNullElse(row.libraryValue(), BigDecimal.ZERO));
+        }
+
+        Stats plus(long deltaGames, long deltaMinutes, BigDecimal deltaValue) {
+            return new Stats(games + deltaGames, minutes + deltaMinutes, value.add(deltaValue));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Stats other && games == other.games && minutes == other.minutes
+                    && value.compareTo(other.value) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(games, minutes, value.stripTrailingZeros());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.PlaytimeRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scrive periodicamente sul database i minuti accumulati nel
+ * {@link PlaytimeHeartbeatBuffer}, con un unico UPDATE in batch eseguito in
+ * una sola transazione: i sotto-batch non vengono confermati singolarmente,
+ * quindi rimettere in coda tutti i minuti dopo un errore non li conta due volte.
+ * <p>
+ * Se il flush fallisce i minuti tornano nel buffer e vengono ritentati al
+ * giro successivo. Statistiche ed eventi ricevono solo le coppie che l'UPDATE
+ * ha trovato: un gioco rimosso dalla libreria nel frattempo non conta. In chiusura il buffer smette di accettare heartbeat e viene
+ * svuotato un'ultima volta: la fase è più bassa di quella del web server, che
+ * con lo shutdown graceful ha già completato le richieste in corso.
+ */
+@Component
+public class PlaytimeFlusher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaytimeFlusher.class);
+
+    private final PlaytimeHeartbeatBuffer buffer;
+    private final PlaytimeRepository playtimeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${library.playtime.batch-size:500}")
+    private int batchSize = 500;
+
+    private volatile boolean running;
+
+    public PlaytimeFlusher(PlaytimeHeartbeatBuffer buffer, PlaytimeRepository playtimeRepository,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.buffer = buffer;
+        this.playtimeRepository = playtimeRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Svuota il buffer e applica i minuti accumulati.
+     *
+     * @return numero di coppie utente-gioco scritte
+     */
+    @Scheduled(fixedDelayString = "${library.playtime.flush-interval:PT5S}")
+    public synchronized int flush() {
+        List<PlaytimeDelta> deltas = buffer.drain();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int[][] counts;
+        try {
+            counts = transactionTemplate.execute(status -> playtimeRepository.addPlaytime(deltas, batchSize));
+        } catch (RuntimeException e) {
+            log.warn("Flush del tempo di gioco fallito, {} righe rimesse in coda", deltas.size(), e);
+            buffer.requeue(deltas);
+            return 0;
+        }
+        List<PlaytimeDelta> applied = applied(deltas, counts);
+        if (applied.size() < deltas.size()) {
+            log.debug("{} righe di tempo di gioco scartate: giochi non più in libreria",
+                    deltas.size() - applied.size());
+        }
+        if (!applied.isEmpty()) {
+            eventPublisher.publishEvent(new PlaytimeFlushedEvent(applied));
+        }
+        return applied.size();
+    }
+
+    /**
+     * Filtra i minuti sulle righe aggiornate: i conteggi del batch seguono
+     * l'ordine dei delta. SUCCESS_NO_INFO (il driver non conosce il numero di
+     * righe) viene considerato applicato.
+     */
+    private static List<PlaytimeDelta> applied(List<PlaytimeDelta> deltas, int[][] counts) {
+        List<PlaytimeDelta> applied = new ArrayList<>(deltas.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    applied.add(deltas.get(index));
+                }
+                index++;
+            }
+        }
+        return applied;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        buffer.stopAccepting();
+        int written = flush();
+        if (buffer.pendingEntries() > 0) {
+            log.error("Chiusura con {} righe di tempo di gioco non scritte", buffer.pendingEntries());
+        } else {
+            log.info("Tempo di gioco scritto in chiusura: {} righe", written);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Si ferma dopo il web server (fasi più alte si fermano prima)
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
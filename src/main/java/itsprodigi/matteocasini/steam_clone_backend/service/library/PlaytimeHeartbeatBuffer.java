@@ -0,0 +1,197 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer in memoria dei heartbeat di gioco: i minuti ricevuti per la stessa
+ * coppia utente-gioco vengono sommati in un unico contatore, così che il
+ * flush scriva una riga per coppia invece di una per heartbeat.
+ * <p>
+ * Le coppie sono distribuite su più segmenti indipendenti (ognuno una
+ * ConcurrentHashMap) e ogni contatore è un AtomicLong aggiornato con CAS:
+ * la registrazione non prende lock. Lo svuotamento marca ogni contatore come
+ * "drenato" con uno scambio atomico e lo rimuove; uno scrittore che lo trova
+ * drenato riprova su un contatore nuovo, quindi nessun minuto va perso.
+ * <p>
+ * Il numero di coppie in attesa è limitato: oltre la soglia i heartbeat di
+ * coppie nuove vengono rifiutati (contropressione), mentre quelli di coppie
+ * già presenti continuano ad accumularsi senza occupare altra memoria.
+ * <p>
+ * I minuti accettati per coppia non superano il tempo reale trascorso: ogni
+ * coppia ha un "orologio di gioco" che avanza di quanto viene accreditato e
+ * non può superare l'istante corrente. Un heartbeat può coprire al più i suoi
+ * minuti all'indietro da adesso, senza sovrapporsi a quelli già accreditati;
+ * la parte eccedente viene ignorata.
+ */
+@Component
+public class PlaytimeHeartbeatBuffer {
+
+    private static final long DRAINED = Long.MIN_VALUE;
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final ConcurrentHashMap<Key, AtomicLong>[] stripes;
+    private final int mask;
+    private final LongAdder pendingEntries = new LongAdder();
+    private final int maxPendingEntries;
+    // Istante (ms) fino al quale il tempo di gioco di ogni coppia è già stato accreditato
+    private final ConcurrentHashMap<Key, Long> playedUntil = new ConcurrentHashMap<>();
+    private final long maxHeartbeatMillis;
+    private final Clock clock;
+    private volatile boolean accepting = true;
+
+    @Autowired
+    public PlaytimeHeartbeatBuffer(@Value("${library.playtime.max-pending:200000}") int maxPendingEntries,
+            @Value("${library.playtime.max-minutes-per-heartbeat:5}") int maxHeartbeatMinutes) {
+        this(maxPendingEntries, Runtime.getRuntime().availableProcessors() * 4, maxHeartbeatMinutes,
+                Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    PlaytimeHeartbeatBuffer(int maxPendingEntries, int stripeCount, int maxHeartbeatMinutes, Clock clock) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.maxPendingEntries = maxPendingEntries;
+        this.maxHeartbeatMillis = maxHeartbeatMinutes * MINUTE_MILLIS;
+        this.clock = clock;
+    }
+
+    /**
+     * Accumula i minuti di un heartbeat, limitati al tempo reale trascorso
+     * dall'ultimo minuto accreditato alla stessa coppia.
+     *
+     * @return false se il buffer è pieno o in chiusura e il heartbeat va rifiutato
+     */
+    public boolean record(UUID userId, UUID gameId, long minutes) {
+        if (!accepting) {
+            return false;
+        }
+        Key key = new Key(userId, gameId);
+        long granted = claim(key, minutes);
+        if (granted == 0) {
+            // Minuti già coperti da heartbeat precedenti: niente da accumulare
+            return true;
+        }
+        if (add(key, granted, false)) {
+            return true;
+        }
+        playedUntil.computeIfPresent(key, (k, until) -> until - granted * MINUTE_MILLIS);
+        return false;
+    }
+
+    /**
+     * Rimette nel buffer minuti già drenati (es. dopo un flush fallito),
+     * ignorando il limite: sono dati già accettati e non vanno persi.
+     */
+    public void requeue(Collection<PlaytimeDelta> deltas) {
+        for (PlaytimeDelta delta : deltas) {
+            add(new Key(delta.userId(), delta.gameId()), delta.minutes(), true);
+        }
+    }
+
+    /**
+     * Estrae e azzera tutti i minuti accumulati.
+     * Va chiamato da un solo thread alla volta.
+     */
+    public List<PlaytimeDelta> drain() {
+        // Un orologio più vecchio della finestra massima di un heartbeat non limita più nulla
+        long horizon = clock.millis() - maxHeartbeatMillis;
+        playedUntil.values().removeIf(until -> until <= horizon);
+        List<PlaytimeDelta> deltas = new ArrayList<>();
+        for (ConcurrentHashMap<Key, AtomicLong> stripe : stripes) {
+            for (Map.Entry<Key, AtomicLong> entry : stripe.entrySet()) {
+                AtomicLong cell = entry.getValue();
+                long minutes = cell.getAndSet(DRAINED);
+                stripe.remove(entry.getKey(), cell);
+                pendingEntries.decrement();
+                if (minutes > 0) {
+                    deltas.add(new PlaytimeDelta(entry.getKey().userId(), entry.getKey().gameId(), minutes));
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Smette di accettare nuovi heartbeat (chiusura dell'applicazione).
+     */
+    public void stopAccepting() {
+        accepting = false;
+    }
+
+    /**
+     * Numero di coppie utente-gioco in attesa di flush.
+     */
+    public long pendingEntries() {
+        return pendingEntries.sum();
+    }
+
+    /**
+     * Avanza l'orologio della coppia e restituisce i minuti accreditabili:
+     * l'intervallo [adesso - minuti, adesso] meno la parte già accreditata.
+     * L'istante corrente è letto dentro compute, così gli aggiornamenti della
+     * stessa coppia sono serializzati e l'orologio non torna mai indietro.
+     */
+    private long claim(Key key, long minutes) {
+        long[] granted = new long[1];
+        playedUntil.compute(key, (k, until) -> {
+            long now = clock.millis();
+            long start = now - Math.min(minutes * MINUTE_MILLIS, maxHeartbeatMillis);
+            if (until != null && until > start) {
+                start = until;
+            }
+            granted[0] = Math.max(0, (now - start) / MINUTE_MILLIS);
+            return start + granted[0] * MINUTE_MILLIS;
+        });
+        return granted[0];
+    }
+
+    private boolean add(Key key, long minutes, boolean force) {
+        ConcurrentHashMap<Key, AtomicLong> stripe = stripes[spread(key.hashCode()) & mask];
+        while (true) {
+            AtomicLong cell = stripe.get(key);
+            if (cell == null) {
+                if (!force && pendingEntries.sum() >= maxPendingEntries) {
+                    return false;
+                }
+                cell = stripe.putIfAbsent(key, new AtomicLong(minutes));
+                if (cell == null) {
+                    pendingEntries.increment();
+                    return true;
+                }
+            }
+            long current = cell.get();
+            if (current == DRAINED) {
+                // Il drain rimuove il contatore subito dopo averlo marcato: si riprova su uno nuovo
+                stripe.remove(key, cell);
+                continue;
+            }
+            if (cell.compareAndSet(current, current + minutes)) {
+                return true;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private record Key(UUID userId, UUID gameId) {
+    }
+}
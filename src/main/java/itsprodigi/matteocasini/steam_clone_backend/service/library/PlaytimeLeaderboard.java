@@ -0,0 +1,189 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.PlaytimeLeaderboardRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Classifiche per gioco dei giocatori ordinati per tempo di gioco, tenute in
+ * memoria in un {@link PlaytimeRanking} per gioco: primi N, posizione di un
+ * utente e finestra attorno a lui costano O(log n) invece di un ORDER BY con
+ * OFFSET su user_games.
+ * <p>
+ * Le classifiche vengono ricostruite dal database all'avvio e poi seguono gli
+ * eventi di libreria e i flush dei heartbeat. Le modifiche passano da
+ * {@code compute} sulla mappa, così una classifica svuotata viene rimossa
+ * senza perdere un inserimento concorrente; le letture si sincronizzano sulla
+ * singola classifica.
+ */
+@Component
+public class PlaytimeLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaytimeLeaderboard.class);
+
+    /**
+     * Voce di classifica; a pari tempo di gioco corrisponde lo stesso piazzamento.
+     *
+     * @param rank            piazzamento (da 1)
+     * @param userId          ID dell'utente
+     * @param playtimeMinutes minuti di gioco totali
+     */
+    public record Entry(int rank, UUID userId, long playtimeMinutes) {
+    }
+
+    /**
+     * Porzione di classifica con il numero totale di giocatori, letti insieme.
+     */
+    public record Window(int totalPlayers, List<Entry> entries) {
+    }
+
+    private final PlaytimeLeaderboardRepository leaderboardRepository;
+    private final Map<UUID, PlaytimeRanking> rankings = new ConcurrentHashMap<>();
+
+    public PlaytimeLeaderboard(PlaytimeLeaderboardRepository leaderboardRepository) {
+        this.leaderboardRepository = leaderboardRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Costruzione delle classifiche del tempo di gioco non riuscita", e);
+        }
+    }
+
+    /**
+     * Ricostruisce tutte le classifiche leggendo user_games in streaming, un
+     * gioco alla volta; ogni classifica sostituisce la precedente appena completa.
+     *
+     * @return numero di giochi con almeno un giocatore
+     */
+    public synchronized int rebuild() {
+        Set<UUID> seen = new HashSet<>();
+        UUID[] currentGame = new UUID[1];
+        PlaytimeRanking[] current = new PlaytimeRanking[1];
+        leaderboardRepository.streamPlaytimes(row -> {
+            if (!row.gameId().equals(currentGame[0])) {
+                if (current[0] != null) {
+                    rankings.put(currentGame[0], current[0]);
+                }
+                currentGame[0] = row.gameId();
+                current[0] = new PlaytimeRanking();
+                seen.add(row.gameId());
+            }
+            current[0].put(row.userId(), row.minutes());
+        });
+        if (current[0] != null) {
+            rankings.put(currentGame[0], current[0]);
+        }
+        rankings.keySet().retainAll(seen);
+        log.info("Classifiche del tempo di gioco costruite per {} giochi", seen.size());
+        return seen.size();
+    }
+
+    /**
+     * Indica se il gioco ha una classifica, cioè almeno un giocatore.
+     */
+    public boolean hasPlayers(UUID gameId) {
+        return rankings.containsKey(gameId);
+    }
+
+    /**
+     * Primi {@code limit} giocatori del gioco.
+     */
+    public Window top(UUID gameId, int limit) {
+        PlaytimeRanking ranking = rankings.get(gameId);
+        if (ranking == null) {
+            return new Window(0, List.of());
+        }
+        synchronized (ranking) {
+            return new Window(ranking.size(), ranking.range(0, limit));
+        }
+    }
+
+    /**
+     * Giocatori attorno all'utente: fino a {@code radius} prima e dopo di lui.
+     *
+     * @return vuoto se l'utente non ha il gioco in libreria
+     */
+    public Optional<Window> around(UUID gameId, UUID userId, int radius) {
+        PlaytimeRanking ranking = rankings.get(gameId);
+        if (ranking == null) {
+            return Optional.empty();
+        }
+        synchronized (ranking) {
+            int index = ranking.indexOf(userId);
+            if (index < 0) {
+                return Optional.empty();
+            }
+            int from = Math.max(0, index - radius);
+            return Optional.of(new Window(ranking.size(), ranking.range(from, index - from + radius + 1)));
+        }
+    }
+
+    /**
+     * Toglie un utente dalla classifica di un gioco, ad esempio quando
+     * l'utente è stato eliminato (la cancellazione a cascata delle sue
+     * librerie non pubblica eventi).
+     */
+    public void remove(UUID gameId, UUID userId) {
+        modify(gameId, false, ranking -> ranking.remove(userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryChanged(LibraryChangedEvent event) {
+        UUID userId = event.getUserId();
+        switch (event.getType()) {
+            case ADDED -> modify(event.getGameId(), true, r -> r.put(userId, event.getPlaytimeMinutes()));
+            case REMOVED -> modify(event.getGameId(), false, r -> r.remove(userId));
+            case PLAYTIME_CHANGED -> modify(event.getGameId(), false, r -> r.add(userId, event.getPlaytimeMinutes()));
+        }
+    }
+
+    @EventListener
+    public void onPlaytimeFlushed(PlaytimeFlushedEvent event) {
+        for (PlaytimeDelta delta : event.getDeltas()) {
+            modify(delta.gameId(), false, r -> r.add(delta.userId(), delta.minutes()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted()) {
+            rankings.remove(event.getGameId());
+        }
+    }
+
+    private void modify(UUID gameId, boolean create, Consumer<PlaytimeRanking> change) {
+        rankings.compute(gameId, (id, ranking) -> {
+            if (ranking == null) {
+                if (!create) {
+                    return null;
+                }
+                ranking = new PlaytimeRanking();
+            }
+            synchronized (ranking) {
+                change.accept(ranking);
+                return ranking.size() == 0 ? null : ranking;
+            }
+        });
+    }
+}
@@ -0,0 +1,260 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Classifica dei giocatori di un gioco per tempo di gioco decrescente.
+ * <p>
+ * È un treap (albero binario di ricerca bilanciato con priorità casuali)
+ * in cui ogni nodo conosce la dimensione del proprio sottoalbero: inserimento,
+ * rimozione, posizione di un utente e accesso alla k-esima voce costano
+ * O(log n) attesi, una finestra di k voci O(log n + k). A parità di minuti
+ * l'ordine è dato dall'ID utente, così ogni voce ha una chiave distinta.
+ * Non è thread-safe: la sincronizzazione è a carico del chiamante.
+ */
+final class PlaytimeRanking {
+
+    private static final class Node {
+        final UUID userId;
+        final long minutes;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID userId, long minutes, int priority) {
+            this.userId = userId;
+            this.minutes = minutes;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<UUID, Long> minutesByUser = new HashMap<>();
+    private final SplittableRandom random;
+    private Node root;
+
+    PlaytimeRanking() {
+        this(new SplittableRandom());
+    }
+
+    PlaytimeRanking(SplittableRandom random) {
+        this.random = random;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Minuti di gioco dell'utente, null se non è in classifica.
+     */
+    Long minutesOf(UUID userId) {
+        return minutesByUser.get(userId);
+    }
+
+    /**
+     * Inserisce l'utente o ne sostituisce il tempo di gioco.
+     */
+    void put(UUID userId, long minutes) {
+        Long previous = minutesByUser.put(userId, minutes);
+        if (previous != null) {
+            if (previous == minutes) {
+                return;
+            }
+            root = delete(root, previous, userId);
+        }
+        root = insert(root, new Node(userId, minutes, random.nextInt()));
+    }
+
+    /**
+     * Somma una variazione al tempo di gioco di un utente già in classifica
+     * (mai sotto zero); gli utenti assenti vengono ignorati.
+     *
+     * @return true se l'utente era in classifica
+     */
+    boolean add(UUID userId, long deltaMinutes) {
+        Long current = minutesByUser.get(userId);
+        if (current == null) {
+            return false;
+        }
+        put(userId, Math.max(0, current + deltaMinutes));
+        return true;
+    }
+
+    boolean remove(UUID userId) {
+        Long previous = minutesByUser.remove(userId);
+        if (previous == null) {
+            return false;
+        }
+        root = delete(root, previous, userId);
+        return true;
+    }
+
+    /**
+     * Posizione (da 0) dell'utente nell'ordinamento, -1 se non è in classifica.
+     */
+    int indexOf(UUID userId) {
+        Long minutes = minutesByUser.get(userId);
+        if (minutes == null) {
+            return -1;
+        }
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(minutes, userId, node);
+            if (cmp == 0) {
+                return index + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        throw new IllegalStateException("Utente " + userId + " assente dall'albero");
+    }
+
+    /**
+     * Piazzamento (da 1) di chi ha giocato i minuti indicati: uno più il numero
+     * di giocatori con più minuti, quindi a pari merito corrisponde lo stesso piazzamento.
+     */
+    int rankOf(long minutes) {
+        int greater = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.minutes > minutes) {
+                greater += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return greater + 1;
+    }
+
+    /**
+     * Voci in posizione [from, from + count) con il relativo piazzamento.
+     */
+    List<PlaytimeLeaderboard.Entry> range(int from, int count) {
+        int start = Math.max(0, from);
+        int end = Math.min(size(), from + count);
+        List<PlaytimeLeaderboard.Entry> entries = new ArrayList<>(Math.max(0, end - start));
+        if (start >= end) {
+            return entries;
+        }
+        List<Node> collected = new ArrayList<>(end - start);
+        collect(root, start, end, 0, collected);
+        int rank = rankOf(collected.get(0).minutes);
+        for (int i = 0; i < collected.size(); i++) {
+            Node node = collected.get(i);
+            if (i > 0 && node.minutes != collected.get(i - 1).minutes) {
+                rank = start + i + 1;
+            }
+            entries.add(new PlaytimeLeaderboard.Entry(rank, node.userId, node.minutes));
+        }
+        return entries;
+    }
+
+    // Visita in ordine solo i sottoalberi che intersecano [from, to)
+    private static void collect(Node node, int from, int to, int offset, List<Node> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int index = offset + size(node.left);
+        collect(node.left, from, to, offset, out);
+        if (index >= from && index < to) {
+            out.add(node);
+        }
+        collect(node.right, from, to, index + 1, out);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.minutes, inserted.userId);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            return update(inserted);
+        }
+        if (compare(inserted.minutes, inserted.userId, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, long minutes, UUID userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(minutes, userId, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, minutes, userId);
+        } else {
+            node.right = delete(node.right, minutes, userId);
+        }
+        return update(node);
+    }
+
+    /**
+     * Divide il sottoalbero in chiavi minori e maggiori della chiave data
+     * (che non è presente nell'albero).
+     */
+    private static Node[] split(Node node, long minutes, UUID userId) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(minutes, userId, node) < 0) {
+            Node[] parts = split(node.left, minutes, userId);
+            node.left = parts[1];
+            parts[1] = update(node);
+            return parts;
+        }
+        Node[] parts = split(node.right, minutes, userId);
+        node.right = parts[0];
+        parts[0] = update(node);
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    // Minuti decrescenti, poi ID utente crescente
+    private static int compare(long minutes, UUID userId, Node node) {
+        int cmp = Long.compare(node.minutes, minutes);
+        return cmp != 0 ? cmp : userId.compareTo(node.userId);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,243 @@
+package itsprodigi.matteocasini.steam_clone_backend.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Cache in memoria limitata per numero di elementi (politica LRU) e per
+ * tempo di vita di ogni elemento (scadenza dalla scrittura).
+ * Tiene le statistiche di hit, miss, evizioni e scadenze per il dimensionamento.
+ * Il caricamento dei valori mancanti avviene fuori dal lock; un valore caricato
+ * non viene inserito se nel frattempo è avvenuta un'invalidazione, così da non
+ * reintrodurre dati superati.
+ *
+ * @param <K> tipo della chiave
+ * @param <V> tipo del valore
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private long invalidationCount;
+
+    public BoundedCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public BoundedCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La dimensione massima deve essere positiva.");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Restituisce il valore in cache, se presente e non scaduto.
+     */
+    public synchronized Optional<V> getIfPresent(K key) {
+        V value = lookup(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Restituisce il valore in cache o lo carica con il loader indicato.
+     * I valori null restituiti dal loader non vengono memorizzati.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long generation;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            generation = invalidationCount;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            putIfNotInvalidated(key, loaded, generation);
+        }
+        return loaded;
+    }
+
+    /**
+     * Restituisce i valori per più chiavi, caricando tutte le mancanti con
+     * un'unica chiamata al loader. L'ordine del risultato segue quello delle
+     * chiavi; le chiavi per cui il loader non restituisce un valore vengono omesse.
+     *
+     * @param keys      chiavi richieste
+     * @param loader    carica i valori mancanti (in qualsiasi ordine)
+     * @param keyOfValue estrae la chiave da un valore caricato
+     */
+    public List<V> getAll(List<K> keys, Function<List<K>, List<V>> loader, Function<V, K> keyOfValue) {
+        Map<K, V> found = new HashMap<>(keys.size() * 2);
+        List<K> missing = new ArrayList<>();
+        long generation;
+        synchronized (this) {
+            for (K key : keys) {
+                V cached = lookup(key);
+                if (cached != null) {
+                    hits.increment();
+                    found.put(key, cached);
+                } else {
+                    misses.increment();
+                    missing.add(key);
+                }
+            }
+            generation = invalidationCount;
+        }
+        if (!missing.isEmpty()) {
+            for (V loaded : loader.apply(missing)) {
+                K key = keyOfValue.apply(loaded);
+                found.put(key, loaded);
+                putIfNotInvalidated(key, loaded, generation);
+            }
+        }
+        List<V> result = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            V value = found.get(key);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+    }
+
+    /**
+     * Sostituisce il valore solo se in cache c'è ancora esattamente quello
+     * indicato (stesso riferimento), mantenendo la scadenza originale.
+     * Permette aggiornamenti read-modify-write senza lock esterni su valori immutabili.
+     *
+     * @return false se il valore è cambiato, scaduto o assente
+     */
+    public synchronized boolean replace(K key, V expected, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value() != expected || entry.expiresAt() <= clock.millis()) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, entry.expiresAt()));
+        return true;
+    }
+
+    /**
+     * Copia degli elementi non scaduti, senza modificare l'ordine LRU né le statistiche.
+     */
+    public synchronized Map<K, V> snapshot() {
+        long now = clock.millis();
+        Map<K, V> copy = new HashMap<>(entries.size() * 2);
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (entry.getValue().expiresAt() > now) {
+                copy.put(entry.getKey(), entry.getValue().value());
+            }
+        }
+        return copy;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidationCount++;
+        entries.remove(key);
+    }
+
+    /**
+     * Rimuove tutti gli elementi che soddisfano il predicato.
+     *
+     * @return numero di elementi rimossi
+     */
+    public synchronized int invalidateIf(BiPredicate<K, V> predicate) {
+        invalidationCount++;
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationCount++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.remove(key);
+            expirations.increment();
+            return null;
+        }
+        return entry.value();
+    }
+
+    private synchronized void putIfNotInvalidated(K key, V value, long generation) {
+        if (invalidationCount == generation) {
+            put(key, value);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,27 @@
+package itsprodigi.matteocasini.steam_clone_backend.utils;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Supporto per le risposte con validatori di cache (ETag e Last-Modified).
+ */
+public final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    /**
+     * Risposta 200 con ETag e, se nota, data di ultima modifica.
+     *
+     * @param etag         ETag forte, già tra virgolette
+     * @param lastModified data di ultima modifica in millisecondi, negativa se sconosciuta
+     * @return builder della risposta
+     */
+    public static ResponseEntity.BodyBuilder ok(String etag, long lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag);
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,30 @@
+package itsprodigi.matteocasini.steam_clone_backend.utils;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversione tra UUID e la rappresentazione BINARY(16) usata nello schema MySQL
+ * (stesso ordine di byte di UNHEX(REPLACE(uuid, '-', '')) e di Hibernate).
+ * Serve alle query JDBC dirette, che non passano dal mapping JPA.
+ */
+public final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        return buffer.array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
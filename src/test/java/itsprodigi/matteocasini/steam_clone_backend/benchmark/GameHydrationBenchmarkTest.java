@@ -0,0 +1,119 @@
+package itsprodigi.matteocasini.steam_clone_backend.benchmark;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.model.Game;
+import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameAssembler;
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del caricamento di giochi con molti tag: LEFT JOIN FETCH
+ * (una riga per coppia gioco-tag) contro caricamento a due fasi di GameAssembler.
+ * Richiede un database MySQL raggiungibile e si attiva solo con:
+ *
+ * <pre>
+ * mvn test -Dtest=GameHydrationBenchmarkTest -Dbenchmark=true
+ * </pre>
+ *
+ * I dati di prova vengono inseriti in una transazione annullata a fine test.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GameHydrationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GameHydrationBenchmarkTest.class);
+
+    private static final int GAMES = 1000;
+    private static final int TAGS = 40;
+    private static final int TAGS_PER_GAME = 25;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private GameAssembler gameAssembler;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void twoPhaseHydration_vsJoinFetch() {
+        seedCatalog();
+
+        Supplier<List<GameResponseDTO>> joinFetch = () -> gameRepository.findAllWithTags().stream()
+                .map(GameResponseDTO::new)
+                .toList();
+        Supplier<List<GameResponseDTO>> twoPhase = () -> gameAssembler.toResponseDtos(gameRepository.findAll());
+
+        double joinFetchMs = measure(joinFetch);
+        double twoPhaseMs = measure(twoPhase);
+
+        log.info("JOIN FETCH: {} ms/op, due fasi: {} ms/op ({} giochi x {} tag)",
+                String.format("%.2f", joinFetchMs), String.format("%.2f", twoPhaseMs), GAMES, TAGS_PER_GAME);
+
+        entityManager.clear();
+        List<GameResponseDTO> expected = joinFetch.get();
+        entityManager.clear();
+        List<GameResponseDTO> actual = twoPhase.get();
+        assertEquals(expected.size(), actual.size());
+        assertEquals(
+                expected.stream().mapToInt(game -> game.getTags().size()).sum(),
+                actual.stream().mapToInt(game -> game.getTags().size()).sum());
+    }
+
+    private double measure(Supplier<List<GameResponseDTO>> loader) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            entityManager.clear();
+            loader.get();
+        }
+        long total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            entityManager.clear();
+            long start = System.nanoTime();
+            loader.get();
+            total += System.nanoTime() - start;
+        }
+        return total / (ROUNDS * 1_000_000.0);
+    }
+
+    private void seedCatalog() {
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < TAGS; i++) {
+            tags.add(tagRepository.save(new Tag("bench-tag-" + i)));
+        }
+        for (int i = 0; i < GAMES; i++) {
+            Game game = new Game("Benchmark Game " + i, BigDecimal.TEN, LocalDate.of(2020, 1, 1),
+                    "Bench Dev " + (i % 50), "Bench Pub " + (i % 20));
+            for (int t = 0; t < TAGS_PER_GAME; t++) {
+                game.addTag(tags.get((i + t) % TAGS));
+            }
+            gameRepository.save(game);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
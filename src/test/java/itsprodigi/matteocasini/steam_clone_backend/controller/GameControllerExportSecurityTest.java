@@ -0,0 +1,99 @@
+package itsprodigi.matteocasini.steam_clone_backend.controller;
+
+import itsprodigi.matteocasini.steam_clone_backend.config.SecurityConfig;
+import itsprodigi.matteocasini.steam_clone_backend.service.CatalogExportService;
+import itsprodigi.matteocasini.steam_clone_backend.service.CatalogSearchService;
+import itsprodigi.matteocasini.steam_clone_backend.service.CatalogSnapshotService;
+import itsprodigi.matteocasini.steam_clone_backend.service.GameImportService;
+import itsprodigi.matteocasini.steam_clone_backend.service.GameService;
+import itsprodigi.matteocasini.steam_clone_backend.service.PlaytimeLeaderboardService;
+import itsprodigi.matteocasini.steam_clone_backend.service.RecommendationService;
+import itsprodigi.matteocasini.steam_clone_backend.service.security.CustomAuthExceptionHandler;
+import itsprodigi.matteocasini.steam_clone_backend.service.security.CustomUserDetailsService;
+import itsprodigi.matteocasini.steam_clone_backend.service.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * L'export in streaming viene scritto in un dispatch asincrono, in cui il
+ * filtro JWT non viene rieseguito: la catena di sicurezza reale deve lasciarlo passare.
+ */
+@WebMvcTest(GameController.class)
+@Import({ SecurityConfig.class, JwtUtil.class, CustomAuthExceptionHandler.class })
+class GameControllerExportSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private GameService gameService;
+
+    @MockitoBean
+    private CatalogExportService catalogExportService;
+
+    @MockitoBean
+    private CatalogSearchService catalogSearchService;
+
+    @MockitoBean
+    private GameImportService gameImportService;
+
+    @MockitoBean
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @MockitoBean
+    private PlaytimeLeaderboardService leaderboardService;
+
+    @MockitoBean
+    private RecommendationService recommendationService;
+
+    @Test
+    void exportCatalog_authenticatedRequest_streamsBodyInAsyncDispatch() throws Exception {
+        UserDetails user = User.withUsername("mario").password("secret").roles("USER").build();
+        when(userDetailsService.loadUserByUsername("mario")).thenReturn(user);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"title\":\"Portal\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(catalogExportService).exportCatalog(any());
+
+        MvcResult result = mockMvc.perform(get("/api/games/export")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"title\":\"Portal\"}\n"));
+    }
+
+    @Test
+    void exportCatalog_withoutToken_isRejected() throws Exception {
+        mockMvc.perform(get("/api/games/export"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,88 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.repository.CatalogExportRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class CatalogExportServiceImplTest {
+
+    @Mock
+    private CatalogExportRepository catalogExportRepository;
+
+    private CatalogExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new CatalogExportServiceImpl(catalogExportRepository, objectMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamGames(GameResponseDTO... games) {
+        doAnswer(invocation -> {
+            Consumer<GameResponseDTO> consumer = invocation.getArgument(0);
+            for (GameResponseDTO game : games) {
+                consumer.accept(game);
+            }
+            return null;
+        }).when(catalogExportRepository).streamCatalog(any(Consumer.class));
+    }
+
+    private GameResponseDTO game(String title, List<TagDTO> tags) {
+        return new GameResponseDTO(UUID.randomUUID(), title, new BigDecimal("9.99"),
+                LocalDate.of(2020, 1, 1), "Dev", "Pub", tags);
+    }
+
+    @Test
+    void exportCatalog_writesOneJsonObjectPerLine() throws IOException {
+        streamGames(game("Alpha", List.of(new TagDTO(1L, "Action"))), game("Beta", List.of()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.exportCatalog(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"title\":\"Alpha\""));
+        assertTrue(lines[0].contains("\"releaseDate\":\"2020-01-01\""));
+        assertTrue(lines[1].contains("\"title\":\"Beta\""));
+    }
+
+    @Test
+    void exportCatalog_propagatesClientDisconnect() {
+        streamGames(game("Alpha", List.of()));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> exportService.exportCatalog(broken));
+    }
+}
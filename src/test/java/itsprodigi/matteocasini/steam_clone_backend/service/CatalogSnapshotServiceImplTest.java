@@ -0,0 +1,146 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.SerializedDocument;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotServiceImplTest {
+
+    private CatalogSnapshotServiceImpl snapshotService;
+    private GameResponseDTO alpha;
+    private GameResponseDTO beta;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        snapshotService = new CatalogSnapshotServiceImpl(objectMapper, true, Duration.ZERO);
+        alpha = game("Alpha", List.of(new TagDTO(1L, "Action")));
+        beta = game("Beta", List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotService.shutdown();
+    }
+
+    @Test
+    void notReady_returnsEmpty() {
+        assertTrue(snapshotService.getGameList().isEmpty());
+        assertTrue(snapshotService.getGame(alpha.getId()).isEmpty());
+    }
+
+    @Test
+    void rebuild_publishesSerializedListAndGames() {
+        snapshotService.rebuild(List.of(beta, alpha));
+
+        SerializedDocument list = snapshotService.getGameList().orElseThrow();
+        String json = new String(list.getJson(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("["));
+        assertTrue(json.indexOf("Alpha") < json.indexOf("Beta"));
+        assertTrue(list.getEtag().startsWith("\"") && list.getEtag().endsWith("\""));
+        assertNotEquals(list.getEtag(), list.getGzipEtag());
+
+        String game = new String(snapshotService.getGame(alpha.getId()).orElseThrow().getJson(),
+                StandardCharsets.UTF_8);
+        assertTrue(game.contains("\"title\":\"Alpha\""));
+    }
+
+    @Test
+    void gzip_onlyAboveThreshold() throws IOException {
+        List<GameResponseDTO> many = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            many.add(game("Game " + i, List.of()));
+        }
+        snapshotService.rebuild(many);
+
+        SerializedDocument list = snapshotService.getGameList().orElseThrow();
+        assertTrue(list.hasGzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(list.getGzip()))) {
+            assertArrayEquals(list.getJson(), in.readAllBytes());
+        }
+        assertFalse(snapshotService.getGame(many.get(0).getId()).orElseThrow().hasGzip());
+    }
+
+    @Test
+    void changes_rebuildAsynchronously() throws InterruptedException {
+        snapshotService.rebuild(List.of(alpha, beta));
+        long version = snapshotService.getVersion();
+
+        snapshotService.onGameChanged(GameChangedEvent.deleted(beta));
+        snapshotService.onTagChanged(TagChangedEvent.renamed(1L, "Action", "Azione"));
+        String json = waitForList("Azione");
+
+        assertTrue(snapshotService.getVersion() > version);
+        assertTrue(snapshotService.getGame(beta.getId()).isEmpty());
+        assertFalse(json.contains("Beta"));
+        // Il DTO originale non deve essere modificato
+        assertEquals("Action", alpha.getTags().get(0).getName());
+    }
+
+    @Test
+    void changedGames_areNotServedUntilRebuilt() {
+        CatalogSnapshotServiceImpl slow = new CatalogSnapshotServiceImpl(new ObjectMapper()
+                .registerModule(new JavaTimeModule()), false, Duration.ofHours(1));
+        try {
+            slow.rebuild(List.of(alpha, beta));
+            GameResponseDTO renamed = new GameResponseDTO(alpha.getId(), "Alpha II", alpha.getPrice(),
+                    alpha.getReleaseDate(), alpha.getDeveloper(), alpha.getPublisher(), alpha.getTags());
+
+            slow.onGameChanged(GameChangedEvent.updated(alpha, renamed));
+            slow.onGameChanged(GameChangedEvent.deleted(beta));
+
+            // La ricostruzione è ancora in attesa: il chiamante deve leggere dal database
+            assertTrue(slow.getGame(alpha.getId()).isEmpty());
+            assertTrue(slow.getGame(beta.getId()).isEmpty());
+
+            slow.rebuild(List.of(renamed));
+            String json = new String(slow.getGame(alpha.getId()).orElseThrow().getJson(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("Alpha II"));
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    private String waitForList(String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        String json = "";
+        while (System.currentTimeMillis() < deadline) {
+            json = new String(snapshotService.getGameList().orElseThrow().getJson(), StandardCharsets.UTF_8);
+            if (json.contains(expected)) {
+                return json;
+            }
+            Thread.sleep(10);
+        }
+        fail("Snapshot non aggiornato: " + json);
+        return json;
+    }
+
+    private GameResponseDTO game(String title, List<TagDTO> tags) {
+        return new GameResponseDTO(UUID.randomUUID(), title, BigDecimal.TEN, LocalDate.of(2023, 1, 1),
+                "Dev", "Pub", tags);
+    }
+}
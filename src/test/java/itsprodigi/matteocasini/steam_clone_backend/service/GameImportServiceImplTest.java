@@ -0,0 +1,118 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameImportResultDTO;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameImportRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameImportRepository.GameTagLink;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameImportRepository.NewGame;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CatalogIndexCoordinator;
+import jakarta.validation.Validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class GameImportServiceImplTest {
+
+    @Mock
+    private GameImportRepository gameImportRepository;
+
+    @Mock
+    private CatalogIndexCoordinator indexCoordinator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GameImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        importService = new GameImportServiceImpl(gameImportRepository, indexCoordinator, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager);
+    }
+
+    private static String line(String title, String tags) {
+        return "{\"title\":\"" + title + "\",\"price\":9.99,\"releaseDate\":\"2020-01-01\","
+                + "\"developer\":\"Dev\",\"publisher\":\"Pub\",\"tagNames\":[" + tags + "]}\n";
+    }
+
+    private GameImportResultDTO run(String body) throws IOException {
+        return importService.importGames(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importGames_resolvesTagsInBulkAndReportsFailures() throws IOException {
+        when(gameImportRepository.findExistingTitles(anyCollection())).thenReturn(List.of("Existing"));
+        when(gameImportRepository.findTagIdsByNames(anyCollection()))
+                .thenReturn(new HashMap<>(Map.of("Action", 1L)))
+                .thenReturn(new HashMap<>(Map.of("Indie", 2L)));
+
+        String body = line("Alpha", "\"Action\",\"Indie\"")
+                + line("Beta", "\"Àction\"")
+                + line("alpha", "")
+                + line("Existing", "")
+                + "{\"title\":\"\",\"price\":1,\"releaseDate\":\"2020-01-01\",\"developer\":\"D\",\"publisher\":\"P\"}\n";
+
+        GameImportResultDTO result = run(body);
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2L, 3L, 4L),
+                result.getFailures().stream().map(f -> f.getIndex()).sorted().toList());
+
+        verify(gameImportRepository, times(1)).findExistingTitles(anyCollection());
+        verify(gameImportRepository).insertTagsIgnoringDuplicates(List.of("Indie"));
+        ArgumentCaptor<List<NewGame>> games = ArgumentCaptor.forClass(List.class);
+        verify(gameImportRepository, times(1)).insertGames(games.capture());
+        assertEquals(2, games.getValue().size());
+        ArgumentCaptor<List<GameTagLink>> links = ArgumentCaptor.forClass(List.class);
+        verify(gameImportRepository).insertGameTags(links.capture());
+        assertEquals(List.of(1L, 2L, 1L), links.getValue().stream().map(GameTagLink::tagId).toList());
+        verify(indexCoordinator).reload();
+    }
+
+    @Test
+    void importGames_acceptsJsonArrayAndStopsOnMalformedJson() throws IOException {
+        when(gameImportRepository.findExistingTitles(anyCollection())).thenReturn(List.of());
+        when(gameImportRepository.findTagIdsByNames(anyCollection())).thenReturn(new HashMap<>());
+
+        GameImportResultDTO array = run("[" + line("Alpha", "").trim() + "," + line("Beta", "").trim() + "]");
+        assertEquals(2, array.getImported());
+        assertTrue(array.getFailures().isEmpty());
+
+        GameImportResultDTO broken = run(line("Gamma", "") + "{\"title\": ");
+        assertEquals(1, broken.getImported());
+        assertEquals(1, broken.getFailures().size());
+        assertEquals(1, broken.getFailures().get(0).getIndex());
+    }
+
+    @Test
+    void importGames_nothingValid_doesNotTouchIndexes() throws IOException {
+        GameImportResultDTO result = run("{\"title\":\"NoPrice\"}\n");
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailures().size());
+        verify(gameImportRepository, never()).insertGames(any());
+        verify(indexCoordinator, never()).reload();
+    }
+}
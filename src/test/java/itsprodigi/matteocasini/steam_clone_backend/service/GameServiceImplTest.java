@@ -1,20 +1,37 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.GamePageResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameUpdateDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.GameSortField;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
 import itsprodigi.matteocasini.steam_clone_backend.model.Game;
+import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
 import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow;
 import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameAssembler;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameCache;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameSearchIndex;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameStatsStore;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameTitleSuggester;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagDictionary;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class GameServiceImplTest {
@@ -25,8 +42,17 @@ class GameServiceImplTest {
     @Mock
     private TagRepository tagRepository;
 
-    @InjectMocks
+    @Mock
+    private GameSearchIndex searchIndex;
+
+    @Mock
+    private GameTitleSuggester titleSuggester;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private GameServiceImpl gameService;
+    private GameCache gameCache;
 
     private Game game;
     private UUID gameId;
@@ -34,6 +60,10 @@ class GameServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        gameCache = new GameCache(100, Duration.ofMinutes(5));
+        gameService = new GameServiceImpl(gameRepository, tagRepository, new TagDictionary(tagRepository),
+                new GameAssembler(gameRepository),
+                gameCache, searchIndex, titleSuggester, mock(GameStatsStore.class), eventPublisher);
 
         gameId = UUID.randomUUID();
         game = new Game();
@@ -55,6 +85,45 @@ class GameServiceImplTest {
         assertEquals("Test Game", result.get().getTitle());
     }
 
+    @Test
+    void getGameById_servedFromCacheUntilGameChanges() {
+        when(gameRepository.findByIdWithTags(gameId)).thenReturn(Optional.of(game));
+
+        gameService.getGameById(gameId);
+        gameService.getGameById(gameId);
+        verify(gameRepository, times(1)).findByIdWithTags(gameId);
+        assertEquals(1, gameService.getCacheStats().getHits());
+
+        gameCache.onGameChanged(GameChangedEvent.deleted(new GameResponseDTO(game)));
+        gameService.getGameById(gameId);
+        verify(gameRepository, times(2)).findByIdWithTags(gameId);
+    }
+
+    @Test
+    void updateGame_tagsFromDictionary_onlyTouchOwningSide() {
+        Tag action = mock(Tag.class);
+        when(action.getId()).thenReturn(1L);
+        Tag named = new Tag("Action");
+        named.setId(1L);
+        when(tagRepository.findAll()).thenReturn(List.of(named));
+        when(tagRepository.getReferenceById(1L)).thenReturn(action);
+        TagDictionary dictionary = new TagDictionary(tagRepository);
+        dictionary.warmUp();
+        GameServiceImpl service = new GameServiceImpl(gameRepository, tagRepository, dictionary,
+                new GameAssembler(gameRepository),
+                gameCache, searchIndex, titleSuggester, mock(GameStatsStore.class), eventPublisher);
+        when(gameRepository.findByIdWithTags(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.saveAndFlush(game)).thenReturn(game);
+        GameUpdateDTO update = new GameUpdateDTO();
+        update.setTagNames(List.of("action"));
+
+        GameResponseDTO result = service.updateGame(gameId, update);
+
+        assertEquals(1L, result.getTags().get(0).getId());
+        assertTrue(game.getTags().contains(action));
+        verify(action, never()).getGames();
+    }
+
     @Test
     void getGameById_notFound_throwsException() {
         UUID id = UUID.randomUUID();
@@ -66,27 +135,31 @@ class GameServiceImplTest {
 
     @Test
     void getAllGames_returnsListOfGameResponseDTO() {
-        when(gameRepository.findAllWithTags()).thenReturn(List.of(game));
+        when(gameRepository.findAll()).thenReturn(List.of(game));
+        when(gameRepository.findTagRowsByGameIdIn(List.of(gameId)))
+                .thenReturn(List.of(new GameTagRow(gameId, 1L, "Action")));
 
         List<GameResponseDTO> games = gameService.getAllGames();
 
         assertEquals(1, games.size());
         assertEquals("Test Game", games.get(0).getTitle());
+        assertEquals("Action", games.get(0).getTags().get(0).getName());
     }
 
     @Test
     void deleteGame_existingGame_deletesSuccessfully() {
-        when(gameRepository.existsById(gameId)).thenReturn(true);
+        when(gameRepository.findByIdWithTags(gameId)).thenReturn(Optional.of(game));
         doNothing().when(gameRepository).deleteById(gameId);
 
         assertDoesNotThrow(() -> gameService.deleteGame(gameId));
         verify(gameRepository, times(1)).deleteById(gameId);
+        verify(eventPublisher).publishEvent(any(GameChangedEvent.class));
     }
 
     @Test
     void deleteGame_nonExistent_throwsException() {
         UUID id = UUID.randomUUID();
-        when(gameRepository.existsById(id)).thenReturn(false);
+        when(gameRepository.findByIdWithTags(id)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> gameService.deleteGame(id));
     }
@@ -101,6 +174,18 @@ class GameServiceImplTest {
         assertEquals("Test Game", result.get(0).getTitle());
     }
 
+    @Test
+    void findGamesByTitle_indexReady_usesIndexInsteadOfLikeQuery() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search(GameSearchIndex.Field.TITLE, "test")).thenReturn(List.of(gameId));
+        when(gameRepository.findAllById(List.of(gameId))).thenReturn(List.of(game));
+
+        List<GameResponseDTO> result = gameService.findGamesByTitle("test");
+
+        assertEquals(1, result.size());
+        verify(gameRepository, never()).findByTitleContainingIgnoreCase(any());
+    }
+
     @Test
     void findGamesByDeveloper_returnsListOfGames() {
         when(gameRepository.findByDeveloperIgnoreCase("Dev Studio")).thenReturn(List.of(game));
@@ -120,11 +205,46 @@ class GameServiceImplTest {
     }
 
     @Test
-    void findGamesByTagName_returnsListOfGames() {
-        when(gameRepository.findByTags_NameIgnoreCase("Action")).thenReturn(List.of(game));
+    void suggestTitles_indexNotReady_escapesWildcardsInPrefix() {
+        when(titleSuggester.isReady()).thenReturn(false);
 
-        List<GameResponseDTO> result = gameService.findGamesByTagName("Action");
+        gameService.suggestTitles(" 100%_!ok ", 5);
 
-        assertEquals(1, result.size());
+        verify(gameRepository).findSuggestionsByTitlePrefix(eq("100!%!_!!ok%"), any());
+    }
+
+    @Test
+    void getGamesPage_moreResults_returnsNextCursor() {
+        Game second = new Game("Zeta", BigDecimal.ONE, LocalDate.of(2022, 1, 1), "Dev", "Pub");
+        second.setId(UUID.randomUUID());
+        when(gameRepository.findPageIdsOrderByTitle(any())).thenReturn(List.of(gameId, second.getId()));
+        when(gameRepository.findAllById(List.of(gameId))).thenReturn(List.of(game));
+
+        GamePageResponseDTO page = gameService.getGamesPage(GameSortField.TITLE, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Test Game", page.getItems().get(0).getTitle());
+        assertNotNull(page.getNextCursor());
+
+        when(gameRepository.findPageIdsOrderByTitleAfter(eq("Test Game"), eq(gameId), any()))
+                .thenReturn(List.of(second.getId()));
+        when(gameRepository.findAllById(List.of(second.getId()))).thenReturn(List.of(second));
+
+        GamePageResponseDTO next = gameService.getGamesPage(GameSortField.TITLE, page.getNextCursor(), 1);
+
+        assertEquals("Zeta", next.getItems().get(0).getTitle());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getGamesPage_cursorFromOtherSort_throwsException() {
+        when(gameRepository.findPageIdsOrderByTitle(any())).thenReturn(List.of(gameId, UUID.randomUUID()));
+        when(gameRepository.findAllById(List.of(gameId))).thenReturn(List.of(game));
+        String cursor = gameService.getGamesPage(GameSortField.TITLE, null, 1).getNextCursor();
+
+        assertThrows(InvalidQueryParameterException.class,
+                () -> gameService.getGamesPage(GameSortField.RELEASE_DATE, cursor, 1));
+        assertThrows(InvalidQueryParameterException.class,
+                () -> gameService.getGamesPage(GameSortField.TITLE, "non-un-cursore", 1));
     }
 }
@@ -0,0 +1,93 @@
+package itsprodigi.matteocasini.steam_clone_backend.service;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameLeaderboardDTO;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.UsernameRow;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.PlaytimeLeaderboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PlaytimeLeaderboardServiceImplTest {
+
+    private final UUID game = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID ghost = UUID.randomUUID();
+
+    private PlaytimeLeaderboard leaderboard;
+    private UserRepository userRepository;
+    private GameRepository gameRepository;
+    private UserService userService;
+    private PlaytimeLeaderboardServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = mock(PlaytimeLeaderboard.class);
+        userRepository = mock(UserRepository.class);
+        gameRepository = mock(GameRepository.class);
+        userService = mock(UserService.class);
+        service = new PlaytimeLeaderboardServiceImpl(leaderboard, userRepository, gameRepository, userService);
+    }
+
+    @Test
+    void getTopPlayers_addsUsernamesAndDropsDeletedUsers() {
+        when(leaderboard.hasPlayers(game)).thenReturn(true);
+        when(leaderboard.top(game, 10)).thenReturn(new PlaytimeLeaderboard.Window(2, List.of(
+                new PlaytimeLeaderboard.Entry(1, ghost, 900), new PlaytimeLeaderboard.Entry(2, alice, 120))));
+        when(userRepository.findUsernamesByIds(List.of(ghost, alice)))
+                .thenReturn(List.of(new UsernameRow(alice, "alice")));
+
+        GameLeaderboardDTO result = service.getTopPlayers(game, null);
+
+        assertEquals(1, result.getTotalPlayers());
+        assertEquals(1, result.getEntries().size());
+        assertEquals("alice", result.getEntries().get(0).getUsername());
+        assertEquals(2, result.getEntries().get(0).getPlaytimeHours());
+        verify(leaderboard).remove(game, ghost);
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void getTopPlayers_unknownGameIsNotFound() {
+        when(gameRepository.existsById(game)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getTopPlayers(game, 10));
+    }
+
+    @Test
+    void getPlayersAround_userWithoutGameIsNotFound() {
+        when(leaderboard.hasPlayers(game)).thenReturn(true);
+        when(leaderboard.around(game, alice, 5)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getPlayersAround(game, alice, null));
+    }
+
+    @Test
+    void getPlayersAround_otherUserIsForbidden() {
+        UUID bob = UUID.randomUUID();
+        when(userService.requireSelfOrAdmin(bob)).thenThrow(new AccessDeniedException("Non autorizzato."));
+
+        assertThrows(AccessDeniedException.class, () -> service.getPlayersAround(game, bob, null));
+        verifyNoInteractions(leaderboard);
+    }
+
+    @Test
+    void getPlayersAround_checksAccessBeforeReadingLeaderboard() {
+        when(leaderboard.hasPlayers(game)).thenReturn(true);
+        when(leaderboard.around(game, alice, 5)).thenReturn(Optional.of(new PlaytimeLeaderboard.Window(1,
+                List.of(new PlaytimeLeaderboard.Entry(1, alice, 60)))));
+        when(userRepository.findUsernamesByIds(List.of(alice))).thenReturn(List.of(new UsernameRow(alice, "alice")));
+
+        assertEquals("alice", service.getPlayersAround(game, alice, null).getEntries().get(0).getUsername());
+        verify(userService).requireSelfOrAdmin(alice);
+    }
+}
@@ -1,16 +1,36 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
 import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagSummaryDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagSortField;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
 import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidTagOperationException;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagMaintenanceRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.TagVersionRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.VersionStamp;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.CatalogIndexCoordinator;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagCooccurrenceIndex;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagDictionary;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.TagPopularityCounter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 class TagServiceImplTest {
@@ -18,6 +38,30 @@ class TagServiceImplTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private TagMaintenanceRepository tagMaintenanceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private TagPopularityCounter popularityCounter;
+
+    @Mock
+    private TagCooccurrenceIndex cooccurrenceIndex;
+
+    @Mock
+    private CatalogIndexCoordinator indexCoordinator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -26,6 +70,21 @@ class TagServiceImplTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    void getTagsVersion_distinguishesListsWithSameCountAndVersionSum() {
+        when(tagRepository.findVersionRows()).thenReturn(
+                List.of(new TagVersionRow(1L, 2L), new TagVersionRow(2L, 0L)),
+                List.of(new TagVersionRow(1L, 1L), new TagVersionRow(2L, 1L)),
+                List.of(new TagVersionRow(1L, 1L), new TagVersionRow(2L, 1L)));
+
+        VersionStamp first = tagService.getTagsVersion();
+        VersionStamp second = tagService.getTagsVersion();
+
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(second.etag(), tagService.getTagsVersion().etag());
+        assertEquals(-1, second.lastModifiedMillis());
+    }
+
     @Test
     void getAllTags_returnsTagDTOList() {
         Tag tag = new Tag();
@@ -39,4 +98,90 @@ class TagServiceImplTest {
         assertEquals(1, result.size());
         assertEquals("Action", result.get(0).getName());
     }
+
+    @Test
+    void getTagsPage_usesProjectionQueryForRequestedSort() {
+        PageRequest pageRequest = PageRequest.of(1, 2);
+        when(tagRepository.findSummariesOrderByGameCount(pageRequest)).thenReturn(
+                new PageImpl<>(List.of(new TagSummaryDTO(3L, "Indie", 4L)), pageRequest, 3));
+
+        TagPageResponseDTO result = tagService.getTagsPage(1, 2, TagSortField.GAME_COUNT);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(4, result.getItems().get(0).getGameCount());
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        verify(tagRepository, never()).findAll();
+        assertThrows(InvalidQueryParameterException.class, () -> tagService.getTagsPage(-1, 2, TagSortField.NAME));
+    }
+
+    @Test
+    void updateTag_rename_bumpsGameVersionsAndPublishesEvent() {
+        Tag tag = new Tag("Action");
+        tag.setId(1L);
+        when(tagRepository.findById(1L)).thenReturn(Optional.of(tag));
+        when(tagRepository.save(any(Tag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TagDTO result = tagService.updateTag(1L, new TagDTO(null, "Azione"));
+
+        assertEquals("Azione", result.getName());
+        verify(gameRepository).incrementVersionByTagId(1L);
+        verify(eventPublisher).publishEvent(any(TagChangedEvent.class));
+    }
+
+    @Test
+    void updateTag_sameName_doesNotTouchGames() {
+        Tag tag = new Tag("Action");
+        tag.setId(1L);
+        when(tagRepository.findById(1L)).thenReturn(Optional.of(tag));
+        when(tagRepository.save(any(Tag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        tagService.updateTag(1L, new TagDTO(null, "Action"));
+
+        verify(gameRepository, never()).incrementVersionByTagId(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteTag_detachesGamesInChunksWithoutLoadingThem() {
+        Tag tag = new Tag("Horror");
+        tag.setId(5L);
+        List<byte[]> firstChunk = List.of(new byte[16], new byte[16]);
+        when(tagRepository.findById(5L)).thenReturn(Optional.of(tag));
+        when(tagMaintenanceRepository.findGameIdsByTagId(5L, TagServiceImpl.CHUNK_SIZE))
+                .thenReturn(firstChunk, List.of());
+
+        tagService.deleteTag(5L);
+
+        verify(tagMaintenanceRepository).detachTag(5L, firstChunk);
+        verify(tagMaintenanceRepository).deleteTag(5L);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TagChangedEvent changed
+                && changed.getType() == TagChangedEvent.Type.DELETED && changed.getTagId() == 5L));
+    }
+
+    @Test
+    void mergeTags_movesGamesAndDeletesSource() {
+        Tag source = new Tag("Sci-fi");
+        source.setId(1L);
+        Tag target = new Tag("Science Fiction");
+        target.setId(2L);
+        when(tagRepository.findById(1L)).thenReturn(Optional.of(source));
+        when(tagRepository.findById(2L)).thenReturn(Optional.of(target));
+        when(tagMaintenanceRepository.findGameIdsByTagId(1L, TagServiceImpl.CHUNK_SIZE))
+                .thenReturn(List.of(new byte[16]), List.of(new byte[16]), List.of());
+
+        TagDTO result = tagService.mergeTags(1L, 2L);
+
+        assertEquals("Science Fiction", result.getName());
+        verify(tagMaintenanceRepository, times(2)).moveTag(eq(1L), eq(2L), anyList());
+        verify(tagMaintenanceRepository).deleteTag(1L);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TagChangedEvent changed
+                && changed.getType() == TagChangedEvent.Type.MERGED && changed.getTargetTagId() == 2L));
+    }
+
+    @Test
+    void mergeTags_sameTag_isRejected() {
+        assertThrows(InvalidTagOperationException.class, () -> tagService.mergeTags(1L, 1L));
+        verifyNoInteractions(tagMaintenanceRepository);
+    }
 }
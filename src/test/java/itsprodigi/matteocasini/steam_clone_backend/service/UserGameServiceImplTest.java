@@ -1,16 +1,38 @@
 package itsprodigi.matteocasini.steam_clone_backend.service;
 
+import itsprodigi.matteocasini.steam_clone_backend.dto.BundlePurchaseRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryPageResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundleItemStatus;
+import itsprodigi.matteocasini.steam_clone_backend.enums.BundlePurchaseMode;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserGameRequestDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.LibrarySortField;
 import itsprodigi.matteocasini.steam_clone_backend.enums.Role;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
 import itsprodigi.matteocasini.steam_clone_backend.model.*;
 import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameBatchRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.UserRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryRow;
+import itsprodigi.matteocasini.steam_clone_backend.service.catalog.GameAssembler;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.LibraryOwnershipCache;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.LibraryStatsCache;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GamePrice;
+import itsprodigi.matteocasini.steam_clone_backend.service.library.PlaytimeHeartbeatBuffer;
+import itsprodigi.matteocasini.steam_clone_backend.exception.GameAlreadyInLibraryException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.HeartbeatRejectedException;
+import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -26,6 +48,18 @@ class UserGameServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private GameRepository gameRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private GameAssembler gameAssembler;
+    @Mock
+    private PlaytimeHeartbeatBuffer heartbeatBuffer;
+    @Mock
+    private LibraryOwnershipCache ownershipCache;
+    @Mock
+    private UserGameBatchRepository userGameBatchRepository;
+    @Mock
+    private LibraryStatsCache libraryStats;
 
     @InjectMocks
     private UserGameServiceImpl userGameService;
@@ -55,6 +89,7 @@ void setUp() {
 
     // importante: mock del metodo chiamato nel service
     when(userService.getAuthenticatedUser()).thenReturn(user);
+    when(userService.requireSelfOrAdmin(userId)).thenReturn(user);
 
     game = new Game();
     game.setId(gameId);
@@ -74,13 +109,84 @@ void setUp() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
         when(userGameRepository.existsById(any())).thenReturn(false);
-        when(userGameRepository.save(any())).thenReturn(userGame);
+        when(userGameRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         var result = userGameService.addGameToUserLibrary(requestDTO);
 
         assertNotNull(result);
         assertEquals(userId, result.getUser().getId());
         assertEquals(gameId, result.getGame().getId());
+        verify(userRepository, never()).findById(any());
+        verify(userGameRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testAddGameToUserLibrary_alreadyOwnedFromCache() {
+        when(ownershipCache.owns(userId, gameId)).thenReturn(true);
+
+        assertThrows(GameAlreadyInLibraryException.class, () -> userGameService.addGameToUserLibrary(requestDTO));
+        verify(gameRepository, never()).findById(any());
+    }
+
+    @Test
+    void testAddGameToUserLibrary_concurrentDuplicateMapsToConflict() {
+        when(ownershipCache.owns(userId, gameId)).thenReturn(false);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(userGameRepository.saveAndFlush(any())).thenThrow(new DuplicateKeyException("PRIMARY"));
+
+        assertThrows(GameAlreadyInLibraryException.class, () -> userGameService.addGameToUserLibrary(requestDTO));
+        verifyNoInteractions(eventPublisher);
+        ArgumentCaptor<UserGame> inserted = ArgumentCaptor.forClass(UserGame.class);
+        verify(userGameRepository).saveAndFlush(inserted.capture());
+        assertTrue(inserted.getValue().isNew());
+    }
+
+    @Test
+    void testGetOwnedGames_keepsRequestOrder() {
+        UUID otherGame = UUID.randomUUID();
+        when(ownershipCache.ownedAmong(userId, List.of(otherGame, gameId))).thenReturn(Set.of(gameId));
+
+        var result = userGameService.getOwnedGames(userId, List.of(otherGame, gameId));
+
+        assertEquals(List.of(otherGame, gameId), List.copyOf(result.getOwned().keySet()));
+        assertFalse(result.getOwned().get(otherGame));
+        assertTrue(result.getOwned().get(gameId));
+    }
+
+    @Test
+    void testPurchaseBundle_bestEffortAddsOnlyAddableGames() {
+        UUID owned = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        List<UUID> bundle = List.of(gameId, owned, missing, gameId);
+        when(gameRepository.findPricesByIds(any()))
+                .thenReturn(List.of(new GamePrice(gameId, BigDecimal.TEN), new GamePrice(owned, BigDecimal.ONE)));
+        when(userGameRepository.findOwnedGameIds(eq(userId), any())).thenReturn(List.of(owned));
+
+        var result = userGameService.purchaseBundle(userId,
+                new BundlePurchaseRequestDTO(bundle, null, BundlePurchaseMode.BEST_EFFORT));
+
+        assertTrue(result.isCompleted());
+        assertEquals(1, result.getAddedCount());
+        assertEquals(List.of(BundleItemStatus.ADDED, BundleItemStatus.ALREADY_OWNED,
+                BundleItemStatus.GAME_NOT_FOUND, BundleItemStatus.DUPLICATE),
+                result.getItems().stream().map(item -> item.getStatus()).toList());
+        verify(userGameBatchRepository).insertAll(eq(userId), eq(List.of(gameId)), any());
+        verify(eventPublisher).publishEvent(any(LibraryChangedEvent.class));
+    }
+
+    @Test
+    void testPurchaseBundle_allOrNothingInsertsNothingOnFailure() {
+        UUID missing = UUID.randomUUID();
+        when(gameRepository.findPricesByIds(any())).thenReturn(List.of(new GamePrice(gameId, BigDecimal.TEN)));
+        when(userGameRepository.findOwnedGameIds(eq(userId), any())).thenReturn(List.of());
+
+        var result = userGameService.purchaseBundle(userId,
+                new BundlePurchaseRequestDTO(List.of(gameId, missing), null, BundlePurchaseMode.ALL_OR_NOTHING));
+
+        assertFalse(result.isCompleted());
+        assertEquals(BundleItemStatus.SKIPPED, result.getItems().get(0).getStatus());
+        assertEquals(BundleItemStatus.GAME_NOT_FOUND, result.getItems().get(1).getStatus());
+        verifyNoInteractions(userGameBatchRepository);
     }
 
     @Test
@@ -107,10 +213,61 @@ void setUp() {
     @Test
     void testRemoveGameFromUserLibrary() {
         UserGameId id = new UserGameId(userId, gameId);
-        when(userGameRepository.existsById(id)).thenReturn(true);
-        doNothing().when(userGameRepository).deleteById(id);
+        game.setPrice(BigDecimal.TEN);
+        when(userGameRepository.findById(id)).thenReturn(Optional.of(userGame));
 
         assertDoesNotThrow(() -> userGameService.removeGameFromUserLibrary(userId, gameId));
+        verify(userGameRepository).delete(userGame);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof LibraryChangedEvent changed
+                && changed.getType() == LibraryChangedEvent.Type.REMOVED
+                && changed.getPlaytimeMinutes() == 600 && BigDecimal.TEN.equals(changed.getPrice())));
+    }
+
+    @Test
+    void testGetUserLibraryPage_usesProjectionAndBatchedTags() {
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        LibraryRow row = new LibraryRow(gameId, "Portal", BigDecimal.TEN, LocalDate.of(2007, 10, 10), "Valve",
+                "Valve", 3L, null, LocalDate.of(2024, 1, 1), 12);
+        when(userGameRepository.findLibraryOrderByTitle(userId, pageRequest))
+                .thenReturn(new PageImpl<>(List.of(row), pageRequest, 1));
+        when(gameAssembler.loadTags(List.of(gameId))).thenReturn(Map.of(gameId, List.of(new TagDTO(1L, "Puzzle"))));
+
+        LibraryPageResponseDTO result = userGameService.getUserLibraryPage(userId, null, null, LibrarySortField.TITLE);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Portal", result.getItems().get(0).getGame().getTitle());
+        assertEquals("Puzzle", result.getItems().get(0).getGame().getTags().get(0).getName());
+        assertEquals(12, result.getItems().get(0).getPlaytimeHours());
+        verify(userGameRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void testRecordPlaytimeHeartbeat_buffersWithoutTouchingRepository() {
+        when(ownershipCache.owns(userId, gameId)).thenReturn(true);
+        when(heartbeatBuffer.record(userId, gameId, 1)).thenReturn(true);
+
+        userGameService.recordPlaytimeHeartbeat(userId, gameId, null);
+
+        verify(heartbeatBuffer).record(userId, gameId, 1);
+        verifyNoInteractions(userGameRepository);
+    }
+
+    @Test
+    void testRecordPlaytimeHeartbeat_rejectedWhenBufferFull() {
+        when(ownershipCache.owns(userId, gameId)).thenReturn(true);
+        when(heartbeatBuffer.record(userId, gameId, 1)).thenReturn(false);
+
+        assertThrows(HeartbeatRejectedException.class,
+                () -> userGameService.recordPlaytimeHeartbeat(userId, gameId, 1));
+    }
+
+    @Test
+    void testRecordPlaytimeHeartbeat_rejectsGameNotOwned() {
+        when(ownershipCache.owns(userId, gameId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> userGameService.recordPlaytimeHeartbeat(userId, gameId, 1));
+        verifyNoInteractions(heartbeatBuffer);
     }
 
     @Test
@@ -73,7 +73,7 @@ class UserProfileServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(userProfileRepository.findById(userId)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenReturn(user);
-        when(userProfileRepository.save(any(UserProfile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userProfileRepository.saveAndFlush(any(UserProfile.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         UserProfileResponseDTO result = userProfileService.createOrUpdateUserProfile(userId, dto);
 
@@ -3,9 +3,12 @@ package itsprodigi.matteocasini.steam_clone_backend.service;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserRegistrationDTO;
 import itsprodigi.matteocasini.steam_clone_backend.dto.UserResponseDTO;
 import itsprodigi.matteocasini.steam_clone_backend.enums.Role;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
 import itsprodigi.matteocasini.steam_clone_backend.exception.ResourceNotFoundException;
 import itsprodigi.matteocasini.steam_clone_backend.model.User;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
 import itsprodigi.matteocasini.steam_clone_backend.repository.UserRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.OwnedGameRow;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,10 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
@@ -35,6 +41,12 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserGameRepository userGameRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -162,6 +174,45 @@ class UserServiceImplTest {
         SecurityContextHolder.clearContext();
     }
 
+    @Test
+    void requireSelfOrAdmin_allowsSelfAndAdminOnly() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        user.setRole(Role.ROLE_USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", null)
+        );
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        assertSame(user, userService.requireSelfOrAdmin(user.getId()));
+        assertThrows(AccessDeniedException.class, () -> userService.requireSelfOrAdmin(UUID.randomUUID()));
+
+        user.setRole(Role.ROLE_ADMIN);
+        assertSame(user, userService.requireSelfOrAdmin(UUID.randomUUID()));
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deleteUser_publishesRemovalOfEveryLibraryEntry() {
+        UUID id = UUID.randomUUID();
+        UUID game = UUID.randomUUID();
+        User user = new User();
+        user.setId(id);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userGameRepository.findOwnedGameRowsByUserId(id))
+                .thenReturn(List.of(new OwnedGameRow(game, 2, 15, BigDecimal.TEN)));
+
+        userService.deleteUser(id);
+
+        verify(userRepository).delete(user);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof LibraryChangedEvent removed
+                && removed.getType() == LibraryChangedEvent.Type.REMOVED
+                && removed.getUserId().equals(id) && removed.getGameId().equals(game)
+                && removed.getPlaytimeMinutes() == 135));
+    }
+
     @Test
     void getAllUsers_returnsList() {
         User user1 = new User();
@@ -0,0 +1,76 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CatalogIndexCoordinatorTest {
+
+    private GameRepository gameRepository;
+    private GameAssembler gameAssembler;
+    private CatalogIndexer indexer;
+    private CatalogIndexCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository = mock(GameRepository.class);
+        gameAssembler = mock(GameAssembler.class);
+        indexer = mock(CatalogIndexer.class);
+        coordinator = new CatalogIndexCoordinator(gameRepository, gameAssembler, List.of(indexer),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void reload_replaysEventsReceivedDuringTheReadAfterRebuild() {
+        GameChangedEvent created = GameChangedEvent.created(game());
+        when(gameAssembler.toResponseDtos(any())).thenAnswer(invocation -> {
+            // Modifica confermata mentre la lettura del catalogo è in corso
+            coordinator.onGameChanged(created);
+            return List.of();
+        });
+
+        coordinator.reload();
+
+        InOrder order = inOrder(indexer);
+        order.verify(indexer).rebuild(anyCollection());
+        order.verify(indexer).onGameChanged(created);
+    }
+
+    @Test
+    void reload_failedRead_stillDeliversBufferedEvents() {
+        GameChangedEvent created = GameChangedEvent.created(game());
+        when(gameAssembler.toResponseDtos(any())).thenAnswer(invocation -> {
+            coordinator.onGameChanged(created);
+            throw new IllegalStateException("db down");
+        });
+
+        assertThrows(IllegalStateException.class, coordinator::reload);
+
+        verify(indexer, never()).rebuild(anyCollection());
+        verify(indexer).onGameChanged(created);
+
+        GameChangedEvent later = GameChangedEvent.created(game());
+        coordinator.onGameChanged(later);
+        verify(indexer).onGameChanged(later);
+    }
+
+    private static GameResponseDTO game() {
+        GameResponseDTO game = new GameResponseDTO();
+        game.setId(UUID.randomUUID());
+        game.setTitle("Game");
+        return game;
+    }
+}
@@ -0,0 +1,108 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.RecommendedGameDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.CoOwnershipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CoOwnershipRecommenderTest {
+
+    private final UUID portal = UUID.randomUUID();
+    private final UUID portal2 = UUID.randomUUID();
+    private final UUID halfLife = UUID.randomUUID();
+    private final UUID doom = UUID.randomUUID();
+    private final UUID[] users = { new UUID(0, 1), new UUID(0, 2), new UUID(0, 3), new UUID(0, 4) };
+
+    private CoOwnershipRepository repository;
+    private CoOwnershipRecommender recommender;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(CoOwnershipRepository.class);
+        // Portal e Portal 2 quasi sempre insieme, Half-Life con entrambi una volta, Doom da solo
+        List<UUID[]> rows = List.of(
+                new UUID[] { users[0], portal }, new UUID[] { users[0], portal2 }, new UUID[] { users[0], halfLife },
+                new UUID[] { users[1], portal }, new UUID[] { users[1], portal2 },
+                new UUID[] { users[2], portal }, new UUID[] { users[2], portal2 }, new UUID[] { users[2], halfLife },
+                new UUID[] { users[3], doom });
+        doAnswer(invocation -> {
+            BiConsumer<UUID, UUID> consumer = invocation.getArgument(0);
+            rows.forEach(row -> consumer.accept(row[0], row[1]));
+            return null;
+        }).when(repository).streamLibraries(any(BiConsumer.class));
+        recommender = new CoOwnershipRecommender(repository,
+                Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+        recommender.rebuild(List.of(game(portal, "Portal"), game(portal2, "Portal 2"),
+                game(halfLife, "Half-Life"), game(doom, "Doom")));
+    }
+
+    @Test
+    void alsoOwned_emptyUntilComputed() {
+        assertFalse(recommender.isReady());
+        assertTrue(recommender.alsoOwned(portal, 10).isEmpty());
+    }
+
+    @Test
+    void alsoOwned_ranksByCosineSimilarity() {
+        assertEquals(3, recommender.recompute());
+
+        List<RecommendedGameDTO> related = recommender.alsoOwned(portal, 10);
+
+        assertEquals(List.of(portal2, halfLife), ids(related));
+        assertEquals("Portal 2", related.get(0).getTitle());
+        assertEquals(3, related.get(0).getCoOwners());
+        assertEquals(1.0, related.get(0).getScore(), 1e-9);
+        assertEquals(2 / Math.sqrt(6), related.get(1).getScore(), 1e-9);
+        assertTrue(recommender.alsoOwned(doom, 10).isEmpty());
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), recommender.computedAt());
+    }
+
+    @Test
+    void recommendFor_excludesOwnedGames() {
+        recommender.recompute();
+
+        List<RecommendedGameDTO> recommended = recommender.recommendFor(List.of(portal), 10);
+
+        assertEquals(List.of(portal2, halfLife), ids(recommended));
+        assertEquals(List.of(halfLife), ids(recommender.recommendFor(List.of(portal, portal2), 10)));
+    }
+
+    @Test
+    void deletedGame_isNoLongerRecommended() {
+        recommender.recompute();
+        GameResponseDTO deleted = game(portal2, "Portal 2");
+
+        recommender.onGameChanged(GameChangedEvent.deleted(deleted));
+
+        assertEquals(List.of(halfLife), ids(recommender.alsoOwned(portal, 10)));
+        assertFalse(recommender.isKnown(portal2));
+    }
+
+    private static GameResponseDTO game(UUID id, String title) {
+        GameResponseDTO game = new GameResponseDTO();
+        game.setId(id);
+        game.setTitle(title);
+        return game;
+    }
+
+    private static List<UUID> ids(List<RecommendedGameDTO> games) {
+        List<UUID> ids = new ArrayList<>();
+        games.forEach(game -> ids.add(game.getId()));
+        return ids;
+    }
+}
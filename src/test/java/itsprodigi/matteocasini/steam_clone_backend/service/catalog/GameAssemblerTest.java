@@ -0,0 +1,49 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.model.Game;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GameAssemblerTest {
+
+    @Test
+    void toResponseDtos_duplicateIds_allReceiveTheirTags() {
+        GameRepository gameRepository = mock(GameRepository.class);
+        Game portal = game("Portal");
+        Game doom = game("Doom");
+        when(gameRepository.findTagRowsByGameIdIn(anyList())).thenReturn(List.of(
+                new GameTagRow(portal.getId(), 1L, "Puzzle"),
+                new GameTagRow(doom.getId(), 2L, "Action")));
+
+        List<GameResponseDTO> dtos = new GameAssembler(gameRepository).toResponseDtos(List.of(portal, doom, portal));
+
+        assertEquals(List.of("Portal", "Doom", "Portal"), dtos.stream().map(GameResponseDTO::getTitle).toList());
+        assertEquals(List.of("Puzzle"), tagNames(dtos.get(0)));
+        assertEquals(List.of("Action"), tagNames(dtos.get(1)));
+        assertEquals(List.of("Puzzle"), tagNames(dtos.get(2)));
+        assertNotSame(dtos.get(0).getTags(), dtos.get(2).getTags());
+        verify(gameRepository).findTagRowsByGameIdIn(argThat(ids -> ids.size() == 2));
+    }
+
+    private static List<String> tagNames(GameResponseDTO dto) {
+        return dto.getTags().stream().map(TagDTO::getName).toList();
+    }
+
+    private static Game game(String title) {
+        Game game = new Game();
+        game.setId(UUID.randomUUID());
+        game.setTitle(title);
+        return game;
+    }
+}
@@ -0,0 +1,55 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCacheTest {
+
+    @Test
+    void sizeBound_evictsLeastRecentlyUsed() {
+        GameCache cache = new GameCache(2, Duration.ofMinutes(5));
+        GameResponseDTO a = game(List.of());
+        GameResponseDTO b = game(List.of());
+        GameResponseDTO c = game(List.of());
+
+        cache.get(a.getId(), id -> Optional.of(a));
+        cache.get(b.getId(), id -> Optional.of(b));
+        cache.get(a.getId(), id -> Optional.empty());
+        cache.get(c.getId(), id -> Optional.of(c));
+
+        assertEquals(1, cache.stats().getEvictions());
+        assertTrue(cache.get(a.getId(), id -> Optional.empty()).isPresent());
+        assertTrue(cache.get(b.getId(), id -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void onTagChanged_invalidatesOnlyGamesWithThatTag() {
+        GameCache cache = new GameCache(10, Duration.ofMinutes(5));
+        GameResponseDTO tagged = game(List.of(new TagDTO(1L, "Azione")));
+        GameResponseDTO other = game(List.of(new TagDTO(2L, "Multiplayer")));
+        cache.getAll(List.of(tagged.getId(), other.getId()), ids -> List.of(tagged, other));
+
+        cache.onTagChanged(TagChangedEvent.renamed(1L, "Azione", "Action"));
+
+        assertEquals(1, cache.stats().getSize());
+        assertTrue(cache.get(other.getId(), id -> Optional.empty()).isPresent());
+        assertTrue(cache.get(tagged.getId(), id -> Optional.empty()).isEmpty());
+    }
+
+    private GameResponseDTO game(List<TagDTO> tags) {
+        return new GameResponseDTO(UUID.randomUUID(), "Gioco", BigDecimal.ONE, LocalDate.of(2023, 1, 1),
+                "Dev", "Pub", tags);
+    }
+}
@@ -0,0 +1,163 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.FacetCountDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagMatchMode;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFacetIndexTest {
+
+    private static final TagDTO ACTION = new TagDTO(1L, "Action");
+    private static final TagDTO RPG = new TagDTO(2L, "RPG");
+    private static final TagDTO INDIE = new TagDTO(3L, "Indie");
+
+    private GameFacetIndex index;
+    private GameResponseDTO alpha;
+    private GameResponseDTO beta;
+    private GameResponseDTO gamma;
+
+    @BeforeEach
+    void setUp() {
+        index = new GameFacetIndex();
+        alpha = game("Alpha", "9.99", LocalDate.of(2020, 5, 1), "Studio A", List.of(ACTION, RPG));
+        beta = game("Beta", "0.00", LocalDate.of(2022, 1, 1), "Studio B", List.of(INDIE));
+        gamma = game("Gamma", "59.99", LocalDate.of(2023, 3, 1), "studio a", List.of(ACTION));
+        index.rebuild(List.of(gamma, beta, alpha));
+    }
+
+    @Test
+    void search_combinesTagsAndRanges() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(alpha.getId(), gamma.getId()),
+                index.search(criteria(List.of("action"), TagMatchMode.ALL, null, null, null), 0, 10).ids());
+        assertEquals(List.of(alpha.getId()),
+                index.search(criteria(List.of("Action", "RPG"), TagMatchMode.ALL, null, null, null), 0, 10).ids());
+        assertEquals(List.of(alpha.getId(), beta.getId(), gamma.getId()),
+                index.search(criteria(List.of("RPG", "Indie", "Action"), TagMatchMode.ANY, null, null, null), 0, 10)
+                        .ids());
+        assertEquals(List.of(gamma.getId()),
+                index.search(criteria(null, TagMatchMode.ALL, "STUDIO A", 1000L, null), 0, 10).ids());
+        assertTrue(index.search(criteria(List.of("Unknown", "Action"), TagMatchMode.ALL, null, null, null), 0, 10)
+                .ids().isEmpty());
+
+        GameFacetIndex.Criteria released2022 = new GameFacetIndex.Criteria(null, TagMatchMode.ALL, null, null,
+                null, null, (int) LocalDate.of(2021, 1, 1).toEpochDay(), (int) LocalDate.of(2022, 12, 31).toEpochDay());
+        assertEquals(List.of(beta.getId()), index.search(released2022, 0, 10).ids());
+    }
+
+    @Test
+    void matchTags_evaluatesBooleanExpressions() {
+        assertEquals(List.of(alpha.getId(), gamma.getId()),
+                index.matchTags(TagExpression.of("ACTION"), 0, 10).ids());
+        assertEquals(List.of(gamma.getId()),
+                index.matchTags(TagExpression.parse("action AND NOT rpg"), 0, 10).ids());
+        assertEquals(List.of(alpha.getId(), beta.getId()),
+                index.matchTags(TagExpression.parse("rpg OR indie"), 0, 10).ids());
+        assertEquals(List.of(beta.getId()), index.matchTags(TagExpression.parse("NOT action"), 0, 10).ids());
+        assertEquals(List.of(alpha.getId(), beta.getId()),
+                index.matchTags(TagExpression.parse("(action AND rpg) OR (indie AND NOT unknown)"), 0, 10).ids());
+        assertTrue(index.matchTags(TagExpression.parse("action AND unknown"), 0, 10).ids().isEmpty());
+
+        GameFacetIndex.Result page = index.matchTags(TagExpression.parse("NOT rpg"), 1, 1);
+        assertEquals(List.of(gamma.getId()), page.ids());
+        assertEquals(2, page.total());
+    }
+
+    @Test
+    void merge_movesGamesToTargetTag() {
+        index.onTagChanged(TagChangedEvent.merged(2L, "RPG", 3L, "Indie"));
+
+        assertEquals(List.of(alpha.getId(), beta.getId()),
+                index.matchTags(TagExpression.of("indie"), 0, 10).ids());
+        assertTrue(index.matchTags(TagExpression.of("rpg"), 0, 10).ids().isEmpty());
+
+        index.onGameChanged(GameChangedEvent.deleted(alpha));
+        assertEquals(List.of(beta.getId()), index.matchTags(TagExpression.of("indie"), 0, 10).ids());
+    }
+
+    @Test
+    void search_returnsTotalPageAndFacets() {
+        GameFacetIndex.Result result = index.search(criteria(null, TagMatchMode.ALL, null, null, null), 1, 1);
+
+        assertEquals(3, result.total());
+        assertEquals(List.of(beta.getId()), result.ids());
+        assertEquals(2, count(result.tagFacets(), "Action"));
+        assertEquals(1, count(result.tagFacets(), "RPG"));
+        assertEquals(2, count(result.developerFacets(), "studio a"));
+        assertEquals(1, count(result.priceFacets(), "0"));
+        assertEquals(1, count(result.priceFacets(), "0-10"));
+        assertEquals(1, count(result.priceFacets(), "40-60"));
+    }
+
+    @Test
+    void search_offsetPastTotal_returnsEmptyPage() {
+        GameFacetIndex.Result result = index.search(criteria(null, TagMatchMode.ALL, null, null, null),
+                (long) Integer.MAX_VALUE * 100, 100);
+
+        assertTrue(result.ids().isEmpty());
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void changes_updateBitmaps() {
+        GameResponseDTO updated = game("Beta", "5.00", beta.getReleaseDate(), "Studio B", List.of(ACTION));
+        updated.setId(beta.getId());
+        index.onGameChanged(GameChangedEvent.updated(beta, updated));
+        index.onGameChanged(GameChangedEvent.deleted(gamma));
+        index.onTagChanged(TagChangedEvent.renamed(1L, "Action", "Azione"));
+
+        GameFacetIndex.Result result = index.search(criteria(List.of("azione"), TagMatchMode.ALL, null, null, null),
+                0, 10);
+        assertEquals(List.of(alpha.getId(), beta.getId()), result.ids());
+        assertEquals(2, count(result.tagFacets(), "Azione"));
+        assertTrue(index.search(criteria(List.of("Indie"), TagMatchMode.ALL, null, null, null), 0, 10).ids()
+                .isEmpty());
+    }
+
+    @Test
+    void changes_keepTitleOrder() {
+        GameResponseDTO renamed = game("aardvark", "9.99", alpha.getReleaseDate(), "Studio A", List.of(ACTION, RPG));
+        renamed.setId(alpha.getId());
+        index.onGameChanged(GameChangedEvent.deleted(gamma));
+        GameResponseDTO delta = game("delta", "1.00", LocalDate.of(2021, 1, 1), "Studio C", List.of(INDIE));
+        index.onGameChanged(GameChangedEvent.created(delta));
+        index.onGameChanged(GameChangedEvent.updated(alpha, renamed));
+
+        GameFacetIndex.Criteria all = criteria(null, TagMatchMode.ALL, null, null, null);
+        assertEquals(List.of(alpha.getId(), beta.getId(), delta.getId()), index.search(all, 0, 10).ids());
+        assertEquals(List.of(delta.getId()), index.search(all, 2, 10).ids());
+        assertEquals(List.of(beta.getId(), delta.getId()),
+                index.matchTags(TagExpression.of("indie"), 0, 10).ids());
+    }
+
+    private GameFacetIndex.Criteria criteria(List<String> tags, TagMatchMode mode, String developer,
+            Long minPriceCents, Long maxPriceCents) {
+        return new GameFacetIndex.Criteria(tags, mode, developer, null, minPriceCents, maxPriceCents, null, null);
+    }
+
+    private long count(List<FacetCountDTO> facets, String label) {
+        return facets.stream()
+                .filter(f -> label.equals(f.getLabel()) || label.equals(f.getKey()))
+                .mapToLong(FacetCountDTO::getCount)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private GameResponseDTO game(String title, String price, LocalDate releaseDate, String developer,
+            List<TagDTO> tags) {
+        return new GameResponseDTO(UUID.randomUUID(), title, new BigDecimal(price), releaseDate,
+                developer, "Pub", tags);
+    }
+}
@@ -0,0 +1,56 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSearchIndexTest {
+
+    private GameSearchIndex index;
+    private GameResponseDTO cyber;
+    private GameResponseDTO fantasy;
+
+    @BeforeEach
+    void setUp() {
+        index = new GameSearchIndex();
+        cyber = game("CyberRumble", "CyberDev", "MegaPub");
+        fantasy = game("Fantasy War", "WarDev", "FantasyCorp");
+        index.rebuild(List.of(cyber, fantasy));
+    }
+
+    @Test
+    void search_substringCaseAndAccentInsensitive() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(cyber.getId()), index.search(GameSearchIndex.Field.TITLE, "RUMBLÈ"));
+        assertEquals(List.of(fantasy.getId()), index.search(GameSearchIndex.Field.DEVELOPER, "wardev"));
+        assertEquals(List.of(cyber.getId(), fantasy.getId()), index.search(GameSearchIndex.Field.TITLE, "r"));
+        assertTrue(index.search(GameSearchIndex.Field.PUBLISHER, "nessuno").isEmpty());
+    }
+
+    @Test
+    void onGameChanged_updatesAndRemovesEntries() {
+        GameResponseDTO renamed = game("Space War", "WarDev", "FantasyCorp");
+        renamed.setId(fantasy.getId());
+
+        index.onGameChanged(GameChangedEvent.updated(fantasy, renamed));
+        assertTrue(index.search(GameSearchIndex.Field.TITLE, "fantasy").isEmpty());
+        assertEquals(List.of(fantasy.getId()), index.search(GameSearchIndex.Field.TITLE, "space"));
+
+        index.onGameChanged(GameChangedEvent.deleted(renamed));
+        assertTrue(index.search(GameSearchIndex.Field.TITLE, "war").isEmpty());
+    }
+
+    private GameResponseDTO game(String title, String developer, String publisher) {
+        return new GameResponseDTO(UUID.randomUUID(), title, BigDecimal.TEN, LocalDate.of(2023, 1, 1),
+                developer, publisher, List.of());
+    }
+}
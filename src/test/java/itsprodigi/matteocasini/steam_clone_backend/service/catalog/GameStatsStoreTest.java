@@ -0,0 +1,150 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameStatsRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameStatsRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GameStatsStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    private final UUID game = UUID.randomUUID();
+    private final UUID user = UUID.randomUUID();
+
+    private GameStatsRepository repository;
+    private GameStatsStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(GameStatsRepository.class);
+        store = new GameStatsStore(repository, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void libraryEvents_updateCountersAndMarkDirty() {
+        store.onLibraryChanged(LibraryChangedEvent.added(user, game, 120, BigDecimal.TEN));
+        store.onLibraryChanged(LibraryChangedEvent.added(UUID.randomUUID(), game, 0, BigDecimal.TEN));
+        store.onPlaytimeFlushed(new PlaytimeFlushedEvent(List.of(new PlaytimeDelta(user, game, 15))));
+        store.onLibraryChanged(LibraryChangedEvent.removed(user, game, 135, BigDecimal.TEN));
+
+        GameStatsDTO stats = store.get(game);
+        assertEquals(1, stats.getOwnerCount());
+        assertEquals(0, stats.getTotalPlaytimeMinutes());
+        assertEquals(2, stats.getPurchasesLast7Days());
+
+        assertEquals(1, store.flush());
+        assertEquals(0, store.flush());
+        verify(repository, times(1)).upsert(anyCollection());
+    }
+
+    @Test
+    void refresh_replacesValuesAndWalksAllChunks() {
+        UUID other = UUID.randomUUID();
+        when(repository.findGameIdsAfter(null, 500)).thenReturn(List.of(game, other));
+        when(repository.findGameIdsAfter(other, 500)).thenReturn(List.of());
+        when(repository.aggregate(eq(List.of(game, other)), eq(LocalDate.of(2025, 3, 1)), eq(NOW)))
+                .thenReturn(Map.of(game, new GameStatsRow(game, 3, 600, 180, 1, 2, NOW)));
+        store.onLibraryChanged(LibraryChangedEvent.playtimeChanged(user, game, 99999));
+
+        assertEquals(2, store.refresh());
+
+        GameStatsDTO stats = store.get(game);
+        assertEquals(3, stats.getOwnerCount());
+        assertEquals(600, stats.getTotalPlaytimeMinutes());
+        assertEquals(180, stats.getMedianPlaytimeMinutes());
+        assertEquals(NOW, store.get(other).getRefreshedAt());
+        verify(repository).upsert(argThat(rows -> rows.size() == 2));
+    }
+
+    @Test
+    void refresh_skipsGamesDeletedDuringTheQueryAndIsolatesRejectedRows() {
+        UUID removed = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        when(repository.findGameIdsAfter(null, 500)).thenReturn(List.of(game, removed, rejected));
+        when(repository.findGameIdsAfter(rejected, 500)).thenReturn(List.of(next));
+        when(repository.findGameIdsAfter(next, 500)).thenReturn(List.of());
+        GameResponseDTO deleted = new GameResponseDTO();
+        deleted.setId(removed);
+        when(repository.aggregate(eq(List.of(game, removed, rejected)), any(), any())).thenAnswer(invocation -> {
+            store.onGameChanged(GameChangedEvent.deleted(deleted));
+            return Map.of();
+        });
+        when(repository.aggregate(eq(List.of(next)), any(), any())).thenReturn(Map.of());
+        doThrow(new DataIntegrityViolationException("fk")).when(repository)
+                .upsert(argThat(rows -> rows.stream().anyMatch(row -> row.gameId().equals(rejected))));
+
+        assertEquals(2, store.refresh());
+
+        assertNull(store.get(removed).getRefreshedAt());
+        verify(repository, never()).upsert(argThat(rows -> rows.stream().anyMatch(row -> row.gameId().equals(removed))));
+        verify(repository).upsert(argThat(rows -> rows.size() == 1 && rows.iterator().next().gameId().equals(game)));
+        verify(repository).upsert(argThat(rows -> rows.size() == 1 && rows.iterator().next().gameId().equals(next)));
+    }
+
+    @Test
+    void gameDeletion_dropsStats() {
+        store.onLibraryChanged(LibraryChangedEvent.added(user, game, 0, BigDecimal.ONE));
+        GameResponseDTO deleted = new GameResponseDTO();
+        deleted.setId(game);
+
+        store.onGameChanged(GameChangedEvent.deleted(deleted));
+
+        assertEquals(0, store.get(game).getOwnerCount());
+        assertEquals(0, store.flush());
+
+        // Flush dei heartbeat arrivato dopo l'eliminazione
+        store.onPlaytimeFlushed(new PlaytimeFlushedEvent(List.of(new PlaytimeDelta(user, game, 30))));
+        assertEquals(0, store.get(game).getTotalPlaytimeMinutes());
+        assertEquals(0, store.flush());
+        verify(repository, never()).upsert(anyCollection());
+    }
+
+    @Test
+    void flush_dropsRejectedRowsAndWritesTheOthers() {
+        UUID removed = UUID.randomUUID();
+        store.onLibraryChanged(LibraryChangedEvent.added(user, game, 0, BigDecimal.ONE));
+        store.onLibraryChanged(LibraryChangedEvent.added(user, removed, 0, BigDecimal.ONE));
+        doThrow(new DataIntegrityViolationException("fk")).when(repository)
+                .upsert(argThat(rows -> rows.stream().anyMatch(row -> row.gameId().equals(removed))));
+
+        assertEquals(1, store.flush());
+
+        verify(repository).upsert(argThat(rows -> rows.size() == 1 && rows.iterator().next().gameId().equals(game)));
+        assertEquals(0, store.get(removed).getOwnerCount());
+        assertEquals(0, store.flush());
+    }
+
+    @Test
+    void flush_requeuesRowsWhenDatabaseIsUnavailable() {
+        store.onLibraryChanged(LibraryChangedEvent.added(user, game, 0, BigDecimal.ONE));
+        doThrow(new QueryTimeoutException("timeout")).when(repository).upsert(anyCollection());
+
+        assertEquals(0, store.flush());
+
+        doNothing().when(repository).upsert(anyCollection());
+        assertEquals(1, store.flush());
+    }
+}
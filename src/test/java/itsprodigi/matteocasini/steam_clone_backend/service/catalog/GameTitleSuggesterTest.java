@@ -0,0 +1,99 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameSuggestionDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTitleSuggesterTest {
+
+    private GameTitleSuggester suggester;
+    private GameResponseDTO halfLife;
+    private GameResponseDTO lifeIsStrange;
+    private GameResponseDTO portal;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new GameTitleSuggester(Duration.ZERO);
+        halfLife = game("Half-Life 2");
+        lifeIsStrange = game("Life is Strange");
+        portal = game("Portal");
+        suggester.rebuild(List.of(halfLife, lifeIsStrange, portal));
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggester.shutdown();
+    }
+
+    @Test
+    void suggest_titleStartBeforeWordStart() {
+        assertTrue(suggester.isReady());
+        assertEquals(List.of("Life is Strange", "Half-Life 2"), titles(suggester.suggest("LIFE", 10)));
+        assertEquals(List.of("Life is Strange"), titles(suggester.suggest("life", 1)));
+        assertEquals(List.of("Portal"), titles(suggester.suggest("pórt", 10)));
+        assertTrue(suggester.suggest("xyz", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void onGameChanged_updatesSuggestions() throws InterruptedException {
+        GameResponseDTO renamed = game("Portal 2");
+        renamed.setId(portal.getId());
+
+        suggester.onGameChanged(GameChangedEvent.updated(portal, renamed));
+        assertEquals(List.of("Portal 2"), waitForSuggestions("port", List.of("Portal 2")));
+
+        suggester.onGameChanged(GameChangedEvent.deleted(halfLife));
+        assertEquals(List.of("Life is Strange"), waitForSuggestions("life", List.of("Life is Strange")));
+    }
+
+    @Test
+    void onGameChanged_coalescesChangesIntoOneDelayedRebuild() {
+        GameTitleSuggester slow = new GameTitleSuggester(Duration.ofHours(1));
+        try {
+            slow.rebuild(List.of(halfLife, portal));
+            GameResponseDTO renamed = game("Portal 2");
+            renamed.setId(portal.getId());
+
+            slow.onGameChanged(GameChangedEvent.updated(portal, renamed));
+            slow.onGameChanged(GameChangedEvent.created(lifeIsStrange));
+
+            // La ricostruzione è ancora in attesa: si serve lo snapshot precedente
+            assertEquals(List.of("Portal"), titles(slow.suggest("port", 10)));
+            assertEquals(List.of("Half-Life 2"), titles(slow.suggest("life", 10)));
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    private List<String> waitForSuggestions(String prefix, List<String> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String> current = titles(suggester.suggest(prefix, 10));
+        while (!current.equals(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            current = titles(suggester.suggest(prefix, 10));
+        }
+        return current;
+    }
+
+    private List<String> titles(List<GameSuggestionDTO> suggestions) {
+        return suggestions.stream().map(GameSuggestionDTO::getTitle).toList();
+    }
+
+    private GameResponseDTO game(String title) {
+        return new GameResponseDTO(UUID.randomUUID(), title, BigDecimal.TEN, LocalDate.of(2023, 1, 1),
+                "Dev", "Pub", List.of());
+    }
+}
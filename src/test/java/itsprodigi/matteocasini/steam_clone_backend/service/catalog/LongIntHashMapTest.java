@@ -0,0 +1,50 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void addTo_matchesHashMapUnderRandomUpdates() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(300) - 150L;
+            int delta = random.nextBoolean() ? 1 : -1;
+            int value = map.addTo(key, delta);
+            Integer updated = expected.merge(key, delta, Integer::sum);
+            if (updated == 0) {
+                expected.remove(key);
+            }
+            assertEquals(updated, value);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+        assertEquals(0, map.get(1_000L));
+    }
+
+    @Test
+    void remove_keepsOtherKeysReachable() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 0; key < 100; key++) {
+            map.addTo(key * 16, (int) key + 1);
+        }
+        for (long key = 0; key < 100; key += 2) {
+            assertEquals(key + 1, map.remove(key * 16));
+        }
+        assertEquals(50, map.size());
+        for (long key = 1; key < 100; key += 2) {
+            assertEquals(key + 1, map.get(key * 16));
+        }
+    }
+}
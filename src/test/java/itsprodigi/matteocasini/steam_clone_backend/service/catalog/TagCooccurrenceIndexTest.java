@@ -0,0 +1,82 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.RelatedTagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagCooccurrenceIndexTest {
+
+    private static final TagDTO MULTIPLAYER = new TagDTO(1L, "Multiplayer");
+    private static final TagDTO SHOOTER = new TagDTO(2L, "Shooter");
+    private static final TagDTO COOP = new TagDTO(3L, "Co-op");
+
+    private TagCooccurrenceIndex index;
+    private GameResponseDTO alpha;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagCooccurrenceIndex();
+        alpha = game(MULTIPLAYER, SHOOTER);
+        index.rebuild(List.of(alpha, game(MULTIPLAYER, SHOOTER, COOP), game(MULTIPLAYER, COOP), game(COOP)));
+    }
+
+    @Test
+    void related_returnsTopKBySharedGames() {
+        List<RelatedTagDTO> related = index.related(1L, 10);
+
+        assertEquals(List.of(2L, 3L), related.stream().map(RelatedTagDTO::getId).toList());
+        assertEquals(2, related.get(0).getSharedGames());
+        assertEquals(2.0 / 3, related.get(0).getShare(), 1e-9);
+        assertEquals(List.of(2L), index.related(1L, 1).stream().map(RelatedTagDTO::getId).toList());
+        assertTrue(index.related(99L, 10).isEmpty());
+    }
+
+    @Test
+    void changes_updateOnlyAffectedPairs() {
+        GameResponseDTO updated = game(MULTIPLAYER, COOP);
+        updated.setId(alpha.getId());
+        index.onGameChanged(GameChangedEvent.updated(alpha, updated));
+
+        List<RelatedTagDTO> related = index.related(1L, 10);
+        assertEquals(List.of(3L, 2L), related.stream().map(RelatedTagDTO::getId).toList());
+        assertEquals(3, related.get(0).getSharedGames());
+        assertEquals(1, related.get(1).getSharedGames());
+
+        index.onTagChanged(TagChangedEvent.renamed(3L, "Co-op", "Cooperativo"));
+        assertEquals("Cooperativo", index.related(1L, 1).get(0).getName());
+
+        index.onTagChanged(TagChangedEvent.deleted(2L, "Shooter"));
+        assertFalse(index.contains(2L));
+        assertEquals(List.of(3L), index.related(1L, 10).stream().map(RelatedTagDTO::getId).toList());
+    }
+
+    @Test
+    void merge_movesPairsToTargetTag() {
+        index.onTagChanged(TagChangedEvent.merged(2L, "Shooter", 3L, "Co-op"));
+
+        assertFalse(index.contains(2L));
+        List<RelatedTagDTO> related = index.related(1L, 10);
+        assertEquals(List.of(3L), related.stream().map(RelatedTagDTO::getId).toList());
+        // Alpha riceve Co-op, il secondo gioco lo aveva già
+        assertEquals(3, related.get(0).getSharedGames());
+        assertEquals(3, index.related(3L, 10).get(0).getSharedGames());
+    }
+
+    private static GameResponseDTO game(TagDTO... tags) {
+        GameResponseDTO game = new GameResponseDTO();
+        game.setId(UUID.randomUUID());
+        game.setTitle("Game");
+        game.setTags(List.of(tags));
+        return game;
+    }
+}
@@ -0,0 +1,83 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TagDictionaryTest {
+
+    private TagRepository tagRepository;
+    private TagDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository = mock(TagRepository.class);
+        dictionary = new TagDictionary(tagRepository);
+        when(tagRepository.findAll()).thenReturn(List.of(tag(1L, "Action"), tag(2L, "RPG")));
+        when(tagRepository.getReferenceById(anyLong())).thenAnswer(invocation -> tag(invocation.getArgument(0), null));
+        dictionary.warmUp();
+    }
+
+    @Test
+    void find_hitNeedsNoQuery() {
+        Tag found = dictionary.find("  action ").orElseThrow();
+
+        assertEquals(1L, found.getId());
+        verify(tagRepository).getReferenceById(1L);
+        verify(tagRepository, never()).findByNameIgnoreCase(anyString());
+    }
+
+    @Test
+    void find_normalizesLikeTheOtherIndexes() {
+        assertEquals(1L, dictionary.find("ÀCTION").orElseThrow().getId());
+        assertEquals(2L, dictionary.find(" rpg\t").orElseThrow().getId());
+
+        verify(tagRepository, never()).findByNameIgnoreCase(anyString());
+    }
+
+    @Test
+    void find_missReadsThroughAndCachesOnlyExistingTags() {
+        when(tagRepository.findByNameIgnoreCase("Indie")).thenReturn(Optional.of(tag(3L, "Indie")));
+        when(tagRepository.findByNameIgnoreCase("Nope")).thenReturn(Optional.empty());
+
+        assertEquals(3L, dictionary.find("Indie").orElseThrow().getId());
+        assertEquals(3L, dictionary.find("INDIE").orElseThrow().getId());
+        assertTrue(dictionary.find("Nope").isEmpty());
+        assertTrue(dictionary.find("Nope").isEmpty());
+
+        verify(tagRepository, times(1)).findByNameIgnoreCase("Indie");
+        verify(tagRepository, times(2)).findByNameIgnoreCase("Nope");
+    }
+
+    @Test
+    void registerAndTagEvents_keepDictionaryCoherent() {
+        dictionary.registerAfterCommit(tag(4L, "Roguelike"));
+        assertEquals(4L, dictionary.find("roguelike").orElseThrow().getId());
+
+        dictionary.onTagChanged(TagChangedEvent.renamed(1L, "Action", "Azione"));
+        assertEquals(1L, dictionary.find("azione").orElseThrow().getId());
+        when(tagRepository.findByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        assertTrue(dictionary.find("action").isEmpty());
+
+        dictionary.onTagChanged(TagChangedEvent.deleted(2L, "RPG"));
+        assertTrue(dictionary.find("rpg").isEmpty());
+        assertEquals(2, dictionary.size());
+    }
+
+    private static Tag tag(Long id, String name) {
+        Tag tag = new Tag(name);
+        tag.setId(id);
+        return tag;
+    }
+}
@@ -0,0 +1,37 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.exception.InvalidQueryParameterException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagExpressionTest {
+
+    @Test
+    void parse_respectsPrecedenceAndGrouping() {
+        assertEquals("(\"action\" OR (\"rpg\" AND NOT \"horror\"))",
+                TagExpression.parse("action or rpg AND NOT horror").toString());
+        assertEquals("((\"action\" OR \"rpg\") AND NOT \"horror\")",
+                TagExpression.parse("(action | rpg) & !horror").toString());
+        assertEquals("\"indie\"", TagExpression.parse("not not indie").toString());
+    }
+
+    @Test
+    void parse_supportsMultiWordAndQuotedNames() {
+        assertEquals("(\"Open World\" AND \"Rock and Roll\")",
+                TagExpression.parse("Open World AND \"Rock and Roll\"").toString());
+        assertEquals("\"a AND b\"", TagExpression.of(" a AND b ").toString());
+    }
+
+    @Test
+    void parse_rejectsInvalidExpressions() {
+        assertThrows(InvalidQueryParameterException.class, () -> TagExpression.parse(" "));
+        assertThrows(InvalidQueryParameterException.class, () -> TagExpression.parse("action AND"));
+        assertThrows(InvalidQueryParameterException.class, () -> TagExpression.parse("(action OR rpg"));
+        assertThrows(InvalidQueryParameterException.class, () -> TagExpression.parse("action)"));
+        assertThrows(InvalidQueryParameterException.class, () -> TagExpression.parse("\"action"));
+        assertThrows(InvalidQueryParameterException.class,
+                () -> TagExpression.parse("t OR ".repeat(TagExpression.MAX_TERMS) + "t"));
+    }
+}
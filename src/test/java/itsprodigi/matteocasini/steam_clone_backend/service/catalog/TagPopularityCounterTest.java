@@ -0,0 +1,176 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.catalog;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.TagPopularityDTO;
+import itsprodigi.matteocasini.steam_clone_backend.enums.TagPopularitySort;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.TagChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.model.Tag;
+import itsprodigi.matteocasini.steam_clone_backend.repository.GameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.TagRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameOwnerCount;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.GameTagRow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TagPopularityCounterTest {
+
+    private static final TagDTO ACTION = new TagDTO(1L, "Action");
+    private static final TagDTO RPG = new TagDTO(2L, "RPG");
+
+    private GameRepository gameRepository;
+    private TagRepository tagRepository;
+    private UserGameRepository userGameRepository;
+    private TagPopularityCounter counter;
+    private GameResponseDTO alpha;
+    private GameResponseDTO beta;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository = mock(GameRepository.class);
+        tagRepository = mock(TagRepository.class);
+        userGameRepository = mock(UserGameRepository.class);
+        counter = new TagPopularityCounter(gameRepository, tagRepository, userGameRepository);
+
+        alpha = game("Alpha", ACTION, RPG);
+        beta = game("Beta", ACTION);
+        when(userGameRepository.countOwnersByGame()).thenReturn(List.of(new GameOwnerCount(alpha.getId(), 3L)));
+        counter.rebuild(List.of(alpha, beta));
+    }
+
+    @Test
+    void top_ordersByChosenCounter() {
+        List<TagPopularityDTO> byGames = counter.top(10, TagPopularitySort.GAMES);
+        assertEquals("Action", byGames.get(0).getName());
+        assertEquals(2, byGames.get(0).getGameCount());
+        assertEquals(3, byGames.get(0).getOwnerCount());
+        assertEquals(1, counter.top(1, TagPopularitySort.OWNERS).size());
+        assertEquals("Action", counter.top(1, TagPopularitySort.OWNERS).get(0).getName());
+        assertTrue(counter.top(0, TagPopularitySort.GAMES).isEmpty());
+    }
+
+    @Test
+    void removal_ofUncountedOwnership_neverGoesNegative() {
+        counter.onLibraryChanged(LibraryChangedEvent.removed(UUID.randomUUID(), beta.getId()));
+        assertEquals(3, find(1L).getOwnerCount());
+
+        counter.onLibraryChanged(LibraryChangedEvent.added(UUID.randomUUID(), beta.getId()));
+        assertEquals(4, find(1L).getOwnerCount());
+        counter.onLibraryChanged(LibraryChangedEvent.removed(UUID.randomUUID(), beta.getId()));
+        counter.onLibraryChanged(LibraryChangedEvent.removed(UUID.randomUUID(), beta.getId()));
+        assertEquals(3, find(1L).getOwnerCount());
+    }
+
+    @Test
+    void events_updateCountersIncrementally() {
+        counter.onLibraryChanged(LibraryChangedEvent.added(UUID.randomUUID(), beta.getId()));
+        GameResponseDTO alphaWithoutAction = game("Alpha", RPG);
+        alphaWithoutAction.setId(alpha.getId());
+        counter.onGameChanged(GameChangedEvent.updated(alpha, alphaWithoutAction));
+        counter.onTagChanged(TagChangedEvent.renamed(2L, "RPG", "Gioco di ruolo"));
+
+        TagPopularityDTO action = find(1L);
+        assertEquals(1, action.getGameCount());
+        assertEquals(1, action.getOwnerCount());
+        assertEquals("Gioco di ruolo", find(2L).getName());
+        assertEquals(3, find(2L).getOwnerCount());
+
+        counter.onGameChanged(GameChangedEvent.deleted(beta));
+        counter.onTagChanged(TagChangedEvent.deleted(2L, "Gioco di ruolo"));
+        assertEquals(0, find(1L).getGameCount());
+        assertEquals(1, counter.top(10, TagPopularitySort.GAMES).size());
+    }
+
+    @Test
+    void merge_movesCountsToTargetTag() {
+        counter.onTagChanged(TagChangedEvent.merged(2L, "RPG", 1L, "Action"));
+
+        List<TagPopularityDTO> top = counter.top(10, TagPopularitySort.GAMES);
+        assertEquals(1, top.size());
+        assertEquals(2, top.get(0).getGameCount());
+        assertEquals(3, top.get(0).getOwnerCount());
+    }
+
+    @Test
+    void reconcile_replacesDriftedCounters() {
+        Tag indie = new Tag("Indie");
+        indie.setId(3L);
+        Tag action = new Tag("Action");
+        action.setId(1L);
+        when(tagRepository.findAll()).thenReturn(List.of(action, indie));
+        when(gameRepository.findAllTagRows()).thenReturn(List.of(new GameTagRow(beta.getId(), 1L, "Action")));
+        when(userGameRepository.countOwnersByGame()).thenReturn(List.of(new GameOwnerCount(beta.getId(), 5L)));
+
+        counter.reconcile();
+
+        assertEquals(1, find(1L).getGameCount());
+        assertEquals(5, find(1L).getOwnerCount());
+        assertEquals(0, find(3L).getGameCount());
+        assertEquals(2, counter.top(10, TagPopularitySort.GAMES).size());
+    }
+
+    @Test
+    void reconcile_keepsIncrementalCountersWhenEveryAttemptRaces() {
+        Tag action = new Tag("Action");
+        action.setId(1L);
+        when(tagRepository.findAll()).thenAnswer(invocation -> {
+            counter.onLibraryChanged(LibraryChangedEvent.added(UUID.randomUUID(), beta.getId()));
+            return List.of(action);
+        });
+        when(gameRepository.findAllTagRows()).thenReturn(List.of());
+        when(userGameRepository.countOwnersByGame()).thenReturn(List.of());
+
+        counter.reconcile();
+
+        verify(tagRepository, times(3)).findAll();
+        assertEquals(2, find(1L).getGameCount());
+        assertEquals(6, find(1L).getOwnerCount());
+    }
+
+    @Test
+    void top_isEmptyUntilWarmedUpAndNeverQueriesTheDatabase() {
+        TagPopularityCounter cold = new TagPopularityCounter(gameRepository, tagRepository, userGameRepository);
+        when(tagRepository.findAll()).thenThrow(new IllegalStateException("db down"));
+
+        assertTrue(cold.top(10, TagPopularitySort.GAMES).isEmpty());
+        verify(tagRepository, never()).findAll();
+
+        cold.warmUpIfNeeded();
+        assertTrue(cold.top(10, TagPopularitySort.GAMES).isEmpty());
+
+        Tag action = new Tag("Action");
+        action.setId(1L);
+        doReturn(List.of(action)).when(tagRepository).findAll();
+        when(gameRepository.findAllTagRows()).thenReturn(List.of(new GameTagRow(beta.getId(), 1L, "Action")));
+        cold.warmUpIfNeeded();
+        assertEquals(1, cold.top(10, TagPopularitySort.GAMES).get(0).getGameCount());
+
+        cold.warmUpIfNeeded();
+        verify(tagRepository, times(2)).findAll();
+    }
+
+    private TagPopularityDTO find(Long tagId) {
+        return counter.top(10, TagPopularitySort.GAMES).stream()
+                .filter(tag -> tag.getId().equals(tagId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static GameResponseDTO game(String title, TagDTO... tags) {
+        GameResponseDTO game = new GameResponseDTO();
+        game.setId(UUID.randomUUID());
+        game.setTitle(title);
+        game.setTags(List.of(tags));
+        return game;
+    }
+}
@@ -0,0 +1,190 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryEventDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryEventBroadcasterTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID portal = UUID.randomUUID();
+    private final UUID doom = UUID.randomUUID();
+
+    private LibraryEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+        // Executor sincrono: gli invii avvengono nel thread del test
+        broadcaster = new LibraryEventBroadcaster(Runnable::run, 3, Duration.ofMinutes(5), Duration.ofMinutes(30),
+                clock);
+        broadcaster.start();
+    }
+
+    @Test
+    void libraryEvents_areSentToSubscribersOfThatUser() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        broadcaster.register(user, null, emitter);
+        broadcaster.register(UUID.randomUUID(), null, other);
+
+        broadcaster.onLibraryChanged(LibraryChangedEvent.added(user, portal));
+        broadcaster.onPlaytimeFlushed(new PlaytimeFlushedEvent(List.of(new PlaytimeDelta(user, portal, 5))));
+
+        assertEquals(List.of(LibraryChangedEvent.Type.ADDED, LibraryChangedEvent.Type.PLAYTIME_CHANGED),
+                emitter.types());
+        assertEquals(5, emitter.events.get(1).getPlaytimeMinutes());
+        assertTrue(other.frames.isEmpty());
+        assertEquals(2, broadcaster.connectedClients());
+    }
+
+    @Test
+    void reconnectWithLastEventId_replaysMissedEvents() {
+        RecordingEmitter first = new RecordingEmitter();
+        broadcaster.register(user, null, first);
+        broadcaster.onLibraryChanged(LibraryChangedEvent.added(user, portal));
+        first.disconnect();
+
+        broadcaster.onLibraryChanged(LibraryChangedEvent.added(user, doom));
+        broadcaster.onLibraryChanged(LibraryChangedEvent.removed(user, portal));
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.register(user, first.lastId(), resumed);
+
+        assertEquals(List.of(LibraryChangedEvent.Type.ADDED, LibraryChangedEvent.Type.REMOVED), resumed.types());
+        assertEquals(doom, resumed.events.get(0).getGameId());
+        assertFalse(resumed.frames.contains(LibraryEventBroadcaster.RESET_EVENT_NAME));
+    }
+
+    @Test
+    void reconnectAfterBufferOverflow_sendsReset() {
+        RecordingEmitter first = new RecordingEmitter();
+        broadcaster.register(user, null, first);
+        broadcaster.onLibraryChanged(LibraryChangedEvent.added(user, portal));
+        first.disconnect();
+        for (int i = 0; i < 5; i++) {
+            broadcaster.onLibraryChanged(LibraryChangedEvent.playtimeChanged(user, portal, 1));
+        }
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.register(user, first.lastId(), resumed);
+
+        assertTrue(resumed.hasReset());
+        assertEquals(3, resumed.events.size());
+    }
+
+    @Test
+    void unknownLastEventId_sendsResetOnly() {
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.register(user, "old-epoch-42", emitter);
+
+        assertTrue(emitter.hasReset());
+        assertTrue(emitter.events.isEmpty());
+    }
+
+    @Test
+    void keepAlive_goesThroughTheChannelQueue() {
+        List<Runnable> tasks = new ArrayList<>();
+        LibraryEventBroadcaster queued = new LibraryEventBroadcaster(tasks::add, 3, Duration.ofMinutes(5),
+                Duration.ofMinutes(30), Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+        queued.start();
+        RecordingEmitter emitter = new RecordingEmitter();
+        queued.register(user, null, emitter);
+        queued.onLibraryChanged(LibraryChangedEvent.added(user, portal));
+        queued.keepAlive();
+
+        // Un solo drain in coda per il canale: nessun invio concorrente sullo stesso emitter
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(List.of(LibraryChangedEvent.Type.ADDED), emitter.types());
+        assertEquals(0, emitter.keepAlives);
+
+        queued.keepAlive();
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(1, emitter.keepAlives);
+    }
+
+    @Test
+    void stop_completesConnectionsAndRejectsNewOnes() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(user, null, emitter);
+
+        broadcaster.stop();
+        broadcaster.register(user, null, new RecordingEmitter());
+
+        assertEquals(0, broadcaster.connectedClients());
+    }
+
+    /**
+     * Emitter che registra gli eventi invece di scriverli sulla risposta.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new ArrayList<>();
+        private final List<LibraryEventDTO> events = new ArrayList<>();
+        private String lastId;
+        private int keepAlives;
+        private Runnable onCompletion;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof LibraryEventDTO event) {
+                    events.add(event);
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    lastId = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    frames.add(line.substring(6));
+                } else if (line.startsWith(":")) {
+                    keepAlives++;
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.onCompletion = callback;
+            super.onCompletion(callback);
+        }
+
+        // Simula la chiusura della connessione da parte del client
+        void disconnect() {
+            onCompletion.run();
+        }
+
+        boolean hasReset() {
+            return frames.contains(LibraryEventBroadcaster.RESET_EVENT_NAME);
+        }
+
+        String lastId() {
+            return lastId;
+        }
+
+        List<LibraryChangedEvent.Type> types() {
+            return events.stream().map(LibraryEventDTO::getType).toList();
+        }
+    }
+}
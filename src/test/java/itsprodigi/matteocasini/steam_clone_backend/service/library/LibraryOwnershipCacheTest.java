@@ -0,0 +1,83 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.UserGameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LibraryOwnershipCacheTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID portal = UUID.randomUUID();
+    private final UUID doom = UUID.randomUUID();
+    private final UUID hades = UUID.randomUUID();
+
+    private UserGameRepository userGameRepository;
+    private LibraryOwnershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userGameRepository = mock(UserGameRepository.class);
+        cache = new LibraryOwnershipCache(userGameRepository, 100, Duration.ofMinutes(10));
+        when(userGameRepository.findGameIdsByUserId(user)).thenReturn(List.of(portal, doom));
+    }
+
+    @Test
+    void ownedAmong_loadsLibraryOnce() {
+        assertEquals(Set.of(portal), cache.ownedAmong(user, List.of(hades, portal)));
+        assertTrue(cache.owns(user, doom));
+        assertFalse(cache.owns(user, hades));
+
+        verify(userGameRepository, times(1)).findGameIdsByUserId(user);
+    }
+
+    @Test
+    void ownedGames_returnsWholeLibrary() {
+        cache.owns(user, portal);
+        cache.onLibraryChanged(LibraryChangedEvent.added(user, hades));
+
+        assertEquals(Set.of(portal, doom, hades), Set.copyOf(cache.ownedGames(user)));
+    }
+
+    @Test
+    void libraryEvents_updateCachedLibraryWithoutReloading() {
+        cache.owns(user, portal);
+
+        cache.onLibraryChanged(LibraryChangedEvent.added(user, hades));
+        cache.onLibraryChanged(LibraryChangedEvent.removed(user, portal));
+
+        assertEquals(Set.of(doom, hades), cache.ownedAmong(user, List.of(portal, doom, hades)));
+        verify(userGameRepository, times(1)).findGameIdsByUserId(user);
+    }
+
+    @Test
+    void libraryEvent_forUncachedUserIsLoadedFromDatabase() {
+        cache.onLibraryChanged(LibraryChangedEvent.added(user, hades));
+        when(userGameRepository.findGameIdsByUserId(user)).thenReturn(List.of(portal, doom, hades));
+
+        assertTrue(cache.owns(user, hades));
+    }
+
+    @Test
+    void gameDeletion_dropsLibrariesContainingIt() {
+        cache.owns(user, portal);
+        GameResponseDTO deleted = new GameResponseDTO();
+        deleted.setId(portal);
+
+        cache.onGameChanged(GameChangedEvent.deleted(deleted));
+        when(userGameRepository.findGameIdsByUserId(user)).thenReturn(List.of(doom));
+
+        assertFalse(cache.owns(user, portal));
+        verify(userGameRepository, times(2)).findGameIdsByUserId(user);
+    }
+}
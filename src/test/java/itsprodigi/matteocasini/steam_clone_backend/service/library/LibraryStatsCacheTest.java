@@ -0,0 +1,95 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.dto.LibraryStatsDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.LibraryStatsRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.LibraryStatsRow;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class LibraryStatsCacheTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID game = UUID.randomUUID();
+
+    private LibraryStatsRepository repository;
+    private LibraryStatsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LibraryStatsRepository.class);
+        cache = new LibraryStatsCache(repository, 100, Duration.ofMinutes(10));
+        when(repository.findStats(List.of(user)))
+                .thenReturn(List.of(new LibraryStatsRow(user, 2, 150, new BigDecimal("30.00"))));
+    }
+
+    @Test
+    void get_loadsOnceThenAppliesEventsAsCounters() {
+        assertEquals(2, cache.get(user).getTotalGames());
+
+        cache.onLibraryChanged(LibraryChangedEvent.added(user, game, 60, new BigDecimal("9.99")));
+        cache.onLibraryChanged(LibraryChangedEvent.playtimeChanged(user, game, 30));
+        cache.onPlaytimeFlushed(new PlaytimeFlushedEvent(List.of(new PlaytimeDelta(user, game, 5))));
+        LibraryStatsDTO stats = cache.get(user);
+
+        assertEquals(3, stats.getTotalGames());
+        assertEquals(245, stats.getTotalPlaytimeMinutes());
+        assertEquals(4, stats.getTotalPlaytimeHours());
+        assertEquals(0, new BigDecimal("39.99").compareTo(stats.getTotalValue()));
+        verify(repository, times(1)).findStats(anyList());
+    }
+
+    @Test
+    void removal_subtractsRow() {
+        cache.get(user);
+
+        cache.onLibraryChanged(LibraryChangedEvent.removed(user, game, 90, new BigDecimal("10.00")));
+
+        LibraryStatsDTO stats = cache.get(user);
+        assertEquals(1, stats.getTotalGames());
+        assertEquals(60, stats.getTotalPlaytimeMinutes());
+        assertEquals(0, new BigDecimal("20.00").compareTo(stats.getTotalValue()));
+    }
+
+    @Test
+    void eventWithoutPriceOrPriceChange_reloadsFromDatabase() {
+        cache.get(user);
+        cache.onLibraryChanged(LibraryChangedEvent.added(user, game));
+        cache.get(user);
+
+        GameResponseDTO before = new GameResponseDTO();
+        before.setId(game);
+        before.setPrice(BigDecimal.ONE);
+        GameResponseDTO after = new GameResponseDTO();
+        after.setId(game);
+        after.setPrice(BigDecimal.TEN);
+        cache.onGameChanged(GameChangedEvent.updated(before, after));
+        cache.get(user);
+
+        verify(repository, times(3)).findStats(List.of(user));
+    }
+
+    @Test
+    void reconcile_fixesDriftedEntries() {
+        cache.get(user);
+        cache.onPlaytimeFlushed(new PlaytimeFlushedEvent(List.of(new PlaytimeDelta(user, game, 1000))));
+
+        assertEquals(1, cache.reconcile());
+
+        assertEquals(150, cache.get(user).getTotalPlaytimeMinutes());
+        assertEquals(0, cache.reconcile());
+    }
+}
@@ -0,0 +1,100 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.PlaytimeRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PlaytimeFlusherTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID game = UUID.randomUUID();
+
+    @Test
+    void flush_requeuesDeltasWhenUpdateFails() {
+        PlaytimeHeartbeatBuffer buffer = new PlaytimeHeartbeatBuffer(100, 4, 5, Clock.systemUTC());
+        PlaytimeRepository repository = mock(PlaytimeRepository.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PlaytimeFlusher flusher = new PlaytimeFlusher(buffer, repository, eventPublisher, transactionManager);
+        buffer.record(user, game, 3);
+        when(repository.addPlaytime(anyList(), anyInt())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertEquals(0, flusher.flush());
+
+        // Nessun sotto-batch resta confermato: i minuti rimessi in coda non vengono contati due volte
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(List.of(new PlaytimeDelta(user, game, 3)), buffer.drain());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void stop_refusesNewHeartbeatsAndFlushesPending() {
+        PlaytimeHeartbeatBuffer buffer = new PlaytimeHeartbeatBuffer(100, 4, 5, Clock.systemUTC());
+        PlaytimeRepository repository = mock(PlaytimeRepository.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        PlaytimeFlusher flusher = new PlaytimeFlusher(buffer, repository, eventPublisher,
+                mock(PlatformTransactionManager.class));
+        flusher.start();
+        buffer.record(user, game, 2);
+        when(repository.addPlaytime(anyList(), anyInt())).thenReturn(new int[][] {{1}});
+
+        flusher.stop();
+
+        verify(repository).addPlaytime(eq(List.of(new PlaytimeDelta(user, game, 2))), anyInt());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PlaytimeFlushedEvent flushed
+                && flushed.getDeltas().equals(List.of(new PlaytimeDelta(user, game, 2)))));
+        assertFalse(buffer.record(user, game, 1));
+        assertFalse(flusher.isRunning());
+    }
+
+    @Test
+    void flush_publishesOnlyRowsThatWereUpdated() {
+        PlaytimeHeartbeatBuffer buffer = new PlaytimeHeartbeatBuffer(100, 4, 5, Clock.systemUTC());
+        PlaytimeRepository repository = mock(PlaytimeRepository.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        PlaytimeFlusher flusher = new PlaytimeFlusher(buffer, repository, eventPublisher,
+                mock(PlatformTransactionManager.class));
+        UUID removed = UUID.randomUUID();
+        buffer.record(user, game, 2);
+        buffer.record(user, removed, 3);
+        when(repository.addPlaytime(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<PlaytimeDelta> deltas = invocation.getArgument(0);
+            return new int[][] {deltas.stream().mapToInt(delta -> delta.gameId().equals(removed) ? 0 : 1).toArray()};
+        });
+
+        assertEquals(1, flusher.flush());
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PlaytimeFlushedEvent flushed
+                && flushed.getDeltas().equals(List.of(new PlaytimeDelta(user, game, 2)))));
+        assertTrue(buffer.drain().isEmpty());
+    }
+
+    @Test
+    void flush_publishesNothingWhenNoRowMatched() {
+        PlaytimeHeartbeatBuffer buffer = new PlaytimeHeartbeatBuffer(100, 4, 5, Clock.systemUTC());
+        PlaytimeRepository repository = mock(PlaytimeRepository.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        PlaytimeFlusher flusher = new PlaytimeFlusher(buffer, repository, eventPublisher,
+                mock(PlatformTransactionManager.class));
+        buffer.record(user, game, 2);
+        when(repository.addPlaytime(anyList(), anyInt())).thenReturn(new int[][] {{0}});
+
+        assertEquals(0, flusher.flush());
+
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,167 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaytimeHeartbeatBufferTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID game = UUID.randomUUID();
+    private final TickingClock clock = new TickingClock();
+
+    @Test
+    void record_coalescesHeartbeatsOfSamePair() {
+        PlaytimeHeartbeatBuffer buffer = buffer(100, 4);
+
+        buffer.record(user, game, 1);
+        clock.advanceMinutes(2);
+        buffer.record(user, game, 2);
+
+        List<PlaytimeDelta> deltas = buffer.drain();
+        assertEquals(List.of(new PlaytimeDelta(user, game, 3)), deltas);
+        assertEquals(0, buffer.pendingEntries());
+        assertTrue(buffer.drain().isEmpty());
+    }
+
+    @Test
+    void record_rejectsNewPairsWhenFullButKeepsAccumulatingExistingOnes() {
+        PlaytimeHeartbeatBuffer buffer = buffer(1, 4);
+
+        assertTrue(buffer.record(user, game, 1));
+        assertFalse(buffer.record(UUID.randomUUID(), game, 1));
+        clock.advanceMinutes(1);
+        assertTrue(buffer.record(user, game, 1));
+
+        buffer.stopAccepting();
+        assertFalse(buffer.record(user, game, 1));
+        assertEquals(2, buffer.drain().get(0).minutes());
+    }
+
+    @Test
+    void requeue_ignoresLimit() {
+        PlaytimeHeartbeatBuffer buffer = buffer(0, 4);
+
+        buffer.requeue(List.of(new PlaytimeDelta(user, game, 5)));
+
+        assertEquals(List.of(new PlaytimeDelta(user, game, 5)), buffer.drain());
+    }
+
+    @Test
+    void record_capsMinutesAtElapsedWallClockTime() {
+        PlaytimeHeartbeatBuffer buffer = buffer(100, 4);
+
+        assertTrue(buffer.record(user, game, 5));
+        assertTrue(buffer.record(user, game, 5));
+        clock.advanceMinutes(2);
+        assertTrue(buffer.record(user, game, 5));
+        assertEquals(7, buffer.drain().get(0).minutes());
+
+        // Anche dopo il drain l'orologio della coppia resta valido
+        assertTrue(buffer.record(user, game, 5));
+        assertTrue(buffer.drain().isEmpty());
+        assertEquals(0, buffer.pendingEntries());
+    }
+
+    @Test
+    void rejectedHeartbeat_doesNotConsumeWallClockTime() {
+        PlaytimeHeartbeatBuffer buffer = buffer(1, 4);
+        UUID other = UUID.randomUUID();
+
+        assertTrue(buffer.record(user, game, 1));
+        assertFalse(buffer.record(user, other, 3));
+        buffer.drain();
+
+        assertTrue(buffer.record(user, other, 3));
+        assertEquals(List.of(new PlaytimeDelta(user, other, 3)), buffer.drain());
+    }
+
+    @Test
+    void concurrentRecordAndDrain_loseNoMinutes() throws Exception {
+        PlaytimeHeartbeatBuffer buffer = buffer(1_000_000, 8);
+        clock.tickMinutesOnRead();
+        List<UUID> games = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            games.add(UUID.randomUUID());
+        }
+        int threads = 4;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    buffer.record(user, games.get(i % games.size()), 1);
+                }
+                done.countDown();
+            });
+        }
+
+        long total = 0;
+        while (done.getCount() > 0) {
+            total += buffer.drain().stream().mapToLong(PlaytimeDelta::minutes).sum();
+        }
+        total += buffer.drain().stream().mapToLong(PlaytimeDelta::minutes).sum();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * perThread, total);
+        assertEquals(0, buffer.pendingEntries());
+    }
+
+    private PlaytimeHeartbeatBuffer buffer(int maxPending, int stripes) {
+        return new PlaytimeHeartbeatBuffer(maxPending, stripes, 5, clock);
+    }
+
+    /**
+     * Orologio controllato dal test; in modalità "tick" ogni lettura avanza di
+     * un minuto, così ogni heartbeat da un minuto copre tempo nuovo.
+     */
+    private static final class TickingClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2025-01-01T00:00:00Z").toEpochMilli());
+        private volatile boolean ticking;
+
+        void advanceMinutes(long minutes) {
+            millis.addAndGet(minutes * 60_000L);
+        }
+
+        void tickMinutesOnRead() {
+            ticking = true;
+        }
+
+        @Override
+        public long millis() {
+            return ticking ? millis.addAndGet(60_000L) : millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import itsprodigi.matteocasini.steam_clone_backend.dto.GameResponseDTO;
+import itsprodigi.matteocasini.steam_clone_backend.event.GameChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.LibraryChangedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.event.PlaytimeFlushedEvent;
+import itsprodigi.matteocasini.steam_clone_backend.repository.PlaytimeLeaderboardRepository;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeDelta;
+import itsprodigi.matteocasini.steam_clone_backend.repository.projection.PlaytimeRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PlaytimeLeaderboardTest {
+
+    private final UUID portal = UUID.randomUUID();
+    private final UUID doom = UUID.randomUUID();
+    private final UUID alice = new UUID(0, 1);
+    private final UUID bob = new UUID(0, 2);
+    private final UUID carol = new UUID(0, 3);
+
+    private PlaytimeLeaderboardRepository repository;
+    private PlaytimeLeaderboard leaderboard;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(PlaytimeLeaderboardRepository.class);
+        doAnswer(invocation -> {
+            Consumer<PlaytimeRow> consumer = invocation.getArgument(0);
+            consumer.accept(new PlaytimeRow(portal, alice, 120));
+            consumer.accept(new PlaytimeRow(portal, bob, 600));
+            consumer.accept(new PlaytimeRow(portal, carol, 30));
+            consumer.accept(new PlaytimeRow(doom, alice, 45));
+            return null;
+        }).when(repository).streamPlaytimes(any(Consumer.class));
+        leaderboard = new PlaytimeLeaderboard(repository);
+        leaderboard.rebuild();
+    }
+
+    @Test
+    void rebuild_loadsOneRankingPerGame() {
+        PlaytimeLeaderboard.Window top = leaderboard.top(portal, 2);
+
+        assertEquals(3, top.totalPlayers());
+        assertEquals(List.of(bob, alice), top.entries().stream().map(PlaytimeLeaderboard.Entry::userId).toList());
+        assertEquals(1, leaderboard.top(doom, 10).totalPlayers());
+        assertFalse(leaderboard.hasPlayers(UUID.randomUUID()));
+    }
+
+    @Test
+    void around_returnsNeighboursOfUser() {
+        PlaytimeLeaderboard.Window window = leaderboard.around(portal, carol, 1).orElseThrow();
+
+        assertEquals(List.of(new PlaytimeLeaderboard.Entry(2, alice, 120), new PlaytimeLeaderboard.Entry(3, carol, 30)),
+                window.entries());
+        assertTrue(leaderboard.around(doom, bob, 1).isEmpty());
+    }
+
+    @Test
+    void events_updateRankings() {
+        leaderboard.onLibraryChanged(LibraryChangedEvent.added(bob, doom, 90, BigDecimal.TEN));
+        leaderboard.onLibraryChanged(LibraryChangedEvent.playtimeChanged(carol, portal, 600));
+        leaderboard.onPlaytimeFlushed(new PlaytimeFlushedEvent(List.of(new PlaytimeDelta(alice, doom, 60))));
+        leaderboard.onLibraryChanged(LibraryChangedEvent.removed(bob, portal));
+
+        assertEquals(List.of(new PlaytimeLeaderboard.Entry(1, carol, 630), new PlaytimeLeaderboard.Entry(2, alice, 120)),
+                leaderboard.top(portal, 10).entries());
+        assertEquals(List.of(new PlaytimeLeaderboard.Entry(1, alice, 105), new PlaytimeLeaderboard.Entry(2, bob, 90)),
+                leaderboard.top(doom, 10).entries());
+    }
+
+    @Test
+    void emptiedOrDeletedGame_dropsRanking() {
+        leaderboard.onLibraryChanged(LibraryChangedEvent.removed(alice, doom));
+        GameResponseDTO deleted = new GameResponseDTO();
+        deleted.setId(portal);
+        leaderboard.onGameChanged(GameChangedEvent.deleted(deleted));
+
+        assertFalse(leaderboard.hasPlayers(doom));
+        assertFalse(leaderboard.hasPlayers(portal));
+        assertEquals(0, leaderboard.top(portal, 10).totalPlayers());
+    }
+}
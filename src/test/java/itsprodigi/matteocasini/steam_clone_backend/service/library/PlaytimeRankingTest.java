@@ -0,0 +1,112 @@
+package itsprodigi.matteocasini.steam_clone_backend.service.library;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaytimeRankingTest {
+
+    private final UUID alice = new UUID(0, 1);
+    private final UUID bob = new UUID(0, 2);
+    private final UUID carol = new UUID(0, 3);
+    private final UUID dave = new UUID(0, 4);
+
+    @Test
+    void range_ordersByPlaytimeAndSharesRankOnTies() {
+        PlaytimeRanking ranking = new PlaytimeRanking(new SplittableRandom(1));
+        ranking.put(alice, 60);
+        ranking.put(bob, 300);
+        ranking.put(carol, 60);
+        ranking.put(dave, 10);
+
+        List<PlaytimeLeaderboard.Entry> entries = ranking.range(0, 10);
+
+        assertEquals(List.of(
+                new PlaytimeLeaderboard.Entry(1, bob, 300),
+                new PlaytimeLeaderboard.Entry(2, alice, 60),
+                new PlaytimeLeaderboard.Entry(2, carol, 60),
+                new PlaytimeLeaderboard.Entry(4, dave, 10)), entries);
+        assertEquals(List.of(new PlaytimeLeaderboard.Entry(2, carol, 60)), ranking.range(2, 1));
+    }
+
+    @Test
+    void addAndRemove_moveUserInRanking() {
+        PlaytimeRanking ranking = new PlaytimeRanking(new SplittableRandom(2));
+        ranking.put(alice, 60);
+        ranking.put(bob, 120);
+
+        assertTrue(ranking.add(alice, 90));
+        assertFalse(ranking.add(carol, 30));
+        assertEquals(0, ranking.indexOf(alice));
+        assertEquals(150L, ranking.minutesOf(alice));
+
+        assertTrue(ranking.remove(alice));
+        assertEquals(-1, ranking.indexOf(alice));
+        assertEquals(1, ranking.size());
+        assertEquals(0, ranking.indexOf(bob));
+    }
+
+    @Test
+    void add_neverGoesBelowZero() {
+        PlaytimeRanking ranking = new PlaytimeRanking(new SplittableRandom(3));
+        ranking.put(alice, 30);
+
+        ranking.add(alice, -120);
+
+        assertEquals(0L, ranking.minutesOf(alice));
+    }
+
+    @Test
+    void randomOperations_matchSortedList() {
+        Random random = new Random(42);
+        PlaytimeRanking ranking = new PlaytimeRanking(new SplittableRandom(42));
+        Map<UUID, Long> expected = new HashMap<>();
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            users.add(new UUID(0, i));
+        }
+
+        for (int step = 0; step < 5000; step++) {
+            UUID user = users.get(random.nextInt(users.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    long minutes = random.nextInt(50);
+                    ranking.put(user, minutes);
+                    expected.put(user, minutes);
+                }
+                case 1 -> {
+                    long delta = random.nextInt(20) - 5;
+                    if (ranking.add(user, delta)) {
+                        expected.put(user, Math.max(0, expected.get(user) + delta));
+                    }
+                }
+                default -> {
+                    assertEquals(expected.remove(user) != null, ranking.remove(user));
+                }
+            }
+        }
+
+        List<Map.Entry<UUID, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<UUID, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+        List<PlaytimeLeaderboard.Entry> entries = ranking.range(0, sorted.size());
+
+        assertEquals(sorted.size(), ranking.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            UUID user = sorted.get(i).getKey();
+            long minutes = sorted.get(i).getValue();
+            long greater = expected.values().stream().filter(m -> m > minutes).count();
+            assertEquals(new PlaytimeLeaderboard.Entry((int) greater + 1, user, minutes), entries.get(i));
+            assertEquals(i, ranking.indexOf(user));
+        }
+    }
+}